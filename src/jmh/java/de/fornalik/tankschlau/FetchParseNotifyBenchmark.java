@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fornalik.tankschlau;
+
+import de.fornalik.tankschlau.benchmark.LatencyDistribution;
+import de.fornalik.tankschlau.benchmark.UpstreamSimulator;
+import de.fornalik.tankschlau.geo.Address;
+import de.fornalik.tankschlau.geo.Geo;
+import de.fornalik.tankschlau.service.GeocodingService;
+import de.fornalik.tankschlau.service.PetrolStationsRepo;
+import de.fornalik.tankschlau.service.PetrolStationsService;
+import de.fornalik.tankschlau.service.TransactResult;
+import de.fornalik.tankschlau.station.PetrolStation;
+import de.fornalik.tankschlau.station.PetrolStations;
+import de.fornalik.tankschlau.station.PetrolType;
+import de.fornalik.tankschlau.webserviceapi.common.MessageService;
+import de.fornalik.tankschlau.webserviceapi.pushover.PushoverMessageContent;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures throughput and latency of the complete fetch, parse and notify path of the
+ * application context, against a local {@link UpstreamSimulator} instead of the real web
+ * services. Thus results are repeatable and don't depend on network or quotas.
+ * <br><br>
+ * Sample time mode reports latency percentiles. Note that the user home is redirected to a
+ * temporary directory, so neither the HTTP cache nor the snapshot file of the user are touched.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FetchParseNotifyBenchmark {
+  private static final PetrolType PETROL_TYPE = PetrolType.E5;
+
+  @Param({"17HappyStations", "synthetic-500"})
+  public String listDocument;
+
+  @Param({"fixed:0", "logNormal:50:0.6"})
+  public String latency;
+
+  @Param({"0.0", "0.05"})
+  public double errorRate;
+
+  // 0 disables throttling.
+  @Param({"0"})
+  public int maxRequestsPerSecond;
+
+  private UpstreamSimulator simulator;
+  private AnnotationConfigApplicationContext context;
+  private Path userHome;
+
+  private PetrolStationsService petrolStationsService;
+  private PetrolStationsRepo petrolStationsRepo;
+  private GeocodingService geocodingService;
+  private MessageService messageService;
+  private Geo geo;
+  private Address address;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    simulator = UpstreamSimulator.builder()
+        .withListDocument(listDocument)
+        .withLatency(LatencyDistribution.parse(latency))
+        .withErrorRate(errorRate)
+        .withMaxRequestsPerSecond(maxRequestsPerSecond)
+        .build()
+        .start();
+
+    userHome = Files.createTempDirectory("tankschlau-benchmark");
+    System.setProperty("user.home", userHome.toString());
+    System.setProperty("java.awt.headless", "true");
+    System.setProperty("httpUpstreamOverride", simulator.getBaseUrl());
+
+    // Measure the path to the upstream, not the HTTP cache or the quota of the real providers.
+    System.setProperty("httpCacheMaxSizeMb", "0");
+    System.setProperty("httpRateLimiting", "false");
+
+    context = new AnnotationConfigApplicationContext(TankSchlauContext.class);
+    petrolStationsService = context.getBean(PetrolStationsService.class);
+    petrolStationsRepo = context.getBean(PetrolStationsRepo.class);
+    geocodingService = context.getBean(GeocodingService.class);
+    messageService = context.getBean(MessageService.class);
+
+    geo = new Geo(52.4079755, 10.7725368, 5.0);
+    address = new Address("Marsch", "8", "Wolfsburg", "38448");
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    context.close();
+    simulator.close();
+    System.out.println("\n" + simulator);
+
+    try (Stream<Path> paths = Files.walk(userHome)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  /**
+   * Steady state of the cyclic worker: after the first complete search, only prices of the
+   * known stations are refreshed. Then the cheapest station is notified.
+   */
+  @Benchmark
+  public Optional<TransactResult<String>> refreshAndNotify() {
+    return notifyCheapest(petrolStationsService.getNeighbourhoodStations(geo));
+  }
+
+  /**
+   * Complete search of the neighbourhood each time, then the cheapest station is notified.
+   */
+  @Benchmark
+  public Optional<TransactResult<String>> completeSearchAndNotify() {
+    return notifyCheapest(petrolStationsRepo.findAllInNeighbourhood(geo));
+  }
+
+  @Benchmark
+  public TransactResult<Geo> geocode() {
+    return geocodingService.findGeo(address);
+  }
+
+  private Optional<TransactResult<String>> notifyCheapest(
+      TransactResult<List<PetrolStation>> result) {
+
+    List<PetrolStation> stations = result.getData().orElse(Collections.emptyList());
+
+    return PetrolStations.findCheapest(stations, PETROL_TYPE).map(cheapestStation -> {
+      PushoverMessageContent content = new PushoverMessageContent();
+      content.setMessage(cheapestStation, PETROL_TYPE);
+      return messageService.sendMessage(content);
+    });
+  }
+}
@@ -0,0 +1,361 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import de.fornalik.tankschlau.station.PetrolStation;
+import de.fornalik.tankschlau.station.PetrolStationJsonAdapter;
+import de.fornalik.tankschlau.station.Petrols;
+import de.fornalik.tankschlau.station.PetrolsJsonAdapter;
+import de.fornalik.tankschlau.testhelp_common.FixtureFiles;
+import de.fornalik.tankschlau.util.GsonJsonProvider;
+import de.fornalik.tankschlau.util.JacksonJsonProvider;
+import de.fornalik.tankschlau.util.JsonProvider;
+import de.fornalik.tankschlau.webserviceapi.common.JsonTypeAdapterFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Utility class for loading the JSON documents which are used by the benchmarks.
+ * Documents are either test-fixture files or synthetic webservice responses of arbitrary size.
+ */
+public class BenchmarkFixtures {
+
+  /**
+   * Prefix of a document name which denotes a synthetic tankerkoenig.de list.php response.
+   * The prefix is followed by the number of stations, ex. "synthetic-1000".
+   */
+  public static final String SYNTHETIC_PREFIX = "synthetic-";
+
+  private static final long SEED = 4711L;
+
+  private BenchmarkFixtures() {
+    throw new IllegalStateException("Utility class - not meant to be instantiated");
+  }
+
+  /**
+   * @param name Name of the JSON backend, "gson" or "jackson".
+   * @return A JSON provider configured like the one of the application context.
+   */
+  public static JsonProvider createJsonProvider(String name) {
+    Gson gson = new GsonBuilder()
+        .registerTypeAdapter(Petrols.class, new PetrolsJsonAdapter())
+        .registerTypeAdapterFactory(new JsonTypeAdapterFactory())
+        .create();
+
+    switch (name) {
+      case "gson":
+        return new GsonJsonProvider(gson);
+
+      case "jackson":
+        return new JacksonJsonProvider(gson);
+
+      default:
+        throw new IllegalArgumentException("Unknown JSON provider " + name);
+    }
+  }
+
+  /**
+   * Loads a tankerkoenig.de list.php response.
+   *
+   * @param name Either the file name of a fixture within
+   *             {@link FixtureFiles#TANKERKOENIG_NEIGHBOURHOOD_JSON_RESPONSE_DIR} (without
+   *             ".json"), or {@link #SYNTHETIC_PREFIX} followed by the number of stations.
+   * @return The JSON document.
+   */
+  public static String loadTankerkoenigListResponse(String name) {
+    if (name.startsWith(SYNTHETIC_PREFIX))
+      return createTankerkoenigListResponse(
+          Integer.parseInt(name.substring(SYNTHETIC_PREFIX.length())));
+
+    return readResource(FixtureFiles.TANKERKOENIG_NEIGHBOURHOOD_JSON_RESPONSE_DIR + name + ".json");
+  }
+
+  /**
+   * Loads the petrol stations of a tankerkoenig.de list.php response.
+   *
+   * @param name See {@link #loadTankerkoenigListResponse(String)}.
+   * @return The petrol stations, read by {@link PetrolStationJsonAdapter}.
+   */
+  public static List<PetrolStation> loadPetrolStations(String name) {
+    PetrolStationJsonAdapter adapter = new PetrolStationJsonAdapter();
+    List<PetrolStation> petrolStations = new ArrayList<>();
+
+    try (JsonReader in = new JsonReader(new StringReader(loadTankerkoenigListResponse(name)))) {
+      in.beginObject();
+
+      while (in.hasNext()) {
+        if (!"stations".equals(in.nextName())) {
+          in.skipValue();
+          continue;
+        }
+
+        in.beginArray();
+
+        while (in.hasNext())
+          petrolStations.add(adapter.read(in));
+
+        in.endArray();
+      }
+
+      in.endObject();
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    return petrolStations;
+  }
+
+  /**
+   * Loads a Google geocoding response.
+   *
+   * @param name Either the file name of a fixture within
+   *             {@link FixtureFiles#GOOGLE_GEO_RESPONSE_DIR} (without ".json"), or
+   *             {@link #SYNTHETIC_PREFIX} followed by the number of results.
+   * @return The JSON document.
+   */
+  public static String loadGoogleGeocodingResponse(String name) {
+    if (name.startsWith(SYNTHETIC_PREFIX))
+      return createGoogleGeocodingResponse(
+          Integer.parseInt(name.substring(SYNTHETIC_PREFIX.length())));
+
+    return readResource(FixtureFiles.GOOGLE_GEO_RESPONSE_DIR + name + ".json");
+  }
+
+  /**
+   * Loads a Pushover messages.json response.
+   *
+   * @param name File name of a fixture within {@link FixtureFiles#PUSHOVER_RESPONSE_DIR}
+   *             (without ".json"), ex. "Status_1".
+   * @return The JSON document.
+   */
+  public static String loadPushoverResponse(String name) {
+    return readResource(FixtureFiles.PUSHOVER_RESPONSE_DIR + name + ".json");
+  }
+
+  /**
+   * Creates a JSON array of price objects like they are embedded in each station object of a
+   * tankerkoenig.de list.php response, ex. {"diesel": 1.109, "e5": 1.339, "e10": false}.
+   *
+   * @param numberOfElements Number of price objects.
+   * @return The JSON document.
+   */
+  public static String createPetrolsArray(int numberOfElements) {
+    Random random = new Random(SEED);
+    StringWriter stringWriter = new StringWriter();
+
+    try (JsonWriter out = new JsonWriter(stringWriter)) {
+      out.beginArray();
+
+      for (int i = 0; i < numberOfElements; i++) {
+        out.beginObject();
+        writePrices(out, random);
+        out.endObject();
+      }
+
+      out.endArray();
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    return stringWriter.toString();
+  }
+
+  /**
+   * Creates a well-formed tankerkoenig.de list.php response with random, but reproducible data.
+   *
+   * @param numberOfStations Number of stations in the "stations" array.
+   * @return The JSON document.
+   */
+  public static String createTankerkoenigListResponse(int numberOfStations) {
+    Random random = new Random(SEED);
+    StringWriter stringWriter = new StringWriter();
+
+    try (JsonWriter out = new JsonWriter(stringWriter)) {
+      out.beginObject();
+      out.name("ok").value(true);
+      out.name("license").value("CC BY 4.0 -  https://creativecommons.tankerkoenig.de");
+      out.name("data").value("MTS-K");
+      out.name("status").value("ok");
+      out.name("stations").beginArray();
+
+      for (int i = 0; i < numberOfStations; i++)
+        writeStation(out, random, i);
+
+      out.endArray();
+      out.endObject();
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    return stringWriter.toString();
+  }
+
+  /**
+   * Creates a well-formed tankerkoenig.de prices.php response with random, but reproducible
+   * data. Every fourth station is closed and thus comes without prices.
+   *
+   * @param stationIds IDs of the stations in the "prices" object.
+   * @return The JSON document.
+   */
+  public static String createTankerkoenigPricesResponse(Collection<String> stationIds) {
+    Random random = new Random(SEED);
+    StringWriter stringWriter = new StringWriter();
+
+    try (JsonWriter out = new JsonWriter(stringWriter)) {
+      out.beginObject();
+      out.name("ok").value(true);
+      out.name("license").value("CC BY 4.0 -  https://creativecommons.tankerkoenig.de");
+      out.name("data").value("MTS-K");
+      out.name("prices").beginObject();
+
+      for (String stationId : stationIds) {
+        out.name(stationId).beginObject();
+
+        if (random.nextInt(4) != 0) {
+          out.name("status").value("open");
+          writePrices(out, random);
+        }
+        else {
+          out.name("status").value("closed");
+        }
+
+        out.endObject();
+      }
+
+      out.endObject();
+      out.endObject();
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    return stringWriter.toString();
+  }
+
+  /**
+   * Creates a well-formed Google geocoding response with random, but reproducible data.
+   *
+   * @param numberOfResults Number of elements in the "results" array.
+   * @return The JSON document.
+   */
+  public static String createGoogleGeocodingResponse(int numberOfResults) {
+    Random random = new Random(SEED);
+    StringWriter stringWriter = new StringWriter();
+
+    try (JsonWriter out = new JsonWriter(stringWriter)) {
+      out.beginObject();
+      out.name("results").beginArray();
+
+      for (int i = 0; i < numberOfResults; i++) {
+        out.beginObject();
+        out.name("formatted_address").value("Street " + i + ", 38440 Wolfsburg, Germany");
+        out.name("geometry").beginObject();
+        out.name("location").beginObject();
+        out.name("lat").value(47.0 + random.nextDouble() * 8.0);
+        out.name("lng").value(6.0 + random.nextDouble() * 9.0);
+        out.endObject();
+        out.name("location_type").value("ROOFTOP");
+        out.endObject();
+        out.name("place_id").value(UUID.nameUUIDFromBytes(new byte[]{(byte) i}).toString());
+        out.name("types").beginArray().value("street_address").endArray();
+        out.endObject();
+      }
+
+      out.endArray();
+      out.name("status").value("OK");
+      out.endObject();
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    return stringWriter.toString();
+  }
+
+  private static void writeStation(JsonWriter out, Random random, int index) throws IOException {
+    String place = "Place " + (index % 97);
+
+    out.beginObject();
+    out.name("id").value(new UUID(random.nextLong(), random.nextLong()).toString());
+    out.name("name").value("Station " + index + " " + place);
+    out.name("brand").value(index % 5 == 0 ? "" : "Brand " + (index % 23));
+    out.name("street").value("Street " + (index % 311));
+    out.name("place").value(place);
+    out.name("lat").value(47.0 + random.nextDouble() * 8.0);
+    out.name("lng").value(6.0 + random.nextDouble() * 9.0);
+    out.name("dist").value(Math.round(random.nextDouble() * 250.0) / 10.0);
+    writePrices(out, random);
+    out.name("isOpen").value(random.nextInt(4) != 0);
+    out.name("houseNumber").value(String.valueOf(1 + random.nextInt(200)));
+    out.name("postCode").value(10000 + random.nextInt(89999));
+    out.endObject();
+  }
+
+  private static void writePrices(JsonWriter out, Random random) throws IOException {
+    for (String type : new String[]{"diesel", "e5", "e10"}) {
+      out.name(type);
+
+      // Closed stations or stations without that petrol type deliver false or null.
+      int variant = random.nextInt(20);
+
+      if (variant == 0)
+        out.value(false);
+      else if (variant == 1)
+        out.nullValue();
+      else
+        out.jsonValue(String.format(Locale.ROOT, "%.3f", 1.0 + random.nextInt(600) / 1000.0));
+    }
+  }
+
+  private static String readResource(String name) {
+    try (InputStream in = BenchmarkFixtures.class.getClassLoader().getResourceAsStream(name)) {
+      if (in == null)
+        throw new IllegalArgumentException("Resource " + name + " not found.");
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] buffer = new byte[8192];
+      int n;
+
+      while ((n = in.read(buffer)) != -1)
+        out.write(buffer, 0, n);
+
+      return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fornalik.tankschlau.benchmark;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Distribution of the artificial latency which {@link UpstreamSimulator} adds to its responses.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+  /**
+   * @param random Source of randomness, so results are reproducible for a seeded instance.
+   * @return Next latency in milliseconds, never negative.
+   */
+  long nextMillis(Random random);
+
+  /**
+   * @param millis Latency of each response.
+   * @return Distribution which always delivers the same latency.
+   */
+  static LatencyDistribution fixed(long millis) {
+    requireNonNegative(millis);
+    return random -> millis;
+  }
+
+  /**
+   * @param minMillis Lower bound, inclusive.
+   * @param maxMillis Upper bound, inclusive.
+   * @return Distribution with evenly distributed latencies.
+   */
+  static LatencyDistribution uniform(long minMillis, long maxMillis) {
+    requireNonNegative(minMillis);
+
+    if (maxMillis < minMillis)
+      throw new IllegalArgumentException("maxMillis must not be less than minMillis.");
+
+    return random -> minMillis + (long) (random.nextDouble() * (maxMillis - minMillis + 1));
+  }
+
+  /**
+   * Log-normal distribution, which resembles the long tail of real network latencies.
+   *
+   * @param medianMillis Median latency.
+   * @param sigma        Standard deviation of the underlying normal distribution. The larger,
+   *                     the longer the tail, ex. 0.5 makes the p99 about 3 times the median.
+   * @return Distribution with log-normally distributed latencies.
+   */
+  static LatencyDistribution logNormal(long medianMillis, double sigma) {
+    requireNonNegative(medianMillis);
+
+    if (sigma < 0)
+      throw new IllegalArgumentException("sigma must not be negative.");
+
+    return random -> Math.round(medianMillis * Math.exp(sigma * random.nextGaussian()));
+  }
+
+  /**
+   * Creates a distribution from a textual specification, which is handy for JMH parameters.
+   * Supported are "fixed:millis", "uniform:minMillis:maxMillis" and "logNormal:medianMillis:sigma".
+   *
+   * @param spec The specification, ex. "uniform:20:80".
+   * @return The specified distribution.
+   * @throws IllegalArgumentException If the specification is invalid.
+   */
+  static LatencyDistribution parse(String spec) {
+    String[] parts = spec.trim().split(":");
+
+    try {
+      switch (parts[0].toLowerCase(Locale.ROOT)) {
+        case "fixed":
+          if (parts.length == 2)
+            return fixed(Long.parseLong(parts[1]));
+          break;
+
+        case "uniform":
+          if (parts.length == 3)
+            return uniform(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+          break;
+
+        case "lognormal":
+          if (parts.length == 3)
+            return logNormal(Long.parseLong(parts[1]), Double.parseDouble(parts[2]));
+          break;
+
+        default:
+          break;
+      }
+    }
+    catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid latency distribution: " + spec, e);
+    }
+
+    throw new IllegalArgumentException("Invalid latency distribution: " + spec);
+  }
+
+  static void requireNonNegative(long millis) {
+    if (millis < 0)
+      throw new IllegalArgumentException("Latency must not be negative.");
+  }
+}
@@ -0,0 +1,395 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fornalik.tankschlau.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.fornalik.tankschlau.util.MyToStringBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded stand-in for the web services of tankerkoenig.de, Google geocoding and Pushover,
+ * for measuring the application under load without touching the real services. Requests are
+ * routed by path only, so point the application at it with
+ * <code>-DhttpUpstreamOverride=</code>{@link #getBaseUrl()}.
+ * <br><br>
+ * Responses are test-fixtures or synthetic documents of configurable size, see
+ * {@link BenchmarkFixtures}. Latency, error rate and throttling are configurable as well:
+ * <ul>
+ *   <li>Each response is delayed according to a {@link LatencyDistribution}.</li>
+ *   <li>A configurable share of requests is answered with HTTP 503.</li>
+ *   <li>Requests beyond a maximum per second are answered with HTTP 429 and "Retry-After".</li>
+ * </ul>
+ * Randomness is seeded, so runs are repeatable as far as thread scheduling allows.
+ */
+public final class UpstreamSimulator implements AutoCloseable {
+  public static final String TANKERKOENIG_LIST_PATH = "/json/list.php";
+  public static final String TANKERKOENIG_PRICES_PATH = "/json/prices.php";
+  public static final String GOOGLE_GEOCODING_PATH = "/maps/api/geocode/json";
+  public static final String PUSHOVER_MESSAGES_PATH = "/1/messages.json";
+
+  private static final int HTTP_TOO_MANY_REQUESTS = 429;
+  private static final byte[] ERROR_BODY = "{\"ok\":false,\"status\":\"error\"}"
+      .getBytes(StandardCharsets.UTF_8);
+
+  static {
+    /* The JDK server writes headers and body separately. Without TCP_NODELAY, Nagle's algorithm
+    and delayed ACKs add ~40 ms to each response, which would distort all measurements.
+    Must be set before the first server is created. */
+    System.setProperty("sun.net.httpserver.nodelay", "true");
+  }
+
+  private final LatencyDistribution latency;
+  private final double errorRate;
+  private final int maxRequestsPerSecond;
+  private final byte[] listResponse;
+  private final byte[] geocodingResponse;
+  private final byte[] messageResponse;
+  private final Random random;
+
+  private final AtomicLong requestCount = new AtomicLong();
+  private final AtomicLong injectedErrorCount = new AtomicLong();
+  private final AtomicLong throttledCount = new AtomicLong();
+
+  // Fixed window throttling, guarded by "this".
+  private long throttleWindowStartNanos;
+  private int throttleWindowCount;
+
+  private HttpServer server;
+  private ExecutorService executor;
+
+  private UpstreamSimulator(Builder builder) {
+    this.latency = builder.latency;
+    this.errorRate = builder.errorRate;
+    this.maxRequestsPerSecond = builder.maxRequestsPerSecond;
+    this.random = new Random(builder.seed);
+
+    this.listResponse = toBytes(
+        BenchmarkFixtures.loadTankerkoenigListResponse(builder.listDocument));
+
+    this.geocodingResponse = toBytes(
+        BenchmarkFixtures.loadGoogleGeocodingResponse(builder.geocodingDocument));
+
+    this.messageResponse = toBytes(
+        BenchmarkFixtures.loadPushoverResponse(builder.messageDocument));
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Starts listening on a free port of the loopback interface.
+   *
+   * @return This instance.
+   * @throws IOException If the server could not be started.
+   */
+  public synchronized UpstreamSimulator start() throws IOException {
+    if (server != null)
+      throw new IllegalStateException("Simulator has already been started.");
+
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/", this::handle);
+
+    // Latency is simulated by sleeping, so each request needs its own thread.
+    executor = Executors.newCachedThreadPool(runnable -> {
+      Thread thread = new Thread(runnable, "upstream-simulator");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    server.setExecutor(executor);
+    server.start();
+
+    return this;
+  }
+
+  /**
+   * @return Base URL of the running simulator, ex. "http://127.0.0.1:54321".
+   */
+  public synchronized String getBaseUrl() {
+    if (server == null)
+      throw new IllegalStateException("Simulator has not been started.");
+
+    return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+  }
+
+  public long getRequestCount() {
+    return requestCount.get();
+  }
+
+  public long getInjectedErrorCount() {
+    return injectedErrorCount.get();
+  }
+
+  public long getThrottledCount() {
+    return throttledCount.get();
+  }
+
+  @Override
+  public synchronized void close() {
+    if (server == null)
+      return;
+
+    server.stop(0);
+    executor.shutdownNow();
+    server = null;
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try {
+      requestCount.incrementAndGet();
+      drain(exchange.getRequestBody());
+
+      if (!tryAcquireThrottlePermit()) {
+        throttledCount.incrementAndGet();
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        send(exchange, HTTP_TOO_MANY_REQUESTS, ERROR_BODY);
+        return;
+      }
+
+      sleep(nextLatencyMillis());
+
+      if (isInjectedError()) {
+        injectedErrorCount.incrementAndGet();
+        send(exchange, HttpURLConnection.HTTP_UNAVAILABLE, ERROR_BODY);
+        return;
+      }
+
+      byte[] body = route(exchange);
+
+      if (body == null)
+        send(exchange, HttpURLConnection.HTTP_NOT_FOUND, ERROR_BODY);
+      else
+        send(exchange, HttpURLConnection.HTTP_OK, body);
+    }
+    finally {
+      exchange.close();
+    }
+  }
+
+  private byte[] route(HttpExchange exchange) {
+    switch (exchange.getRequestURI().getPath()) {
+      case TANKERKOENIG_LIST_PATH:
+        return listResponse;
+
+      case TANKERKOENIG_PRICES_PATH:
+        return toBytes(BenchmarkFixtures.createTankerkoenigPricesResponse(
+            readStationIds(exchange.getRequestURI().getRawQuery())));
+
+      case GOOGLE_GEOCODING_PATH:
+        return geocodingResponse;
+
+      case PUSHOVER_MESSAGES_PATH:
+        return messageResponse;
+
+      default:
+        return null;
+    }
+  }
+
+  private synchronized boolean tryAcquireThrottlePermit() {
+    if (maxRequestsPerSecond <= 0)
+      return true;
+
+    long now = System.nanoTime();
+
+    if (now - throttleWindowStartNanos >= TimeUnit.SECONDS.toNanos(1)) {
+      throttleWindowStartNanos = now;
+      throttleWindowCount = 0;
+    }
+
+    return ++throttleWindowCount <= maxRequestsPerSecond;
+  }
+
+  private long nextLatencyMillis() {
+    synchronized (random) {
+      return Math.max(0, latency.nextMillis(random));
+    }
+  }
+
+  private boolean isInjectedError() {
+    synchronized (random) {
+      return random.nextDouble() < errorRate;
+    }
+  }
+
+  private static List<String> readStationIds(String rawQuery) {
+    if (rawQuery == null)
+      return Collections.emptyList();
+
+    for (String parameter : rawQuery.split("&")) {
+      if (parameter.startsWith("ids="))
+        return Arrays.asList(decode(parameter.substring("ids=".length())).split(","));
+    }
+
+    return Collections.emptyList();
+  }
+
+  private static String decode(String value) {
+    try {
+      return URLDecoder.decode(value, StandardCharsets.UTF_8.name());
+    }
+    catch (UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void send(HttpExchange exchange, int code, byte[] body) throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+    exchange.sendResponseHeaders(code, body.length);
+
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  private static void drain(InputStream in) throws IOException {
+    byte[] buffer = new byte[8192];
+
+    while (in.read(buffer) != -1) {
+      // Discard request body, we only need to consume it.
+    }
+  }
+
+  private static void sleep(long millis) {
+    if (millis <= 0)
+      return;
+
+    try {
+      Thread.sleep(millis);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static byte[] toBytes(String document) {
+    return document.getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public String toString() {
+    return new MyToStringBuilder(this)
+        .append("requestCount", requestCount.get())
+        .append("injectedErrorCount", injectedErrorCount.get())
+        .append("throttledCount", throttledCount.get())
+        .toString();
+  }
+
+  /**
+   * Builder of {@link UpstreamSimulator}. Defaults are no latency, no errors, no throttling and
+   * the fixtures which are also used by the unit tests.
+   */
+  public static final class Builder {
+    private LatencyDistribution latency = LatencyDistribution.fixed(0);
+    private double errorRate;
+    private int maxRequestsPerSecond;
+    private String listDocument = "17HappyStations";
+    private String geocodingDocument = "52_39097_10_84663_Rooftop";
+    private String messageDocument = "Status_1";
+    private long seed = 4711L;
+
+    private Builder() {}
+
+    public Builder withLatency(LatencyDistribution latency) {
+      this.latency = Objects.requireNonNull(latency, "latency must not be null.");
+      return this;
+    }
+
+    /**
+     * @param errorRate Share of requests to answer with HTTP 503, between 0.0 and 1.0.
+     * @return This builder.
+     */
+    public Builder withErrorRate(double errorRate) {
+      if (errorRate < 0.0 || errorRate > 1.0)
+        throw new IllegalArgumentException("errorRate must be between 0.0 and 1.0.");
+
+      this.errorRate = errorRate;
+      return this;
+    }
+
+    /**
+     * @param maxRequestsPerSecond Requests per second beyond which HTTP 429 is answered.
+     *                             0 disables throttling.
+     * @return This builder.
+     */
+    public Builder withMaxRequestsPerSecond(int maxRequestsPerSecond) {
+      if (maxRequestsPerSecond < 0)
+        throw new IllegalArgumentException("maxRequestsPerSecond must not be negative.");
+
+      this.maxRequestsPerSecond = maxRequestsPerSecond;
+      return this;
+    }
+
+    /**
+     * @param document Response of list.php, as accepted by
+     *                 {@link BenchmarkFixtures#loadTankerkoenigListResponse(String)}.
+     * @return This builder.
+     */
+    public Builder withListDocument(String document) {
+      this.listDocument = Objects.requireNonNull(document, "document must not be null.");
+      return this;
+    }
+
+    /**
+     * @param document Response of the geocoding service, as accepted by
+     *                 {@link BenchmarkFixtures#loadGoogleGeocodingResponse(String)}.
+     * @return This builder.
+     */
+    public Builder withGeocodingDocument(String document) {
+      this.geocodingDocument = Objects.requireNonNull(document, "document must not be null.");
+      return this;
+    }
+
+    /**
+     * @param document Response of the message service, as accepted by
+     *                 {@link BenchmarkFixtures#loadPushoverResponse(String)}.
+     * @return This builder.
+     */
+    public Builder withMessageDocument(String document) {
+      this.messageDocument = Objects.requireNonNull(document, "document must not be null.");
+      return this;
+    }
+
+    public Builder withSeed(long seed) {
+      this.seed = seed;
+      return this;
+    }
+
+    public UpstreamSimulator build() {
+      return new UpstreamSimulator(this);
+    }
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.station;
+
+import de.fornalik.tankschlau.benchmark.BenchmarkFixtures;
+import de.fornalik.tankschlau.geo.Geo;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures local radius and nearest neighbour queries of {@link PetrolStationsSpatialIndex}
+ * over stations spread across Germany.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PetrolStationsSpatialIndexBenchmark {
+  private static final Geo CENTER = new Geo(51.0, 10.5);
+
+  @Param({"synthetic-1000", "synthetic-15000"})
+  public String document;
+
+  @Param({"5", "25"})
+  public double radiusKm;
+
+  private List<PetrolStation> petrolStations;
+  private PetrolStationsSpatialIndex index;
+
+  @Setup
+  public void setup() {
+    petrolStations = BenchmarkFixtures.loadPetrolStations(document);
+    index = PetrolStationsSpatialIndex.of(petrolStations);
+  }
+
+  @Benchmark
+  public List<PetrolStation> findWithinRadius() {
+    return index.findWithinRadius(CENTER, radiusKm);
+  }
+
+  @Benchmark
+  public List<PetrolStation> findNearest10() {
+    return index.findNearest(CENTER, 10);
+  }
+
+  @Benchmark
+  public PetrolStationsSpatialIndex createIndex() {
+    return PetrolStationsSpatialIndex.of(petrolStations);
+  }
+}
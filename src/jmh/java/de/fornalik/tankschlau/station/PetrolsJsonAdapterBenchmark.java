@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.station;
+
+import com.google.gson.stream.JsonReader;
+import de.fornalik.tankschlau.benchmark.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the conversion of JSON price objects into sets of {@link Petrol}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PetrolsJsonAdapterBenchmark {
+
+  @Param({"17", "1000", "10000"})
+  public int numberOfElements;
+
+  private String json;
+  private PetrolsJsonAdapter adapter;
+
+  @Setup
+  public void setup() {
+    json = BenchmarkFixtures.createPetrolsArray(numberOfElements);
+    adapter = new PetrolsJsonAdapter();
+  }
+
+  @Benchmark
+  public void read(Blackhole blackhole) throws IOException {
+    JsonReader in = new JsonReader(new StringReader(json));
+    in.beginArray();
+
+    while (in.hasNext())
+      blackhole.consume(adapter.read(in));
+
+    in.endArray();
+  }
+}
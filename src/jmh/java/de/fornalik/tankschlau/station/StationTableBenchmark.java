@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.station;
+
+import de.fornalik.tankschlau.benchmark.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares scanning and sorting a list of {@link PetrolStation} objects with the same
+ * operations on a column oriented {@link StationTable}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StationTableBenchmark {
+  private static final PetrolType PETROL_TYPE = PetrolType.E10;
+
+  @Param({"synthetic-1000", "synthetic-10000", "synthetic-50000"})
+  public String document;
+
+  private List<PetrolStation> petrolStations;
+  private StationTable table;
+  private int[] allRows;
+
+  @Setup
+  public void setup() {
+    petrolStations = BenchmarkFixtures.loadPetrolStations(document);
+    table = StationTable.of(petrolStations);
+    allRows = table.findRows(row -> true);
+  }
+
+  @Benchmark
+  public PetrolStation findCheapestInList() {
+    return PetrolStations.findCheapest(petrolStations, PETROL_TYPE).orElse(null);
+  }
+
+  @Benchmark
+  public OptionalInt findCheapestInTable() {
+    return table.findCheapestRow(PETROL_TYPE);
+  }
+
+  @Benchmark
+  public List<PetrolStation> sortList() {
+    List<PetrolStation> sorted = new ArrayList<>(petrolStations);
+    PetrolStations.sortByPriceAndDistanceForPetrolType(sorted, PETROL_TYPE);
+    return sorted;
+  }
+
+  @Benchmark
+  public int[] sortTable() {
+    return table.sortByPriceAndDistance(allRows, PETROL_TYPE);
+  }
+
+  @Benchmark
+  public int[] filterOpenInTable() {
+    return table.findRows(table::isOpen);
+  }
+
+  @Benchmark
+  public StationTable createTable() {
+    return StationTable.of(petrolStations);
+  }
+}
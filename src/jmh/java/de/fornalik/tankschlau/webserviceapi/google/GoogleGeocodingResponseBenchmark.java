@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.webserviceapi.google;
+
+import de.fornalik.tankschlau.benchmark.BenchmarkFixtures;
+import de.fornalik.tankschlau.geo.Geo;
+import de.fornalik.tankschlau.net.ResponseBodyImpl;
+import de.fornalik.tankschlau.service.TransactInfoImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.StringReader;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the conversion of a Google geocoding response into {@link Geo}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GoogleGeocodingResponseBenchmark {
+
+  @Param({
+      "50_1078234_8_5413809_Rooftop",
+      "52_9541353_8_2396026_Approximate",
+      "ZeroResults",
+      "synthetic-1000"})
+  public String document;
+
+  @Param({"gson", "jackson"})
+  public String jsonProvider;
+
+  private String json;
+  private GoogleGeocodingResponse response;
+
+  @Setup
+  public void setup() {
+    json = BenchmarkFixtures.loadGoogleGeocodingResponse(document);
+    response = new GoogleGeocodingResponse(
+        BenchmarkFixtures.createJsonProvider(jsonProvider),
+        new ResponseBodyImpl(),
+        new TransactInfoImpl());
+  }
+
+  @Benchmark
+  public Optional<Geo> fromJsonString() {
+    return response.fromJson(json, Geo.class);
+  }
+
+  @Benchmark
+  public Optional<Geo> fromJsonReader() {
+    return response.fromJson(new StringReader(json), Geo.class);
+  }
+}
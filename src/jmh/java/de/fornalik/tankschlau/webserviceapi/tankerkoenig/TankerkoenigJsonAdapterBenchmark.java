@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.webserviceapi.tankerkoenig;
+
+import de.fornalik.tankschlau.benchmark.BenchmarkFixtures;
+import de.fornalik.tankschlau.station.PetrolStation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the conversion of a complete list.php response into {@link PetrolStation} objects.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TankerkoenigJsonAdapterBenchmark {
+
+  @Param({"17HappyStations", "34HappyStations", "synthetic-1000", "synthetic-10000"})
+  public String document;
+
+  @Param({"gson", "jackson"})
+  public String jsonProvider;
+
+  private String json;
+  private TankerkoenigJsonAdapter adapter;
+
+  @Setup
+  public void setup() {
+    json = BenchmarkFixtures.loadTankerkoenigListResponse(document);
+    adapter = new TankerkoenigJsonAdapter(BenchmarkFixtures.createJsonProvider(jsonProvider));
+  }
+
+  @Benchmark
+  public List<PetrolStation> createPetrolStations() {
+    return adapter.createPetrolStations(json);
+  }
+
+  @Benchmark
+  public List<PetrolStation> readListResponse() {
+    return adapter.readListResponse(new StringReader(json)).getPetrolStations();
+  }
+
+  // Includes creation of all addresses, like when the whole list gets displayed.
+  @Benchmark
+  public void createPetrolStationsAndAddresses(Blackhole blackhole) {
+    for (PetrolStation petrolStation : adapter.createPetrolStations(json))
+      blackhole.consume(petrolStation.getAddress());
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.webserviceapi.tankerkoenig;
+
+import de.fornalik.tankschlau.benchmark.BenchmarkFixtures;
+import de.fornalik.tankschlau.net.ResponseBodyImpl;
+import de.fornalik.tankschlau.service.TransactInfo;
+import de.fornalik.tankschlau.service.TransactInfoImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the conversion of the root level data of a list.php response into
+ * {@link TransactInfo}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TankerkoenigResponseBenchmark {
+
+  @Param({"17HappyStations", "34HappyStations", "synthetic-1000", "synthetic-10000"})
+  public String document;
+
+  @Param({"gson", "jackson"})
+  public String jsonProvider;
+
+  private String json;
+  private TankerkoenigResponse response;
+
+  @Setup
+  public void setup() {
+    json = BenchmarkFixtures.loadTankerkoenigListResponse(document);
+    response = new TankerkoenigResponse(
+        BenchmarkFixtures.createJsonProvider(jsonProvider),
+        new ResponseBodyImpl(),
+        new TransactInfoImpl());
+  }
+
+  @Benchmark
+  public TransactInfo fromJsonString() {
+    response.fromJson(json, TankerkoenigResponse.ResponseDto.class);
+    return response.getTransactInfo();
+  }
+
+  @Benchmark
+  public TransactInfo fromJsonReader() {
+    response.fromJson(new StringReader(json), TankerkoenigResponse.ResponseDto.class);
+    return response.getTransactInfo();
+  }
+}
@@ -17,6 +17,7 @@
 package de.fornalik.tankschlau;
 
 import de.fornalik.tankschlau.gui.MainWindow;
+import de.fornalik.tankschlau.net.HttpPreconnector;
 import de.fornalik.tankschlau.user.ApiKeyPropertyHandler;
 import de.fornalik.tankschlau.util.LoggingConfig;
 import org.springframework.boot.Banner;
@@ -35,6 +36,7 @@ public class TankSchlau {
 
     LoggingConfig.init();
     processVmParameters(context);
+    preconnectWebServices(context);
     startSwingApplication(context);
   }
 
@@ -50,6 +52,10 @@ public class TankSchlau {
     context.getBean(ApiKeyPropertyHandler.class).persistApiKeys();
   }
 
+  private static void preconnectWebServices(ConfigurableApplicationContext context) {
+    context.getBean(HttpPreconnector.class).preconnect();
+  }
+
   private static void startSwingApplication(ConfigurableApplicationContext context) {
     SwingUtilities.invokeLater(() -> {
       MainWindow mainWindow = context.getBean(MainWindow.class);
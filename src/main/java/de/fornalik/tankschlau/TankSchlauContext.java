@@ -20,17 +20,28 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import de.fornalik.tankschlau.geo.Geo;
 import de.fornalik.tankschlau.gui.SwingWorkerService;
+import de.fornalik.tankschlau.net.HttpCacheConfig;
 import de.fornalik.tankschlau.net.HttpClient;
+import de.fornalik.tankschlau.net.HttpPreconnector;
+import de.fornalik.tankschlau.net.HttpRateLimitConfig;
+import de.fornalik.tankschlau.net.HttpResilienceConfig;
+import de.fornalik.tankschlau.net.HttpTransportConfig;
 import de.fornalik.tankschlau.net.JsonResponse;
+import de.fornalik.tankschlau.net.NetworkTimingStats;
 import de.fornalik.tankschlau.net.OkHttpClient;
+import de.fornalik.tankschlau.net.RateLimitedHttpClient;
+import de.fornalik.tankschlau.net.ResilientHttpClient;
 import de.fornalik.tankschlau.net.ResponseBodyImpl;
 import de.fornalik.tankschlau.service.GeocodingService;
 import de.fornalik.tankschlau.service.GeocodingWorker;
 import de.fornalik.tankschlau.service.PetrolStationsRepo;
 import de.fornalik.tankschlau.service.PetrolStationsService;
 import de.fornalik.tankschlau.service.PetrolStationsWorker;
+import de.fornalik.tankschlau.service.SingleFlightGeocodingService;
+import de.fornalik.tankschlau.service.SingleFlightPetrolStationsService;
 import de.fornalik.tankschlau.service.TransactInfoImpl;
 import de.fornalik.tankschlau.station.PetrolStation;
+import de.fornalik.tankschlau.station.PetrolStationsSnapshotFile;
 import de.fornalik.tankschlau.station.Petrols;
 import de.fornalik.tankschlau.station.PetrolsJsonAdapter;
 import de.fornalik.tankschlau.user.ApiKeyManager;
@@ -38,11 +49,17 @@ import de.fornalik.tankschlau.user.ApiKeyStore;
 import de.fornalik.tankschlau.user.PropertyReader;
 import de.fornalik.tankschlau.user.UserPrefs;
 import de.fornalik.tankschlau.user.UserPrefsApiKeyStore;
+import de.fornalik.tankschlau.util.GsonJsonProvider;
+import de.fornalik.tankschlau.util.JacksonJsonProvider;
+import de.fornalik.tankschlau.util.JsonProvider;
 import de.fornalik.tankschlau.webserviceapi.common.AddressRequest;
+import de.fornalik.tankschlau.webserviceapi.common.GeoRequest;
+import de.fornalik.tankschlau.webserviceapi.common.JsonTypeAdapterFactory;
 import de.fornalik.tankschlau.webserviceapi.common.MessageRequest;
 import de.fornalik.tankschlau.webserviceapi.common.MessageService;
 import de.fornalik.tankschlau.webserviceapi.common.PetrolStationMessageWorker;
 import de.fornalik.tankschlau.webserviceapi.common.PetrolStationsWebService;
+import de.fornalik.tankschlau.webserviceapi.common.StationIdsRequest;
 import de.fornalik.tankschlau.webserviceapi.google.GoogleGeocodingClient;
 import de.fornalik.tankschlau.webserviceapi.google.GoogleGeocodingRequest;
 import de.fornalik.tankschlau.webserviceapi.google.GoogleGeocodingResponse;
@@ -52,12 +69,18 @@ import de.fornalik.tankschlau.webserviceapi.pushover.PushoverMessageResponse;
 import de.fornalik.tankschlau.webserviceapi.pushover.PushoverMessageService;
 import de.fornalik.tankschlau.webserviceapi.tankerkoenig.TankerkoenigJsonAdapter;
 import de.fornalik.tankschlau.webserviceapi.tankerkoenig.TankerkoenigPetrolStationsRepo;
+import de.fornalik.tankschlau.webserviceapi.tankerkoenig.TankerkoenigPricesRequest;
 import de.fornalik.tankschlau.webserviceapi.tankerkoenig.TankerkoenigRequest;
 import de.fornalik.tankschlau.webserviceapi.tankerkoenig.TankerkoenigResponse;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Scope;
 
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Composition Root. Describes the dependency graph throughout the application,
@@ -99,14 +122,81 @@ class TankSchlauContext {
 
   @Bean
   HttpClient httpClient() {
-    return new OkHttpClient(new okhttp3.OkHttpClient());
+    return new ResilientHttpClient(
+        new RateLimitedHttpClient(
+            new OkHttpClient(okHttp3Client(), networkTimingStats()),
+            httpRateLimitConfig()),
+        httpResilienceConfig());
   }
 
   @Bean
-  Gson jsonProvider() {
-    return new GsonBuilder()
+  NetworkTimingStats networkTimingStats() {
+    return new NetworkTimingStats();
+  }
+
+  @Bean
+  okhttp3.OkHttpClient okHttp3Client() {
+    okhttp3.OkHttpClient.Builder builder = new okhttp3.OkHttpClient.Builder();
+    httpTransportConfig().applyTo(builder);
+    httpCacheConfig().applyTo(builder);
+
+    return builder.build();
+  }
+
+  @Bean
+  HttpTransportConfig httpTransportConfig() {
+    return HttpTransportConfig.fromProperties(httpPropertyReader());
+  }
+
+  @Bean
+  HttpResilienceConfig httpResilienceConfig() {
+    return HttpResilienceConfig.fromProperties(httpPropertyReader());
+  }
+
+  @Bean
+  HttpRateLimitConfig httpRateLimitConfig() {
+    return HttpRateLimitConfig.fromProperties(httpPropertyReader());
+  }
+
+  // Not a bean, so autowiring of the system property reader stays unambiguous.
+  private PropertyReader httpPropertyReader() {
+    // VM parameters take precedence over user preferences.
+    return key -> Optional
+        .ofNullable(systemPropertyReader().getProperty(key))
+        .orElseGet(() -> userPrefs().getRealPrefs().get(key, null));
+  }
+
+  @Bean
+  HttpPreconnector httpPreconnector() {
+    // Connect only to the hosts of web services which are enabled.
+    List<String> hosts = httpTransportConfig().getPreconnectHosts().stream()
+        .filter(host -> !HttpTransportConfig.PUSHOVER_HOST.equals(host)
+            || userPrefs().readPushMessageEnabled())
+        .filter(host -> !HttpTransportConfig.GOOGLE_MAPS_HOST.equals(host)
+            || apiKeyManagerGeocoding().read().isPresent())
+        .collect(Collectors.toList());
+
+    return new HttpPreconnector(okHttp3Client(), hosts);
+  }
+
+  @Bean
+  HttpCacheConfig httpCacheConfig() {
+    return HttpCacheConfig.fromProperties(
+        httpPropertyReader(),
+        Paths.get(System.getProperty("user.home"), ".tankschlau", "http-cache"));
+  }
+
+  @Bean
+  JsonProvider jsonProvider() {
+    Gson gson = new GsonBuilder()
         .registerTypeAdapter(Petrols.class, new PetrolsJsonAdapter())
+        .registerTypeAdapterFactory(new JsonTypeAdapterFactory())
         .create();
+
+    // Choose the JSON backend with VM parameter, ex. -DjsonProvider=jackson
+    return "jackson".equalsIgnoreCase(systemPropertyReader().getProperty("jsonProvider"))
+        ? new JacksonJsonProvider(gson)
+        : new GsonJsonProvider(gson);
   }
 
   @Bean
@@ -121,8 +211,16 @@ class TankSchlauContext {
 
   @Bean
   PetrolStationsService petrolStationsService() {
-    return new PetrolStationsWebService(
-        petrolStationsRepo());
+    return new SingleFlightPetrolStationsService(
+        new PetrolStationsWebService(
+            petrolStationsRepo(),
+            petrolStationsSnapshotFile()));
+  }
+
+  @Bean
+  PetrolStationsSnapshotFile petrolStationsSnapshotFile() {
+    return new PetrolStationsSnapshotFile(
+        Paths.get(System.getProperty("user.home"), ".tankschlau", "petrolstations.snapshot"));
   }
 
   @Bean
@@ -130,11 +228,26 @@ class TankSchlauContext {
     return new TankerkoenigPetrolStationsRepo(
         httpClient(),
         new TankerkoenigJsonAdapter(jsonProvider()),
-        TankerkoenigRequest.create(apiKeyManagerPetrolStations()),
-        petrolStationsResponse());
+        this::petrolStationsRequest,
+        this::petrolStationsPricesRequest,
+        this::petrolStationsResponse);
+  }
+
+  // Prototype scoped, as each webservice call gets its own request and response object.
+  @Bean
+  @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+  GeoRequest petrolStationsRequest() {
+    return TankerkoenigRequest.create(apiKeyManagerPetrolStations());
   }
 
   @Bean
+  @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+  StationIdsRequest petrolStationsPricesRequest() {
+    return TankerkoenigPricesRequest.create(apiKeyManagerPetrolStations());
+  }
+
+  @Bean
+  @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
   JsonResponse petrolStationsResponse() {
     return new TankerkoenigResponse(
         jsonProvider(),
@@ -154,11 +267,12 @@ class TankSchlauContext {
   MessageService messageService() {
     return new PushoverMessageService(
         httpClient(),
-        messageRequest(),
-        messageResponse());
+        this::messageRequest,
+        this::messageResponse);
   }
 
   @Bean
+  @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
   MessageRequest messageRequest() {
     return new PushoverMessageRequest(
         apiKeyManagerPushMessage(),
@@ -166,6 +280,7 @@ class TankSchlauContext {
   }
 
   @Bean
+  @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
   JsonResponse messageResponse() {
     return new PushoverMessageResponse(
         jsonProvider(),
@@ -185,18 +300,21 @@ class TankSchlauContext {
 
   @Bean
   GeocodingService geocodingService() {
-    return new GoogleGeocodingClient(
-        httpClient(),
-        geocodingRequest(),
-        geocodingResponse());
+    return new SingleFlightGeocodingService(
+        new GoogleGeocodingClient(
+            httpClient(),
+            this::geocodingRequest,
+            this::geocodingResponse));
   }
 
   @Bean
+  @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
   AddressRequest geocodingRequest() {
     return GoogleGeocodingRequest.create(apiKeyManagerGeocoding());
   }
 
   @Bean
+  @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
   JsonResponse geocodingResponse() {
     return new GoogleGeocodingResponse(
         jsonProvider(),
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.geo;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import de.fornalik.tankschlau.util.JsonReaderHelper;
+
+import java.io.IOException;
+
+/**
+ * A streaming {@link Gson} JSON adapter for {@link Address} objects having the flat structure
+ * (ex.) <br><br>
+ * <code> {
+ * "name": "TOTAL BERLIN",
+ * "street": "MARGARETE-SOMMER-STR.",
+ * "houseNumber": "2",
+ * "place": "BERLIN",
+ * "postCode": 10407,
+ * "lat": 52.53083,
+ * "lng": 13.440946,
+ * "dist": 1.1
+ * } </code><br><br>
+ * Geo elements are optional. Other elements of the JSON object are skipped.
+ */
+public class AddressJsonAdapter extends TypeAdapter<Address> {
+
+  @Override
+  public Address read(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+
+    Fields fields = new Fields();
+
+    in.beginObject();
+
+    while (in.hasNext()) {
+      if (!fields.read(in.nextName(), in))
+        in.skipValue();
+    }
+
+    in.endObject();
+
+    return fields.toAddress();
+  }
+
+  @Override
+  public void write(JsonWriter out, Address address) throws IOException {
+    if (address == null) {
+      out.nullValue();
+      return;
+    }
+
+    out.beginObject();
+    writeFields(out, address);
+    out.endObject();
+  }
+
+  /**
+   * Writes the name/value pairs of an {@link Address}, including its geo data, into an already
+   * opened JSON object.
+   *
+   * @param out     Writer, positioned within a JSON object.
+   * @param address The {@link Address} data to write.
+   * @throws IOException If writing fails.
+   */
+  public static void writeFields(JsonWriter out, Address address) throws IOException {
+    out.name("name").value(address.getName());
+    out.name("street").value(address.getStreet());
+    out.name("houseNumber").value(address.getHouseNumber());
+    out.name("place").value(address.getCity());
+    out.name("postCode").value(address.getPostCode());
+
+    if (address.getGeo().isPresent())
+      GeoJsonAdapter.writeFields(out, address.getGeo().get());
+  }
+
+  /**
+   * Collects the address related elements of a flat JSON object while it is being read, so
+   * callers reading a larger object (ex. a petrol station) can pick up address data in the same
+   * pass.
+   */
+  public static class Fields {
+    private final GeoJsonAdapter.Fields geoFields = new GeoJsonAdapter.Fields();
+    private String name;
+    private String street;
+    private String houseNumber;
+    private String city;
+    private String postCode;
+
+    /**
+     * @param elementName Name of the current JSON element.
+     * @param in          Reader, positioned at the value of the element.
+     * @return True if the element has been consumed, false if it is no address element.
+     * @throws IOException If reading the value fails.
+     */
+    public boolean read(String elementName, JsonReader in) throws IOException {
+      switch (elementName) {
+        case "name":
+          name = JsonReaderHelper.nextStringOrNull(in);
+          return true;
+
+        case "street":
+          street = JsonReaderHelper.nextStringOrNull(in);
+          return true;
+
+        case "houseNumber":
+          houseNumber = JsonReaderHelper.nextStringOrNull(in);
+          return true;
+
+        case "place":
+          city = JsonReaderHelper.nextStringOrNull(in);
+          return true;
+
+        case "postCode":
+          postCode = JsonReaderHelper.nextStringOrNull(in);
+          return true;
+
+        default:
+          return geoFields.read(elementName, in);
+      }
+    }
+
+    /**
+     * @return A legalized {@link Address}, including its {@link Geo} data if any were read.
+     * @throws de.fornalik.tankschlau.util.StringLegalizer.ValueException If mandatory address
+     *                                                                    data are missing.
+     */
+    public Address toAddress() {
+      // Legalize Address by passing it to its failable constructor.
+      Address address = new Address(name, street, houseNumber, city, postCode, null);
+      geoFields.toGeo().ifPresent(address::setGeo);
+
+      return address;
+    }
+  }
+}
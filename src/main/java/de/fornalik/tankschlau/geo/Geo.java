@@ -22,12 +22,18 @@ import de.fornalik.tankschlau.util.MyToStringBuilder;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
+import java.util.Objects;
 import java.util.Optional;
 
 /**
  * Geographical data such as latitude, longitude, distance to a different {@link Geo} object etc.
  */
 public class Geo {
+  /**
+   * Mean radius of the earth in km, used for distance calculations.
+   */
+  public static final double EARTH_RADIUS_KM = 6371.0088;
+
   @SerializedName("lat") private final double latitude;
   @SerializedName("lng") private final double longitude;
   @SerializedName("dist") private Double distance;
@@ -92,6 +98,70 @@ public class Geo {
     return L10N.get("msg.KmAway", distanceString);
   }
 
+  /**
+   * Calculates the great-circle distance to another geo location locally, without asking a
+   * webservice.
+   *
+   * @param other Geo location to calculate the distance to - not null
+   * @return Distance in km.
+   * @see #haversineDistance(double, double, double, double)
+   */
+  public double distanceTo(Geo other) {
+    Objects.requireNonNull(other, "other must not be null.");
+    return haversineDistance(latitude, longitude, other.latitude, other.longitude);
+  }
+
+  /**
+   * Great-circle distance between two coordinates by the haversine formula, which is exact for
+   * a spherical earth, also for very short and very long distances.
+   *
+   * @param lat1 Latitude of the first location
+   * @param lon1 Longitude of the first location
+   * @param lat2 Latitude of the second location
+   * @param lon2 Longitude of the second location
+   * @return Distance in km.
+   */
+  public static double haversineDistance(double lat1, double lon1, double lat2, double lon2) {
+    double sinHalfDeltaLat = Math.sin(Math.toRadians(lat2 - lat1) / 2);
+    double sinHalfDeltaLon = Math.sin(Math.toRadians(lon2 - lon1) / 2);
+
+    double a = sinHalfDeltaLat * sinHalfDeltaLat
+        + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+        * sinHalfDeltaLon * sinHalfDeltaLon;
+
+    return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+  }
+
+  /**
+   * Approximates the distance between two coordinates by the equirectangular projection.
+   * Needs a single cosine, thus is cheaper than
+   * {@link #haversineDistance(double, double, double, double)}. The error is well below 1%
+   * for distances within a search radius, but grows with distance and latitude.
+   *
+   * @param lat1 Latitude of the first location
+   * @param lon1 Longitude of the first location
+   * @param lat2 Latitude of the second location
+   * @param lon2 Longitude of the second location
+   * @return Approximated distance in km.
+   */
+  public static double equirectangularDistance(
+      double lat1,
+      double lon1,
+      double lat2,
+      double lon2) {
+
+    double deltaLon = lon2 - lon1;
+
+    // Take the shorter way across the antimeridian.
+    if (deltaLon > 180.0) deltaLon -= 360.0;
+    else if (deltaLon < -180.0) deltaLon += 360.0;
+
+    double x = Math.toRadians(deltaLon) * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+    double y = Math.toRadians(lat2 - lat1);
+
+    return EARTH_RADIUS_KM * Math.sqrt(x * x + y * y);
+  }
+
   private void throwOnInvalidDistance(Double km) {
     /* null is perfectly valid here as it is always returned as an Optional by design
     and as a distance value is not mandatory by business rule. */
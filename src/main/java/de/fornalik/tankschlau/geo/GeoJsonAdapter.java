@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.geo;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import de.fornalik.tankschlau.util.JsonReaderHelper;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * A streaming {@link Gson} JSON adapter for {@link Geo} objects having the flat structure
+ * (ex.) <code>{"lat": 52.53083, "lng": 13.440946, "dist": 1.1}</code>.
+ * Other elements of the JSON object are skipped.
+ */
+public class GeoJsonAdapter extends TypeAdapter<Geo> {
+
+  @Override
+  public Geo read(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+
+    Fields fields = new Fields();
+
+    in.beginObject();
+
+    while (in.hasNext()) {
+      if (!fields.read(in.nextName(), in))
+        in.skipValue();
+    }
+
+    in.endObject();
+
+    return fields.toGeo().orElse(new Geo(0.0, 0.0));
+  }
+
+  @Override
+  public void write(JsonWriter out, Geo geo) throws IOException {
+    if (geo == null) {
+      out.nullValue();
+      return;
+    }
+
+    out.beginObject();
+    writeFields(out, geo);
+    out.endObject();
+  }
+
+  /**
+   * Writes the name/value pairs of a {@link Geo} into an already opened JSON object.
+   *
+   * @param out Writer, positioned within a JSON object.
+   * @param geo The {@link Geo} data to write.
+   * @throws IOException If writing fails.
+   */
+  public static void writeFields(JsonWriter out, Geo geo) throws IOException {
+    out.name("lat").value(geo.getLatitude());
+    out.name("lng").value(geo.getLongitude());
+
+    if (geo.getDistance().isPresent())
+      out.name("dist").value(geo.getDistance().get());
+  }
+
+  /**
+   * Collects the geo related elements of a flat JSON object while it is being read, so callers
+   * reading a larger object (ex. a petrol station) can pick up geo data in the same pass.
+   */
+  public static class Fields {
+    private Double lat;
+    private Double lng;
+    private Double dist;
+
+    /**
+     * @param name Name of the current JSON element.
+     * @param in   Reader, positioned at the value of the element.
+     * @return True if the element has been consumed, false if it is no geo element.
+     * @throws IOException If reading the value fails.
+     */
+    public boolean read(String name, JsonReader in) throws IOException {
+      switch (name) {
+        case "lat":
+          lat = JsonReaderHelper.nextDoubleOrNull(in);
+          return true;
+
+        case "lng":
+          lng = JsonReaderHelper.nextDoubleOrNull(in);
+          return true;
+
+        case "dist":
+          dist = JsonReaderHelper.nextDoubleOrNull(in);
+          return true;
+
+        default:
+          return false;
+      }
+    }
+
+    /**
+     * @return A legalized {@link Geo} object if at least one geo element has been read,
+     * otherwise an empty Optional. Missing latitude or longitude is set to 0.0.
+     * @throws Geo.InvalidGeoDataException If the values are out of bounds.
+     */
+    public Optional<Geo> toGeo() {
+      if (lat == null && lng == null && dist == null)
+        return Optional.empty();
+
+      return Optional.of(new Geo(
+          lat != null ? lat : 0.0,
+          lng != null ? lng : 0.0,
+          dist));
+    }
+  }
+}
@@ -17,6 +17,7 @@
 package de.fornalik.tankschlau.gui;
 
 import de.fornalik.tankschlau.station.PetrolStation;
+import de.fornalik.tankschlau.station.PetrolStationsSnapshotFile;
 import de.fornalik.tankschlau.util.Localization;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -39,18 +40,28 @@ class PetrolStationsActionController {
   private final PetrolStationsActionView view;
   private final PetrolsStationsTableModel tableModel;
   private final FooterController footerController;
+  private final PetrolStationsSnapshotFile snapshotFile;
 
   @Autowired
   PetrolStationsActionController(
       PetrolStationsActionModel model,
       PetrolStationsActionView view,
       PetrolsStationsTableModel tableModel,
-      FooterController footerController) {
+      FooterController footerController,
+      PetrolStationsSnapshotFile snapshotFile) {
 
     this.model = model;
     this.view = view;
     this.tableModel = tableModel;
     this.footerController = footerController;
+    this.snapshotFile = snapshotFile;
+  }
+
+  // Show the last known petrol stations right away, until fresh data has been fetched.
+  @PostConstruct
+  private void restoreSnapshot() {
+    snapshotFile.read().ifPresent(snapshot ->
+        SwingUtilities.invokeLater(() -> tableModel.addPetrolStations(snapshot)));
   }
 
   @PostConstruct
@@ -105,7 +116,7 @@ class PetrolStationsActionController {
 
     private void onOneShotWorkerFinished(List<PetrolStation> petrolStations) {
       SwingUtilities.invokeLater(() -> {
-        tableModel.addPetrolStations(petrolStations);
+        tableModel.updatePetrolStations(petrolStations);
         view.getBtnStartCyclicWork().setEnabled(true);
         view.getBtnStartOneShotWork().setEnabled(true);
         footerController.onOneShotWorkerFinished();
@@ -130,7 +141,7 @@ class PetrolStationsActionController {
     }
 
     private void onSingleCycleFinished(List<PetrolStation> petrolStations) {
-      SwingUtilities.invokeLater(() -> tableModel.addPetrolStations(petrolStations));
+      SwingUtilities.invokeLater(() -> tableModel.updatePetrolStations(petrolStations));
       model.sendPushmessage(petrolStations);
     }
 
@@ -27,8 +27,11 @@ import javax.swing.*;
 import javax.swing.event.TableModelEvent;
 import javax.swing.event.TableModelListener;
 import java.awt.*;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Optional;
 
 /**
  * The app's main representation of data, using a JTable.
@@ -40,6 +43,7 @@ class PetrolStationsView extends JPanel implements TableModelListener {
 
   private final PetrolStationsActionView actionView;
   private final JTable dataTable;
+  private final PetrolsStationsTableModel tableModel;
   private final JScrollPane dataScrollPane;
   private final JLabel headerLabel;
   private final JLabel lastUpdateLabel;
@@ -55,6 +59,7 @@ class PetrolStationsView extends JPanel implements TableModelListener {
     this.userPrefs = userPrefs;
     this.actionView = actionView;
 
+    this.tableModel = petrolsStationsTableModel;
     petrolsStationsTableModel.addTableModelListener(this);
     this.dataTable = new JTable(petrolsStationsTableModel);
 
@@ -115,11 +120,19 @@ class PetrolStationsView extends JPanel implements TableModelListener {
       return;
     }
 
+    lastUpdateLabel.setText(L10N.get("msg.LastUpdateAt", formatDateTime(lastUpdateAt)));
+  }
+
+  private void setOfflineSnapshotText(Instant snapshotCreatedAt) {
+    LocalDateTime createdAt = LocalDateTime.ofInstant(snapshotCreatedAt, ZoneId.systemDefault());
+    lastUpdateLabel.setText(L10N.get("msg.OfflineSnapshotFrom", formatDateTime(createdAt)));
+  }
+
+  private static String formatDateTime(LocalDateTime dateTime) {
     DateTimeFormatter formatter = DateTimeFormatter
         .ofPattern("dd.MM.yyyy HH:mm:ss", L10N.getRegion());
 
-    String lastUpdateStr = formatter.format(lastUpdateAt);
-    lastUpdateLabel.setText(L10N.get("msg.LastUpdateAt", lastUpdateStr));
+    return formatter.format(dateTime);
   }
 
   private void configureDataScrollPane() {
@@ -157,15 +170,23 @@ class PetrolStationsView extends JPanel implements TableModelListener {
     setHeaderText(PetrolType.valueOf(newValue).getReadableName());
   }
 
-  // Set last update time display text according to the data event.
+  // Set last update time display text according to the data of the table model.
   @Override
   public void tableChanged(TableModelEvent e) {
-    if (e.getType() == TableModelEvent.INSERT) {
-      setLastUpdateText(LocalDateTime.now());
-    }
-    else if (e.getType() == TableModelEvent.DELETE && dataTable.getModel().getRowCount() == 0) {
+    if (e.getType() == TableModelEvent.DELETE && dataTable.getModel().getRowCount() == 0) {
       setLastUpdateText(LocalDateTime.MIN);
       repaint();
+      return;
     }
+
+    Optional<Instant> snapshotCreatedAt = tableModel.getSnapshotCreatedAt();
+
+    if (snapshotCreatedAt.isPresent()) {
+      setOfflineSnapshotText(snapshotCreatedAt.get());
+      return;
+    }
+
+    tableModel.getUpdatedAt().ifPresent(updatedAt ->
+        setLastUpdateText(LocalDateTime.ofInstant(updatedAt, ZoneId.systemDefault())));
   }
 }
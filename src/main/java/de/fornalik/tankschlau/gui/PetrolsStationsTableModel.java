@@ -19,7 +19,9 @@ package de.fornalik.tankschlau.gui;
 import de.fornalik.tankschlau.geo.Geo;
 import de.fornalik.tankschlau.station.Petrol;
 import de.fornalik.tankschlau.station.PetrolStation;
-import de.fornalik.tankschlau.station.PetrolStations;
+import de.fornalik.tankschlau.station.PetrolStationsIndex;
+import de.fornalik.tankschlau.station.PetrolStationsChangeSet;
+import de.fornalik.tankschlau.station.PetrolStationsSnapshot;
 import de.fornalik.tankschlau.station.PetrolType;
 import de.fornalik.tankschlau.station.Petrols;
 import de.fornalik.tankschlau.user.UserPrefs;
@@ -30,10 +32,15 @@ import org.springframework.stereotype.Component;
 import javax.annotation.PostConstruct;
 import javax.swing.table.AbstractTableModel;
 import java.io.Serializable;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.UUID;
 
 /**
  * Handles the domain table model and its data, which is a result of the WorkerService and
@@ -52,6 +59,9 @@ class PetrolsStationsTableModel extends AbstractTableModel implements Serializab
 
   private final transient List<PetrolStation> petrolStations;
   private final UserPrefs userPrefs;
+  private transient PetrolStationsIndex index;
+  private transient Instant snapshotCreatedAt;
+  private transient Instant updatedAt;
 
   @Autowired
   PetrolsStationsTableModel(UserPrefs userPrefs) {
@@ -59,6 +69,7 @@ class PetrolsStationsTableModel extends AbstractTableModel implements Serializab
     this.userPrefs = userPrefs;
     this.userPrefs.registerChangeListener("petrol.preferredtype", this::sortPetrolStations);
     this.petrolStations = new ArrayList<>();
+    this.index = PetrolStationsIndex.empty();
   }
 
   @PostConstruct
@@ -109,8 +120,7 @@ class PetrolsStationsTableModel extends AbstractTableModel implements Serializab
         return petrolStation.getAddress().getStreetAndHouseNumber();
 
       case COL_DISTANCE_INDEX:
-        return petrolStation.getAddress()
-            .getGeo()
+        return petrolStation.getGeo()
             .map(Geo::getDistanceAwayString)
             .orElse(L10N.get("msg.Unknown"));
 
@@ -122,8 +132,27 @@ class PetrolsStationsTableModel extends AbstractTableModel implements Serializab
     }
   }
 
+  /**
+   * @return Creation time of the snapshot, if the current data was restored from an (outdated)
+   * snapshot instead of being fetched from the webservice. Otherwise empty.
+   */
+  synchronized Optional<Instant> getSnapshotCreatedAt() {
+    return Optional.ofNullable(snapshotCreatedAt);
+  }
+
+  /**
+   * @return Time of the last successful update of the rows with fetched data, even if the data
+   * didn't change. Empty if there are no rows or if they were restored from a snapshot.
+   */
+  synchronized Optional<Instant> getUpdatedAt() {
+    return Optional.ofNullable(updatedAt);
+  }
+
   synchronized void removeAllPetrolStations() {
     this.petrolStations.clear();
+    this.index = PetrolStationsIndex.empty();
+    this.snapshotCreatedAt = null;
+    this.updatedAt = null;
     fireTableRowsDeleted(0, getRowCount());
   }
 
@@ -131,16 +160,85 @@ class PetrolsStationsTableModel extends AbstractTableModel implements Serializab
     this.removeAllPetrolStations();
 
     if (petrolStations.isEmpty()) return;
+
+    if (petrolStations instanceof PetrolStationsSnapshot)
+      this.snapshotCreatedAt = ((PetrolStationsSnapshot) petrolStations).getCreatedAt();
+    else
+      this.updatedAt = Instant.now();
+
     int rowCountBeforeInsert = getRowCount();
 
     this.petrolStations.addAll(petrolStations);
+    this.index = PetrolStationsIndex.of(petrolStations);
     fireTableRowsInserted(rowCountBeforeInsert, petrolStations.size());
     this.sortPetrolStations();
   }
 
-  private void sortPetrolStations() {
-    PetrolStations
-        .sortByPriceAndDistanceForPetrolType(petrolStations, userPrefs.readPreferredPetrolType());
+  /**
+   * Applies only the differences between the current rows and the given petrol stations, as
+   * computed by {@link PetrolStationsChangeSet}. Changed rows are replaced in place and
+   * repainted, the rows are only sorted again if their order might have changed.
+   * If stations have been added or removed, or if a snapshot is involved, all rows are
+   * replaced as with {@link #addPetrolStations(List)}.
+   * Fires at least one event in any case, so listeners learn about the successful update.
+   *
+   * @param petrolStations The newly fetched petrol stations.
+   */
+  synchronized void updatePetrolStations(List<PetrolStation> petrolStations) {
+    PetrolStationsChangeSet changeSet =
+        PetrolStationsChangeSet.between(this.petrolStations, petrolStations);
+
+    if (changeSet.hasAddedOrRemoved()
+        || snapshotCreatedAt != null
+        || petrolStations instanceof PetrolStationsSnapshot) {
+
+      addPetrolStations(petrolStations);
+      return;
+    }
+
+    this.updatedAt = Instant.now();
+
+    // Nothing to replace, but the time of the last update has changed.
+    if (changeSet.isEmpty()) {
+      if (getRowCount() > 0)
+        fireTableRowsUpdated(0, getRowCount() - 1);
+      else
+        fireTableDataChanged();
+
+      return;
+    }
+
+    Map<UUID, Integer> rowIndexByUuid = new HashMap<>();
+
+    for (int i = 0; i < this.petrolStations.size(); i++)
+      rowIndexByUuid.put(this.petrolStations.get(i).getUuid(), i);
+
+    for (PetrolStationsChangeSet.Change change : changeSet.getChanged())
+      this.petrolStations.set(rowIndexByUuid.get(change.getUuid()), change.getCurrent());
+
+    this.index = this.index.withChanges(changeSet);
+
+    if (changeSet.affectsOrderFor(userPrefs.readPreferredPetrolType())) {
+      this.sortPetrolStations();
+      return;
+    }
+
+    for (PetrolStationsChangeSet.Change change : changeSet.getChanged()) {
+      int rowIndex = rowIndexByUuid.get(change.getUuid());
+      fireTableRowsUpdated(rowIndex, rowIndex);
+    }
+  }
+
+  /*
+  Takes the row order for the preferred petrol type from the index, which is kept up to date
+  with the rows and only sorts petrol types whose order has changed. Thus switching the
+  preferred petrol type does not sort again.
+  */
+  private synchronized void sortPetrolStations() {
+    List<PetrolStation> sorted = index.getSortedFor(userPrefs.readPreferredPetrolType());
+
+    for (int i = 0; i < sorted.size(); i++)
+      this.petrolStations.set(i, sorted.get(i));
 
     fireTableDataChanged();
   }
@@ -20,6 +20,7 @@ import de.fornalik.tankschlau.geo.Address;
 import de.fornalik.tankschlau.geo.Geo;
 import de.fornalik.tankschlau.service.GeocodingService;
 import de.fornalik.tankschlau.service.GeocodingWorker;
+import de.fornalik.tankschlau.service.SingleFlightGeocodingService;
 import de.fornalik.tankschlau.user.UserPrefs;
 import de.fornalik.tankschlau.util.WorkerService;
 import de.fornalik.tankschlau.webserviceapi.google.GoogleGeocodingClient;
@@ -68,7 +69,12 @@ class PrefsAddressModel {
   }
 
   boolean isGeoServiceGoogleGeocodingImplementation() {
-    return (getGeocodingService().getClass() == GoogleGeocodingClient.class);
+    GeocodingService geocodingService = getGeocodingService();
+
+    if (geocodingService instanceof SingleFlightGeocodingService)
+      geocodingService = ((SingleFlightGeocodingService) geocodingService).getDelegate();
+
+    return (geocodingService.getClass() == GoogleGeocodingClient.class);
   }
 
   Optional<Address> readAddressFromUserPrefs() {
@@ -22,6 +22,7 @@ import java.net.URLEncoder;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 import java.util.logging.Logger;
 
 /**
@@ -35,6 +36,7 @@ public abstract class BaseRequest implements Request {
   private final Map<String, String> headers = new HashMap<>();
   private URL baseUrl;
   private HttpMethod httpMethod;
+  private String apiKeyId;
 
   protected BaseRequest() {
   }
@@ -109,6 +111,19 @@ public abstract class BaseRequest implements Request {
     return this.headers;
   }
 
+  @Override
+  public Optional<String> getApiKeyId() {
+    return Optional.ofNullable(apiKeyId);
+  }
+
+  /**
+   * @param apiKeyId Identifier of the API key which authenticates the request.
+   * @see #getApiKeyId()
+   */
+  protected void setApiKeyId(String apiKeyId) {
+    this.apiKeyId = apiKeyId;
+  }
+
   private String encodeString(String in, String toEncoding) {
     String encodedString;
 
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fornalik.tankschlau.net;
+
+import okhttp3.Dns;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * okhttp3 {@link Dns} decorator which caches successful lookups for a fixed time to live.
+ * Failed lookups are not cached.
+ */
+class CachingDns implements Dns {
+  private final Dns delegate;
+  private final long ttlNanos;
+  private final LongSupplier nanoClock;
+  private final Map<String, Entry> entries;
+
+  /**
+   * Constructor
+   *
+   * @param delegate The {@link Dns} which performs the real lookups, ex. {@link Dns#SYSTEM}.
+   * @param ttl      Time to live of cached lookups. Must be positive.
+   */
+  CachingDns(Dns delegate, Duration ttl) {
+    this(delegate, ttl, System::nanoTime);
+  }
+
+  CachingDns(Dns delegate, Duration ttl, LongSupplier nanoClock) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate must not be null.");
+    this.nanoClock = Objects.requireNonNull(nanoClock, "nanoClock must not be null.");
+    Objects.requireNonNull(ttl, "ttl must not be null.");
+
+    if (ttl.isNegative() || ttl.isZero())
+      throw new IllegalArgumentException("ttl must be positive.");
+
+    this.ttlNanos = ttl.toNanos();
+    this.entries = new ConcurrentHashMap<>();
+  }
+
+  @Override
+  public List<InetAddress> lookup(String hostname) throws UnknownHostException {
+    Objects.requireNonNull(hostname, "hostname must not be null.");
+
+    long now = nanoClock.getAsLong();
+    Entry entry = entries.get(hostname);
+
+    if (entry != null && now - entry.expiresAtNanos < 0)
+      return entry.addresses;
+
+    List<InetAddress> addresses = Collections.unmodifiableList(delegate.lookup(hostname));
+    entries.put(hostname, new Entry(addresses, now + ttlNanos));
+
+    return addresses;
+  }
+
+  private static class Entry {
+    private final List<InetAddress> addresses;
+    private final long expiresAtNanos;
+
+    private Entry(List<InetAddress> addresses, long expiresAtNanos) {
+      this.addresses = addresses;
+      this.expiresAtNanos = expiresAtNanos;
+    }
+  }
+}
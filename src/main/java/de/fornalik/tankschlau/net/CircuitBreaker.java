@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fornalik.tankschlau.net;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker for a single host. After a number of consecutive failures it opens and
+ * rejects calls for a while, then lets a single trial call through. A successful trial closes
+ * the breaker again, a failed one re-opens it.
+ */
+class CircuitBreaker {
+  enum State {
+    CLOSED, OPEN, HALF_OPEN
+  }
+
+  private final int failureThreshold;
+  private final long openNanos;
+  private final LongSupplier nanoClock;
+
+  private State state;
+  private int consecutiveFailures;
+  private long openedAtNanos;
+
+  /**
+   * Constructor
+   *
+   * @param failureThreshold Number of consecutive failures which open the breaker.
+   * @param openDuration     Time the breaker rejects calls before letting a trial call through.
+   * @param nanoClock        Source of monotonic time in nanoseconds, ex. System::nanoTime
+   */
+  CircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier nanoClock) {
+    if (failureThreshold < 1)
+      throw new IllegalArgumentException("failureThreshold must be positive.");
+
+    this.failureThreshold = failureThreshold;
+    this.openNanos = Objects.requireNonNull(openDuration, "openDuration must not be null.")
+        .toNanos();
+    this.nanoClock = Objects.requireNonNull(nanoClock, "nanoClock must not be null.");
+    this.state = State.CLOSED;
+  }
+
+  /**
+   * Asks for permission to call the host. Each granted permission must be followed by a call to
+   * either {@link #recordSuccess()} or {@link #recordFailure()}.
+   *
+   * @return True if the call may be done, false if it should fail fast.
+   */
+  synchronized boolean tryAcquire() {
+    switch (state) {
+      case CLOSED:
+        return true;
+
+      case OPEN:
+        if (nanoClock.getAsLong() - openedAtNanos < openNanos)
+          return false;
+
+        // Let exactly one trial call through.
+        state = State.HALF_OPEN;
+        return true;
+
+      default:
+        return false;
+    }
+  }
+
+  synchronized void recordSuccess() {
+    state = State.CLOSED;
+    consecutiveFailures = 0;
+  }
+
+  synchronized void recordFailure() {
+    consecutiveFailures++;
+
+    if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+      state = State.OPEN;
+      openedAtNanos = nanoClock.getAsLong();
+    }
+  }
+
+  /**
+   * Gives back a permission without a result, ex. if the call failed for reasons which are
+   * not related to the host. A pending trial call may be done again.
+   */
+  synchronized void release() {
+    if (state == State.HALF_OPEN)
+      state = State.OPEN;
+  }
+
+  synchronized State getState() {
+    return state;
+  }
+}
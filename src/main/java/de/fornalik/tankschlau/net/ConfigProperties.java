@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fornalik.tankschlau.net;
+
+import de.fornalik.tankschlau.user.PropertyReader;
+import okhttp3.HttpUrl;
+
+import java.util.logging.Logger;
+
+/**
+ * Helpers for reading typed configuration values of the HTTP layer from a {@link PropertyReader}.
+ */
+final class ConfigProperties {
+  private static final Logger LOGGER = Logger.getLogger(ConfigProperties.class.getName());
+
+  private ConfigProperties() {
+    throw new IllegalStateException("Utility class - not meant to be instantiated");
+  }
+
+  /**
+   * @param properties   Properties to read from.
+   * @param key          Key of the property.
+   * @param defaultValue Value to return if the property is missing or invalid.
+   * @return The property value parsed as non-negative long, or the given default.
+   */
+  static long readNonNegativeLong(PropertyReader properties, String key, long defaultValue) {
+    String value = properties.getProperty(key);
+
+    if (value == null)
+      return defaultValue;
+
+    try {
+      long parsed = Long.parseLong(value.trim());
+
+      if (parsed >= 0)
+        return parsed;
+    }
+    catch (NumberFormatException e) {
+      // Fall through to default
+    }
+
+    LOGGER.warning("Invalid value for property " + key + ": " + value + ". Using default.");
+    return defaultValue;
+  }
+
+  /**
+   * @param properties   Properties to read from.
+   * @param key          Key of the property.
+   * @param defaultValue Value to return if the property is missing or invalid.
+   * @return The property value parsed as positive int, or the given default.
+   */
+  static int readPositiveInt(PropertyReader properties, String key, int defaultValue) {
+    long value = readNonNegativeLong(properties, key, defaultValue);
+
+    if (value > 0 && value <= Integer.MAX_VALUE)
+      return (int) value;
+
+    LOGGER.warning("Invalid value for property " + key + ": " + value + ". Using default.");
+    return defaultValue;
+  }
+
+  /**
+   * @param properties   Properties to read from.
+   * @param key          Key of the property.
+   * @param defaultValue Value to return if the property is missing or invalid.
+   * @return The property value parsed as boolean ("true" or "false"), or the given default.
+   */
+  static boolean readBoolean(PropertyReader properties, String key, boolean defaultValue) {
+    String value = properties.getProperty(key);
+
+    if (value == null)
+      return defaultValue;
+
+    if ("true".equalsIgnoreCase(value.trim()))
+      return true;
+
+    if ("false".equalsIgnoreCase(value.trim()))
+      return false;
+
+    LOGGER.warning("Invalid value for property " + key + ": " + value + ". Using default.");
+    return defaultValue;
+  }
+
+  /**
+   * @param properties Properties to read from.
+   * @param key        Key of the property.
+   * @return The property value parsed as absolute http or https URL, or null if the property is
+   * missing or invalid.
+   */
+  static HttpUrl readHttpUrl(PropertyReader properties, String key) {
+    String value = properties.getProperty(key);
+
+    if (value == null)
+      return null;
+
+    HttpUrl parsed = HttpUrl.parse(value.trim());
+
+    if (parsed == null)
+      LOGGER.warning("Invalid value for property " + key + ": " + value + ". Ignoring it.");
+
+    return parsed;
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.net;
+
+import de.fornalik.tankschlau.user.PropertyReader;
+import de.fornalik.tankschlau.util.MyToStringBuilder;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Configuration of the on-disk HTTP response cache. Cached responses are revalidated with the
+ * server by ETag/Last-Modified as soon as they are stale. If the server can't be reached, the
+ * request fails as usual - offline fallback is the job of the petrol stations snapshot.
+ * <br><br>
+ * The cache is disabled by default: okhttp3 keys cached responses by their URL, and the URLs of
+ * some web services (ex. Tankerkoenig) contain the user's API key in plain text.
+ */
+public final class HttpCacheConfig {
+  public static final long DEFAULT_MAX_SIZE_MB = 0;
+
+  private static final String PROPERTY_DIR = "httpCacheDir";
+  private static final String PROPERTY_MAX_SIZE_MB = "httpCacheMaxSizeMb";
+
+  private final Path directory;
+  private final long maxSizeBytes;
+
+  /**
+   * Constructor
+   *
+   * @param directory    Directory of the cache. Should be used by this cache exclusively.
+   * @param maxSizeBytes Maximum size of the cache. 0 disables the cache.
+   */
+  public HttpCacheConfig(Path directory, long maxSizeBytes) {
+    this.directory = Objects.requireNonNull(directory, "directory must not be null.");
+
+    if (maxSizeBytes < 0)
+      throw new IllegalArgumentException("maxSizeBytes must not be negative.");
+
+    this.maxSizeBytes = maxSizeBytes;
+  }
+
+  /**
+   * Creates a configuration from the given properties, ex. variables of the VM environment.
+   * Valid keys are:
+   * <br><br>
+   * <code style="color:yellow;">httpCacheDir, httpCacheMaxSizeMb</code>
+   * <br><br>
+   * Example for enabling the cache with 20 MB: <code>-DhttpCacheMaxSizeMb=20</code>
+   *
+   * @param properties       Properties to read from.
+   * @param defaultDirectory Cache directory to use if there is no property for it.
+   * @return New instance of {@link HttpCacheConfig}. Missing or invalid properties fall back
+   * to their defaults.
+   */
+  public static HttpCacheConfig fromProperties(PropertyReader properties, Path defaultDirectory) {
+    Objects.requireNonNull(properties, "properties must not be null.");
+
+    Path directory = Optional.ofNullable(properties.getProperty(PROPERTY_DIR))
+        .map(Paths::get)
+        .orElse(defaultDirectory);
+
+    long maxSizeMb = ConfigProperties.readNonNegativeLong(
+        properties,
+        PROPERTY_MAX_SIZE_MB,
+        DEFAULT_MAX_SIZE_MB);
+
+    return new HttpCacheConfig(directory, maxSizeMb * 1024 * 1024);
+  }
+
+  public Path getDirectory() {
+    return directory;
+  }
+
+  public long getMaxSizeBytes() {
+    return maxSizeBytes;
+  }
+
+  public boolean isEnabled() {
+    return maxSizeBytes > 0;
+  }
+
+  /**
+   * Installs the cache into the given okhttp3 client builder.
+   * Does nothing if the cache is disabled.
+   *
+   * @param builder The builder of the okhttp3 client which is adapted by {@link OkHttpClient}.
+   * @return The given builder.
+   */
+  public okhttp3.OkHttpClient.Builder applyTo(okhttp3.OkHttpClient.Builder builder) {
+    if (!isEnabled())
+      return builder;
+
+    return builder.cache(new okhttp3.Cache(directory.toFile(), maxSizeBytes));
+  }
+
+  @Override
+  public String toString() {
+    return new MyToStringBuilder(this)
+        .append("directory", directory)
+        .append("maxSizeBytes", maxSizeBytes)
+        .toString();
+  }
+}
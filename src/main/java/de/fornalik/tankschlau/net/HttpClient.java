@@ -17,6 +17,7 @@
 package de.fornalik.tankschlau.net;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface for HTTP client used by this application.
@@ -24,10 +25,24 @@ import java.util.Optional;
 public interface HttpClient {
 
   /**
-   * @return The request which was last used invoking {@link #newCall(Request, Response, Class)}.
+   * @return The request which was last used invoking {@link #newCall(Request, Response, Class)}
+   * or {@link #newCallAsync(Request, Response, Class)}.
    */
   Optional<Request> getRequest();
 
+  /**
+   * Tells how many calls like the given one can be sent right away, without being delayed or
+   * rejected because of a rate limit. Use it to decide whether a series of calls fits into the
+   * quota of the web service as a whole.
+   *
+   * @param request A configured {@link Request} object. It's not sent.
+   * @return Number of calls which can be sent right away, or <code>Integer.MAX_VALUE</code> if
+   * calls like the given one are not limited.
+   */
+  default int getAvailableCalls(final Request request) {
+    return Integer.MAX_VALUE;
+  }
+
   /**
    * Calls the web service synchronously and extracts its response body.
    *
@@ -35,12 +50,44 @@ public interface HttpClient {
    * @param response           A default-initialized implementation of {@link Response}, which
    *                           will be populated by the server's response data, then being passed
    *                           back as the return value.
-   * @param typeOfResponseData Type variable for the body data, e.g. <code>String.class</code>
+   * @param typeOfResponseData Type variable for the body data. Supported are
+   *                           <code>String.class</code>, which reads the whole body into
+   *                           memory, and the streaming types <code>java.io.Reader.class</code>,
+   *                           <code>java.io.InputStream.class</code> and
+   *                           <code>okio.BufferedSource.class</code>, which are read straight off
+   *                           the connection. <b>Streaming body data must be closed by the
+   *                           caller</b> to release the connection.
    * @param <T>                The class of a type.
    * @return The populated {@link Response} object which was passed to this method.
+   * @throws UnsupportedOperationException If typeOfResponseData is not supported.
    */
   <T> Response newCall(
       final Request request,
       final Response response,
       final Class<T> typeOfResponseData);
+
+  /**
+   * Calls the web service asynchronously and extracts its response body. The calling thread
+   * is not blocked while waiting for the server, so multiple calls can be in flight at the
+   * same time - as long as each of them gets its own {@link Response} object.
+   * <br><br>
+   * Like {@link #newCall(Request, Response, Class)}, transport errors do not complete the future
+   * exceptionally, but are pushed into the {@link Response}'s transaction info. Cancelling the
+   * returned future cancels the underlying call.
+   *
+   * @param request            A configured {@link Request} object.
+   * @param response           A default-initialized implementation of {@link Response}, which
+   *                           will be populated by the server's response data. Must not be
+   *                           shared with other calls which are in flight.
+   * @param typeOfResponseData Type variable for the body data.
+   *                           See {@link #newCall(Request, Response, Class)}.
+   * @param <T>                The class of a type.
+   * @return Future which completes with the populated {@link Response} object which was passed
+   * to this method.
+   * @throws UnsupportedOperationException If typeOfResponseData is not supported.
+   */
+  <T> CompletableFuture<Response> newCallAsync(
+      final Request request,
+      final Response response,
+      final Class<T> typeOfResponseData);
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fornalik.tankschlau.net;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.logging.Logger;
+
+/**
+ * Opens connections to the hosts of the used web services in the background, so TCP and TLS
+ * handshakes are off the path of the first user-visible request. The connections are kept in
+ * the connection pool of the given okhttp3 client.
+ */
+public class HttpPreconnector {
+  private static final Logger LOGGER = Logger.getLogger(HttpPreconnector.class.getName());
+
+  private final okhttp3.OkHttpClient okHttp3Client;
+  private final List<String> hosts;
+
+  /**
+   * Constructor
+   *
+   * @param okHttp3Client The okhttp3 client whose connection pool should be warmed up.
+   * @param hosts         Host names to connect to via https. May be empty.
+   */
+  public HttpPreconnector(okhttp3.OkHttpClient okHttp3Client, List<String> hosts) {
+    this.okHttp3Client = Objects.requireNonNull(okHttp3Client, "okHttp3Client must not be null.");
+    this.hosts = Objects.requireNonNull(hosts, "hosts must not be null.");
+  }
+
+  /**
+   * Asynchronously sends a HEAD request to each host. Returns immediately. Failures are logged
+   * only, since the real requests will connect on demand anyway.
+   */
+  public void preconnect() {
+    for (String host : hosts) {
+      okhttp3.Request request = new okhttp3.Request.Builder()
+          .url("https://" + host + "/")
+          .head()
+          .build();
+
+      okHttp3Client.newCall(request).enqueue(new Callback() {
+        @Override
+        public void onFailure(Call call, IOException e) {
+          LOGGER.fine("Pre-connect to " + host + " failed. " + e.getMessage());
+        }
+
+        @Override
+        public void onResponse(Call call, okhttp3.Response response) {
+          response.close();
+          LOGGER.fine("Pre-connected to " + host);
+        }
+      });
+    }
+  }
+}
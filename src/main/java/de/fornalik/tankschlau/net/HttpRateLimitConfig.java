@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.net;
+
+import de.fornalik.tankschlau.user.PropertyReader;
+import de.fornalik.tankschlau.util.MyToStringBuilder;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalInt;
+
+/**
+ * Configuration of {@link RateLimitedHttpClient}: the number of calls per minute which may be
+ * sent to each provider, and how long a call may wait for its turn.
+ */
+public final class HttpRateLimitConfig {
+  public static final int DEFAULT_TANKERKOENIG_CALLS_PER_MINUTE = 12;
+  public static final int DEFAULT_GOOGLE_CALLS_PER_MINUTE = 50;
+  public static final int DEFAULT_PUSHOVER_CALLS_PER_MINUTE = 6;
+  public static final Duration DEFAULT_MAX_WAIT = Duration.ofSeconds(10);
+
+  private static final String PROPERTY_RATE_LIMITING = "httpRateLimiting";
+  private static final String PROPERTY_MAX_WAIT_MS = "httpRateLimitMaxWaitMs";
+  private static final String PROPERTY_TANKERKOENIG = "httpRateLimitTankerkoenigPerMinute";
+  private static final String PROPERTY_GOOGLE = "httpRateLimitGooglePerMinute";
+  private static final String PROPERTY_PUSHOVER = "httpRateLimitPushoverPerMinute";
+
+  private boolean enabled;
+  private Duration maxWait;
+  private final Map<String, Integer> callsPerMinute;
+
+  /**
+   * Creates a configuration with default values. Rate limiting is enabled by default.
+   */
+  public HttpRateLimitConfig() {
+    this.enabled = true;
+    this.maxWait = DEFAULT_MAX_WAIT;
+    this.callsPerMinute = new HashMap<>();
+
+    callsPerMinute.put("tankerkoenig", DEFAULT_TANKERKOENIG_CALLS_PER_MINUTE);
+    callsPerMinute.put("google", DEFAULT_GOOGLE_CALLS_PER_MINUTE);
+    callsPerMinute.put("pushover", DEFAULT_PUSHOVER_CALLS_PER_MINUTE);
+  }
+
+  /**
+   * Creates a configuration from the given properties, ex. variables of the VM environment or
+   * user preferences. Valid keys are:
+   * <br><br>
+   * <code style="color:yellow;">httpRateLimiting, httpRateLimitMaxWaitMs,
+   * httpRateLimitTankerkoenigPerMinute, httpRateLimitGooglePerMinute,
+   * httpRateLimitPushoverPerMinute</code>
+   * <br><br>
+   * Example for disabling rate limiting: <code>-DhttpRateLimiting=false</code>
+   *
+   * @param properties Properties to read from.
+   * @return New instance of {@link HttpRateLimitConfig}. Missing or invalid properties fall
+   * back to their defaults.
+   */
+  public static HttpRateLimitConfig fromProperties(PropertyReader properties) {
+    Objects.requireNonNull(properties, "properties must not be null.");
+
+    HttpRateLimitConfig config = new HttpRateLimitConfig();
+
+    config.enabled = ConfigProperties.readBoolean(properties, PROPERTY_RATE_LIMITING, true);
+
+    config.maxWait = Duration.ofMillis(ConfigProperties.readNonNegativeLong(
+        properties, PROPERTY_MAX_WAIT_MS, DEFAULT_MAX_WAIT.toMillis()));
+
+    config.callsPerMinute.put("tankerkoenig", ConfigProperties.readPositiveInt(
+        properties, PROPERTY_TANKERKOENIG, DEFAULT_TANKERKOENIG_CALLS_PER_MINUTE));
+
+    config.callsPerMinute.put("google", ConfigProperties.readPositiveInt(
+        properties, PROPERTY_GOOGLE, DEFAULT_GOOGLE_CALLS_PER_MINUTE));
+
+    config.callsPerMinute.put("pushover", ConfigProperties.readPositiveInt(
+        properties, PROPERTY_PUSHOVER, DEFAULT_PUSHOVER_CALLS_PER_MINUTE));
+
+    return config;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * @return Longest time a call waits for its turn before it is rejected.
+   */
+  public Duration getMaxWait() {
+    return maxWait;
+  }
+
+  /**
+   * @param provider Name of the provider, see {@link NetworkTimingStats#providerOf(String)}.
+   * @return Number of calls per minute which may be sent to the provider, which is also the
+   * size of the largest burst. Empty if calls to the provider are not limited.
+   */
+  public OptionalInt getCallsPerMinute(String provider) {
+    Integer value = callsPerMinute.get(provider);
+    return value != null ? OptionalInt.of(value) : OptionalInt.empty();
+  }
+
+  @Override
+  public String toString() {
+    return new MyToStringBuilder(this)
+        .append("enabled", enabled)
+        .append("maxWait", maxWait)
+        .append("callsPerMinute", Collections.unmodifiableMap(callsPerMinute))
+        .toString();
+  }
+}
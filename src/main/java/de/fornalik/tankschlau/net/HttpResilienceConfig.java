@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fornalik.tankschlau.net;
+
+import de.fornalik.tankschlau.user.PropertyReader;
+import de.fornalik.tankschlau.util.MyToStringBuilder;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Configuration of {@link ResilientHttpClient}: retries with backoff, circuit breaking and
+ * hedged requests.
+ */
+public final class HttpResilienceConfig {
+  public static final int DEFAULT_MAX_RETRIES = 2;
+  public static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofMillis(250);
+  public static final Duration DEFAULT_MAX_BACKOFF = Duration.ofSeconds(4);
+  public static final int DEFAULT_BREAKER_FAILURE_THRESHOLD = 5;
+  public static final Duration DEFAULT_BREAKER_OPEN_DURATION = Duration.ofSeconds(30);
+  public static final Duration DEFAULT_MIN_HEDGE_DELAY = Duration.ofMillis(100);
+
+  private static final String PROPERTY_MAX_RETRIES = "httpMaxRetries";
+  private static final String PROPERTY_INITIAL_BACKOFF_MS = "httpRetryInitialBackoffMs";
+  private static final String PROPERTY_MAX_BACKOFF_MS = "httpRetryMaxBackoffMs";
+  private static final String PROPERTY_BREAKER_FAILURE_THRESHOLD = "httpBreakerFailureThreshold";
+  private static final String PROPERTY_BREAKER_OPEN_SECONDS = "httpBreakerOpenSeconds";
+  private static final String PROPERTY_HEDGING = "httpHedging";
+  private static final String PROPERTY_MIN_HEDGE_DELAY_MS = "httpMinHedgeDelayMs";
+
+  private int maxRetries;
+  private Duration initialBackoff;
+  private Duration maxBackoff;
+  private int breakerFailureThreshold;
+  private Duration breakerOpenDuration;
+  private boolean hedgingEnabled;
+  private Duration minHedgeDelay;
+
+  /**
+   * Creates a configuration with default values. Hedging is disabled by default.
+   */
+  public HttpResilienceConfig() {
+    this.maxRetries = DEFAULT_MAX_RETRIES;
+    this.initialBackoff = DEFAULT_INITIAL_BACKOFF;
+    this.maxBackoff = DEFAULT_MAX_BACKOFF;
+    this.breakerFailureThreshold = DEFAULT_BREAKER_FAILURE_THRESHOLD;
+    this.breakerOpenDuration = DEFAULT_BREAKER_OPEN_DURATION;
+    this.hedgingEnabled = false;
+    this.minHedgeDelay = DEFAULT_MIN_HEDGE_DELAY;
+  }
+
+  /**
+   * Creates a configuration from the given properties, ex. variables of the VM environment or
+   * user preferences. Valid keys are:
+   * <br><br>
+   * <code style="color:yellow;">httpMaxRetries, httpRetryInitialBackoffMs,
+   * httpRetryMaxBackoffMs, httpBreakerFailureThreshold, httpBreakerOpenSeconds, httpHedging,
+   * httpMinHedgeDelayMs</code>
+   * <br><br>
+   * Example for enabling hedged requests: <code>-DhttpHedging=true</code>
+   *
+   * @param properties Properties to read from.
+   * @return New instance of {@link HttpResilienceConfig}. Missing or invalid properties fall
+   * back to their defaults.
+   */
+  public static HttpResilienceConfig fromProperties(PropertyReader properties) {
+    Objects.requireNonNull(properties, "properties must not be null.");
+
+    HttpResilienceConfig config = new HttpResilienceConfig();
+
+    config.maxRetries = (int) Math.min(
+        ConfigProperties.readNonNegativeLong(properties, PROPERTY_MAX_RETRIES, DEFAULT_MAX_RETRIES),
+        Integer.MAX_VALUE);
+
+    config.initialBackoff = Duration.ofMillis(ConfigProperties.readNonNegativeLong(
+        properties, PROPERTY_INITIAL_BACKOFF_MS, DEFAULT_INITIAL_BACKOFF.toMillis()));
+
+    config.maxBackoff = Duration.ofMillis(ConfigProperties.readNonNegativeLong(
+        properties, PROPERTY_MAX_BACKOFF_MS, DEFAULT_MAX_BACKOFF.toMillis()));
+
+    config.breakerFailureThreshold = ConfigProperties.readPositiveInt(
+        properties, PROPERTY_BREAKER_FAILURE_THRESHOLD, DEFAULT_BREAKER_FAILURE_THRESHOLD);
+
+    config.breakerOpenDuration = Duration.ofSeconds(ConfigProperties.readNonNegativeLong(
+        properties, PROPERTY_BREAKER_OPEN_SECONDS, DEFAULT_BREAKER_OPEN_DURATION.getSeconds()));
+
+    config.hedgingEnabled = ConfigProperties.readBoolean(properties, PROPERTY_HEDGING, false);
+
+    config.minHedgeDelay = Duration.ofMillis(ConfigProperties.readNonNegativeLong(
+        properties, PROPERTY_MIN_HEDGE_DELAY_MS, DEFAULT_MIN_HEDGE_DELAY.toMillis()));
+
+    return config;
+  }
+
+  /**
+   * @return Number of retries after the first failed attempt of an idempotent request.
+   */
+  public int getMaxRetries() {
+    return maxRetries;
+  }
+
+  public Duration getInitialBackoff() {
+    return initialBackoff;
+  }
+
+  public Duration getMaxBackoff() {
+    return maxBackoff;
+  }
+
+  public int getBreakerFailureThreshold() {
+    return breakerFailureThreshold;
+  }
+
+  public Duration getBreakerOpenDuration() {
+    return breakerOpenDuration;
+  }
+
+  public boolean isHedgingEnabled() {
+    return hedgingEnabled;
+  }
+
+  /**
+   * @return Lower bound of the time to wait for the first attempt before a hedged request is
+   * sent, in case the observed p95 latency is even lower.
+   */
+  public Duration getMinHedgeDelay() {
+    return minHedgeDelay;
+  }
+
+  @Override
+  public String toString() {
+    return new MyToStringBuilder(this)
+        .append("maxRetries", maxRetries)
+        .append("initialBackoff", initialBackoff)
+        .append("maxBackoff", maxBackoff)
+        .append("breakerFailureThreshold", breakerFailureThreshold)
+        .append("breakerOpenDuration", breakerOpenDuration)
+        .append("hedgingEnabled", hedgingEnabled)
+        .append("minHedgeDelay", minHedgeDelay)
+        .toString();
+  }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fornalik.tankschlau.net;
+
+import de.fornalik.tankschlau.user.PropertyReader;
+import de.fornalik.tankschlau.util.MyToStringBuilder;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Dns;
+import okhttp3.HttpUrl;
+
+import javax.net.SocketFactory;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration of the HTTP transport: connection pool, dispatcher concurrency, timeouts,
+ * DNS caching and pre-connecting to the hosts of the used web services. For load tests, all
+ * requests may be redirected to a local stand-in of the web services.
+ */
+public final class HttpTransportConfig {
+  public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+  public static final Duration DEFAULT_KEEP_ALIVE = Duration.ofMinutes(5);
+  public static final int DEFAULT_MAX_REQUESTS = 64;
+  public static final int DEFAULT_MAX_REQUESTS_PER_HOST = 5;
+  public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+  public static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(10);
+  public static final Duration DEFAULT_CALL_TIMEOUT = Duration.ofSeconds(30);
+  public static final Duration DEFAULT_DNS_TTL = Duration.ofMinutes(5);
+
+  public static final String TANKERKOENIG_HOST = "creativecommons.tankerkoenig.de";
+  public static final String GOOGLE_MAPS_HOST = "maps.googleapis.com";
+  public static final String PUSHOVER_HOST = "api.pushover.net";
+
+  /**
+   * Hosts of all web services used by the application.
+   */
+  public static final List<String> DEFAULT_PRECONNECT_HOSTS = Collections.unmodifiableList(
+      Arrays.asList(TANKERKOENIG_HOST, GOOGLE_MAPS_HOST, PUSHOVER_HOST));
+
+  private static final String PROPERTY_MAX_IDLE_CONNECTIONS = "httpMaxIdleConnections";
+  private static final String PROPERTY_KEEP_ALIVE_SECONDS = "httpKeepAliveSeconds";
+  private static final String PROPERTY_MAX_REQUESTS = "httpMaxRequests";
+  private static final String PROPERTY_MAX_REQUESTS_PER_HOST = "httpMaxRequestsPerHost";
+  private static final String PROPERTY_CONNECT_TIMEOUT_MS = "httpConnectTimeoutMs";
+  private static final String PROPERTY_READ_TIMEOUT_MS = "httpReadTimeoutMs";
+  private static final String PROPERTY_CALL_TIMEOUT_MS = "httpCallTimeoutMs";
+  private static final String PROPERTY_DNS_TTL_SECONDS = "httpDnsTtlSeconds";
+  private static final String PROPERTY_PRECONNECT = "httpPreconnect";
+  private static final String PROPERTY_UPSTREAM_OVERRIDE = "httpUpstreamOverride";
+
+  private int maxIdleConnections;
+  private Duration keepAlive;
+  private int maxRequests;
+  private int maxRequestsPerHost;
+  private Duration connectTimeout;
+  private Duration readTimeout;
+  private Duration callTimeout;
+  private Duration dnsTtl;
+  private List<String> preconnectHosts;
+  private HttpUrl upstreamOverride;
+
+  /**
+   * Creates a configuration with default values.
+   */
+  public HttpTransportConfig() {
+    this.maxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
+    this.keepAlive = DEFAULT_KEEP_ALIVE;
+    this.maxRequests = DEFAULT_MAX_REQUESTS;
+    this.maxRequestsPerHost = DEFAULT_MAX_REQUESTS_PER_HOST;
+    this.connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+    this.readTimeout = DEFAULT_READ_TIMEOUT;
+    this.callTimeout = DEFAULT_CALL_TIMEOUT;
+    this.dnsTtl = DEFAULT_DNS_TTL;
+    this.preconnectHosts = DEFAULT_PRECONNECT_HOSTS;
+  }
+
+  /**
+   * Creates a configuration from the given properties, ex. variables of the VM environment or
+   * user preferences. Valid keys are:
+   * <br><br>
+   * <code style="color:yellow;">httpMaxIdleConnections, httpKeepAliveSeconds, httpMaxRequests,
+   * httpMaxRequestsPerHost, httpConnectTimeoutMs, httpReadTimeoutMs, httpCallTimeoutMs,
+   * httpDnsTtlSeconds, httpPreconnect, httpUpstreamOverride</code>
+   * <br><br>
+   * A timeout or DNS TTL of 0 disables the timeout or the DNS cache respectively.
+   * Example for disabling pre-connecting at startup: <code>-DhttpPreconnect=false</code>
+   * <br>
+   * Example for sending all requests to a local server instead of the real web services:
+   * <code>-DhttpUpstreamOverride=http://localhost:8089</code>
+   *
+   * @param properties Properties to read from.
+   * @return New instance of {@link HttpTransportConfig}. Missing or invalid properties fall
+   * back to their defaults.
+   */
+  public static HttpTransportConfig fromProperties(PropertyReader properties) {
+    Objects.requireNonNull(properties, "properties must not be null.");
+
+    HttpTransportConfig config = new HttpTransportConfig();
+
+    config.maxIdleConnections = ConfigProperties.readPositiveInt(
+        properties, PROPERTY_MAX_IDLE_CONNECTIONS, DEFAULT_MAX_IDLE_CONNECTIONS);
+
+    config.keepAlive = Duration.ofSeconds(ConfigProperties.readNonNegativeLong(
+        properties, PROPERTY_KEEP_ALIVE_SECONDS, DEFAULT_KEEP_ALIVE.getSeconds()));
+
+    config.maxRequests = ConfigProperties.readPositiveInt(
+        properties, PROPERTY_MAX_REQUESTS, DEFAULT_MAX_REQUESTS);
+
+    config.maxRequestsPerHost = ConfigProperties.readPositiveInt(
+        properties, PROPERTY_MAX_REQUESTS_PER_HOST, DEFAULT_MAX_REQUESTS_PER_HOST);
+
+    config.connectTimeout = Duration.ofMillis(ConfigProperties.readNonNegativeLong(
+        properties, PROPERTY_CONNECT_TIMEOUT_MS, DEFAULT_CONNECT_TIMEOUT.toMillis()));
+
+    config.readTimeout = Duration.ofMillis(ConfigProperties.readNonNegativeLong(
+        properties, PROPERTY_READ_TIMEOUT_MS, DEFAULT_READ_TIMEOUT.toMillis()));
+
+    config.callTimeout = Duration.ofMillis(ConfigProperties.readNonNegativeLong(
+        properties, PROPERTY_CALL_TIMEOUT_MS, DEFAULT_CALL_TIMEOUT.toMillis()));
+
+    config.dnsTtl = Duration.ofSeconds(ConfigProperties.readNonNegativeLong(
+        properties, PROPERTY_DNS_TTL_SECONDS, DEFAULT_DNS_TTL.getSeconds()));
+
+    boolean preconnect = ConfigProperties.readBoolean(properties, PROPERTY_PRECONNECT, true);
+    config.upstreamOverride = ConfigProperties.readHttpUrl(properties, PROPERTY_UPSTREAM_OVERRIDE);
+
+    // There's no use in connecting to the real hosts, if requests won't go there.
+    config.preconnectHosts = preconnect && config.upstreamOverride == null
+        ? DEFAULT_PRECONNECT_HOSTS
+        : Collections.emptyList();
+
+    return config;
+  }
+
+  public int getMaxIdleConnections() {
+    return maxIdleConnections;
+  }
+
+  public Duration getKeepAlive() {
+    return keepAlive;
+  }
+
+  public int getMaxRequests() {
+    return maxRequests;
+  }
+
+  public int getMaxRequestsPerHost() {
+    return maxRequestsPerHost;
+  }
+
+  public Duration getConnectTimeout() {
+    return connectTimeout;
+  }
+
+  public Duration getReadTimeout() {
+    return readTimeout;
+  }
+
+  public Duration getCallTimeout() {
+    return callTimeout;
+  }
+
+  public Duration getDnsTtl() {
+    return dnsTtl;
+  }
+
+  /**
+   * @return Hosts to connect to at startup, so the TCP and TLS handshakes are already done
+   * when the first request is sent. Empty if pre-connecting is disabled. Hosts of web services
+   * which are turned off by the user should be skipped by the caller.
+   */
+  public List<String> getPreconnectHosts() {
+    return preconnectHosts;
+  }
+
+  /**
+   * @return Server which receives all requests instead of the hosts of the web services. Only
+   * its scheme, host and port are used. Empty if requests go to the real web services.
+   */
+  public Optional<HttpUrl> getUpstreamOverride() {
+    return Optional.ofNullable(upstreamOverride);
+  }
+
+  /**
+   * Installs connection pool, dispatcher, timeouts, TCP_NODELAY sockets, DNS cache and the
+   * optional upstream override into the given okhttp3 client builder.
+   *
+   * @param builder The builder of the okhttp3 client which is adapted by {@link OkHttpClient}.
+   * @return The given builder.
+   */
+  public okhttp3.OkHttpClient.Builder applyTo(okhttp3.OkHttpClient.Builder builder) {
+    Dispatcher dispatcher = new Dispatcher();
+    dispatcher.setMaxRequests(maxRequests);
+    dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+
+    builder
+        .connectionPool(new ConnectionPool(
+            maxIdleConnections,
+            keepAlive.toMillis(),
+            TimeUnit.MILLISECONDS))
+        .dispatcher(dispatcher)
+        .connectTimeout(connectTimeout.toMillis(), TimeUnit.MILLISECONDS)
+        .readTimeout(readTimeout.toMillis(), TimeUnit.MILLISECONDS)
+        .callTimeout(callTimeout.toMillis(), TimeUnit.MILLISECONDS)
+        .socketFactory(new NoDelaySocketFactory(SocketFactory.getDefault()));
+
+    if (!dnsTtl.isZero())
+      builder.dns(new CachingDns(Dns.SYSTEM, dnsTtl));
+
+    if (upstreamOverride != null)
+      builder.addInterceptor(new UpstreamOverrideInterceptor(upstreamOverride));
+
+    return builder;
+  }
+
+  @Override
+  public String toString() {
+    return new MyToStringBuilder(this)
+        .append("maxIdleConnections", maxIdleConnections)
+        .append("keepAlive", keepAlive)
+        .append("maxRequests", maxRequests)
+        .append("maxRequestsPerHost", maxRequestsPerHost)
+        .append("connectTimeout", connectTimeout)
+        .append("readTimeout", readTimeout)
+        .append("callTimeout", callTimeout)
+        .append("dnsTtl", dnsTtl)
+        .append("preconnectHosts", preconnectHosts)
+        .append("upstreamOverride", upstreamOverride)
+        .toString();
+  }
+}
@@ -16,6 +16,10 @@
 
 package de.fornalik.tankschlau.net;
 
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
 /**
  * Additional interface for {@link Request} data that must form a JSON body.
  */
@@ -23,6 +27,16 @@ public interface JsonRequest extends Request {
 
   /**
    * @return JSON string for use in a request body.
+   * @see #writeJsonBody(JsonWriter)
    */
   String computeJsonBody();
+
+  /**
+   * Writes the JSON request body straight into the given writer, without building an
+   * intermediate String. Keys and values are escaped as needed.
+   *
+   * @param writer Writer the JSON object gets written to. It's not closed by this method.
+   * @throws IOException If writing fails.
+   */
+  void writeJsonBody(JsonWriter writer) throws IOException;
 }
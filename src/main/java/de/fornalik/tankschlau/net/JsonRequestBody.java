@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.net;
+
+import com.google.gson.stream.JsonWriter;
+import okio.BufferedSink;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Objects;
+
+/**
+ * okhttp3 request body which writes the body parameters of a {@link JsonRequest} straight into
+ * the sink of the connection. No intermediate String of the JSON document is built, and the
+ * characters are encoded to UTF-8 by the sink itself, without an encoder buffer per call.
+ * The content length is unknown in advance, so okhttp3 transmits the body chunked.
+ */
+class JsonRequestBody extends okhttp3.RequestBody {
+  private static final okhttp3.MediaType MEDIA_TYPE =
+      okhttp3.MediaType.parse("application/json; charset=utf-8");
+
+  private final JsonRequest request;
+
+  JsonRequestBody(JsonRequest request) {
+    this.request = Objects.requireNonNull(request, "request must not be null.");
+  }
+
+  @Override
+  public okhttp3.MediaType contentType() {
+    return MEDIA_TYPE;
+  }
+
+  @Override
+  public void writeTo(BufferedSink sink) throws IOException {
+    request.writeJsonBody(new JsonWriter(new Utf8SinkWriter(sink)));
+  }
+
+  /*
+  Hands the characters over to BufferedSink.writeUtf8, which encodes them straight into the
+  segments of the sink. Flushing and closing are left to okhttp3, which owns the sink.
+  */
+  private static final class Utf8SinkWriter extends Writer {
+    private final BufferedSink sink;
+
+    private Utf8SinkWriter(BufferedSink sink) {
+      this.sink = sink;
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+      sink.writeUtf8(str, off, off + len);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+      sink.writeUtf8(new String(cbuf, off, len));
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
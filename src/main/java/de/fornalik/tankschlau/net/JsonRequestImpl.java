@@ -16,9 +16,12 @@
 
 package de.fornalik.tankschlau.net;
 
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.util.Map;
-import java.util.Objects;
-import java.util.stream.Collectors;
 
 /**
  * Supporting class for classes inherited from {@link BaseRequest} that additionally must be able
@@ -28,22 +31,31 @@ public class JsonRequestImpl extends BaseRequest implements JsonRequest {
 
   @Override
   public String computeJsonBody() {
-    Map<String, String> bodyParams = getBodyParameters();
+    StringWriter stringWriter = new StringWriter();
+
+    try {
+      writeJsonBody(new JsonWriter(stringWriter));
+    }
+    catch (IOException e) {
+      // StringWriter does not throw, so this would be a severe problem.
+      throw new UncheckedIOException(e);
+    }
 
-    if (bodyParams.size() == 0)
-      return "{}";
+    return stringWriter.toString();
+  }
+
+  @Override
+  public void writeJsonBody(JsonWriter writer) throws IOException {
+    writer.beginObject();
 
-    String jsonString = "";
+    for (Map.Entry<String, String> bodyParam : getBodyParameters().entrySet()) {
+      if (bodyParam.getKey() == null)
+        continue;
 
-    jsonString += bodyParams.keySet().stream()
-        .filter(Objects::nonNull)
-        .map(key -> {
-          String property = "\"" + key + "\"";
-          String value = bodyParams.get(key);
-          return (value == null ? property + ": null" : property + ": \"" + value + "\"");
-        })
-        .collect(Collectors.joining(", ", "{", "}"));
+      writer.name(bodyParam.getKey()).value(bodyParam.getValue());
+    }
 
-    return jsonString;
+    writer.endObject();
+    writer.flush();
   }
-}
\ No newline at end of file
+}
@@ -16,6 +16,7 @@
 
 package de.fornalik.tankschlau.net;
 
+import java.io.Reader;
 import java.util.Optional;
 
 /**
@@ -29,4 +30,14 @@ public interface JsonResponse extends Response {
    * @param <T>         e.g. <code>String.class</code>.
    */
   <T> Optional<T> fromJson(String jsonString, Class<T> targetClass);
+
+  /**
+   * Streaming variant of {@link #fromJson(String, Class)}, reading the JSON document straight
+   * from the given reader. The reader is not closed by this method.
+   *
+   * @param jsonReader  Some reader of a JSON document to deserialize.
+   * @param targetClass Type of class T which is the deserialization target.
+   * @param <T>         e.g. <code>String.class</code>.
+   */
+  <T> Optional<T> fromJson(Reader jsonReader, Class<T> targetClass);
 }
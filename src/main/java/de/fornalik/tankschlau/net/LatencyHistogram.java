@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fornalik.tankschlau.net;
+
+import de.fornalik.tankschlau.util.MyToStringBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Lock-free histogram of durations since application start. Buckets grow exponentially with
+ * four sub-buckets per power of two, so each reported percentile overestimates the real value
+ * by at most 25%, while memory stays constant regardless of the number of recorded values.
+ */
+public final class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 2;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  // Covers durations of up to 2^40 microseconds, which is about 12 days.
+  private static final int MAX_EXPONENT = 40;
+  private static final int BUCKET_COUNT = SUB_BUCKETS * (MAX_EXPONENT - SUB_BUCKET_BITS + 2);
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+  private final AtomicLong count = new AtomicLong();
+  private final AtomicLong sumMicros = new AtomicLong();
+  private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+
+  /**
+   * @param duration Duration to record. Negative durations are recorded as zero.
+   */
+  public void record(Duration duration) {
+    recordNanos(duration.toNanos());
+  }
+
+  void recordNanos(long nanos) {
+    long micros = Math.max(0, nanos / 1000);
+
+    buckets.incrementAndGet(bucketIndex(micros));
+    count.incrementAndGet();
+    sumMicros.addAndGet(micros);
+    maxMicros.accumulate(micros);
+  }
+
+  public long getCount() {
+    return count.get();
+  }
+
+  /**
+   * @return Arithmetic mean of all recorded durations, or zero if nothing has been recorded.
+   */
+  public Duration getMean() {
+    long n = count.get();
+    return n == 0 ? Duration.ZERO : Duration.ofNanos(sumMicros.get() * 1000 / n);
+  }
+
+  public Duration getMax() {
+    return Duration.ofNanos(maxMicros.get() * 1000);
+  }
+
+  /**
+   * @param percentile Percentile between 0 (exclusive) and 100 (inclusive), ex. 95
+   * @return Upper bound of the bucket which holds the given percentile, but not more than the
+   * maximum recorded duration. Zero if nothing has been recorded.
+   */
+  public Duration getPercentile(double percentile) {
+    if (percentile <= 0 || percentile > 100)
+      throw new IllegalArgumentException("percentile must be in range (0, 100].");
+
+    long n = count.get();
+
+    if (n == 0)
+      return Duration.ZERO;
+
+    long rank = (long) Math.ceil(percentile / 100 * n);
+    long seen = 0;
+
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += buckets.get(i);
+
+      if (seen >= rank)
+        return Duration.ofNanos(Math.min(bucketUpperMicros(i), maxMicros.get()) * 1000);
+    }
+
+    // Concurrent updates may let the total count run ahead of the buckets.
+    return getMax();
+  }
+
+  static int bucketIndex(long micros) {
+    if (micros < SUB_BUCKETS)
+      return (int) micros;
+
+    int exponent = Math.min(63 - Long.numberOfLeadingZeros(micros), MAX_EXPONENT);
+    int shift = exponent - SUB_BUCKET_BITS;
+    int subBucket = (int) (micros >>> shift) & (SUB_BUCKETS - 1);
+
+    return Math.min(SUB_BUCKETS * (shift + 1) + subBucket, BUCKET_COUNT - 1);
+  }
+
+  static long bucketUpperMicros(int index) {
+    if (index < SUB_BUCKETS)
+      return index;
+
+    int shift = index / SUB_BUCKETS - 1;
+    long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+
+    return lower + (1L << shift) - 1;
+  }
+
+  @Override
+  public String toString() {
+    return new MyToStringBuilder(this)
+        .append("count", getCount())
+        .append("p50", getPercentile(50))
+        .append("p90", getPercentile(90))
+        .append("p99", getPercentile(99))
+        .append("max", getMax())
+        .toString();
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fornalik.tankschlau.net;
+
+import java.util.Arrays;
+import java.util.OptionalLong;
+
+/**
+ * Keeps the latencies of the most recent calls to a single host and derives percentiles.
+ */
+class LatencyTracker {
+  private final long[] samples;
+  private final int minSamples;
+  private int count;
+  private int next;
+
+  /**
+   * Constructor
+   *
+   * @param windowSize Number of most recent samples to keep.
+   * @param minSamples Number of samples needed before percentiles are reported.
+   */
+  LatencyTracker(int windowSize, int minSamples) {
+    if (windowSize < 1 || minSamples < 1 || minSamples > windowSize)
+      throw new IllegalArgumentException("Invalid window size or min samples.");
+
+    this.samples = new long[windowSize];
+    this.minSamples = minSamples;
+  }
+
+  synchronized void record(long latencyNanos) {
+    samples[next] = latencyNanos;
+    next = (next + 1) % samples.length;
+    count = Math.min(count + 1, samples.length);
+  }
+
+  /**
+   * @param percentile Percentile between 0 (exclusive) and 100 (inclusive), ex. 95
+   * @return The latency in nanoseconds which the given percentage of recent calls did not
+   * exceed, or empty if there are not enough samples yet.
+   */
+  synchronized OptionalLong percentile(double percentile) {
+    if (percentile <= 0 || percentile > 100)
+      throw new IllegalArgumentException("percentile must be in range (0, 100].");
+
+    if (count < minSamples)
+      return OptionalLong.empty();
+
+    long[] sorted = Arrays.copyOf(samples, count);
+    Arrays.sort(sorted);
+
+    int index = (int) Math.ceil(percentile / 100 * count) - 1;
+    return OptionalLong.of(sorted[Math.max(index, 0)]);
+  }
+}
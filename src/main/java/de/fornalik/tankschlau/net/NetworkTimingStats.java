@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fornalik.tankschlau.net;
+
+import de.fornalik.tankschlau.util.MyToStringBuilder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Network timings of all HTTP calls since application start, aggregated per provider of a web
+ * service into one {@link LatencyHistogram} per {@link Phase}. Tells whether a slow refresh is
+ * caused by DNS, connecting, TLS, the server or the download.
+ * <br><br>
+ * The summary is written to the log at level FINE every {@value #LOG_INTERVAL} calls of a
+ * provider, single calls are logged at level FINER.
+ *
+ * @see TimingEventListener
+ */
+public class NetworkTimingStats {
+  private static final Logger LOGGER = Logger.getLogger(NetworkTimingStats.class.getName());
+  private static final int LOG_INTERVAL = 50;
+
+  private final ConcurrentMap<String, ProviderStats> statsByProvider = new ConcurrentHashMap<>();
+
+  /**
+   * Phases of an HTTP call. Phases which did not happen, ex. DNS and connect for a pooled
+   * connection, are not recorded for that call.
+   */
+  public enum Phase {
+    DNS,
+    CONNECT,
+    TLS,
+
+    /** Writing request headers and body. */
+    REQUEST,
+
+    /** Time to first byte: from the end of the request until the response headers arrive. */
+    TTFB,
+
+    /** Reading the response body. */
+    BODY,
+
+    /** Complete call, from start to end. */
+    TOTAL
+  }
+
+  /**
+   * Determines the provider of a web service by its host.
+   *
+   * @param host Host of a request URL, ex. "creativecommons.tankerkoenig.de"
+   * @return "tankerkoenig", "google" or "pushover" for the known web services, otherwise the
+   * host itself.
+   */
+  public static String providerOf(String host) {
+    String lowerHost = host.toLowerCase(Locale.ROOT);
+
+    if (lowerHost.endsWith("tankerkoenig.de"))
+      return "tankerkoenig";
+
+    if (lowerHost.endsWith("googleapis.com"))
+      return "google";
+
+    if (lowerHost.endsWith("pushover.net"))
+      return "pushover";
+
+    return lowerHost;
+  }
+
+  /**
+   * @return Providers with at least one recorded call, sorted by name.
+   */
+  public List<String> getProviders() {
+    List<String> providers = new ArrayList<>(statsByProvider.keySet());
+    Collections.sort(providers);
+    return providers;
+  }
+
+  /**
+   * @param provider Provider as returned by {@link #providerOf(String)}.
+   * @param phase    Phase of the calls.
+   * @return Histogram of the given phase. Empty if the provider has no recorded calls.
+   */
+  public LatencyHistogram getHistogram(String provider, Phase phase) {
+    Objects.requireNonNull(phase, "phase must not be null.");
+    ProviderStats stats = statsByProvider.get(provider);
+
+    return stats != null ? stats.histograms.get(phase) : new LatencyHistogram();
+  }
+
+  public long getFailedCallCount(String provider) {
+    ProviderStats stats = statsByProvider.get(provider);
+    return stats != null ? stats.failedCalls.get() : 0;
+  }
+
+  public long getBytesSent(String provider) {
+    ProviderStats stats = statsByProvider.get(provider);
+    return stats != null ? stats.bytesSent.get() : 0;
+  }
+
+  public long getBytesReceived(String provider) {
+    ProviderStats stats = statsByProvider.get(provider);
+    return stats != null ? stats.bytesReceived.get() : 0;
+  }
+
+  /**
+   * Records the timings of a single finished call.
+   *
+   * @param provider      Provider of the called web service.
+   * @param phaseNanos    Duration per phase in nanoseconds. Missing phases did not happen.
+   * @param bytesSent     Number of bytes of the request body.
+   * @param bytesReceived Number of bytes of the response body.
+   * @param failed        True if the call failed.
+   */
+  void record(
+      String provider,
+      Map<Phase, Long> phaseNanos,
+      long bytesSent,
+      long bytesReceived,
+      boolean failed) {
+
+    ProviderStats stats = statsByProvider.computeIfAbsent(provider, key -> new ProviderStats());
+
+    phaseNanos.forEach((phase, nanos) -> stats.histograms.get(phase).recordNanos(nanos));
+    stats.bytesSent.addAndGet(bytesSent);
+    stats.bytesReceived.addAndGet(bytesReceived);
+
+    if (failed)
+      stats.failedCalls.incrementAndGet();
+
+    if (LOGGER.isLoggable(Level.FINER))
+      LOGGER.finer(provider + " call" + (failed ? " failed" : "") + ": " + toMillis(phaseNanos)
+          + ", " + bytesSent + " bytes sent, " + bytesReceived + " bytes received");
+
+    if (stats.histograms.get(Phase.TOTAL).getCount() % LOG_INTERVAL == 0)
+      logSummary();
+  }
+
+  /**
+   * Writes percentiles of all phases per provider to the log at level FINE.
+   */
+  public void logSummary() {
+    if (LOGGER.isLoggable(Level.FINE))
+      LOGGER.fine("Network timings: " + this);
+  }
+
+  private static Map<Phase, Long> toMillis(Map<Phase, Long> phaseNanos) {
+    Map<Phase, Long> millis = new EnumMap<>(Phase.class);
+    phaseNanos.forEach((phase, nanos) -> millis.put(phase, Duration.ofNanos(nanos).toMillis()));
+    return millis;
+  }
+
+  @Override
+  public String toString() {
+    MyToStringBuilder builder = new MyToStringBuilder(this);
+
+    for (String provider : getProviders())
+      builder.append(provider, statsByProvider.get(provider));
+
+    return builder.toString();
+  }
+
+  private static class ProviderStats {
+    private final Map<Phase, LatencyHistogram> histograms = new EnumMap<>(Phase.class);
+    private final AtomicLong failedCalls = new AtomicLong();
+    private final AtomicLong bytesSent = new AtomicLong();
+    private final AtomicLong bytesReceived = new AtomicLong();
+
+    private ProviderStats() {
+      for (Phase phase : Phase.values())
+        histograms.put(phase, new LatencyHistogram());
+    }
+
+    @Override
+    public String toString() {
+      MyToStringBuilder builder = new MyToStringBuilder(this);
+
+      // Only phases which actually happened, ex. there's no TLS for plain HTTP.
+      histograms.forEach((phase, histogram) -> {
+        if (histogram.getCount() > 0)
+          builder.append(phase.name(), histogram);
+      });
+
+      return builder
+          .append("failedCalls", failedCalls.get())
+          .append("bytesSent", bytesSent.get())
+          .append("bytesReceived", bytesReceived.get())
+          .toString();
+    }
+  }
+}
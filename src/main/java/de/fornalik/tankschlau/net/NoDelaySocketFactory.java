@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fornalik.tankschlau.net;
+
+import javax.net.SocketFactory;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Objects;
+
+/**
+ * Socket factory which disables Nagle's algorithm on each created socket. Otherwise request
+ * bodies which are written after the headers wait for the ACK of the server, which may be
+ * delayed for up to 40 ms.
+ */
+class NoDelaySocketFactory extends SocketFactory {
+  private final SocketFactory delegate;
+
+  NoDelaySocketFactory(SocketFactory delegate) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate must not be null.");
+  }
+
+  @Override
+  public Socket createSocket() throws IOException {
+    return noDelay(delegate.createSocket());
+  }
+
+  @Override
+  public Socket createSocket(String host, int port) throws IOException {
+    return noDelay(delegate.createSocket(host, port));
+  }
+
+  @Override
+  public Socket createSocket(
+      String host,
+      int port,
+      InetAddress localHost,
+      int localPort) throws IOException {
+
+    return noDelay(delegate.createSocket(host, port, localHost, localPort));
+  }
+
+  @Override
+  public Socket createSocket(InetAddress host, int port) throws IOException {
+    return noDelay(delegate.createSocket(host, port));
+  }
+
+  @Override
+  public Socket createSocket(
+      InetAddress address,
+      int port,
+      InetAddress localAddress,
+      int localPort) throws IOException {
+
+    return noDelay(delegate.createSocket(address, port, localAddress, localPort));
+  }
+
+  private static Socket noDelay(Socket socket) throws SocketException {
+    socket.setTcpNoDelay(true);
+    return socket;
+  }
+}
@@ -16,9 +16,17 @@
 
 package de.fornalik.tankschlau.net;
 
+import de.fornalik.tankschlau.service.CacheStats;
+import okio.BufferedSource;
+
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.net.HttpURLConnection;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
 /**
@@ -27,10 +35,16 @@ import java.util.logging.Logger;
 public class OkHttpClient implements HttpClient {
 
   private static final Logger LOGGER = Logger.getLogger(OkHttpClient.class.getName());
-  private static final String HTTP_CLIENT_ERROR_STRING = "HTTP_CLIENT_ERROR";
+  static final String HTTP_CLIENT_ERROR_STRING = "HTTP_CLIENT_ERROR";
+  static final String HTTP_TRANSPORT_ERROR_STRING = "HTTP_TRANSPORT_ERROR";
 
   private final okhttp3.OkHttpClient okHttp3Client;
-  private Request request;
+  private final AtomicLong cacheHitCount = new AtomicLong();
+  private final AtomicLong cacheMissCount = new AtomicLong();
+  private final AtomicLong cacheRevalidationCount = new AtomicLong();
+
+  // Only kept for getRequest(). Each call carries its own request and response state.
+  private volatile Request request;
 
   /**
    * Constructor
@@ -39,12 +53,30 @@ public class OkHttpClient implements HttpClient {
    * Side note: According to the okhttp3 docs, it's perfectly o.k. to retain the instance for the
    * lifecycle of the app.
    *
-   * @param okHttp3Client Instance of {@link okhttp3.OkHttpClient} to be adapted.
+   * @param okHttp3Client Instance of {@link okhttp3.OkHttpClient} to be adapted. If it has a
+   *                      {@link okhttp3.Cache}, the cache statistics of each call are reported
+   *                      through {@link de.fornalik.tankschlau.service.TransactInfo}.
+   * @see HttpCacheConfig#applyTo(okhttp3.OkHttpClient.Builder)
    */
   public OkHttpClient(okhttp3.OkHttpClient okHttp3Client) {
     this.okHttp3Client = Objects.requireNonNull(okHttp3Client);
   }
 
+  /**
+   * Constructor which additionally records the network timings of each call, ex. DNS, TLS and
+   * time to first byte, into the given statistics.
+   *
+   * @param okHttp3Client Instance of {@link okhttp3.OkHttpClient} to be adapted. Its connection
+   *                      pool, dispatcher and cache are shared with the instrumented client.
+   * @param timingStats   Receiver of the network timings.
+   * @see #OkHttpClient(okhttp3.OkHttpClient)
+   */
+  public OkHttpClient(okhttp3.OkHttpClient okHttp3Client, NetworkTimingStats timingStats) {
+    this(Objects.requireNonNull(okHttp3Client).newBuilder()
+        .eventListenerFactory(TimingEventListener.factory(timingStats))
+        .build());
+  }
+
   @Override
   public Optional<Request> getRequest() {
     return Optional.ofNullable(this.request);
@@ -56,14 +88,97 @@ public class OkHttpClient implements HttpClient {
       final Response response,
       final Class<T> typeOfResponseData) {
 
+    checkCallArguments(request, response, typeOfResponseData);
+
+    okhttp3.Response okhttpResponse = null;
+    boolean isBodyHandedOver = false;
+
+    try {
+      okhttpResponse = this.realCall(request, response);
+
+      if (okhttpResponse.body() == null)
+        setClientError(response, "Body of response is null.\n" + getDetails(okhttpResponse));
+      else
+        isBodyHandedOver = populateResponseBody(okhttpResponse, response, typeOfResponseData);
+    }
+    catch (IOException e) {
+      // Nothing to do here, as okhttp3 error messages should have been pushed into
+      // field response.errorMessage in method this.realCall.
+    }
+    finally {
+      if (!isBodyHandedOver)
+        closeQuietly(okhttpResponse);
+    }
+
+    return response;
+  }
+
+  @Override
+  public <T> CompletableFuture<Response> newCallAsync(
+      final Request request,
+      final Response response,
+      final Class<T> typeOfResponseData) {
+
+    checkCallArguments(request, response, typeOfResponseData);
+    this.request = request;
+
+    okhttp3.Call call = okHttp3Client.newCall(adaptRequest(request, adaptUrl(request)));
+    CompletableFuture<Response> future = new CompletableFuture<>();
+
+    // Cancelling the future cancels the call, which releases its connection.
+    future.whenComplete((r, e) -> {
+      if (future.isCancelled())
+        call.cancel();
+    });
+
+    call.enqueue(new okhttp3.Callback() {
+      @Override
+      public void onFailure(okhttp3.Call call, IOException e) {
+        setTransportError(response, e.getMessage());
+        future.complete(response);
+      }
+
+      @Override
+      public void onResponse(okhttp3.Call call, okhttp3.Response okhttpResponse) {
+        boolean isBodyHandedOver = false;
+
+        try {
+          recordCacheStats(okhttpResponse, response);
+
+          if (okhttpResponse.body() == null)
+            setClientError(response, "Body of response is null.\n" + getDetails(okhttpResponse));
+          else
+            isBodyHandedOver = populateResponseBody(okhttpResponse, response, typeOfResponseData);
+
+          // Nobody will consume a streamed body if the future has been cancelled meanwhile.
+          if (!future.complete(response))
+            isBodyHandedOver = false;
+        }
+        catch (RuntimeException e) {
+          isBodyHandedOver = false;
+          future.completeExceptionally(e);
+        }
+        finally {
+          if (!isBodyHandedOver)
+            closeQuietly(okhttpResponse);
+        }
+      }
+    });
+
+    return future;
+  }
+
+  private static <T> void checkCallArguments(
+      final Request request,
+      final Response response,
+      final Class<T> typeOfResponseData) {
+
     // Fail early
     Objects.requireNonNull(request, "request must not be null");
     Objects.requireNonNull(response, "response must not be null");
     Objects.requireNonNull(typeOfResponseData, "typeOfResponseData must not be null");
 
-    // Type capability may be extended in the future, e.g. with some Reader or Buffers.
-
-    if (typeOfResponseData != String.class) {
+    if (!isSupportedResponseDataType(typeOfResponseData)) {
       String errMsg = "Support for body data of type "
           + typeOfResponseData.getSimpleName()
           + " not yet implemented.";
@@ -71,59 +186,145 @@ public class OkHttpClient implements HttpClient {
       LOGGER.severe(errMsg);
       throw new UnsupportedOperationException(errMsg);
     }
+  }
 
-    okhttp3.Response okhttpResponse;
+  private static boolean isSupportedResponseDataType(Class<?> type) {
+    return type == String.class
+        || type == Reader.class
+        || type == InputStream.class
+        || type == BufferedSource.class;
+  }
 
-    try {
-      okhttpResponse = this.realCall(request, response);
-    }
-    catch (IOException | IllegalStateException e) {
-      // Nothing to do here, as okhttp3 error messages should have been pushed into
-      // field response.errorMessage in method this.realCall.
-      return response;
-    }
+  /*
+  Returns true if the body data have been set, so the caller of the HttpClient owns them from
+  now on. Otherwise it's up to us to close the okhttp3 response.
+  */
+  private boolean populateResponseBody(
+      okhttp3.Response okhttpResponse,
+      Response response,
+      Class<?> typeOfResponseData) {
 
     try {
-      response.getBody().setData(Objects.requireNonNull(okhttpResponse.body()).string());
+      okhttp3.ResponseBody okhttpBody = Objects.requireNonNull(okhttpResponse.body());
+      response.getBody().setData(adaptResponseBody(okhttpBody, typeOfResponseData));
+      return true;
     }
     catch (IOException | NullPointerException e) {
       response.getTransactInfo().setStatus(HTTP_CLIENT_ERROR_STRING);
-      String msg = "Body of response could not be converted to string. " + e.getMessage();
+      String msg = "Body of response could not be converted to "
+          + typeOfResponseData.getSimpleName() + ". " + e.getMessage();
       response.getTransactInfo().setErrorMessage(msg + " " + getDetails(okhttpResponse));
       LOGGER.warning(msg);
+      return false;
     }
+  }
 
-    return response;
+  /*
+  Releases the connection of a response whose body is not consumed by anybody. Unlike
+  okhttp3.Response.close() this does not throw if there is no body at all.
+  */
+  private static void closeQuietly(okhttp3.Response okhttpResponse) {
+    if (okhttpResponse == null || okhttpResponse.body() == null)
+      return;
+
+    okhttpResponse.body().close();
+  }
+
+  /*
+  Only String data are read completely into memory, and the underlying okhttp3 body gets closed
+  right away. All other types are streamed straight off the connection, so it's the job of the
+  consumer to close them.
+  */
+  private Object adaptResponseBody(okhttp3.ResponseBody okhttpBody, Class<?> type)
+  throws IOException {
+
+    if (type == Reader.class)
+      return okhttpBody.charStream();
+
+    if (type == InputStream.class)
+      return okhttpBody.byteStream();
+
+    if (type == BufferedSource.class)
+      return okhttpBody.source();
+
+    return okhttpBody.string();
   }
 
   private okhttp3.Response realCall(final Request request, final Response response)
   throws IOException {
     this.request = request;
 
-    okhttp3.HttpUrl url = adaptUrl();
-    okhttp3.Request okhttpRequest = adaptRequest(url);
+    okhttp3.HttpUrl url = adaptUrl(request);
+    okhttp3.Request okhttpRequest = adaptRequest(request, url);
     okhttp3.Response okhttpResponse;
 
     try {
       okhttpResponse = callServer(okhttpRequest); //throws
     }
     catch (IOException e) {
-      String errMsg = e.getMessage();
-      response.getTransactInfo().setStatus(HTTP_CLIENT_ERROR_STRING);
-      response.getTransactInfo().setErrorMessage(errMsg);
-      LOGGER.warning(errMsg);
+      setTransportError(response, e.getMessage());
       throw e;
     }
 
-    if (okhttpResponse.body() == null) {
-      String errMsg = "Body of response is null.\n" + getDetails(okhttpResponse);
-      response.getTransactInfo().setStatus(HTTP_CLIENT_ERROR_STRING);
-      response.getTransactInfo().setErrorMessage(errMsg);
-      LOGGER.warning(errMsg);
-      throw new IllegalStateException(errMsg);
+    recordCacheStats(okhttpResponse, response);
+    return okhttpResponse;
+  }
+
+  private void recordCacheStats(okhttp3.Response okhttpResponse, Response response) {
+    if (okHttp3Client.cache() == null)
+      return;
+
+    CacheStats.Outcome outcome = determineCacheOutcome(okhttpResponse);
+
+    switch (outcome) {
+      case HIT:
+        cacheHitCount.incrementAndGet();
+        break;
+
+      case REVALIDATED:
+        cacheRevalidationCount.incrementAndGet();
+        break;
+
+      default:
+        cacheMissCount.incrementAndGet();
     }
 
-    return okhttpResponse;
+    response.getTransactInfo().setCacheStats(new CacheStats(
+        outcome,
+        cacheHitCount.get(),
+        cacheMissCount.get(),
+        cacheRevalidationCount.get()));
+  }
+
+  static CacheStats.Outcome determineCacheOutcome(okhttp3.Response okhttpResponse) {
+    okhttp3.Response cacheResponse = okhttpResponse.cacheResponse();
+    okhttp3.Response networkResponse = okhttpResponse.networkResponse();
+
+    if (cacheResponse == null)
+      return CacheStats.Outcome.MISS;
+
+    if (networkResponse == null)
+      return CacheStats.Outcome.HIT;
+
+    return networkResponse.code() == HttpURLConnection.HTTP_NOT_MODIFIED
+        ? CacheStats.Outcome.REVALIDATED
+        : CacheStats.Outcome.MISS;
+  }
+
+  private void setClientError(Response response, String errMsg) {
+    response.getTransactInfo().setStatus(HTTP_CLIENT_ERROR_STRING);
+    response.getTransactInfo().setErrorMessage(errMsg);
+    LOGGER.warning(errMsg);
+  }
+
+  /*
+  The call did not get an answer from the server at all, ex. due to a refused connection or a
+  timeout. Unlike client errors raised after the server has answered, it may be worth a retry.
+  */
+  private void setTransportError(Response response, String errMsg) {
+    response.getTransactInfo().setStatus(HTTP_TRANSPORT_ERROR_STRING);
+    response.getTransactInfo().setErrorMessage(errMsg);
+    LOGGER.warning(errMsg);
   }
 
   private okhttp3.Response callServer(okhttp3.Request okhttpRequest) throws IOException {
@@ -131,7 +332,7 @@ public class OkHttpClient implements HttpClient {
     return realCall.execute(); // throws
   }
 
-  private okhttp3.HttpUrl adaptUrl() {
+  private okhttp3.HttpUrl adaptUrl(Request request) {
 
     okhttp3.HttpUrl.Builder urlBuilder = Objects
         .requireNonNull(okhttp3.HttpUrl.parse(request.getBaseUrl().toString()))
@@ -141,28 +342,23 @@ public class OkHttpClient implements HttpClient {
     return urlBuilder.build();
   }
 
-  private okhttp3.Request adaptRequest(okhttp3.HttpUrl url) {
+  private okhttp3.Request adaptRequest(Request request, okhttp3.HttpUrl url) {
     okhttp3.Request.Builder okhttpRequestBuilder = new okhttp3.Request.Builder()
         .url(url.toString())
-        .method(request.getHttpMethod().name(), adaptRequestBody());
+        .method(request.getHttpMethod().name(), adaptRequestBody(request));
 
     request.getHeaders().forEach(okhttpRequestBuilder::addHeader);
 
     return okhttpRequestBuilder.build();
   }
 
-  private okhttp3.RequestBody adaptRequestBody() {
+  private okhttp3.RequestBody adaptRequestBody(Request request) {
     if (request.getBodyParameters().isEmpty())
       // Note: Body is only allowed to be null for HTTP "GET" request type.
       return null;
 
-    if (request instanceof JsonRequest) {
-      String jsonBody = ((JsonRequest) request).computeJsonBody();
-
-      return okhttp3.RequestBody.create(
-          okhttp3.MediaType.parse("application/json; charset=utf-8"),
-          jsonBody);
-    }
+    if (request instanceof JsonRequest)
+      return new JsonRequestBody((JsonRequest) request);
 
     String errMsg = "Adapting request body for "
         + request.getClass().getSimpleName()
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.net;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+
+/**
+ * Decorator for an {@link HttpClient} which keeps the calls to each provider within its quota.
+ * All workers share one token bucket per provider and API key, see {@link RateLimiter}.
+ * <br><br>
+ * If the bucket is empty, a call is queued until a token is free. If it had to wait longer than
+ * {@link HttpRateLimitConfig#getMaxWait()}, it is rejected instead: no request is sent and the
+ * transaction info of the {@link Response} gets the status {@value #RATE_LIMITED_STRING} and an
+ * error message.
+ */
+public class RateLimitedHttpClient implements HttpClient {
+  private static final Logger LOGGER = Logger.getLogger(RateLimitedHttpClient.class.getName());
+  static final String RATE_LIMITED_STRING = "RATE_LIMITED";
+
+  private static final Duration REFILL_PERIOD = Duration.ofMinutes(1);
+
+  private final HttpClient delegate;
+  private final HttpRateLimitConfig config;
+  private final LongSupplier nanoClock;
+  private final ScheduledExecutorService delayScheduler;
+  private final Map<String, RateLimiter> rateLimiters;
+
+  /**
+   * Constructor
+   *
+   * @param delegate The {@link HttpClient} which does the real calls, ex. {@link OkHttpClient}.
+   * @param config   Configuration of the rate limits.
+   */
+  public RateLimitedHttpClient(HttpClient delegate, HttpRateLimitConfig config) {
+    this(delegate, config, System::nanoTime);
+  }
+
+  RateLimitedHttpClient(HttpClient delegate, HttpRateLimitConfig config, LongSupplier nanoClock) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate must not be null.");
+    this.config = Objects.requireNonNull(config, "config must not be null.");
+    this.nanoClock = Objects.requireNonNull(nanoClock, "nanoClock must not be null.");
+    this.rateLimiters = new ConcurrentHashMap<>();
+
+    this.delayScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "http-rate-limit");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @Override
+  public Optional<Request> getRequest() {
+    return delegate.getRequest();
+  }
+
+  @Override
+  public int getAvailableCalls(final Request request) {
+    Objects.requireNonNull(request, "request must not be null");
+
+    RateLimiter rateLimiter = findRateLimiter(request);
+    int availableCalls = delegate.getAvailableCalls(request);
+
+    return rateLimiter != null
+        ? Math.min(rateLimiter.getAvailableTokens(), availableCalls)
+        : availableCalls;
+  }
+
+  @Override
+  public <T> Response newCall(
+      final Request request,
+      final Response response,
+      final Class<T> typeOfResponseData) {
+
+    Objects.requireNonNull(request, "request must not be null");
+    Objects.requireNonNull(response, "response must not be null");
+
+    long waitNanos = reserve(request);
+
+    if (waitNanos < 0) {
+      setRateLimitedError(response, request);
+      return response;
+    }
+
+    try {
+      TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      response.getTransactInfo().setStatus(OkHttpClient.HTTP_CLIENT_ERROR_STRING);
+      response.getTransactInfo().setErrorMessage("Call has been interrupted.");
+      return response;
+    }
+
+    return delegate.newCall(request, response, typeOfResponseData);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <br><br>
+   * A queued call does not block the calling thread. Its token is used up even if the returned
+   * future gets cancelled while waiting.
+   */
+  @Override
+  public <T> CompletableFuture<Response> newCallAsync(
+      final Request request,
+      final Response response,
+      final Class<T> typeOfResponseData) {
+
+    Objects.requireNonNull(request, "request must not be null");
+    Objects.requireNonNull(response, "response must not be null");
+
+    long waitNanos = reserve(request);
+
+    if (waitNanos < 0) {
+      setRateLimitedError(response, request);
+      return CompletableFuture.completedFuture(response);
+    }
+
+    if (waitNanos == 0)
+      return delegate.newCallAsync(request, response, typeOfResponseData);
+
+    CompletableFuture<Response> result = new CompletableFuture<>();
+
+    ScheduledFuture<?> delayedCall = delayScheduler.schedule(
+        () -> callAsync(request, response, typeOfResponseData, result),
+        waitNanos,
+        TimeUnit.NANOSECONDS);
+
+    result.whenComplete((r, e) -> {
+      if (result.isCancelled())
+        delayedCall.cancel(false);
+    });
+
+    return result;
+  }
+
+  private <T> void callAsync(
+      final Request request,
+      final Response response,
+      final Class<T> typeOfResponseData,
+      final CompletableFuture<Response> result) {
+
+    if (result.isDone())
+      return;
+
+    CompletableFuture<Response> call;
+
+    try {
+      call = delegate.newCallAsync(request, response, typeOfResponseData);
+    }
+    catch (RuntimeException e) {
+      result.completeExceptionally(e);
+      return;
+    }
+
+    result.whenComplete((r, e) -> {
+      if (result.isCancelled())
+        call.cancel(true);
+    });
+
+    call.whenComplete((r, e) -> {
+      if (e != null)
+        result.completeExceptionally(e);
+      else
+        result.complete(r);
+    });
+  }
+
+  /*
+  Returns the nanoseconds to wait before calling, or -1 if the call must be rejected.
+  Providers without a configured limit are never throttled.
+  */
+  private long reserve(Request request) {
+    RateLimiter rateLimiter = findRateLimiter(request);
+
+    if (rateLimiter == null)
+      return 0;
+
+    long waitNanos = rateLimiter.reserve(config.getMaxWait().toNanos());
+
+    if (waitNanos > 0)
+      LOGGER.fine("Delaying call to " + request.getBaseUrl().getHost() + " by "
+          + TimeUnit.NANOSECONDS.toMillis(waitNanos) + " ms to stay within its rate limit.");
+
+    return waitNanos;
+  }
+
+  // Returns null if calls like the given request are not limited.
+  private RateLimiter findRateLimiter(Request request) {
+    if (!config.isEnabled())
+      return null;
+
+    String provider = NetworkTimingStats.providerOf(request.getBaseUrl().getHost());
+    OptionalInt callsPerMinute = config.getCallsPerMinute(provider);
+
+    if (!callsPerMinute.isPresent())
+      return null;
+
+    String key = provider + "/" + request.getApiKeyId().orElse("");
+
+    return rateLimiters.computeIfAbsent(key, k -> new RateLimiter(
+        callsPerMinute.getAsInt(),
+        REFILL_PERIOD,
+        nanoClock));
+  }
+
+  private static void setRateLimitedError(Response response, Request request) {
+    String errMsg = "Too many calls to " + request.getBaseUrl().getHost()
+        + ". Call rejected to stay within the quota of the web service.";
+
+    response.getTransactInfo().setStatus(RATE_LIMITED_STRING);
+    response.getTransactInfo().setErrorMessage(errMsg);
+    LOGGER.warning(errMsg);
+  }
+
+  int getAvailableTokens(String provider, String apiKeyId) {
+    RateLimiter rateLimiter = rateLimiters.get(provider + "/" + apiKeyId);
+    return rateLimiter != null ? rateLimiter.getAvailableTokens() : -1;
+  }
+}
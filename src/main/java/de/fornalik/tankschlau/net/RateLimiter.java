@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.net;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket which limits the rate of calls to a single provider. The bucket holds up to
+ * <code>capacity</code> tokens and is refilled continuously with <code>capacity</code> tokens per
+ * refill period. Each call takes one token. If the bucket is empty, a call may reserve a future
+ * token and wait for it, so concurrent callers are queued in the order of their reservations.
+ */
+class RateLimiter {
+  private final int capacity;
+  private final double nanosPerToken;
+  private final LongSupplier nanoClock;
+
+  // Negative if tokens have been reserved ahead of time.
+  private double tokens;
+  private long lastRefillNanos;
+
+  /**
+   * Constructor. The bucket starts full.
+   *
+   * @param capacity     Maximum number of tokens, i.e. the size of a burst of calls.
+   * @param refillPeriod Time it takes to refill an empty bucket completely.
+   * @param nanoClock    Source of monotonic time in nanoseconds, ex. System::nanoTime
+   */
+  RateLimiter(int capacity, Duration refillPeriod, LongSupplier nanoClock) {
+    if (capacity < 1)
+      throw new IllegalArgumentException("capacity must be positive.");
+
+    Objects.requireNonNull(refillPeriod, "refillPeriod must not be null.");
+
+    if (refillPeriod.isNegative() || refillPeriod.isZero())
+      throw new IllegalArgumentException("refillPeriod must be positive.");
+
+    this.capacity = capacity;
+    this.nanosPerToken = (double) refillPeriod.toNanos() / capacity;
+    this.nanoClock = Objects.requireNonNull(nanoClock, "nanoClock must not be null.");
+    this.tokens = capacity;
+    this.lastRefillNanos = nanoClock.getAsLong();
+  }
+
+  /**
+   * Takes a token, or reserves the next free one if the bucket is empty.
+   *
+   * @param maxWaitNanos Longest acceptable time to wait for a reserved token.
+   * @return Nanoseconds the caller must wait before doing its call, 0 if it may call right away,
+   * or -1 if the wait would exceed the given maximum. In the latter case, no token is taken.
+   */
+  synchronized long reserve(long maxWaitNanos) {
+    refill();
+
+    if (tokens >= 1) {
+      tokens--;
+      return 0;
+    }
+
+    long waitNanos = (long) Math.ceil((1 - tokens) * nanosPerToken);
+
+    if (waitNanos > maxWaitNanos)
+      return -1;
+
+    tokens--;
+    return waitNanos;
+  }
+
+  /**
+   * @return Number of tokens which are currently available without waiting.
+   */
+  synchronized int getAvailableTokens() {
+    refill();
+    return (int) Math.max(0, Math.floor(tokens));
+  }
+
+  private void refill() {
+    long now = nanoClock.getAsLong();
+
+    tokens = Math.min(capacity, tokens + (now - lastRefillNanos) / nanosPerToken);
+    lastRefillNanos = now;
+  }
+}
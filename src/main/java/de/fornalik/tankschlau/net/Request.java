@@ -18,6 +18,7 @@ package de.fornalik.tankschlau.net;
 
 import java.net.URL;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * The HTTP request interface used by this application.
@@ -110,6 +111,13 @@ public interface Request {
    */
   Map<String, String> getHeaders();
 
+  /**
+   * @return Identifier of the API key which authenticates the request, ex.
+   * "apikey.petrolstations", or an empty Optional if the request needs no API key.
+   * @see de.fornalik.tankschlau.user.ApiKeyManager#getId()
+   */
+  Optional<String> getApiKeyId();
+
   /**
    * Literals used to define the method of an HTTP request.
    */
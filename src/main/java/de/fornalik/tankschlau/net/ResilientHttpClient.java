@@ -0,0 +1,488 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fornalik.tankschlau.net;
+
+import de.fornalik.tankschlau.service.TransactInfo;
+import de.fornalik.tankschlau.service.TransactInfoImpl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+
+/**
+ * Decorator for an {@link HttpClient} which makes calls resilient against a flaky server:
+ * <ul>
+ *   <li>Idempotent (GET) requests which fail on transport level are retried with exponential
+ *   backoff and jitter.</li>
+ *   <li>Each host has a {@link CircuitBreaker}. While it is open, calls fail fast instead of
+ *   waiting for timeouts.</li>
+ *   <li>Optionally, a synchronous GET request is hedged: if it takes longer than the p95 latency
+ *   observed for its host, a second identical request is sent and the first successful one
+ *   wins.</li>
+ * </ul>
+ * Failures are reported the same way as by the decorated client: through the transaction info of
+ * the {@link Response}. HTTP status codes are not interpreted here.
+ */
+public class ResilientHttpClient implements HttpClient {
+  private static final Logger LOGGER = Logger.getLogger(ResilientHttpClient.class.getName());
+
+  private static final double HEDGE_PERCENTILE = 95;
+  private static final int LATENCY_WINDOW_SIZE = 100;
+  private static final int LATENCY_MIN_SAMPLES = 20;
+
+  private final HttpClient delegate;
+  private final HttpResilienceConfig config;
+  private final LongSupplier nanoClock;
+  private final ScheduledExecutorService retryScheduler;
+  private final Map<String, CircuitBreaker> circuitBreakers;
+  private final Map<String, LatencyTracker> latencyTrackers;
+
+  /**
+   * Constructor
+   *
+   * @param delegate The {@link HttpClient} which does the real calls, ex. {@link OkHttpClient}.
+   * @param config   Configuration of retries, circuit breakers and hedging.
+   */
+  public ResilientHttpClient(HttpClient delegate, HttpResilienceConfig config) {
+    this(delegate, config, System::nanoTime);
+  }
+
+  ResilientHttpClient(HttpClient delegate, HttpResilienceConfig config, LongSupplier nanoClock) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate must not be null.");
+    this.config = Objects.requireNonNull(config, "config must not be null.");
+    this.nanoClock = Objects.requireNonNull(nanoClock, "nanoClock must not be null.");
+    this.circuitBreakers = new ConcurrentHashMap<>();
+    this.latencyTrackers = new ConcurrentHashMap<>();
+
+    this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "http-retry");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @Override
+  public Optional<Request> getRequest() {
+    return delegate.getRequest();
+  }
+
+  @Override
+  public int getAvailableCalls(final Request request) {
+    return delegate.getAvailableCalls(request);
+  }
+
+  @Override
+  public <T> Response newCall(
+      final Request request,
+      final Response response,
+      final Class<T> typeOfResponseData) {
+
+    Objects.requireNonNull(request, "request must not be null");
+    Objects.requireNonNull(response, "response must not be null");
+
+    String host = request.getBaseUrl().getHost();
+    CircuitBreaker circuitBreaker = getCircuitBreaker(host);
+    int maxAttempts = getMaxAttempts(request);
+
+    for (int attempt = 1; ; attempt++) {
+      if (!circuitBreaker.tryAcquire()) {
+        setCircuitOpenError(response, host, attempt);
+        return response;
+      }
+
+      if (attempt > 1)
+        response.reset();
+
+      long startNanos = nanoClock.getAsLong();
+
+      try {
+        callOnce(request, response, typeOfResponseData, host);
+      }
+      catch (RuntimeException e) {
+        circuitBreaker.release();
+        throw e;
+      }
+
+      // Nothing has been sent, so there is neither a result for the breaker nor a retry.
+      if (isRateLimited(response)) {
+        circuitBreaker.release();
+        return response;
+      }
+
+      if (!isTransportFailure(response)) {
+        getLatencyTracker(host).record(nanoClock.getAsLong() - startNanos);
+        circuitBreaker.recordSuccess();
+        return response;
+      }
+
+      circuitBreaker.recordFailure();
+
+      if (attempt >= maxAttempts)
+        return response;
+
+      try {
+        TimeUnit.NANOSECONDS.sleep(computeBackoffNanos(attempt));
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return response;
+      }
+
+      LOGGER.info("Retrying request to " + host + ", attempt " + (attempt + 1));
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <br><br>
+   * Asynchronous calls are retried and guarded by the circuit breaker, but not hedged.
+   */
+  @Override
+  public <T> CompletableFuture<Response> newCallAsync(
+      final Request request,
+      final Response response,
+      final Class<T> typeOfResponseData) {
+
+    Objects.requireNonNull(request, "request must not be null");
+    Objects.requireNonNull(response, "response must not be null");
+
+    CompletableFuture<Response> result = new CompletableFuture<>();
+    attemptAsync(request, response, typeOfResponseData, 1, result);
+
+    return result;
+  }
+
+  private <T> void attemptAsync(
+      final Request request,
+      final Response response,
+      final Class<T> typeOfResponseData,
+      final int attempt,
+      final CompletableFuture<Response> result) {
+
+    if (result.isDone())
+      return;
+
+    String host = request.getBaseUrl().getHost();
+    CircuitBreaker circuitBreaker = getCircuitBreaker(host);
+
+    if (!circuitBreaker.tryAcquire()) {
+      setCircuitOpenError(response, host, attempt);
+      result.complete(response);
+      return;
+    }
+
+    if (attempt > 1)
+      response.reset();
+
+    long startNanos = nanoClock.getAsLong();
+    CompletableFuture<Response> call;
+
+    try {
+      call = delegate.newCallAsync(request, response, typeOfResponseData);
+    }
+    catch (RuntimeException e) {
+      circuitBreaker.release();
+
+      // Let argument errors of the first attempt reach the caller directly.
+      if (attempt == 1)
+        throw e;
+
+      result.completeExceptionally(e);
+      return;
+    }
+
+    result.whenComplete((r, e) -> {
+      if (result.isCancelled())
+        call.cancel(true);
+    });
+
+    call.whenComplete((r, e) -> {
+      if (e != null) {
+        circuitBreaker.release();
+        result.completeExceptionally(e);
+        return;
+      }
+
+      if (isRateLimited(r)) {
+        circuitBreaker.release();
+        result.complete(r);
+        return;
+      }
+
+      if (!isTransportFailure(r)) {
+        getLatencyTracker(host).record(nanoClock.getAsLong() - startNanos);
+        circuitBreaker.recordSuccess();
+        result.complete(r);
+        return;
+      }
+
+      circuitBreaker.recordFailure();
+
+      if (attempt >= getMaxAttempts(request)) {
+        result.complete(r);
+        return;
+      }
+
+      retryScheduler.schedule(() -> {
+        LOGGER.info("Retrying request to " + host + ", attempt " + (attempt + 1));
+        attemptAsync(request, response, typeOfResponseData, attempt + 1, result);
+      }, computeBackoffNanos(attempt), TimeUnit.NANOSECONDS);
+    });
+  }
+
+  private <T> void callOnce(
+      final Request request,
+      final Response response,
+      final Class<T> typeOfResponseData,
+      final String host) {
+
+    OptionalLong hedgeDelayNanos = getHedgeDelayNanos(request, host);
+
+    if (hedgeDelayNanos.isPresent())
+      callHedged(request, response, typeOfResponseData, hedgeDelayNanos.getAsLong());
+    else
+      delegate.newCall(request, response, typeOfResponseData);
+  }
+
+  private OptionalLong getHedgeDelayNanos(Request request, String host) {
+    if (!config.isHedgingEnabled() || !isIdempotent(request))
+      return OptionalLong.empty();
+
+    OptionalLong p95 = getLatencyTracker(host).percentile(HEDGE_PERCENTILE);
+
+    if (!p95.isPresent())
+      return OptionalLong.empty();
+
+    return OptionalLong.of(Math.max(p95.getAsLong(), config.getMinHedgeDelay().toNanos()));
+  }
+
+  /*
+  Both attempts get a response object of their own, as a response must not be shared by calls in
+  flight. The winner is copied into the caller's response, the loser is cancelled.
+  */
+  private <T> void callHedged(
+      final Request request,
+      final Response response,
+      final Class<T> typeOfResponseData,
+      final long hedgeDelayNanos) {
+
+    Response primaryResponse = createHedgeResponse();
+    CompletableFuture<Response> primary = delegate
+        .newCallAsync(request, primaryResponse, typeOfResponseData);
+
+    CompletableFuture<Response> hedge = null;
+    Response winner;
+
+    try {
+      winner = primary.get(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+    }
+    catch (TimeoutException e) {
+      LOGGER.fine("Sending hedged request to " + request.getBaseUrl().getHost());
+
+      hedge = delegate.newCallAsync(request, createHedgeResponse(), typeOfResponseData);
+      winner = awaitFirstSuccess(primary, hedge, response);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      winner = setInterruptedError(response);
+    }
+    catch (ExecutionException e) {
+      throw propagate(e);
+    }
+
+    cancelOrClose(primary, winner);
+
+    if (hedge != null)
+      cancelOrClose(hedge, winner);
+
+    if (winner != response)
+      copyResponse(winner, response);
+  }
+
+  private Response awaitFirstSuccess(
+      CompletableFuture<Response> primary,
+      CompletableFuture<Response> hedge,
+      Response response) {
+
+    CompletableFuture<Response> firstSuccess = new CompletableFuture<>();
+    AtomicInteger pendingCount = new AtomicInteger(2);
+
+    BiConsumer<Response, Throwable> onAttemptComplete = (r, e) -> {
+      if (e == null && !isTransportFailure(r))
+        firstSuccess.complete(r);
+
+      // Both failed, report the failure of the first attempt.
+      else if (pendingCount.decrementAndGet() == 0)
+        primary.whenComplete((pr, pe) -> {
+          if (pe != null)
+            firstSuccess.completeExceptionally(pe);
+          else
+            firstSuccess.complete(pr);
+        });
+    };
+
+    primary.whenComplete(onAttemptComplete);
+    hedge.whenComplete(onAttemptComplete);
+
+    try {
+      return firstSuccess.get();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return setInterruptedError(response);
+    }
+    catch (ExecutionException e) {
+      throw propagate(e);
+    }
+  }
+
+  private static void cancelOrClose(CompletableFuture<Response> attempt, Response winner) {
+    if (attempt.cancel(true))
+      return;
+
+    // Already completed: release a streamed body unless it's the one being handed out.
+    attempt.thenAccept(r -> {
+      if (r != winner)
+        closeBodyData(r);
+    });
+  }
+
+  private static void closeBodyData(Response response) {
+    Object data = response.getBody().getData(Object.class);
+
+    if (!(data instanceof Closeable))
+      return;
+
+    try {
+      ((Closeable) data).close();
+    }
+    catch (IOException e) {
+      LOGGER.fine("Closing body of hedged response failed. " + e.getMessage());
+    }
+  }
+
+  private static void copyResponse(Response source, Response target) {
+    TransactInfo sourceInfo = source.getTransactInfo();
+    TransactInfo targetInfo = target.getTransactInfo();
+
+    target.getBody().setData(source.getBody().getData(Object.class));
+    targetInfo.setStatus(sourceInfo.getStatus());
+    targetInfo.setErrorMessage(sourceInfo.getErrorMessage().orElse(null));
+    targetInfo.setLicence(sourceInfo.getLicence());
+    targetInfo.setCacheStats(sourceInfo.getCacheStats());
+  }
+
+  private static Response createHedgeResponse() {
+    return new BaseResponse(new ResponseBodyImpl(), new TransactInfoImpl());
+  }
+
+  private static RuntimeException propagate(ExecutionException e) {
+    if (e.getCause() instanceof RuntimeException)
+      return (RuntimeException) e.getCause();
+
+    return new IllegalStateException(e.getCause());
+  }
+
+  private static Response setInterruptedError(Response response) {
+    response.getTransactInfo().setStatus(OkHttpClient.HTTP_CLIENT_ERROR_STRING);
+    response.getTransactInfo().setErrorMessage("Call has been interrupted.");
+    return response;
+  }
+
+  /*
+  A retry which hits the open circuit keeps the failure of the former attempt in the response,
+  as it's the actual cause. The response only gets reset once a retry is really sent.
+  */
+  private static void setCircuitOpenError(Response response, String host, int attempt) {
+    String errMsg = "Calls to " + host + " are suspended after repeated failures. Failing fast.";
+    LOGGER.warning(errMsg);
+
+    if (attempt > 1)
+      return;
+
+    response.getTransactInfo().setStatus(OkHttpClient.HTTP_CLIENT_ERROR_STRING);
+    response.getTransactInfo().setErrorMessage(errMsg);
+  }
+
+  /*
+  Failures on transport level are marked with their own status by the decorated client.
+  Anything else, including HTTP error codes and unreadable bodies, has been answered by the
+  server and would fail the same way again.
+  */
+  private static boolean isTransportFailure(Response response) {
+    return OkHttpClient.HTTP_TRANSPORT_ERROR_STRING.equals(response.getTransactInfo().getStatus());
+  }
+
+  private static boolean isRateLimited(Response response) {
+    return RateLimitedHttpClient.RATE_LIMITED_STRING
+        .equals(response.getTransactInfo().getStatus());
+  }
+
+  private static boolean isIdempotent(Request request) {
+    return request.getHttpMethod() == Request.HttpMethod.GET;
+  }
+
+  private int getMaxAttempts(Request request) {
+    return isIdempotent(request) ? config.getMaxRetries() + 1 : 1;
+  }
+
+  /*
+  Exponential backoff with "equal jitter": half of the delay is fixed, the other half random,
+  so concurrent clients don't retry in lockstep.
+  */
+  long computeBackoffNanos(int attempt) {
+    long initialNanos = config.getInitialBackoff().toNanos();
+    long maxNanos = config.getMaxBackoff().toNanos();
+    int shift = Math.min(attempt - 1, 30);
+
+    long backoffNanos = initialNanos > (maxNanos >> shift) ? maxNanos : initialNanos << shift;
+    long halfNanos = backoffNanos / 2;
+
+    return halfNanos + ThreadLocalRandom.current().nextLong(backoffNanos - halfNanos + 1);
+  }
+
+  private CircuitBreaker getCircuitBreaker(String host) {
+    return circuitBreakers.computeIfAbsent(host, h -> new CircuitBreaker(
+        config.getBreakerFailureThreshold(),
+        config.getBreakerOpenDuration(),
+        nanoClock));
+  }
+
+  private LatencyTracker getLatencyTracker(String host) {
+    return latencyTrackers.computeIfAbsent(
+        host,
+        h -> new LatencyTracker(LATENCY_WINDOW_SIZE, LATENCY_MIN_SAMPLES));
+  }
+
+  CircuitBreaker.State getCircuitState(String host) {
+    return getCircuitBreaker(host).getState();
+  }
+}
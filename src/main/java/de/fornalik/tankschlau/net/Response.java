@@ -17,12 +17,19 @@
 package de.fornalik.tankschlau.net;
 
 import de.fornalik.tankschlau.service.HasTransactionInfo;
+import de.fornalik.tankschlau.service.TransactInfo;
 
 /**
  * The HTTP response interface used by this application.
  */
 public interface Response extends HasTransactionInfo {
 
+  /**
+   * @return Info about the transaction, which gets populated while processing the response.
+   */
+  @Override
+  TransactInfo getTransactInfo();
+
   /**
    * Gets the final response body, while the type T of its <code>data</code> field is determined
    * at runtime.
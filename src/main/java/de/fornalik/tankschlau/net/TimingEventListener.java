@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fornalik.tankschlau.net;
+
+import de.fornalik.tankschlau.net.NetworkTimingStats.Phase;
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * okhttp3 event listener which measures the phases of a single call and reports them to
+ * {@link NetworkTimingStats} when the call has ended. The provider of a call is determined by
+ * the host of its original request URL.
+ */
+class TimingEventListener extends EventListener {
+  private final NetworkTimingStats stats;
+  private final LongSupplier nanoClock;
+  private final Map<Phase, Long> phaseNanos = new EnumMap<>(Phase.class);
+
+  private String provider = "";
+  private long callStart;
+  private long dnsStart;
+  private long connectStart;
+  private long secureConnectStart;
+  private long requestStart;
+  private long requestEnd;
+  private boolean requestPending;
+  private long responseBodyStart;
+  private long bytesSent;
+  private long bytesReceived;
+
+  TimingEventListener(NetworkTimingStats stats, LongSupplier nanoClock) {
+    this.stats = Objects.requireNonNull(stats, "stats must not be null.");
+    this.nanoClock = Objects.requireNonNull(nanoClock, "nanoClock must not be null.");
+  }
+
+  /**
+   * @param stats Receiver of the timings of all calls.
+   * @return Factory which creates a new listener for each call.
+   */
+  static EventListener.Factory factory(NetworkTimingStats stats) {
+    Objects.requireNonNull(stats, "stats must not be null.");
+    return call -> new TimingEventListener(stats, System::nanoTime);
+  }
+
+  @Override
+  public void callStart(Call call) {
+    provider = NetworkTimingStats.providerOf(call.request().url().host());
+    callStart = nanoClock.getAsLong();
+  }
+
+  @Override
+  public void dnsStart(Call call, String domainName) {
+    dnsStart = nanoClock.getAsLong();
+  }
+
+  @Override
+  public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+    add(Phase.DNS, dnsStart);
+  }
+
+  @Override
+  public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+    connectStart = nanoClock.getAsLong();
+    secureConnectStart = 0;
+  }
+
+  @Override
+  public void secureConnectStart(Call call) {
+    secureConnectStart = nanoClock.getAsLong();
+
+    // The TCP connection is established when the TLS handshake starts.
+    add(Phase.CONNECT, connectStart);
+  }
+
+  @Override
+  public void secureConnectEnd(Call call, Handshake handshake) {
+    add(Phase.TLS, secureConnectStart);
+  }
+
+  @Override
+  public void connectEnd(
+      Call call,
+      InetSocketAddress inetSocketAddress,
+      Proxy proxy,
+      Protocol protocol) {
+
+    endConnect();
+  }
+
+  @Override
+  public void connectFailed(
+      Call call,
+      InetSocketAddress inetSocketAddress,
+      Proxy proxy,
+      Protocol protocol,
+      IOException ioe) {
+
+    endConnect();
+  }
+
+  @Override
+  public void requestHeadersStart(Call call) {
+    requestStart = nanoClock.getAsLong();
+    requestPending = true;
+  }
+
+  @Override
+  public void requestHeadersEnd(Call call, okhttp3.Request request) {
+    requestEnd = nanoClock.getAsLong();
+  }
+
+  @Override
+  public void requestBodyEnd(Call call, long byteCount) {
+    requestEnd = nanoClock.getAsLong();
+    bytesSent += byteCount;
+  }
+
+  @Override
+  public void responseHeadersStart(Call call) {
+    long now = nanoClock.getAsLong();
+
+    if (requestPending) {
+      addNanos(Phase.REQUEST, requestEnd - requestStart);
+      addNanos(Phase.TTFB, now - requestEnd);
+      requestPending = false;
+    }
+  }
+
+  @Override
+  public void responseBodyStart(Call call) {
+    responseBodyStart = nanoClock.getAsLong();
+  }
+
+  @Override
+  public void responseBodyEnd(Call call, long byteCount) {
+    add(Phase.BODY, responseBodyStart);
+    bytesReceived += byteCount;
+  }
+
+  @Override
+  public void callEnd(Call call) {
+    endCall(false);
+  }
+
+  @Override
+  public void callFailed(Call call, IOException ioe) {
+    endCall(true);
+  }
+
+  private void endConnect() {
+    // Without TLS, the TCP connection ends here.
+    if (secureConnectStart == 0)
+      add(Phase.CONNECT, connectStart);
+  }
+
+  private void endCall(boolean failed) {
+    add(Phase.TOTAL, callStart);
+    stats.record(provider, phaseNanos, bytesSent, bytesReceived, failed);
+  }
+
+  private void add(Phase phase, long startNanos) {
+    addNanos(phase, nanoClock.getAsLong() - startNanos);
+  }
+
+  // A call may pass a phase more than once, ex. when following a redirect.
+  private void addNanos(Phase phase, long nanos) {
+    phaseNanos.merge(phase, nanos, Long::sum);
+  }
+}
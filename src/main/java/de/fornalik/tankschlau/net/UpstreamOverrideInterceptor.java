@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fornalik.tankschlau.net;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * okhttp3 application interceptor which sends each request to another server, ex. a local
+ * stand-in of the web services for load tests. Only scheme, host and port of the request URL
+ * are replaced, so path and query still tell which web service was meant.
+ */
+class UpstreamOverrideInterceptor implements Interceptor {
+  /**
+   * Header which carries the host the request was originally addressed to.
+   */
+  static final String ORIGINAL_HOST_HEADER = "X-Original-Host";
+
+  private final HttpUrl upstream;
+
+  UpstreamOverrideInterceptor(HttpUrl upstream) {
+    this.upstream = Objects.requireNonNull(upstream, "upstream must not be null.");
+  }
+
+  @Override
+  public okhttp3.Response intercept(Chain chain) throws IOException {
+    okhttp3.Request request = chain.request();
+
+    HttpUrl url = request.url().newBuilder()
+        .scheme(upstream.scheme())
+        .host(upstream.host())
+        .port(upstream.port())
+        .build();
+
+    return chain.proceed(request.newBuilder()
+        .url(url)
+        .header(ORIGINAL_HOST_HEADER, request.url().host())
+        .build());
+  }
+}
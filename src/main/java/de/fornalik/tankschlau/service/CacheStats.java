@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.service;
+
+import de.fornalik.tankschlau.util.MyToStringBuilder;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+
+import java.util.Objects;
+
+/**
+ * Immutable statistics of a response cache, as seen by one single transaction. Holds the cache
+ * outcome of that transaction along with the accumulated counts of the cache at that time.
+ */
+public final class CacheStats {
+
+  /**
+   * Statistics of a transaction which did not involve any cache.
+   */
+  public static final CacheStats NONE = new CacheStats(Outcome.NONE, 0, 0, 0);
+
+  private final Outcome outcome;
+  private final long hitCount;
+  private final long missCount;
+  private final long revalidationCount;
+
+  /**
+   * Constructor
+   *
+   * @param outcome           Cache outcome of the transaction.
+   * @param hitCount          Number of responses served from cache without network traffic.
+   * @param missCount         Number of responses fully downloaded from the server.
+   * @param revalidationCount Number of cached responses confirmed by the server with a
+   *                          "304 Not Modified".
+   */
+  public CacheStats(Outcome outcome, long hitCount, long missCount, long revalidationCount) {
+    this.outcome = Objects.requireNonNull(outcome, "outcome must not be null.");
+    this.hitCount = hitCount;
+    this.missCount = missCount;
+    this.revalidationCount = revalidationCount;
+  }
+
+  public Outcome getOutcome() {
+    return outcome;
+  }
+
+  public long getHitCount() {
+    return hitCount;
+  }
+
+  public long getMissCount() {
+    return missCount;
+  }
+
+  public long getRevalidationCount() {
+    return revalidationCount;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+
+    CacheStats that = (CacheStats) o;
+
+    return new EqualsBuilder()
+        .append(outcome, that.outcome)
+        .append(hitCount, that.hitCount)
+        .append(missCount, that.missCount)
+        .append(revalidationCount, that.revalidationCount)
+        .isEquals();
+  }
+
+  @Override
+  public int hashCode() {
+    return new HashCodeBuilder(17, 37)
+        .append(outcome)
+        .append(hitCount)
+        .append(missCount)
+        .append(revalidationCount)
+        .toHashCode();
+  }
+
+  @Override
+  public String toString() {
+    return new MyToStringBuilder(this)
+        .append("outcome", outcome)
+        .append("hitCount", hitCount)
+        .append("missCount", missCount)
+        .append("revalidationCount", revalidationCount)
+        .toString();
+  }
+
+  /**
+   * Cache outcome of one single transaction.
+   */
+  public enum Outcome {
+    /** No cache was involved. */
+    NONE,
+    /** Response was served from cache, without any network traffic. */
+    HIT,
+    /** Cached response was confirmed by the server with a "304 Not Modified". */
+    REVALIDATED,
+    /** Response was fully downloaded from the server. */
+    MISS
+  }
+}
@@ -84,8 +84,9 @@ public class GeocodingWorker implements RunnableCallbackWorker<Geo> {
   }
 
   private Geo findUserGeo() {
-    Optional<Geo> geo = geocodingService.findGeo(userAddress);
-    Optional<String> responseErrorMsg = geocodingService.getTransactInfo().getErrorMessage();
+    TransactResult<Geo> result = geocodingService.findGeo(userAddress);
+    Optional<Geo> geo = result.getData();
+    Optional<String> responseErrorMsg = result.getTransactInfo().getErrorMessage();
 
     if (responseErrorMsg.isPresent()) {
       LOGGER.warning(L10N.get("msg.NoGeocodingResultsForAddress", responseErrorMsg.get()));
@@ -17,14 +17,14 @@
 package de.fornalik.tankschlau.service;
 
 /**
- * The implementing classes have some valuable information about the last transaction with a
- * repository or service.
+ * The implementing classes have some valuable information about one single transaction with a
+ * repository or service, ex. a {@link TransactResult} or the response of one single HTTP call.
  */
 public interface HasTransactionInfo {
 
   /**
-   * @return Some valuable information about the last transaction with the repository or service.
-   * @see TransactInfo
+   * @return Some valuable information about the transaction with the repository or service.
+   * @see TransactInfoView
    */
-  TransactInfo getTransactInfo();
+  TransactInfoView getTransactInfo();
 }
@@ -19,12 +19,14 @@ package de.fornalik.tankschlau.service;
 import de.fornalik.tankschlau.geo.Geo;
 import de.fornalik.tankschlau.station.PetrolStation;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Repository interface for {@link PetrolStation} storage.
  */
-public interface PetrolStationsRepo extends HasTransactionInfo {
+public interface PetrolStationsRepo {
 
   /**
    * Searches for petrol stations around the user's neighbourhood, whereby neighbourhood
@@ -33,7 +35,22 @@ public interface PetrolStationsRepo extends HasTransactionInfo {
    * @param geo {@link Geo} instance. Its latitude & longitude should reflect the current
    *            location of the user. Its distance field should reflect the maximum search radius
    *            for petrol stations in the neighbourhood of the users current location.
-   * @return A list of {@link PetrolStation}, or an empty list if no stations were found.
+   * @return Result of the call, containing a list of {@link PetrolStation}, or an empty list if
+   * no stations were found.
    */
-  List<PetrolStation> findAllInNeighbourhood(Geo geo);
+  TransactResult<List<PetrolStation>> findAllInNeighbourhood(Geo geo);
+
+  /**
+   * Refreshes only open state and prices of petrol stations, whose master data (brand, address
+   * etc.) are already known to the repository from a previous call of
+   * {@link #findAllInNeighbourhood(Geo)}. Transfers just a fraction of the data of a complete
+   * search.
+   *
+   * @param uuids IDs of the petrol stations to refresh.
+   * @return Result of the call, containing the refreshed petrol stations in order of the given
+   * IDs. Stations with unknown master data or unknown to the webservice are left out. The list
+   * is empty if refreshing would cost more calls than a complete search within the quota of
+   * the webservice.
+   */
+  TransactResult<List<PetrolStation>> refreshPrices(Collection<UUID> uuids);
 }
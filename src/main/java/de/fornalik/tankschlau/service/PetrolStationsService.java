@@ -25,10 +25,10 @@ import java.util.List;
 /**
  * Service interface for petrol stations.
  */
-public interface PetrolStationsService extends HasTransactionInfo {
+public interface PetrolStationsService {
 
   /**
    * @see PetrolStationsRepo#findAllInNeighbourhood(Geo)
    */
-  List<PetrolStation> getNeighbourhoodStations(Geo geo);
+  TransactResult<List<PetrolStation>> getNeighbourhoodStations(Geo geo);
 }
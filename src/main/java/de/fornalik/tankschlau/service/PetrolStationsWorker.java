@@ -80,8 +80,11 @@ public class PetrolStationsWorker implements RunnableCallbackWorker<List<PetrolS
   }
 
   private List<PetrolStation> findPetrolStations() {
-    List<PetrolStation> data = petrolStationsService.getNeighbourhoodStations((userGeo));
-    Optional<String> errorMessage = petrolStationsService.getTransactInfo().getErrorMessage();
+    TransactResult<List<PetrolStation>> result =
+        petrolStationsService.getNeighbourhoodStations(userGeo);
+
+    List<PetrolStation> data = result.getData().orElseGet(ArrayList::new);
+    Optional<String> errorMessage = result.getTransactInfo().getErrorMessage();
 
     errorMessage.ifPresent(
         message -> LOGGER.warning(L10N.get("msg.ErrorServerConnection", message)));
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fornalik.tankschlau.service;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Coalesces concurrent calls with an equal key: the first caller does the actual call, all
+ * callers arriving while it is in flight wait for it and get the same result. As soon as the call
+ * has completed, the next caller with that key starts a new one - results are never cached.
+ *
+ * @param <K> Type of the key. Must implement equals/hashCode and must not be mutated while in use.
+ * @param <V> Type of the result. Shared between callers, so it should be immutable.
+ */
+public final class SingleFlight<K, V> {
+  private static final Logger LOGGER = Logger.getLogger(SingleFlight.class.getName());
+
+  private final ConcurrentMap<K, CompletableFuture<V>> inFlight;
+
+  public SingleFlight() {
+    this.inFlight = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Executes the given call, unless a call with an equal key is already in flight. In that case
+   * waits for the result of that call instead.
+   *
+   * @param key  Key which identifies equal calls.
+   * @param call The call to execute.
+   * @return The result of the call, possibly shared with other callers.
+   * @throws RuntimeException Whatever the call has thrown, also for waiting callers.
+   */
+  public V execute(K key, Supplier<V> call) {
+    Objects.requireNonNull(key, "key must not be null.");
+    Objects.requireNonNull(call, "call must not be null.");
+
+    CompletableFuture<V> ownFlight = new CompletableFuture<>();
+    CompletableFuture<V> existingFlight = inFlight.putIfAbsent(key, ownFlight);
+
+    if (existingFlight != null) {
+      LOGGER.fine("Joining call in flight for " + key);
+      return await(existingFlight);
+    }
+
+    try {
+      V result = call.get();
+      ownFlight.complete(result);
+      return result;
+    }
+    catch (RuntimeException | Error e) {
+      ownFlight.completeExceptionally(e);
+      throw e;
+    }
+    finally {
+      inFlight.remove(key, ownFlight);
+    }
+  }
+
+  /**
+   * @return Number of distinct calls currently in flight.
+   */
+  public int getInFlightCount() {
+    return inFlight.size();
+  }
+
+  private V await(CompletableFuture<V> flight) {
+    try {
+      return flight.join();
+    }
+    catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException)
+        throw (RuntimeException) e.getCause();
+
+      if (e.getCause() instanceof Error)
+        throw (Error) e.getCause();
+
+      throw e;
+    }
+  }
+}
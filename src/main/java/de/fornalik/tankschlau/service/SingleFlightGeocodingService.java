@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fornalik.tankschlau.service;
+
+import de.fornalik.tankschlau.geo.Address;
+import de.fornalik.tankschlau.geo.Geo;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Decorator for a {@link GeocodingService} which lets concurrent requests for the same address
+ * share a single call to the web service, ex. on repeated clicks.
+ */
+public class SingleFlightGeocodingService implements GeocodingService {
+  private final GeocodingService delegate;
+  private final SingleFlight<List<String>, TransactResult<Geo>> singleFlight;
+
+  public SingleFlightGeocodingService(GeocodingService delegate) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate must not be null.");
+    this.singleFlight = new SingleFlight<>();
+  }
+
+  @Override
+  public TransactResult<Geo> findGeo(Address forAddress) {
+    Objects.requireNonNull(forAddress, "forAddress must not be null.");
+
+    return singleFlight.execute(
+        createKey(forAddress),
+        () -> delegate.findGeo(forAddress));
+  }
+
+  /**
+   * @return The decorated service, ex. to find out which web service provider is in use.
+   */
+  public GeocodingService getDelegate() {
+    return delegate;
+  }
+
+  // Address is mutable and has no equals, so the values sent to the web service make up the key.
+  private static List<String> createKey(Address address) {
+    return Arrays.asList(
+        address.getStreet(),
+        address.getHouseNumber(),
+        address.getPostCode(),
+        address.getCity());
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fornalik.tankschlau.service;
+
+import de.fornalik.tankschlau.geo.Geo;
+import de.fornalik.tankschlau.station.PetrolStation;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Decorator for a {@link PetrolStationsService} which lets concurrent requests for the same
+ * neighbourhood share a single call to the web service, ex. if the one-shot button is clicked
+ * while a cyclic update is running.
+ */
+public class SingleFlightPetrolStationsService implements PetrolStationsService {
+  private final PetrolStationsService delegate;
+  private final SingleFlight<List<Object>, TransactResult<List<PetrolStation>>> singleFlight;
+
+  public SingleFlightPetrolStationsService(PetrolStationsService delegate) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate must not be null.");
+    this.singleFlight = new SingleFlight<>();
+  }
+
+  @Override
+  public TransactResult<List<PetrolStation>> getNeighbourhoodStations(Geo geo) {
+    Objects.requireNonNull(geo, "geo must not be null.");
+
+    return singleFlight.execute(
+        createKey(geo),
+        () -> delegate.getNeighbourhoodStations(geo));
+  }
+
+  // Geo is mutable, so its values at the time of the call make up the key.
+  private static List<Object> createKey(Geo geo) {
+    return Arrays.asList(geo.getLatitude(), geo.getLongitude(), geo.getDistance().orElse(null));
+  }
+}
@@ -16,18 +16,10 @@
 
 package de.fornalik.tankschlau.service;
 
-import java.util.Optional;
-
 /**
  * Holds some kind of information of the last communication with a backend service.
  */
-public interface TransactInfo {
-
-  /**
-   * @return Some information about the client/server transaction, directly provided
-   * by the server or enriched by ourselves. Should return empty string if no info is available.
-   */
-  String getStatus();
+public interface TransactInfo extends TransactInfoView {
 
   /**
    * @param data Some information about the client/server transaction, directly provided
@@ -35,30 +27,23 @@ public interface TransactInfo {
    */
   void setStatus(String data);
 
-  /**
-   * @return Optional error message for errors which have not been thrown at request time.
-   * <span style="color:red;">Important: </span>Empty Optional if no errors were detected.
-   */
-  Optional<String> getErrorMessage();
-
   /**
    * @param message Sets an error message for errors which have not been thrown at request time.
    *                Do not set at all (or null) if no error were encountered.
    */
   void setErrorMessage(String message);
 
-  /**
-   * @return Licence string.
-   * @implSpec Override according to provider's terms of use!
-   */
-  String getLicence();
-
   /**
    * @param s The licence string.
    * @implSpec Implement according to provider's terms of use!
    */
   void setLicence(String s);
 
+  /**
+   * @param cacheStats Statistics of the response cache, as seen by this transaction.
+   */
+  void setCacheStats(CacheStats cacheStats);
+
   /**
    * Deeply recycles instance to default values. No new instance is created,
    * the old one is retained.
@@ -25,6 +25,7 @@ public class TransactInfoImpl implements TransactInfo {
   private String status;
   private String errorMessage;
   private String licence;
+  private CacheStats cacheStats;
 
   public TransactInfoImpl() {
     this.reset();
@@ -64,8 +65,19 @@ public class TransactInfoImpl implements TransactInfo {
     this.licence = s;
   }
 
+  @Override
+  public CacheStats getCacheStats() {
+    return cacheStats != null ? cacheStats : CacheStats.NONE;
+  }
+
+  @Override
+  public void setCacheStats(CacheStats cacheStats) {
+    this.cacheStats = cacheStats;
+  }
+
   @Override
   public void reset() {
+    this.cacheStats = CacheStats.NONE;
     this.licence = "";
     this.errorMessage = null;
     this.status = "";
@@ -81,6 +93,7 @@ public class TransactInfoImpl implements TransactInfo {
         .append("status", status)
         .append("message", errorMessage)
         .append("licence", licence)
+        .append("cacheStats", cacheStats)
         .toString();
   }
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.service;
+
+import java.util.Optional;
+
+/**
+ * Read-only view of some kind of information of the last communication with a backend service.
+ *
+ * @see TransactInfo
+ */
+public interface TransactInfoView {
+
+  /**
+   * @return Some information about the client/server transaction, directly provided
+   * by the server or enriched by ourselves. Should return empty string if no info is available.
+   */
+  String getStatus();
+
+  /**
+   * @return Optional error message for errors which have not been thrown at request time.
+   * <span style="color:red;">Important: </span>Empty Optional if no errors were detected.
+   */
+  Optional<String> getErrorMessage();
+
+  /**
+   * @return Licence string.
+   * @implSpec Override according to provider's terms of use!
+   */
+  String getLicence();
+
+  /**
+   * @return Statistics of the response cache, as seen by this transaction.
+   * {@link CacheStats#NONE} if no cache was involved.
+   */
+  CacheStats getCacheStats();
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.service;
+
+import de.fornalik.tankschlau.util.MyToStringBuilder;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Immutable result of one single transaction with a repository or service. Carries the
+ * resulting data along with a {@link TransactInfoView} (status, error message, licence) and the
+ * time it took.
+ * <br><br>
+ * Each call of a service returns its own instance, so results of concurrent calls never
+ * interfere with each other.
+ *
+ * @param <T> Type of the resulting data.
+ */
+public final class TransactResult<T> implements HasTransactionInfo {
+  private final T data;
+  private final TransactInfoView transactInfo;
+  private final Duration elapsed;
+
+  private TransactResult(T data, TransactInfoView transactInfo, Duration elapsed) {
+    this.data = data;
+    this.transactInfo = transactInfo;
+    this.elapsed = elapsed;
+  }
+
+  /**
+   * Creates a new result.
+   *
+   * @param data         The resulting data, may be null if the transaction did not deliver any.
+   * @param transactInfo Info about the transaction. Its current values are copied, so it is
+   *                     safe to recycle the instance afterwards.
+   * @param elapsed      The time the transaction took.
+   * @param <T>          Type of the resulting data.
+   * @return New instance of {@link TransactResult}.
+   */
+  public static <T> TransactResult<T> of(T data, TransactInfoView transactInfo, Duration elapsed) {
+    Objects.requireNonNull(transactInfo, "transactInfo must not be null.");
+    Objects.requireNonNull(elapsed, "elapsed must not be null.");
+
+    return new TransactResult<>(data, new FrozenTransactInfo(transactInfo), elapsed);
+  }
+
+  /**
+   * @param data The data for the new result, may be null.
+   * @param <U>  Type of the data for the new result.
+   * @return New result with the given data, but the same transaction info and elapsed time.
+   */
+  public <U> TransactResult<U> withData(U data) {
+    return new TransactResult<>(data, transactInfo, elapsed);
+  }
+
+  /**
+   * @return The resulting data of the transaction, if any.
+   */
+  public Optional<T> getData() {
+    return Optional.ofNullable(data);
+  }
+
+  /**
+   * @return Read-only info about the transaction.
+   */
+  @Override
+  public TransactInfoView getTransactInfo() {
+    return transactInfo;
+  }
+
+  /**
+   * @return The time the transaction took.
+   */
+  public Duration getElapsed() {
+    return elapsed;
+  }
+
+  @Override
+  public String toString() {
+    return new MyToStringBuilder(this)
+        .append("data", data)
+        .append("transactInfo", transactInfo)
+        .append("elapsed", elapsed)
+        .toString();
+  }
+
+  private static final class FrozenTransactInfo implements TransactInfoView {
+    private final String status;
+    private final String errorMessage;
+    private final String licence;
+    private final CacheStats cacheStats;
+
+    private FrozenTransactInfo(TransactInfoView source) {
+      this.status = source.getStatus();
+      this.errorMessage = source.getErrorMessage().orElse(null);
+      this.licence = source.getLicence();
+      this.cacheStats = source.getCacheStats();
+    }
+
+    @Override
+    public String getStatus() {
+      return status;
+    }
+
+    @Override
+    public Optional<String> getErrorMessage() {
+      return Optional.ofNullable(errorMessage);
+    }
+
+    @Override
+    public String getLicence() {
+      return licence;
+    }
+
+    @Override
+    public CacheStats getCacheStats() {
+      return cacheStats;
+    }
+
+    @Override
+    public String toString() {
+      return new MyToStringBuilder(this)
+          .append("status", status)
+          .append("message", errorMessage)
+          .append("licence", licence)
+          .append("cacheStats", cacheStats)
+          .toString();
+    }
+  }
+}
@@ -18,18 +18,26 @@ package de.fornalik.tankschlau.station;
 
 import com.google.gson.annotations.SerializedName;
 import de.fornalik.tankschlau.geo.Address;
+import de.fornalik.tankschlau.geo.Geo;
 import de.fornalik.tankschlau.util.MyToStringBuilder;
 
 import java.util.*;
 
 public class PetrolStation {
   private static final String MUST_NOT_BE_NULL = " must not be null";
+  private static final PetrolType[] PETROL_TYPES = PetrolType.values();
+
+  // Prices are stored as tenths of a cent, ex. 1.459 EUR becomes 1459.
+  static final int PRICE_SCALE = 1000;
 
   @SerializedName("id") private final UUID uuid;
   @SerializedName("brand") private final String brand;
   @SerializedName("isOpen") private final boolean isOpen;
   private final Address address;
-  private final HashSet<Petrol> petrols;
+
+  // Indexed by PetrolType.ordinal(). A bit in presentPrices flags a price as present.
+  private final int[] prices;
+  private final int presentPrices;
 
   /**
    * Constructor
@@ -51,18 +59,98 @@ public class PetrolStation {
     this.brand = Objects.requireNonNull(brand, "brand" + MUST_NOT_BE_NULL);
     this.isOpen = isOpen;
     this.address = Objects.requireNonNull(address, "address" + MUST_NOT_BE_NULL);
-    this.petrols = Optional.ofNullable((HashSet<Petrol>) petrols).orElse(new HashSet<>());
+    this.prices = new int[PETROL_TYPES.length];
+    this.presentPrices = storePrices(petrols, prices);
+  }
+
+  /*
+   * Writes the fixed-point prices of the given petrols into the given array.
+   * Returns the bit mask of present prices.
+   */
+  private static int storePrices(Set<Petrol> petrols, int[] prices) {
+    if (petrols == null) return 0;
+
+    int present = 0;
+
+    for (Petrol petrol : petrols) {
+      int bit = 1 << petrol.type.ordinal();
+
+      // As petrols is a Set here, this only happens for equal types with different prices.
+      if ((present & bit) != 0)
+        throw new Petrols.PetrolsDuplicateException(
+            "Critical error. Found duplicates for petrol type " + petrol.type);
+
+      prices[petrol.type.ordinal()] = (int) Math.round(petrol.price * PRICE_SCALE);
+      present |= bit;
+    }
+
+    return present;
+  }
+
+  /**
+   * Creates a copy of this station with updated open state and prices, while master data like
+   * brand and address are kept. The copy gets its own {@link Address} and {@link Geo}, so
+   * changing them (ex. the distance) does not affect this station.
+   *
+   * @param isOpen  Flags if station is currently open.
+   * @param petrols The station's current petrol data - nullable
+   * @return New instance of {@link PetrolStation}.
+   */
+  public PetrolStation withPrices(boolean isOpen, Set<Petrol> petrols) {
+    Geo geo = address.getGeo()
+        .map(g -> new Geo(g.getLatitude(), g.getLongitude(), g.getDistance().orElse(null)))
+        .orElse(null);
+
+    return new PetrolStation(uuid, brand, isOpen, copyAddress(geo), petrols);
+  }
+
+  /**
+   * Creates a copy of this station whose distance is the great-circle distance to the given
+   * position, calculated locally. Use when the user's location changed, but the known petrol
+   * stations are still valid. This station and its {@link Geo} data are not changed.
+   *
+   * @param position Location to calculate the distance to, ex. the user's address - not null
+   * @return New instance of {@link PetrolStation}. Without {@link Geo} data, the copy has no
+   * distance either.
+   * @see Geo#distanceTo(Geo)
+   */
+  public PetrolStation withDistanceTo(Geo position) {
+    Objects.requireNonNull(position, "position" + MUST_NOT_BE_NULL);
+
+    Geo geo = address.getGeo()
+        .map(g -> new Geo(g.getLatitude(), g.getLongitude(), g.distanceTo(position)))
+        .orElse(null);
+
+    return new PetrolStation(uuid, brand, isOpen, copyAddress(geo), getPetrols());
+  }
+
+  private Address copyAddress(Geo geo) {
+    return new Address(
+        address.getName(),
+        address.getStreet(),
+        address.getHouseNumber(),
+        address.getCity(),
+        address.getPostCode(),
+        geo);
   }
 
   /**
    * Get a Set of {@link Petrol} objects for this petrol station.
    * It's guaranteed that every station has a unique Set of petrols or an empty Set<br>
    * Cardinality is defined as 0...infinit.
+   * <br><br>
+   * The Set is created on every call. Prefer {@link #findPrice(PetrolType)} for lookups.
    *
    * @return A Set of {@link Petrol} objects, else an empty Set.
    */
   public Set<Petrol> getPetrols() {
-    if (petrols == null) return new HashSet<>();
+    Set<Petrol> petrols = new HashSet<>();
+
+    for (PetrolType type : PETROL_TYPES) {
+      if (hasPrice(type))
+        petrols.add(new Petrol(type, findPrice(type)));
+    }
+
     return petrols;
   }
 
@@ -71,10 +159,39 @@ public class PetrolStation {
    *
    * @param type The {@link PetrolType} to search for.
    * @return An Optional when a {@link Petrol} object was found, else an empty Optional.
-   * @see Petrols#findPetrol(Set, PetrolType)
    */
   public Optional<Petrol> findPetrol(PetrolType type) {
-    return Petrols.findPetrol(petrols, type);
+    if (!hasPrice(type)) return Optional.empty();
+    return Optional.of(new Petrol(type, findPrice(type)));
+  }
+
+  /**
+   * @param type The {@link PetrolType} to check.
+   * @return True if this station has a price for the given petrol type, else false. False
+   * if type is null.
+   */
+  public boolean hasPrice(PetrolType type) {
+    return type != null && (presentPrices & (1 << type.ordinal())) != 0;
+  }
+
+  /**
+   * Allocation-free price lookup, e.g. for sorting.
+   *
+   * @param type The {@link PetrolType} to search for.
+   * @return The price in EUR for the given petrol type, 0.0 if not found.
+   * @see #hasPrice(PetrolType)
+   */
+  public double findPrice(PetrolType type) {
+    if (!hasPrice(type)) return 0.0;
+    return (double) prices[type.ordinal()] / PRICE_SCALE;
+  }
+
+  /**
+   * @param type The {@link PetrolType} to search for - not null
+   * @return The price in tenths of a cent for the given petrol type, 0 if not found.
+   */
+  int findFixedPointPrice(PetrolType type) {
+    return hasPrice(type) ? prices[type.ordinal()] : 0;
   }
 
   @Override
@@ -84,7 +201,7 @@ public class PetrolStation {
         .append("brand", brand)
         .append("isOpen", isOpen)
         .append("address", address)
-        .append("petrols", petrols)
+        .append("petrols", getPetrols())
         .toString();
   }
 
@@ -92,6 +209,16 @@ public class PetrolStation {
     return address;
   }
 
+  /**
+   * Shortcut for the geographical data of the station's {@link Address}. Prefer this one over
+   * {@link #getAddress()} if only geo data (ex. distance) are needed.
+   *
+   * @return An Optional of geographical data.
+   */
+  public Optional<Geo> getGeo() {
+    return getAddress().getGeo();
+  }
+
   public UUID getUuid() {
     return uuid;
   }
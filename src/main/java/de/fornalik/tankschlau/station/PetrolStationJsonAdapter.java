@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.station;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import de.fornalik.tankschlau.geo.AddressJsonAdapter;
+import de.fornalik.tankschlau.util.JsonReaderHelper;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * A streaming {@link Gson} JSON adapter for {@link PetrolStation} objects having the flat
+ * structure of a tankerkoenig.de station (ex.) <br><br>
+ * <code> {
+ * "id": "51d4b660-a095-1aa0-e100-80009459e03a",
+ * "name": "JET BERLIN",
+ * "brand": "JET",
+ * "street": "HOLZMARKTSTR.",
+ * "houseNumber": "12",
+ * "place": "BERLIN",
+ * "postCode": 10179,
+ * "lat": 52.5134,
+ * "lng": 13.4207,
+ * "dist": 1.1,
+ * "diesel": 1.109,
+ * "e5": 1.339,
+ * "e10": 1.319,
+ * "isOpen": true
+ * } </code><br><br>
+ * Other elements of the JSON object are skipped. The station is built right after its
+ * closing brace has been read, without any intermediate tree or DTO.
+ */
+public class PetrolStationJsonAdapter extends TypeAdapter<PetrolStation> {
+
+  /**
+   * Reads one petrol station object.
+   *
+   * @throws NullPointerException  if some mandatory object could not be extracted.
+   * @throws IllegalStateException if some object would be in a illegal state after creation.
+   */
+  @Override
+  public PetrolStation read(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+
+    UUID uuid = null;
+    String brand = null;
+    boolean isOpen = false;
+    AddressJsonAdapter.Fields addressFields = new AddressJsonAdapter.Fields();
+    PetrolsJsonAdapter.Fields petrolsFields = new PetrolsJsonAdapter.Fields();
+
+    in.beginObject();
+
+    while (in.hasNext()) {
+      String name = in.nextName();
+
+      switch (name) {
+        case "id":
+          String id = JsonReaderHelper.nextStringOrNull(in);
+          uuid = id != null ? UUID.fromString(id) : null;
+          break;
+
+        case "brand":
+          brand = JsonReaderHelper.nextStringOrNull(in);
+          break;
+
+        case "isOpen":
+          isOpen = JsonReaderHelper.nextBooleanOrFalse(in);
+          break;
+
+        default:
+          if (!addressFields.read(name, in) && !petrolsFields.read(name, in))
+            in.skipValue();
+      }
+    }
+
+    in.endObject();
+
+    // Build the final petrol station. The builder will throw if data do not match the
+    // business rules.
+    return PetrolStationBuilder
+        .create(uuid)
+        .withBrand(brand)
+        .withIsOpen(isOpen)
+        .withPetrols(petrolsFields.toPetrols())
+        .withAddress(addressFields.toAddress())
+        .build();
+  }
+
+  @Override
+  public void write(JsonWriter out, PetrolStation petrolStation) throws IOException {
+    if (petrolStation == null) {
+      out.nullValue();
+      return;
+    }
+
+    out.beginObject();
+
+    out.name("id").value(petrolStation.getUuid().toString());
+    out.name("brand").value(petrolStation.getBrand());
+    out.name("isOpen").value(petrolStation.isOpen());
+
+    if (petrolStation.getAddress() != null)
+      AddressJsonAdapter.writeFields(out, petrolStation.getAddress());
+
+    for (PetrolType type : PetrolType.values()) {
+      if (petrolStation.hasPrice(type))
+        out.name(type.getJsonKey()).value(petrolStation.findPrice(type));
+    }
+
+    out.endObject();
+  }
+}
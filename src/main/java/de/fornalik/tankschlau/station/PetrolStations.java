@@ -17,7 +17,6 @@
 package de.fornalik.tankschlau.station;
 
 import de.fornalik.tankschlau.geo.Geo;
-import org.apache.commons.lang3.builder.CompareToBuilder;
 
 import java.util.*;
 
@@ -31,10 +30,9 @@ public class PetrolStations {
   }
 
   /**
-   * First sorts a {@code List} of {@link PetrolStation} by price and distance, then returns
-   * the petrol station with the cheapest price for the given petrol type.
-   * Does <b>NOT</b> mutate the incoming list of petrol stations, instead creates a shallow
-   * copy before sorting.
+   * Returns the petrol station with the cheapest price for the given petrol type, which is the
+   * first station {@link #sortByPriceAndDistanceForPetrolType(List, PetrolType)} would
+   * return. Scans the list once and does <b>NOT</b> mutate it.
    *
    * @param petrolStations List of {@link PetrolStation} to search in for the cheapest price.
    * @param type           The {@link PetrolType} for which to search the cheapest price.
@@ -47,14 +45,164 @@ public class PetrolStations {
     Objects.requireNonNull(petrolStations);
     Objects.requireNonNull(type);
 
-    if (petrolStations.isEmpty())
-      return Optional.empty();
+    PriceAndDistanceComparator comparator = new PriceAndDistanceComparator(type);
+    PetrolStation cheapest = null;
 
-    // Do not mutate incoming object
-    List<PetrolStation> copiedList = new ArrayList<>(petrolStations);
+    for (PetrolStation station : petrolStations) {
+      // Keep the first of equal stations, as a stable sort would do.
+      if (cheapest == null || comparator.compare(station, cheapest) < 0)
+        cheapest = station;
+    }
 
-    sortByPriceAndDistanceForPetrolType(copiedList, type);
-    return Optional.of(copiedList.get(0));
+    return Optional.ofNullable(cheapest);
+  }
+
+  /**
+   * Returns the petrol stations with the cheapest prices for the given petrol type, in the
+   * order {@link #sortByPriceAndDistanceForPetrolType(List, PetrolType)} would return them.
+   * Distances are compared with a precision of 10 centimeters, as by {@link PetrolStationsIndex}.
+   * Only keeps the sort keys of the current top k stations while scanning the list, thus runs
+   * in O(n log k). Does <b>NOT</b> mutate the incoming list of petrol stations.
+   *
+   * @param petrolStations List of {@link PetrolStation} to search in for the cheapest prices.
+   * @param type           The {@link PetrolType} for which to search the cheapest prices.
+   * @param k              Maximum number of petrol stations to return, not negative.
+   * @return New list of at most k petrol stations, cheapest first.
+   * @throws IllegalArgumentException If k is negative.
+   */
+  public static List<PetrolStation> findCheapestN(
+      List<PetrolStation> petrolStations,
+      PetrolType type,
+      int k) {
+
+    Objects.requireNonNull(petrolStations);
+    Objects.requireNonNull(type);
+
+    if (k < 0)
+      throw new IllegalArgumentException("k must not be negative.");
+
+    if (k == 0 || petrolStations.isEmpty())
+      return new ArrayList<>();
+
+    PetrolStation[] stations = petrolStations.toArray(new PetrolStation[0]);
+    int capacity = Math.min(k, stations.length);
+
+    // The sort keys only have room for list indexes below MAX_SIZE.
+    if (stations.length > PetrolStationsIndex.MAX_SIZE) {
+      List<PetrolStation> sorted = new ArrayList<>(Arrays.asList(stations));
+      sortByPriceAndDistanceForPetrolType(sorted, type);
+      return new ArrayList<>(sorted.subList(0, capacity));
+    }
+
+    /* Max-heap of the sort keys of the current top k, see PetrolStationsIndex. The keys end
+    with the list index, so they are unique and ties are broken as by a stable sort. */
+    long[] distanceKeys = PetrolStationsIndex.toDistanceKeys(stations);
+    long[] heap = new long[capacity];
+
+    for (int i = 0; i < stations.length; i++) {
+      long priceKey = PetrolStationsIndex.toPriceKey(stations[i], type);
+      long sortKey = PetrolStationsIndex.toSortKey(priceKey, distanceKeys[i], i);
+
+      if (i < capacity)
+        siftUp(heap, i, sortKey);
+      else if (sortKey < heap[0])
+        siftDown(heap, capacity, sortKey);
+    }
+
+    List<PetrolStation> cheapest = new ArrayList<>(capacity);
+
+    for (int index : PetrolStationsIndex.toOrder(heap))
+      cheapest.add(stations[index]);
+
+    return cheapest;
+  }
+
+  // Inserts the key into a max-heap which holds the given number of keys.
+  private static void siftUp(long[] heap, int size, long key) {
+    int position = size;
+
+    while (position > 0) {
+      int parent = (position - 1) >>> 1;
+
+      if (heap[parent] >= key)
+        break;
+
+      heap[position] = heap[parent];
+      position = parent;
+    }
+
+    heap[position] = key;
+  }
+
+  // Replaces the greatest key of a max-heap with the given one.
+  private static void siftDown(long[] heap, int size, long key) {
+    int position = 0;
+
+    while (true) {
+      int child = 2 * position + 1;
+
+      if (child >= size)
+        break;
+
+      if (child + 1 < size && heap[child + 1] > heap[child])
+        child++;
+
+      if (heap[child] <= key)
+        break;
+
+      heap[position] = heap[child];
+      position = child;
+    }
+
+    heap[position] = key;
+  }
+
+  /**
+   * Returns the rank of a petrol station regarding price and distance for the given petrol
+   * type, i.e. its 1-based position within the list sorted by
+   * {@link #sortByPriceAndDistanceForPetrolType(List, PetrolType)}. Scans the list once and
+   * does <b>NOT</b> mutate it.
+   *
+   * @param petrolStations List of {@link PetrolStation} to rank within.
+   * @param uuid           UUID of the petrol station to rank.
+   * @param type           The {@link PetrolType} for which to rank.
+   * @return The rank, 1 for the cheapest station, or an empty OptionalInt if no station with
+   * the given UUID is in the list.
+   */
+  public static OptionalInt rankOf(
+      List<PetrolStation> petrolStations,
+      UUID uuid,
+      PetrolType type) {
+
+    Objects.requireNonNull(petrolStations);
+    Objects.requireNonNull(uuid);
+    Objects.requireNonNull(type);
+
+    int index = -1;
+
+    for (int i = 0; i < petrolStations.size(); i++) {
+      if (uuid.equals(petrolStations.get(i).getUuid())) {
+        index = i;
+        break;
+      }
+    }
+
+    if (index == -1)
+      return OptionalInt.empty();
+
+    PriceAndDistanceComparator comparator = new PriceAndDistanceComparator(type);
+    PetrolStation station = petrolStations.get(index);
+    int rank = 1;
+
+    for (int i = 0; i < petrolStations.size(); i++) {
+      int result = comparator.compare(petrolStations.get(i), station);
+
+      // Equal stations keep their order, as with a stable sort.
+      if (result < 0 || (result == 0 && i < index))
+        rank++;
+    }
+
+    return OptionalInt.of(rank);
   }
 
   /**
@@ -89,22 +237,18 @@ public class PetrolStations {
     @Override
     public int compare(PetrolStation first, PetrolStation second) {
       // sort empty Optionals last
-      return new CompareToBuilder()
-          .append(getPriceForSort(first), getPriceForSort(second))
-          .append(getDistanceForSort(first), getDistanceForSort(second))
-          .toComparison();
+      int result = Double.compare(getPriceForSort(first), getPriceForSort(second));
+      if (result != 0) return result;
+
+      return Double.compare(getDistanceForSort(first), getDistanceForSort(second));
     }
 
-    private Double getPriceForSort(PetrolStation station) {
-      return station
-          .findPetrol(this.petrolType)
-          .map(p -> p.price)
-          .orElse(999999D);
+    private double getPriceForSort(PetrolStation station) {
+      return station.hasPrice(this.petrolType) ? station.findPrice(this.petrolType) : 999999D;
     }
 
-    private Double getDistanceForSort(PetrolStation station) {
-      return station.getAddress()
-          .getGeo()
+    private double getDistanceForSort(PetrolStation station) {
+      return station.getGeo()
           .flatMap(Geo::getDistance)
           .orElse(999999D);
     }
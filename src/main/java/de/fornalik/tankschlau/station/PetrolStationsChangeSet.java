@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fornalik.tankschlau.station;
+
+import de.fornalik.tankschlau.geo.Geo;
+import de.fornalik.tankschlau.util.MyToStringBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable set of differences between two consecutive lists of {@link PetrolStation}, whereby
+ * stations are identified by {@link PetrolStation#getUuid()}. Lets consumers do work proportional
+ * to what actually changed, instead of processing the complete new list each time.
+ * <br><br>
+ * Master data like brand or address are not compared, as they are not expected to change for
+ * the same UUID.
+ */
+public final class PetrolStationsChangeSet {
+  private final List<PetrolStation> added;
+  private final List<PetrolStation> removed;
+  private final List<Change> changed;
+
+  private PetrolStationsChangeSet(
+      List<PetrolStation> added,
+      List<PetrolStation> removed,
+      List<Change> changed) {
+
+    this.added = Collections.unmodifiableList(added);
+    this.removed = Collections.unmodifiableList(removed);
+    this.changed = Collections.unmodifiableList(changed);
+  }
+
+  /**
+   * Computes the differences between two lists of petrol stations in linear time.
+   *
+   * @param previous The former list of petrol stations. Must not be null but may be empty.
+   * @param current  The new list of petrol stations. Must not be null but may be empty.
+   * @return The differences. Each list of the change set keeps the order of its source list.
+   */
+  public static PetrolStationsChangeSet between(
+      List<PetrolStation> previous,
+      List<PetrolStation> current) {
+
+    Objects.requireNonNull(previous, "previous must not be null.");
+    Objects.requireNonNull(current, "current must not be null.");
+
+    Map<UUID, PetrolStation> previousByUuid = new LinkedHashMap<>();
+    previous.forEach(station -> previousByUuid.put(station.getUuid(), station));
+
+    List<PetrolStation> added = new ArrayList<>();
+    List<Change> changed = new ArrayList<>();
+
+    for (PetrolStation currentStation : current) {
+      PetrolStation previousStation = previousByUuid.remove(currentStation.getUuid());
+
+      if (previousStation == null) {
+        added.add(currentStation);
+        continue;
+      }
+
+      Change change = new Change(previousStation, currentStation);
+
+      if (!change.isEmpty())
+        changed.add(change);
+    }
+
+    // What's left has not been found in the current list.
+    List<PetrolStation> removed = new ArrayList<>(previousByUuid.values());
+
+    return new PetrolStationsChangeSet(added, removed, changed);
+  }
+
+  /**
+   * @return Stations which are new in the current list.
+   */
+  public List<PetrolStation> getAdded() {
+    return added;
+  }
+
+  /**
+   * @return Stations of the previous list which are missing in the current list.
+   */
+  public List<PetrolStation> getRemoved() {
+    return removed;
+  }
+
+  /**
+   * @return Changes of stations which are contained in both lists.
+   */
+  public List<Change> getChanged() {
+    return changed;
+  }
+
+  /**
+   * @return True if stations have been added or removed, i.e. the set of UUIDs differs.
+   */
+  public boolean hasAddedOrRemoved() {
+    return !added.isEmpty() || !removed.isEmpty();
+  }
+
+  /**
+   * @return True if both lists hold the same stations with the same prices, open states and
+   * distances.
+   */
+  public boolean isEmpty() {
+    return !hasAddedOrRemoved() && changed.isEmpty();
+  }
+
+  /**
+   * Checks if the order of stations by price and distance for the given petrol type might have
+   * changed, see {@link PetrolStations.PriceAndDistanceComparator}. If not, a former sort
+   * result or cheapest station is still valid.
+   *
+   * @param type The {@link PetrolType} the stations are sorted for.
+   * @return True if stations have been added or removed, or if prices of the given type or
+   * distances have changed.
+   */
+  public boolean affectsOrderFor(PetrolType type) {
+    Objects.requireNonNull(type, "type must not be null.");
+
+    if (hasAddedOrRemoved())
+      return true;
+
+    return changed.stream()
+        .anyMatch(change -> change.isPriceChanged(type) || change.isDistanceChanged());
+  }
+
+  @Override
+  public String toString() {
+    return new MyToStringBuilder(this)
+        .append("added", added.size())
+        .append("removed", removed.size())
+        .append("changed", changed.size())
+        .toString();
+  }
+
+  /**
+   * Differences of one and the same station within two consecutive lists.
+   */
+  public static final class Change {
+    private final PetrolStation previous;
+    private final PetrolStation current;
+    private final Set<PetrolType> priceChangedTypes;
+    private final boolean openStateChanged;
+    private final boolean distanceChanged;
+
+    private Change(PetrolStation previous, PetrolStation current) {
+      this.previous = previous;
+      this.current = current;
+      this.priceChangedTypes = EnumSet.noneOf(PetrolType.class);
+
+      for (PetrolType type : PetrolType.values()) {
+        if (previous.hasPrice(type) != current.hasPrice(type)
+            || previous.findPrice(type) != current.findPrice(type))
+          priceChangedTypes.add(type);
+      }
+
+      this.openStateChanged = previous.isOpen() != current.isOpen();
+      this.distanceChanged = !findDistance(previous).equals(findDistance(current));
+    }
+
+    private static Optional<Double> findDistance(PetrolStation station) {
+      return station.getGeo().flatMap(Geo::getDistance);
+    }
+
+    private boolean isEmpty() {
+      return priceChangedTypes.isEmpty() && !openStateChanged && !distanceChanged;
+    }
+
+    public UUID getUuid() {
+      return current.getUuid();
+    }
+
+    public PetrolStation getPrevious() {
+      return previous;
+    }
+
+    public PetrolStation getCurrent() {
+      return current;
+    }
+
+    /**
+     * @return Petrol types whose price has changed, appeared or disappeared.
+     */
+    public Set<PetrolType> getPriceChangedTypes() {
+      return Collections.unmodifiableSet(priceChangedTypes);
+    }
+
+    public boolean isPriceChanged(PetrolType type) {
+      return priceChangedTypes.contains(type);
+    }
+
+    public boolean isOpenStateChanged() {
+      return openStateChanged;
+    }
+
+    public boolean isDistanceChanged() {
+      return distanceChanged;
+    }
+
+    @Override
+    public String toString() {
+      return new MyToStringBuilder(this)
+          .append("uuid", getUuid())
+          .append("priceChangedTypes", priceChangedTypes)
+          .append("openStateChanged", openStateChanged)
+          .append("distanceChanged", distanceChanged)
+          .toString();
+    }
+  }
+}
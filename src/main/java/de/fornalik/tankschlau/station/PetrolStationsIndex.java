@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.station;
+
+import de.fornalik.tankschlau.geo.Geo;
+import de.fornalik.tankschlau.util.MyToStringBuilder;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.UUID;
+
+/**
+ * Immutable index over a {@code List} of {@link PetrolStation}, which holds the sort order by
+ * price and distance for every {@link PetrolType}. The orders are computed once when the index
+ * gets created, so switching the petrol type or asking for the cheapest station afterwards
+ * does not need any comparison.
+ * <br><br>
+ * The order equals the one of {@link PetrolStations.PriceAndDistanceComparator}: Missing
+ * prices and distances sort last, stations which are equal in price and distance keep the
+ * order of the given list. Distances are compared with a precision of 10 centimeters.
+ */
+public final class PetrolStationsIndex {
+  private static final PetrolType[] PETROL_TYPES = PetrolType.values();
+
+  // Sort key layout, from most to least significant bits: price, distance, index.
+  private static final int INDEX_BITS = 17;
+  private static final int DISTANCE_BITS = 24;
+  private static final int PRICE_BITS = 22;
+  private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+  static final long MAX_DISTANCE_KEY = (1L << DISTANCE_BITS) - 1;
+  static final long MAX_PRICE_KEY = (1L << PRICE_BITS) - 1;
+  private static final int DISTANCE_SCALE = 10000; // km to 10 centimeters
+
+  /**
+   * Maximum number of petrol stations an index can hold.
+   */
+  public static final int MAX_SIZE = 1 << INDEX_BITS;
+
+  private static final PetrolStationsIndex EMPTY =
+      new PetrolStationsIndex(new PetrolStation[0], new int[PETROL_TYPES.length][0]);
+
+  private final PetrolStation[] petrolStations;
+  private final int[][] orderByPetrolType;
+
+  private PetrolStationsIndex(PetrolStation[] petrolStations, int[][] orderByPetrolType) {
+    this.petrolStations = petrolStations;
+    this.orderByPetrolType = orderByPetrolType;
+  }
+
+  /**
+   * @return An index without any petrol station.
+   */
+  public static PetrolStationsIndex empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Creates the index, sorting the given petrol stations once per {@link PetrolType}.
+   * Does <b>NOT</b> mutate the given list.
+   *
+   * @param petrolStations List of {@link PetrolStation} to index - not null
+   * @return New instance of {@link PetrolStationsIndex}.
+   * @throws IllegalArgumentException If there are more than {@link #MAX_SIZE} petrol stations.
+   */
+  public static PetrolStationsIndex of(List<PetrolStation> petrolStations) {
+    Objects.requireNonNull(petrolStations, "petrolStations must not be null.");
+
+    if (petrolStations.size() > MAX_SIZE)
+      throw new IllegalArgumentException(
+          "Too many petrol stations to index: " + petrolStations.size());
+
+    PetrolStation[] stations = petrolStations.toArray(new PetrolStation[0]);
+    long[] distanceKeys = toDistanceKeys(stations);
+    int[][] orderByPetrolType = new int[PETROL_TYPES.length][];
+    long[] sortKeys = new long[stations.length];
+
+    for (PetrolType type : PETROL_TYPES)
+      orderByPetrolType[type.ordinal()] = toOrder(stations, distanceKeys, type, sortKeys);
+
+    return new PetrolStationsIndex(stations, orderByPetrolType);
+  }
+
+  /**
+   * Creates an index which holds the current stations of the given change set instead of the
+   * previous ones. Only the orders of petrol types which are affected by the changes get sorted
+   * again, see {@link PetrolStationsChangeSet#affectsOrderFor(PetrolType)}. The other orders are
+   * shared with this index. Stations which are equal in price and distance keep the order of
+   * the list this index has originally been created of.
+   *
+   * @param changeSet Changes between the stations of this index and the new ones - not null
+   * @return New instance of {@link PetrolStationsIndex}, or this one if nothing has changed.
+   * @throws IllegalArgumentException If stations have been added or removed, or if a changed
+   *                                  station is not part of this index.
+   */
+  public PetrolStationsIndex withChanges(PetrolStationsChangeSet changeSet) {
+    Objects.requireNonNull(changeSet, "changeSet must not be null.");
+
+    if (changeSet.hasAddedOrRemoved())
+      throw new IllegalArgumentException("Cannot apply added or removed petrol stations.");
+
+    if (changeSet.isEmpty())
+      return this;
+
+    Map<UUID, Integer> positionByUuid = new HashMap<>();
+
+    for (int i = 0; i < petrolStations.length; i++)
+      positionByUuid.put(petrolStations[i].getUuid(), i);
+
+    PetrolStation[] stations = petrolStations.clone();
+
+    for (PetrolStationsChangeSet.Change change : changeSet.getChanged()) {
+      Integer position = positionByUuid.get(change.getUuid());
+
+      if (position == null)
+        throw new IllegalArgumentException("Unknown petrol station: " + change.getUuid());
+
+      stations[position] = change.getCurrent();
+    }
+
+    int[][] orders = this.orderByPetrolType.clone();
+    long[] distanceKeys = null;
+    long[] sortKeys = null;
+
+    for (PetrolType type : PETROL_TYPES) {
+      if (!changeSet.affectsOrderFor(type))
+        continue;
+
+      if (distanceKeys == null) {
+        distanceKeys = toDistanceKeys(stations);
+        sortKeys = new long[stations.length];
+      }
+
+      orders[type.ordinal()] = toOrder(stations, distanceKeys, type, sortKeys);
+    }
+
+    return new PetrolStationsIndex(stations, orders);
+  }
+
+  // Uses the given sortKeys array as scratch space, so it can be shared by all petrol types.
+  private static int[] toOrder(
+      PetrolStation[] stations,
+      long[] distanceKeys,
+      PetrolType type,
+      long[] sortKeys) {
+
+    for (int i = 0; i < stations.length; i++)
+      sortKeys[i] = toSortKey(toPriceKey(stations[i], type), distanceKeys[i], i);
+
+    return toOrder(sortKeys);
+  }
+
+  /*
+   * The sort key helpers below are shared with StationTable and PetrolStations.findCheapestN,
+   * so all of them sort the same way. Missing prices or distances are passed as MAX_PRICE_KEY
+   * or MAX_DISTANCE_KEY.
+   */
+
+  static long[] toDistanceKeys(PetrolStation[] stations) {
+    long[] distanceKeys = new long[stations.length];
+
+    for (int i = 0; i < stations.length; i++) {
+      Optional<Double> distance = stations[i].getGeo().flatMap(Geo::getDistance);
+      distanceKeys[i] = distance.isPresent() ? toDistanceKey(distance.get()) : MAX_DISTANCE_KEY;
+    }
+
+    return distanceKeys;
+  }
+
+  static long toPriceKey(PetrolStation station, PetrolType type) {
+    return station.hasPrice(type) ? toPriceKey(station.findFixedPointPrice(type)) : MAX_PRICE_KEY;
+  }
+
+
+  static long toPriceKey(int fixedPointPrice) {
+    return Math.min(Math.max(fixedPointPrice, 0), MAX_PRICE_KEY - 1);
+  }
+
+  static long toDistanceKey(double distance) {
+    long key = Math.round(distance * DISTANCE_SCALE);
+    return Math.min(Math.max(key, 0), MAX_DISTANCE_KEY - 1);
+  }
+
+  static long toSortKey(long priceKey, long distanceKey, int index) {
+    return priceKey << (DISTANCE_BITS + INDEX_BITS) | distanceKey << INDEX_BITS | index;
+  }
+
+  // Sorts the given keys in place and returns the indexes in sort order.
+  static int[] toOrder(long[] sortKeys) {
+    Arrays.sort(sortKeys);
+
+    int[] order = new int[sortKeys.length];
+
+    for (int i = 0; i < order.length; i++)
+      order[i] = (int) (sortKeys[i] & INDEX_MASK);
+
+    return order;
+  }
+
+  /**
+   * @param type The {@link PetrolType} for which the stations are sorted - not null
+   * @return Unmodifiable view of the petrol stations, sorted by price and distance for the
+   * given petrol type.
+   */
+  public List<PetrolStation> getSortedFor(PetrolType type) {
+    Objects.requireNonNull(type, "type must not be null.");
+
+    if (petrolStations.length == 0)
+      return Collections.emptyList();
+
+    return new SortedView(orderByPetrolType[type.ordinal()]);
+  }
+
+  /**
+   * @param type The {@link PetrolType} for which to search the cheapest price - not null
+   * @return The petrol station with the cheapest price for the given petrol type, or an empty
+   * Optional if the index is empty.
+   * @see PetrolStations#findCheapest(List, PetrolType)
+   */
+  public Optional<PetrolStation> findCheapest(PetrolType type) {
+    Objects.requireNonNull(type, "type must not be null.");
+
+    if (petrolStations.length == 0)
+      return Optional.empty();
+
+    return Optional.of(petrolStations[orderByPetrolType[type.ordinal()][0]]);
+  }
+
+  /**
+   * @return Number of indexed petrol stations.
+   */
+  public int size() {
+    return petrolStations.length;
+  }
+
+  /**
+   * @return True if the index does not hold any petrol station.
+   */
+  public boolean isEmpty() {
+    return petrolStations.length == 0;
+  }
+
+  @Override
+  public String toString() {
+    return new MyToStringBuilder(this)
+        .append("size", size())
+        .toString();
+  }
+
+  private final class SortedView extends AbstractList<PetrolStation> implements RandomAccess {
+    private final int[] order;
+
+    private SortedView(int[] order) {
+      this.order = order;
+    }
+
+    @Override
+    public PetrolStation get(int index) {
+      return petrolStations[order[index]];
+    }
+
+    @Override
+    public int size() {
+      return order.length;
+    }
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.station;
+
+import de.fornalik.tankschlau.util.MyToStringBuilder;
+
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Unmodifiable list of {@link PetrolStation} which has been restored from a persisted snapshot
+ * rather than been fetched from a webservice right now. Thus its data are possibly outdated,
+ * see {@link #getCreatedAt()}. Consumers may check for <code>instanceof PetrolStationsSnapshot
+ * </code> to mark such data as stale, or to skip actions which must not be based on stale data.
+ *
+ * @see PetrolStationsSnapshotFile
+ */
+public final class PetrolStationsSnapshot extends AbstractList<PetrolStation>
+    implements RandomAccess {
+
+  private final List<PetrolStation> petrolStations;
+  private final Instant createdAt;
+
+  /**
+   * Constructor
+   *
+   * @param petrolStations The restored petrol stations - not null
+   * @param createdAt      Point in time when the snapshot was taken - not null
+   */
+  public PetrolStationsSnapshot(List<PetrolStation> petrolStations, Instant createdAt) {
+    this.petrolStations = Collections.unmodifiableList(
+        new ArrayList<>(Objects.requireNonNull(petrolStations, "petrolStations must not be null")));
+
+    this.createdAt = Objects.requireNonNull(createdAt, "createdAt must not be null");
+  }
+
+  /**
+   * @return Point in time when the snapshot was taken, i.e. when its data were current.
+   */
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  @Override
+  public PetrolStation get(int index) {
+    return petrolStations.get(index);
+  }
+
+  @Override
+  public int size() {
+    return petrolStations.size();
+  }
+
+  @Override
+  public String toString() {
+    return new MyToStringBuilder(this)
+        .append("createdAt", createdAt)
+        .append("size", size())
+        .toString();
+  }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.station;
+
+import de.fornalik.tankschlau.geo.Address;
+import de.fornalik.tankschlau.geo.Geo;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Persists the last known list of {@link PetrolStation} in a compact binary file and restores
+ * it as {@link PetrolStationsSnapshot}. The file is read in one go and decoded straight from
+ * its bytes, so restoring the snapshot at application startup takes only a few milliseconds.
+ * <br><br>
+ * Format (big endian): a header of magic number (int), format version (short), creation time
+ * (long, epoch millis) and number of stations (int), followed by the stations. Each station is
+ * encoded as
+ * <ul>
+ *   <li>UUID as two longs (most/least significant bits)</li>
+ *   <li>flags (byte): is open, has geo, has distance</li>
+ *   <li>one price per {@link PetrolType} in ordinal order as fixed-point int (1/1000 EUR),
+ *   where 0 means "not available"</li>
+ *   <li>latitude, longitude and distance as doubles, if flagged</li>
+ *   <li>brand, name, street, house number, city and post code as UTF-8 strings, prefixed by
+ *   their length as unsigned short</li>
+ * </ul>
+ */
+public class PetrolStationsSnapshotFile {
+  private static final Logger LOGGER = Logger.getLogger(PetrolStationsSnapshotFile.class.getName());
+
+  private static final int MAGIC = 0x54534E50; // "TSNP"
+  private static final short VERSION = 1;
+  private static final int PRICE_SCALE = 1000;
+  private static final int FLAG_IS_OPEN = 1;
+  private static final int FLAG_HAS_GEO = 1 << 1;
+  private static final int FLAG_HAS_DISTANCE = 1 << 2;
+  private static final int MAX_STRING_BYTES = 0xFFFF;
+
+  private final Path path;
+
+  /**
+   * Constructor
+   *
+   * @param path Path of the snapshot file. Missing parent directories are created on write.
+   */
+  public PetrolStationsSnapshotFile(Path path) {
+    this.path = Objects.requireNonNull(path, "path must not be null");
+  }
+
+  public Path getPath() {
+    return path;
+  }
+
+  /**
+   * Replaces the snapshot file with the given petrol stations. The file is written to a
+   * temporary file first and then moved into place, so readers never see a partial snapshot.
+   *
+   * @param petrolStations The petrol stations to persist.
+   * @throws IOException If the file could not be written.
+   */
+  public synchronized void write(List<PetrolStation> petrolStations) throws IOException {
+    Objects.requireNonNull(petrolStations, "petrolStations must not be null");
+
+    Path dir = path.toAbsolutePath().getParent();
+    Files.createDirectories(dir);
+    Path tempFile = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+
+    try {
+      try (OutputStream fileOut = Files.newOutputStream(tempFile);
+           DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut))) {
+
+        writeHeader(out, petrolStations.size());
+
+        for (PetrolStation petrolStation : petrolStations)
+          writeStation(out, petrolStation);
+      }
+
+      moveIntoPlace(tempFile);
+    }
+    finally {
+      Files.deleteIfExists(tempFile);
+    }
+
+    LOGGER.log(Level.FINE, "Snapshot of {0} petrol stations written.", petrolStations.size());
+  }
+
+  /**
+   * Restores the petrol stations of the snapshot file.
+   *
+   * @return The snapshot, or an empty Optional if there is no snapshot file or if it can't be
+   * read (ex. corrupt or of an unknown format version).
+   */
+  public synchronized Optional<PetrolStationsSnapshot> read() {
+    try {
+      return Optional.of(readSnapshot(ByteBuffer.wrap(Files.readAllBytes(path))));
+    }
+    catch (NoSuchFileException e) {
+      LOGGER.fine("No snapshot of petrol stations found.");
+    }
+    catch (IOException | RuntimeException e) {
+      LOGGER.warning("Snapshot of petrol stations could not be read: " + e);
+    }
+
+    return Optional.empty();
+  }
+
+  private void moveIntoPlace(Path tempFile) throws IOException {
+    try {
+      Files.move(
+          tempFile,
+          path,
+          StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING);
+    }
+    catch (IOException e) {
+      // Some file systems don't support atomic moves.
+      Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+
+  private static void writeHeader(DataOutputStream out, int numberOfStations)
+  throws IOException {
+
+    out.writeInt(MAGIC);
+    out.writeShort(VERSION);
+    out.writeLong(Instant.now().toEpochMilli());
+    out.writeInt(numberOfStations);
+  }
+
+  private static void writeStation(DataOutputStream out, PetrolStation petrolStation)
+  throws IOException {
+
+    Optional<Geo> geo = petrolStation.getGeo();
+    Optional<Double> distance = geo.flatMap(Geo::getDistance);
+
+    int flags = 0;
+    if (petrolStation.isOpen()) flags |= FLAG_IS_OPEN;
+    if (geo.isPresent()) flags |= FLAG_HAS_GEO;
+    if (distance.isPresent()) flags |= FLAG_HAS_DISTANCE;
+
+    out.writeLong(petrolStation.getUuid().getMostSignificantBits());
+    out.writeLong(petrolStation.getUuid().getLeastSignificantBits());
+    out.writeByte(flags);
+
+    for (PetrolType type : PetrolType.values()) {
+      int fixedPointPrice = petrolStation.hasPrice(type)
+          ? (int) Math.round(petrolStation.findPrice(type) * PRICE_SCALE)
+          : 0;
+
+      out.writeInt(fixedPointPrice);
+    }
+
+    if (geo.isPresent()) {
+      out.writeDouble(geo.get().getLatitude());
+      out.writeDouble(geo.get().getLongitude());
+    }
+
+    if (distance.isPresent())
+      out.writeDouble(distance.get());
+
+    writeString(out, petrolStation.getBrand());
+    writeAddress(out, petrolStation);
+  }
+
+  private static void writeAddress(DataOutputStream out, PetrolStation petrolStation)
+  throws IOException {
+
+    Address address = petrolStation.getAddress();
+    writeString(out, address.getName());
+    writeString(out, address.getStreet());
+    writeString(out, address.getHouseNumber());
+    writeString(out, address.getCity());
+    writeString(out, address.getPostCode());
+  }
+
+  private static void writeString(DataOutputStream out, String s) throws IOException {
+    byte[] bytes = (s != null ? s : "").getBytes(StandardCharsets.UTF_8);
+    int length = Math.min(bytes.length, MAX_STRING_BYTES);
+
+    // Never cut in the middle of a multi-byte character, skip its continuation bytes.
+    while (length < bytes.length && (bytes[length] & 0xC0) == 0x80)
+      length--;
+
+    out.writeShort(length);
+    out.write(bytes, 0, length);
+  }
+
+  private static PetrolStationsSnapshot readSnapshot(ByteBuffer in) {
+    if (in.getInt() != MAGIC)
+      throw new IllegalStateException("Not a petrol stations snapshot file.");
+
+    short version = in.getShort();
+    if (version != VERSION)
+      throw new IllegalStateException("Unsupported snapshot version " + version + ".");
+
+    Instant createdAt = Instant.ofEpochMilli(in.getLong());
+    int numberOfStations = in.getInt();
+
+    if (numberOfStations < 0)
+      throw new IllegalStateException("Invalid number of stations: " + numberOfStations);
+
+    List<PetrolStation> petrolStations = new ArrayList<>(Math.min(numberOfStations, 10000));
+
+    try {
+      for (int i = 0; i < numberOfStations; i++)
+        petrolStations.add(readStation(in));
+    }
+    catch (BufferUnderflowException e) {
+      throw new IllegalStateException("Snapshot file is truncated.", e);
+    }
+
+    return new PetrolStationsSnapshot(petrolStations, createdAt);
+  }
+
+  private static PetrolStation readStation(ByteBuffer in) {
+    UUID uuid = new UUID(in.getLong(), in.getLong());
+    int flags = in.get();
+
+    Set<Petrol> petrols = new HashSet<>(4);
+
+    for (PetrolType type : PetrolType.values()) {
+      int fixedPointPrice = in.getInt();
+
+      if (fixedPointPrice != 0)
+        petrols.add(new Petrol(type, (double) fixedPointPrice / PRICE_SCALE));
+    }
+
+    Geo geo = null;
+
+    if ((flags & FLAG_HAS_GEO) != 0)
+      geo = new Geo(in.getDouble(), in.getDouble());
+
+    if ((flags & FLAG_HAS_DISTANCE) != 0 && geo != null)
+      geo.setDistance(in.getDouble());
+
+    String brand = readString(in);
+
+    Address address = new Address(
+        readString(in),
+        readString(in),
+        readString(in),
+        readString(in),
+        readString(in),
+        geo);
+
+    return PetrolStationBuilder
+        .create(uuid)
+        .withBrand(brand)
+        .withIsOpen((flags & FLAG_IS_OPEN) != 0)
+        .withPetrols(petrols)
+        .withAddress(address)
+        .build();
+  }
+
+  private static String readString(ByteBuffer in) {
+    int length = in.getShort() & 0xFFFF;
+    byte[] bytes = new byte[length];
+    in.get(bytes);
+
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+}
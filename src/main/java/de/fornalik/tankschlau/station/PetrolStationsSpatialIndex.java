@@ -0,0 +1,394 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.station;
+
+import de.fornalik.tankschlau.geo.Geo;
+import de.fornalik.tankschlau.util.MyToStringBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Immutable spatial index over the geo locations of known petrol stations, which answers
+ * radius and nearest neighbour queries locally, i.e. without a new webservice request for
+ * each changed radius or user position.
+ * <br><br>
+ * The stations are held in a balanced k-d tree of 3D points on the unit sphere. The straight
+ * line (chord) distance of such points grows with their great-circle distance, thus queries
+ * need no trigonometry per visited station and work around the poles and the antimeridian
+ * as well. Distances are great-circle distances in km, see
+ * {@link Geo#haversineDistance(double, double, double, double)}. The index never changes the
+ * indexed stations, use {@link PetrolStation#withDistanceTo(Geo)} for distances to another
+ * position.
+ * <br><br>
+ * Stations without {@link Geo} data are not indexed.
+ */
+public final class PetrolStationsSpatialIndex {
+  private final PetrolStation[] petrolStations; // in tree order
+  private final double[] latitudes;
+  private final double[] longitudes;
+  private final double[][] coordinates; // [axis][node], x, y and z on the unit sphere
+  private final byte[] splitAxes;
+
+  private PetrolStationsSpatialIndex(int size) {
+    this.petrolStations = new PetrolStation[size];
+    this.latitudes = new double[size];
+    this.longitudes = new double[size];
+    this.coordinates = new double[3][size];
+    this.splitAxes = new byte[size];
+  }
+
+  /**
+   * Creates the index over all given petrol stations which have {@link Geo} data.
+   * Does <b>NOT</b> mutate the given list.
+   *
+   * @param petrolStations List of {@link PetrolStation} to index - not null
+   * @return New instance of {@link PetrolStationsSpatialIndex}.
+   */
+  public static PetrolStationsSpatialIndex of(List<PetrolStation> petrolStations) {
+    Objects.requireNonNull(petrolStations, "petrolStations must not be null.");
+
+    List<PetrolStation> stations = new ArrayList<>(petrolStations.size());
+    List<Geo> geos = new ArrayList<>(petrolStations.size());
+
+    for (PetrolStation station : petrolStations) {
+      Optional<Geo> geo = station.getGeo();
+
+      if (geo.isPresent()) {
+        stations.add(station);
+        geos.add(geo.get());
+      }
+    }
+
+    int size = stations.size();
+    double[][] points = new double[3][size];
+    int[] order = new int[size];
+
+    for (int i = 0; i < size; i++) {
+      double[] point = toUnitVector(geos.get(i));
+
+      for (int axis = 0; axis < 3; axis++)
+        points[axis][i] = point[axis];
+
+      order[i] = i;
+    }
+
+    PetrolStationsSpatialIndex index = new PetrolStationsSpatialIndex(size);
+    index.build(order, points, 0, size);
+
+    for (int node = 0; node < size; node++) {
+      int i = order[node];
+      index.petrolStations[node] = stations.get(i);
+      index.latitudes[node] = geos.get(i).getLatitude();
+      index.longitudes[node] = geos.get(i).getLongitude();
+
+      for (int axis = 0; axis < 3; axis++)
+        index.coordinates[axis][node] = points[axis][i];
+    }
+
+    return index;
+  }
+
+  // Arranges order[from, to) as an implicit tree, whose root is the median at the middle.
+  private void build(int[] order, double[][] points, int from, int to) {
+    if (to - from <= 0) return;
+
+    int axis = findWidestAxis(order, points, from, to);
+    int median = (from + to) >>> 1;
+
+    select(order, points[axis], from, to - 1, median);
+    splitAxes[median] = (byte) axis;
+
+    build(order, points, from, median);
+    build(order, points, median + 1, to);
+  }
+
+  private static int findWidestAxis(int[] order, double[][] points, int from, int to) {
+    int widestAxis = 0;
+    double widestSpread = -1;
+
+    for (int axis = 0; axis < 3; axis++) {
+      double min = Double.POSITIVE_INFINITY;
+      double max = Double.NEGATIVE_INFINITY;
+
+      for (int i = from; i < to; i++) {
+        double value = points[axis][order[i]];
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+      }
+
+      if (max - min > widestSpread) {
+        widestSpread = max - min;
+        widestAxis = axis;
+      }
+    }
+
+    return widestAxis;
+  }
+
+  // Quickselect: Partially sorts order[left, right] so that position k holds its median.
+  private static void select(int[] order, double[] values, int left, int right, int k) {
+    while (left < right) {
+      double pivot = values[order[(left + right) >>> 1]];
+      int i = left;
+      int j = right;
+
+      while (i <= j) {
+        while (values[order[i]] < pivot) i++;
+        while (values[order[j]] > pivot) j--;
+
+        if (i <= j) {
+          int tmp = order[i];
+          order[i++] = order[j];
+          order[j--] = tmp;
+        }
+      }
+
+      if (k <= j) right = j;
+      else if (k >= i) left = i;
+      else return;
+    }
+  }
+
+  private static double[] toUnitVector(Geo geo) {
+    double latRad = Math.toRadians(geo.getLatitude());
+    double lonRad = Math.toRadians(geo.getLongitude());
+
+    return new double[]{
+        Math.cos(latRad) * Math.cos(lonRad),
+        Math.cos(latRad) * Math.sin(lonRad),
+        Math.sin(latRad)};
+  }
+
+  // Squared chord length on the unit sphere for a great-circle distance in km.
+  private static double toSquaredChord(double km) {
+    double halfAngle = km / (2 * Geo.EARTH_RADIUS_KM);
+    if (halfAngle >= Math.PI / 2) return 4.0;
+
+    double chord = 2 * Math.sin(halfAngle);
+    return chord * chord;
+  }
+
+  /**
+   * @return Number of indexed petrol stations.
+   */
+  public int size() {
+    return petrolStations.length;
+  }
+
+  /**
+   * Finds all indexed petrol stations within the given radius around a location.
+   *
+   * @param center   Location to search around, ex. the user's address - not null
+   * @param radiusKm Radius in km, not negative.
+   * @return New list of the found petrol stations, nearest first.
+   * @throws IllegalArgumentException If the radius is negative.
+   */
+  public List<PetrolStation> findWithinRadius(Geo center, double radiusKm) {
+    Objects.requireNonNull(center, "center must not be null.");
+
+    if (radiusKm < 0.0)
+      throw new IllegalArgumentException("radiusKm must not be negative.");
+
+    NearestNodes found = new NearestNodes(Integer.MAX_VALUE);
+    collectWithinRadius(toUnitVector(center), toSquaredChord(radiusKm), 0, size(), found);
+
+    return found.toSortedStations();
+  }
+
+  /**
+   * Finds the k indexed petrol stations nearest to a location.
+   *
+   * @param center Location to search around, ex. the user's address - not null
+   * @param k      Maximum number of petrol stations to return, not negative.
+   * @return New list of at most k petrol stations, nearest first.
+   * @throws IllegalArgumentException If k is negative.
+   */
+  public List<PetrolStation> findNearest(Geo center, int k) {
+    Objects.requireNonNull(center, "center must not be null.");
+
+    if (k < 0)
+      throw new IllegalArgumentException("k must not be negative.");
+
+    NearestNodes found = new NearestNodes(Math.min(k, size()));
+
+    if (k > 0)
+      collectNearest(toUnitVector(center), 0, size(), found);
+
+    return found.toSortedStations();
+  }
+
+  private double squaredChordTo(double[] query, int node) {
+    double dx = coordinates[0][node] - query[0];
+    double dy = coordinates[1][node] - query[1];
+    double dz = coordinates[2][node] - query[2];
+    return dx * dx + dy * dy + dz * dz;
+  }
+
+  private void collectWithinRadius(
+      double[] query,
+      double maxSquaredChord,
+      int from,
+      int to,
+      NearestNodes found) {
+
+    if (to - from <= 0) return;
+
+    int node = (from + to) >>> 1;
+    double squaredChord = squaredChordTo(query, node);
+
+    if (squaredChord <= maxSquaredChord)
+      found.add(node, squaredChord);
+
+    double delta = query[splitAxes[node]] - coordinates[splitAxes[node]][node];
+
+    // Left subtree holds the smaller values of the split axis.
+    if (delta <= 0 || delta * delta <= maxSquaredChord)
+      collectWithinRadius(query, maxSquaredChord, from, node, found);
+
+    if (delta >= 0 || delta * delta <= maxSquaredChord)
+      collectWithinRadius(query, maxSquaredChord, node + 1, to, found);
+  }
+
+  private void collectNearest(double[] query, int from, int to, NearestNodes found) {
+    if (to - from <= 0) return;
+
+    int node = (from + to) >>> 1;
+    found.add(node, squaredChordTo(query, node));
+
+    double delta = query[splitAxes[node]] - coordinates[splitAxes[node]][node];
+    boolean nearIsLeft = delta < 0;
+
+    if (nearIsLeft) collectNearest(query, from, node, found);
+    else collectNearest(query, node + 1, to, found);
+
+    // The far subtree can only hold nearer nodes if the split plane is near enough.
+    if (!found.isFull() || delta * delta < found.getWorstSquaredChord()) {
+      if (nearIsLeft) collectNearest(query, node + 1, to, found);
+      else collectNearest(query, from, node, found);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return new MyToStringBuilder(this)
+        .append("size", size())
+        .toString();
+  }
+
+  /*
+   * Bounded max-heap of nodes and their squared chord to the query, so the worst of the best
+   * nodes found so far is at the root.
+   */
+  private final class NearestNodes {
+    private final int capacity;
+    private int[] nodes;
+    private double[] squaredChords;
+    private int size;
+
+    private NearestNodes(int capacity) {
+      int initialCapacity = Math.min(capacity, 16);
+      this.capacity = capacity;
+      this.nodes = new int[initialCapacity];
+      this.squaredChords = new double[initialCapacity];
+    }
+
+    boolean isFull() {
+      return size >= capacity;
+    }
+
+    double getWorstSquaredChord() {
+      return squaredChords[0];
+    }
+
+    void add(int node, double squaredChord) {
+      if (capacity == 0) return;
+
+      if (isFull()) {
+        if (squaredChord >= squaredChords[0]) return;
+
+        nodes[0] = node;
+        squaredChords[0] = squaredChord;
+        siftDown(0);
+        return;
+      }
+
+      if (size == nodes.length) {
+        int newLength = (int) Math.min((long) capacity, 2L * nodes.length);
+        nodes = Arrays.copyOf(nodes, newLength);
+        squaredChords = Arrays.copyOf(squaredChords, newLength);
+      }
+
+      nodes[size] = node;
+      squaredChords[size] = squaredChord;
+      siftUp(size++);
+    }
+
+    // Empties the heap.
+    List<PetrolStation> toSortedStations() {
+      PetrolStation[] sorted = new PetrolStation[size];
+
+      while (size > 0) {
+        sorted[size - 1] = petrolStations[nodes[0]];
+        size--;
+        nodes[0] = nodes[size];
+        squaredChords[0] = squaredChords[size];
+        siftDown(0);
+      }
+
+      return new ArrayList<>(Arrays.asList(sorted));
+    }
+
+    private void siftUp(int i) {
+      while (i > 0) {
+        int parent = (i - 1) / 2;
+        if (squaredChords[parent] >= squaredChords[i]) return;
+
+        swap(i, parent);
+        i = parent;
+      }
+    }
+
+    private void siftDown(int i) {
+      while (true) {
+        int left = 2 * i + 1;
+        int right = left + 1;
+        int largest = i;
+
+        if (left < size && squaredChords[left] > squaredChords[largest]) largest = left;
+        if (right < size && squaredChords[right] > squaredChords[largest]) largest = right;
+        if (largest == i) return;
+
+        swap(i, largest);
+        i = largest;
+      }
+    }
+
+    private void swap(int a, int b) {
+      int node = nodes[a];
+      nodes[a] = nodes[b];
+      nodes[b] = node;
+
+      double squaredChord = squaredChords[a];
+      squaredChords[a] = squaredChords[b];
+      squaredChords[b] = squaredChord;
+    }
+  }
+}
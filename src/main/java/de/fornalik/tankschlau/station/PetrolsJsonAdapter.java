@@ -18,24 +18,42 @@ package de.fornalik.tankschlau.station;
 
 import com.google.gson.Gson;
 import com.google.gson.TypeAdapter;
-import com.google.gson.annotations.SerializedName;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
+import de.fornalik.tankschlau.util.JsonReaderHelper;
 
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
 
 /**
- * A {@link Gson} JSON adapter which converts given JSON petrol data to a Set of {@link Petrol}.
+ * A streaming {@link Gson} JSON adapter which converts given JSON petrol data to a Set of
+ * {@link Petrol}. Reads a JSON object having the structure (ex.) <br><br>
+ * <code> {
+ * [...]
+ * "diesel": 1.099,
+ * "e5": 1.585,
+ * "e10": 1.6,
+ * [...]
+ * } </code><br><br>
+ * As of our business rules, 0 to 3 of these elements may exist. Other elements are skipped.
  */
 public class PetrolsJsonAdapter extends TypeAdapter<Set<Petrol>> {
 
   @Override
-  public Set<Petrol> read(JsonReader in) {
-    Gson gson = new Gson();
+  public Set<Petrol> read(JsonReader in) throws IOException {
+    Fields fields = new Fields();
 
-    PricesDto pricesDto = gson.fromJson(in, PricesDto.class);
-    return pricesDto.toPetrols();
+    in.beginObject();
+
+    while (in.hasNext()) {
+      if (!fields.read(in.nextName(), in))
+        in.skipValue();
+    }
+
+    in.endObject();
+
+    return fields.toPetrols();
   }
 
   /**
@@ -47,35 +65,56 @@ public class PetrolsJsonAdapter extends TypeAdapter<Set<Petrol>> {
   }
 
   /**
-   * This is a concrete implementation for a JSON document having the structure (ex.) <br><br>
-   * <code> {
-   * [...]
-   * "diesel": 1.099,
-   * "e5": 1.585,
-   * "e10": 1.6,
-   * [...]
-   * } </code><br><br>
-   * As of our business rules, 0 to 3 of these elements may exist.
+   * Collects the price elements of a flat JSON object while it is being read, so callers
+   * reading a larger object (ex. a petrol station) can pick up prices in the same pass.
    */
-  @SuppressWarnings("unused")
-  private static class PricesDto {
-    @SerializedName("diesel") private Double diesel;
-    @SerializedName("e5") private Double e5;
-    @SerializedName("e10") private Double e10;
+  public static class Fields {
+    private Double diesel;
+    private Double e5;
+    private Double e10;
 
-    private Set<Petrol> toPetrols() {
-      Set<Petrol> petrols = new HashSet<>(3);
+    /**
+     * @param name Name of the current JSON element.
+     * @param in   Reader, positioned at the value of the element.
+     * @return True if the element has been consumed, false if it is no price element.
+     * @throws IOException If reading the value fails.
+     */
+    public boolean read(String name, JsonReader in) throws IOException {
+      switch (name) {
+        case "diesel":
+          diesel = JsonReaderHelper.nextDoubleOrNull(in);
+          return true;
 
-      if (diesel != null && diesel != 0.0)
-        petrols.add(new Petrol(PetrolType.DIESEL, diesel));
+        case "e5":
+          e5 = JsonReaderHelper.nextDoubleOrNull(in);
+          return true;
 
-      if (e5 != null && e5 != 0.0)
-        petrols.add(new Petrol(PetrolType.E5, e5));
+        case "e10":
+          e10 = JsonReaderHelper.nextDoubleOrNull(in);
+          return true;
 
-      if (e10 != null && e10 != 0.0)
-        petrols.add(new Petrol(PetrolType.E10, e10));
+        default:
+          return false;
+      }
+    }
+
+    /**
+     * @return Set of {@link Petrol}, containing only those petrols which have a price other
+     * than null or zero.
+     */
+    public Set<Petrol> toPetrols() {
+      Set<Petrol> petrols = new HashSet<>(4);
+
+      addPetrol(petrols, PetrolType.DIESEL, diesel);
+      addPetrol(petrols, PetrolType.E5, e5);
+      addPetrol(petrols, PetrolType.E10, e10);
 
       return petrols;
     }
+
+    private static void addPetrol(Set<Petrol> petrols, PetrolType type, Double price) {
+      if (price != null && price != 0.0)
+        petrols.add(new Petrol(type, price));
+    }
   }
 }
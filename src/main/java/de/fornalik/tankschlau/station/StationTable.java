@@ -0,0 +1,434 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.station;
+
+import de.fornalik.tankschlau.geo.Address;
+import de.fornalik.tankschlau.geo.Geo;
+import de.fornalik.tankschlau.util.MyToStringBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable, column oriented store for large sets of petrol stations, ex. for nationwide or
+ * large radius searches. Instead of an object graph of {@link PetrolStation}, {@link Address},
+ * {@link Geo} and {@link Petrol} per station, every attribute is held in a primitive array
+ * (column) with one element per station (row):
+ * <ul>
+ *   <li>UUIDs as two longs</li>
+ *   <li>prices as fixed-point ints (tenths of a cent) per {@link PetrolType}</li>
+ *   <li>latitude and longitude as doubles, distance as float</li>
+ *   <li>open state and presence of optional values as bit sets</li>
+ *   <li>brand, city and post code as codes of a dictionary of distinct values</li>
+ * </ul>
+ * Scans, filters and sorts work on rows and only touch the columns they need. Rows are found
+ * by UUID through a hash index.
+ * {@link PetrolStation} objects are created only on request, see {@link #getStation(int)}.
+ * <br><br>
+ * Distances are kept with float precision.
+ */
+public final class StationTable {
+  private static final PetrolType[] PETROL_TYPES = PetrolType.values();
+
+  private final int size;
+  private final long[] uuidMostSigBits;
+  private final long[] uuidLeastSigBits;
+  private final Map<UUID, Integer> rowByUuid;
+  private final int[][] pricesByPetrolType;
+  private final BitSet[] hasPriceByPetrolType;
+  private final BitSet isOpen;
+  private final BitSet hasGeo;
+  private final BitSet hasDistance;
+  private final double[] latitudes;
+  private final double[] longitudes;
+  private final float[] distances;
+  private final int[] brandCodes;
+  private final Dictionary brands;
+  private final int[] cityCodes;
+  private final Dictionary cities;
+  private final int[] postCodeCodes;
+  private final Dictionary postCodes;
+  private final String[] names;
+  private final String[] streets;
+  private final String[] houseNumbers;
+
+  private StationTable(int size) {
+    this.size = size;
+    this.uuidMostSigBits = new long[size];
+    this.uuidLeastSigBits = new long[size];
+    this.rowByUuid = new HashMap<>(size * 4 / 3 + 1);
+    this.pricesByPetrolType = new int[PETROL_TYPES.length][size];
+    this.hasPriceByPetrolType = new BitSet[PETROL_TYPES.length];
+    this.isOpen = new BitSet(size);
+    this.hasGeo = new BitSet(size);
+    this.hasDistance = new BitSet(size);
+    this.latitudes = new double[size];
+    this.longitudes = new double[size];
+    this.distances = new float[size];
+    this.brandCodes = new int[size];
+    this.cityCodes = new int[size];
+    this.postCodeCodes = new int[size];
+    this.names = new String[size];
+    this.streets = new String[size];
+    this.houseNumbers = new String[size];
+
+    this.brands = new Dictionary();
+    this.cities = new Dictionary();
+    this.postCodes = new Dictionary();
+
+    for (PetrolType type : PETROL_TYPES)
+      hasPriceByPetrolType[type.ordinal()] = new BitSet(size);
+  }
+
+  /**
+   * Creates a table with one row per given petrol station, in the order of the given list.
+   *
+   * @param petrolStations List of {@link PetrolStation} - not null
+   * @return New instance of {@link StationTable}.
+   */
+  public static StationTable of(List<PetrolStation> petrolStations) {
+    Objects.requireNonNull(petrolStations, "petrolStations must not be null.");
+
+    StationTable table = new StationTable(petrolStations.size());
+
+    for (int row = 0; row < table.size; row++) {
+      PetrolStation station = petrolStations.get(row);
+
+      table.uuidMostSigBits[row] = station.getUuid().getMostSignificantBits();
+      table.uuidLeastSigBits[row] = station.getUuid().getLeastSignificantBits();
+      table.rowByUuid.putIfAbsent(station.getUuid(), row);
+      table.isOpen.set(row, station.isOpen());
+      table.brandCodes[row] = table.brands.encode(station.getBrand());
+
+      for (PetrolType type : PETROL_TYPES) {
+        if (!station.hasPrice(type)) continue;
+
+        table.pricesByPetrolType[type.ordinal()][row] = station.findFixedPointPrice(type);
+        table.hasPriceByPetrolType[type.ordinal()].set(row);
+      }
+
+      Optional<Geo> geo = station.getGeo();
+
+      if (geo.isPresent()) {
+        table.hasGeo.set(row);
+        table.latitudes[row] = geo.get().getLatitude();
+        table.longitudes[row] = geo.get().getLongitude();
+
+        Optional<Double> distance = geo.get().getDistance();
+
+        if (distance.isPresent()) {
+          table.hasDistance.set(row);
+          table.distances[row] = distance.get().floatValue();
+        }
+      }
+
+      Address address = station.getAddress();
+      table.names[row] = address.getName();
+      table.streets[row] = address.getStreet();
+      table.houseNumbers[row] = address.getHouseNumber();
+      table.cityCodes[row] = table.cities.encode(address.getCity());
+      table.postCodeCodes[row] = table.postCodes.encode(address.getPostCode());
+    }
+
+    return table;
+  }
+
+  /**
+   * @return Number of rows, i.e. petrol stations.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @param uuid UUID of the petrol station to search for - not null
+   * @return The row of the petrol station, or an empty OptionalInt if it's not in this table.
+   * If the table holds the same UUID more than once, its first row is returned.
+   */
+  public OptionalInt findRow(UUID uuid) {
+    Objects.requireNonNull(uuid, "uuid must not be null.");
+
+    Integer row = rowByUuid.get(uuid);
+    return row != null ? OptionalInt.of(row) : OptionalInt.empty();
+  }
+
+  public UUID getUuid(int row) {
+    checkRow(row);
+    return new UUID(uuidMostSigBits[row], uuidLeastSigBits[row]);
+  }
+
+  public boolean isOpen(int row) {
+    checkRow(row);
+    return isOpen.get(row);
+  }
+
+  public String getBrand(int row) {
+    checkRow(row);
+    return brands.decode(brandCodes[row]);
+  }
+
+  public String getCity(int row) {
+    checkRow(row);
+    return cities.decode(cityCodes[row]);
+  }
+
+  /**
+   * @param row  Row of the petrol station.
+   * @param type The {@link PetrolType} to check - not null
+   * @return True if the petrol station has a price for the given petrol type, else false.
+   */
+  public boolean hasPrice(int row, PetrolType type) {
+    checkRow(row);
+    return hasPriceByPetrolType[type.ordinal()].get(row);
+  }
+
+  /**
+   * @param row  Row of the petrol station.
+   * @param type The {@link PetrolType} to search for - not null
+   * @return The price in EUR for the given petrol type, 0.0 if not found.
+   * @see #hasPrice(int, PetrolType)
+   */
+  public double findPrice(int row, PetrolType type) {
+    if (!hasPrice(row, type)) return 0.0;
+    return (double) pricesByPetrolType[type.ordinal()][row] / PetrolStation.PRICE_SCALE;
+  }
+
+  /**
+   * @param row Row of the petrol station.
+   * @return True if the petrol station has a distance, else false.
+   */
+  public boolean hasDistance(int row) {
+    checkRow(row);
+    return hasDistance.get(row);
+  }
+
+  /**
+   * @param row Row of the petrol station.
+   * @return The distance in km, or NaN if unknown.
+   */
+  public float findDistance(int row) {
+    return hasDistance(row) ? distances[row] : Float.NaN;
+  }
+
+  /**
+   * Scans all rows and returns the ones accepted by the given filter, ex.
+   * {@code table.findRows(table::isOpen)}.
+   *
+   * @param rowFilter Filter which gets passed the row of each petrol station - not null
+   * @return The accepted rows in ascending order.
+   */
+  public int[] findRows(IntPredicate rowFilter) {
+    Objects.requireNonNull(rowFilter, "rowFilter must not be null.");
+
+    int[] rows = new int[size];
+    int count = 0;
+
+    for (int row = 0; row < size; row++) {
+      if (rowFilter.test(row))
+        rows[count++] = row;
+    }
+
+    return count == size ? rows : Arrays.copyOf(rows, count);
+  }
+
+  /**
+   * Sorts the given rows by price and distance for the given petrol type, like
+   * {@link PetrolStations#sortByPriceAndDistanceForPetrolType(List, PetrolType)} does for a
+   * list of petrol stations. Does <b>NOT</b> mutate the given array.
+   *
+   * @param rows Rows to sort, ex. as returned by {@link #findRows(IntPredicate)} - not null
+   * @param type The {@link PetrolType} on which to sort the rows - not null
+   * @return New array of the given rows in sort order.
+   * @see PetrolStationsIndex
+   */
+  public int[] sortByPriceAndDistance(int[] rows, PetrolType type) {
+    Objects.requireNonNull(rows, "rows must not be null.");
+    Objects.requireNonNull(type, "type must not be null.");
+
+    if (rows.length > PetrolStationsIndex.MAX_SIZE)
+      throw new IllegalArgumentException("Too many rows to sort: " + rows.length);
+
+    long[] sortKeys = new long[rows.length];
+
+    for (int i = 0; i < rows.length; i++) {
+      checkRow(rows[i]);
+      sortKeys[i] = toSortKey(rows[i], type, i);
+    }
+
+    int[] order = PetrolStationsIndex.toOrder(sortKeys);
+    int[] sortedRows = new int[rows.length];
+
+    for (int i = 0; i < order.length; i++)
+      sortedRows[i] = rows[order[i]];
+
+    return sortedRows;
+  }
+
+  /**
+   * Scans all rows once for the cheapest price of the given petrol type, the distance being
+   * the second criterion. Returns the first row of {@link #sortByPriceAndDistance(int[],
+   * PetrolType)} for all rows, thus rows without a price are only returned if no row has a
+   * price.
+   *
+   * @param type The {@link PetrolType} for which to search the cheapest price - not null
+   * @return The row of the cheapest petrol station, or an empty OptionalInt if the table is
+   * empty.
+   * @see PetrolStations#findCheapest(List, PetrolType)
+   */
+  public OptionalInt findCheapestRow(PetrolType type) {
+    Objects.requireNonNull(type, "type must not be null.");
+
+    int cheapest = -1;
+    long cheapestKey = Long.MAX_VALUE;
+
+    for (int row = 0; row < size; row++) {
+      long key = toSortKey(row, type, 0);
+
+      // Keep the first of equal rows, as a stable sort would do.
+      if (cheapest == -1 || key < cheapestKey) {
+        cheapest = row;
+        cheapestKey = key;
+      }
+    }
+
+    return cheapest == -1 ? OptionalInt.empty() : OptionalInt.of(cheapest);
+  }
+
+  private long toSortKey(int row, PetrolType type, int index) {
+    long priceKey = hasPriceByPetrolType[type.ordinal()].get(row)
+        ? PetrolStationsIndex.toPriceKey(pricesByPetrolType[type.ordinal()][row])
+        : PetrolStationsIndex.MAX_PRICE_KEY;
+
+    long distanceKey = hasDistance.get(row)
+        ? PetrolStationsIndex.toDistanceKey(distances[row])
+        : PetrolStationsIndex.MAX_DISTANCE_KEY;
+
+    return PetrolStationsIndex.toSortKey(priceKey, distanceKey, index);
+  }
+
+  /**
+   * Materializes the petrol station of the given row.
+   *
+   * @param row Row of the petrol station.
+   * @return New instance of {@link PetrolStation}.
+   */
+  public PetrolStation getStation(int row) {
+    checkRow(row);
+
+    Set<Petrol> petrols = new HashSet<>(4);
+
+    for (PetrolType type : PETROL_TYPES) {
+      if (hasPriceByPetrolType[type.ordinal()].get(row))
+        petrols.add(new Petrol(type, findPrice(row, type)));
+    }
+
+    Geo geo = null;
+
+    if (hasGeo.get(row)) {
+      // Float.toString restores the decimal value as read, ex. 4.6 rather than 4.599999904...
+      Double distance = hasDistance.get(row)
+          ? Double.valueOf(Float.toString(distances[row]))
+          : null;
+
+      geo = new Geo(latitudes[row], longitudes[row], distance);
+    }
+
+    Address address = new Address(
+        names[row],
+        streets[row],
+        houseNumbers[row],
+        cities.decode(cityCodes[row]),
+        postCodes.decode(postCodeCodes[row]),
+        geo);
+
+    return PetrolStationBuilder
+        .create(getUuid(row))
+        .withBrand(brands.decode(brandCodes[row]))
+        .withIsOpen(isOpen.get(row))
+        .withPetrols(petrols)
+        .withAddress(address)
+        .build();
+  }
+
+  /**
+   * Materializes the petrol stations of the given rows.
+   *
+   * @param rows Rows of the petrol stations - not null
+   * @return New list of {@link PetrolStation}, in the order of the given rows.
+   */
+  public List<PetrolStation> getStations(int[] rows) {
+    Objects.requireNonNull(rows, "rows must not be null.");
+
+    List<PetrolStation> petrolStations = new ArrayList<>(rows.length);
+
+    for (int row : rows)
+      petrolStations.add(getStation(row));
+
+    return petrolStations;
+  }
+
+  @Override
+  public String toString() {
+    return new MyToStringBuilder(this)
+        .append("size", size)
+        .append("brands", brands.size())
+        .append("cities", cities.size())
+        .toString();
+  }
+
+  private void checkRow(int row) {
+    if (row < 0 || row >= size)
+      throw new IndexOutOfBoundsException("Row: " + row + ", size: " + size);
+  }
+
+  // Assigns a code to each distinct value, in the order the values are encoded first.
+  private static class Dictionary {
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    int encode(String value) {
+      Integer code = codes.get(value);
+
+      if (code == null) {
+        code = values.size();
+        codes.put(value, code);
+        values.add(value);
+      }
+
+      return code;
+    }
+
+    String decode(int code) {
+      return values.get(code);
+    }
+
+    int size() {
+      return values.size();
+    }
+  }
+}
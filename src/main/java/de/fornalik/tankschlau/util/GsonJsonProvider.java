@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.util;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+
+import java.io.Reader;
+import java.util.Objects;
+
+/**
+ * {@link JsonProvider} which uses the tokenizer of {@link Gson}.
+ */
+public class GsonJsonProvider implements JsonProvider {
+  private final Gson gson;
+
+  /**
+   * @param gson Gson instance, which must have all type adapters of this application registered.
+   */
+  public GsonJsonProvider(Gson gson) {
+    this.gson = Objects.requireNonNull(gson, "gson must not be null.");
+  }
+
+  @Override
+  public String getName() {
+    return "gson";
+  }
+
+  @Override
+  public <T> T fromJson(String json, Class<T> classOfT) {
+    return gson.fromJson(json, classOfT);
+  }
+
+  @Override
+  public <T> T fromJson(Reader json, Class<T> classOfT) {
+    return gson.fromJson(json, classOfT);
+  }
+
+  @Override
+  public JsonReader newJsonReader(Reader reader) {
+    return gson.newJsonReader(reader);
+  }
+}
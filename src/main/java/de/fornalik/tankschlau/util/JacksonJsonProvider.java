@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.Objects;
+
+/**
+ * {@link JsonProvider} which uses the streaming tokenizer of Jackson (jackson-core). The type
+ * adapters are still looked up in a {@link Gson} instance, but read from a {@link JsonReader}
+ * which is fed by a Jackson {@link JsonParser}.
+ * <br><br>
+ * Limitation: Gson's built-in adapter for <code>Map</code> types relies on internals of its own
+ * reader and can't be used with this provider. The adapters of this application don't need it.
+ */
+public class JacksonJsonProvider implements JsonProvider {
+  private final Gson gson;
+  private final JsonFactory jsonFactory;
+
+  /**
+   * @param gson Gson instance, which must have all type adapters of this application registered.
+   *             Only used for looking up the adapters.
+   */
+  public JacksonJsonProvider(Gson gson) {
+    this.gson = Objects.requireNonNull(gson, "gson must not be null.");
+
+    // Like Gson, never close the reader of the caller.
+    this.jsonFactory = new JsonFactory().disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+  }
+
+  @Override
+  public String getName() {
+    return "jackson";
+  }
+
+  @Override
+  public <T> T fromJson(String json, Class<T> classOfT) {
+    if (json == null)
+      return null;
+
+    try {
+      return fromJson(jsonFactory.createParser(json), classOfT);
+    }
+    catch (IOException e) {
+      throw new JsonIOException(e);
+    }
+  }
+
+  @Override
+  public <T> T fromJson(Reader json, Class<T> classOfT) {
+    Objects.requireNonNull(json, "json must not be null.");
+
+    try {
+      return fromJson(jsonFactory.createParser(json), classOfT);
+    }
+    catch (IOException e) {
+      throw new JsonIOException(e);
+    }
+  }
+
+  @Override
+  public JsonReader newJsonReader(Reader reader) {
+    Objects.requireNonNull(reader, "reader must not be null.");
+
+    try {
+      return new JacksonJsonReader(jsonFactory.createParser(reader));
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /*
+  Gson takes care of empty documents and of converting parse errors into JsonSyntaxException.
+  Closing the parser hands its buffers back for reuse by the next document.
+  */
+  private <T> T fromJson(JsonParser parser, Class<T> classOfT) throws IOException {
+    try (JacksonJsonReader in = new JacksonJsonReader(parser)) {
+      T result = gson.fromJson(in, (Type) classOfT);
+
+      if (result != null && in.peek() != JsonToken.END_DOCUMENT)
+        throw new JsonSyntaxException("JSON document was not fully consumed.");
+
+      return result;
+    }
+  }
+}
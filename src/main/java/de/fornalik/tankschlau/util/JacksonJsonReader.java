@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.util;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Objects;
+
+/**
+ * Gson {@link JsonReader} which gets its tokens from a Jackson {@link JsonParser}, so the
+ * streaming type adapters of this application can be used unchanged with Jackson's tokenizer.
+ * Behaves like a strict Gson reader: ex. <code>nextString()</code> accepts numbers and
+ * <code>nextDouble()</code> accepts quoted numbers.
+ */
+final class JacksonJsonReader extends JsonReader {
+  private final JsonParser parser;
+
+  // Gson readers look one token ahead, Jackson parsers don't.
+  private com.fasterxml.jackson.core.JsonToken nextToken;
+  private boolean peeked;
+  private boolean started;
+
+  JacksonJsonReader(JsonParser parser) {
+    // All public methods are overridden, so the reader of the super class is never used. Fail
+    // loudly if Gson internals (ex. JsonReaderInternalAccess) bypass them anyway.
+    super(UnusedReader.INSTANCE);
+    this.parser = Objects.requireNonNull(parser, "parser must not be null.");
+  }
+
+  @Override
+  public void beginArray() throws IOException {
+    expect(JsonToken.BEGIN_ARRAY);
+  }
+
+  @Override
+  public void endArray() throws IOException {
+    expect(JsonToken.END_ARRAY);
+  }
+
+  @Override
+  public void beginObject() throws IOException {
+    expect(JsonToken.BEGIN_OBJECT);
+  }
+
+  @Override
+  public void endObject() throws IOException {
+    expect(JsonToken.END_OBJECT);
+  }
+
+  @Override
+  public boolean hasNext() throws IOException {
+    JsonToken token = peek();
+
+    return token != JsonToken.END_OBJECT
+        && token != JsonToken.END_ARRAY
+        && token != JsonToken.END_DOCUMENT;
+  }
+
+  @Override
+  public JsonToken peek() throws IOException {
+    com.fasterxml.jackson.core.JsonToken token = fetch();
+
+    if (token == null)
+      return JsonToken.END_DOCUMENT;
+
+    switch (token) {
+      case START_ARRAY:
+        return JsonToken.BEGIN_ARRAY;
+
+      case END_ARRAY:
+        return JsonToken.END_ARRAY;
+
+      case START_OBJECT:
+        return JsonToken.BEGIN_OBJECT;
+
+      case END_OBJECT:
+        return JsonToken.END_OBJECT;
+
+      case FIELD_NAME:
+        return JsonToken.NAME;
+
+      case VALUE_STRING:
+        return JsonToken.STRING;
+
+      case VALUE_NUMBER_INT:
+      case VALUE_NUMBER_FLOAT:
+        return JsonToken.NUMBER;
+
+      case VALUE_TRUE:
+      case VALUE_FALSE:
+        return JsonToken.BOOLEAN;
+
+      case VALUE_NULL:
+        return JsonToken.NULL;
+
+      default:
+        throw new IllegalStateException("Unsupported token " + token + locationString());
+    }
+  }
+
+  @Override
+  public String nextName() throws IOException {
+    expect(JsonToken.NAME);
+    return parser.getCurrentName();
+  }
+
+  @Override
+  public String nextString() throws IOException {
+    JsonToken token = peek();
+
+    if (token != JsonToken.STRING && token != JsonToken.NUMBER)
+      throw unexpected("a string", token);
+
+    peeked = false;
+    return parser.getText();
+  }
+
+  @Override
+  public boolean nextBoolean() throws IOException {
+    JsonToken token = peek();
+
+    if (token != JsonToken.BOOLEAN)
+      throw unexpected("a boolean", token);
+
+    peeked = false;
+    return nextToken == com.fasterxml.jackson.core.JsonToken.VALUE_TRUE;
+  }
+
+  @Override
+  public void nextNull() throws IOException {
+    expect(JsonToken.NULL);
+  }
+
+  @Override
+  public double nextDouble() throws IOException {
+    JsonToken token = peek();
+
+    if (token == JsonToken.NUMBER) {
+      peeked = false;
+      return parser.getDoubleValue();
+    }
+
+    if (token == JsonToken.STRING) {
+      double value = Double.parseDouble(parser.getText());
+      peeked = false;
+      return value;
+    }
+
+    throw unexpected("a double", token);
+  }
+
+  @Override
+  public long nextLong() throws IOException {
+    JsonToken token = peek();
+
+    if (nextToken == com.fasterxml.jackson.core.JsonToken.VALUE_NUMBER_INT) {
+      peeked = false;
+      return parser.getLongValue();
+    }
+
+    if (token != JsonToken.NUMBER && token != JsonToken.STRING)
+      throw unexpected("a long", token);
+
+    String text = parser.getText();
+    long result;
+
+    try {
+      result = Long.parseLong(text);
+    }
+    catch (NumberFormatException e) {
+      // Like Gson, accept fractional notation as long as there is no fraction.
+      double value = Double.parseDouble(text);
+      result = (long) value;
+
+      if (result != value)
+        throw new NumberFormatException("Expected a long but was " + text + locationString());
+    }
+
+    peeked = false;
+    return result;
+  }
+
+  @Override
+  public int nextInt() throws IOException {
+    long value = nextLong();
+
+    if ((int) value != value)
+      throw new NumberFormatException("Expected an int but was " + value + locationString());
+
+    return (int) value;
+  }
+
+  @Override
+  public void skipValue() throws IOException {
+    com.fasterxml.jackson.core.JsonToken token = fetch();
+
+    if (token == com.fasterxml.jackson.core.JsonToken.START_OBJECT
+        || token == com.fasterxml.jackson.core.JsonToken.START_ARRAY)
+      parser.skipChildren();
+
+    peeked = false;
+  }
+
+  @Override
+  public void close() throws IOException {
+    parser.close();
+  }
+
+  @Override
+  public String getPath() {
+    return "$" + parser.getParsingContext().pathAsPointer().toString().replace('/', '.');
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + locationString();
+  }
+
+  private com.fasterxml.jackson.core.JsonToken fetch() throws IOException {
+    if (peeked)
+      return nextToken;
+
+    com.fasterxml.jackson.core.JsonToken token = parser.nextToken();
+
+    // Gson's way to report an empty document.
+    if (token == null && !started)
+      throw new EOFException("End of input" + locationString());
+
+    nextToken = token;
+    peeked = true;
+    started = true;
+
+    return token;
+  }
+
+  private void expect(JsonToken expected) throws IOException {
+    JsonToken token = peek();
+
+    if (token != expected)
+      throw unexpected(expected.name(), token);
+
+    peeked = false;
+  }
+
+  private IllegalStateException unexpected(String expected, JsonToken actual) {
+    return new IllegalStateException("Expected " + expected + " but was " + actual
+        + locationString());
+  }
+
+  private String locationString() {
+    JsonLocation location = parser.getCurrentLocation();
+
+    return " at line " + location.getLineNr()
+        + " column " + location.getColumnNr()
+        + " path " + getPath();
+  }
+
+  private static final class UnusedReader extends Reader {
+    private static final UnusedReader INSTANCE = new UnusedReader();
+
+    @Override
+    public int read(char[] cbuf, int off, int len) {
+      throw new IllegalStateException("JacksonJsonReader reads from its JsonParser only.");
+    }
+
+    @Override
+    public void close() {
+      // Nothing to release.
+    }
+  }
+}
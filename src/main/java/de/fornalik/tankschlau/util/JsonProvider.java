@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.util;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+
+import java.io.Reader;
+
+/**
+ * Backend which converts JSON documents of the webservices into objects. All backends share the
+ * streaming {@link TypeAdapter}s of this application, which read from a Gson {@link JsonReader}.
+ * They differ in the tokenizer which feeds that reader, so they are interchangeable at
+ * bootstrap time.
+ * <br><br>
+ * Exposing Gson's reader is deliberate: a reader abstraction of our own would mean a second
+ * copy of every type adapter. Jackson's tokenizer pays off for large list responses only, see
+ * the jsonProvider parameter of the parsing benchmarks, so Gson stays the default backend.
+ *
+ * @see GsonJsonProvider
+ * @see JacksonJsonProvider
+ */
+public interface JsonProvider {
+
+  /**
+   * @return Short name of the backend, ex. "gson".
+   */
+  String getName();
+
+  /**
+   * @param json     JSON document.
+   * @param classOfT Class of the object to create. A {@link TypeAdapter} must be registered
+   *                 for it.
+   * @param <T>      Type of the object to create.
+   * @return The object read from the document, or null if the document is null or empty.
+   * @throws JsonParseException If the document is not valid JSON or not of the given type.
+   */
+  <T> T fromJson(String json, Class<T> classOfT);
+
+  /**
+   * @param json     Reader of a JSON document. Not closed by this method.
+   * @param classOfT Class of the object to create. A {@link TypeAdapter} must be registered
+   *                 for it.
+   * @param <T>      Type of the object to create.
+   * @return The object read from the document, or null if the document is empty.
+   * @throws JsonParseException If the document is not valid JSON or not of the given type.
+   */
+  <T> T fromJson(Reader json, Class<T> classOfT);
+
+  /**
+   * @param reader Reader of a JSON document.
+   * @return A new streaming reader of the document, for reading it token by token. Backends
+   * other than Gson return a subclass which is fed by their own tokenizer.
+   */
+  JsonReader newJsonReader(Reader reader);
+}
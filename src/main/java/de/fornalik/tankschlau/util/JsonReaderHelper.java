@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.util;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Utility class for null-tolerant reading of values from a Gson {@link JsonReader}.
+ */
+public class JsonReaderHelper {
+
+  private JsonReaderHelper() {
+    throw new IllegalStateException("Utility class - not meant to be instantiated");
+  }
+
+  /**
+   * @param in Reader, positioned at a value.
+   * @return The next value as String (numbers are returned in their literal form), or null if
+   * the value is JSON null.
+   * @throws IOException If the next value is no string, number or null.
+   */
+  public static String nextStringOrNull(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+
+    return in.nextString();
+  }
+
+  /**
+   * @param in Reader, positioned at a value.
+   * @return The next value as Double, or null if the value is JSON null or a boolean. Some
+   * webservices report unavailable numbers as <code>false</code>.
+   * @throws IOException If the next value can't be read as a number.
+   */
+  public static Double nextDoubleOrNull(JsonReader in) throws IOException {
+    JsonToken token = in.peek();
+
+    if (token == JsonToken.NULL || token == JsonToken.BOOLEAN) {
+      in.skipValue();
+      return null;
+    }
+
+    return in.nextDouble();
+  }
+
+  /**
+   * @param in Reader, positioned at a value.
+   * @return The next value as boolean, false if the value is JSON null.
+   * @throws IOException If the next value is no boolean or null.
+   */
+  public static boolean nextBooleanOrFalse(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return false;
+    }
+
+    return in.nextBoolean();
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.webserviceapi.common;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import de.fornalik.tankschlau.geo.Address;
+import de.fornalik.tankschlau.geo.AddressJsonAdapter;
+import de.fornalik.tankschlau.geo.Geo;
+import de.fornalik.tankschlau.geo.GeoJsonAdapter;
+import de.fornalik.tankschlau.station.PetrolStation;
+import de.fornalik.tankschlau.station.PetrolStationJsonAdapter;
+import de.fornalik.tankschlau.webserviceapi.google.GoogleGeocodingResponse;
+import de.fornalik.tankschlau.webserviceapi.pushover.PushoverMessageResponse;
+import de.fornalik.tankschlau.webserviceapi.tankerkoenig.TankerkoenigResponse;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Central {@link TypeAdapterFactory} which provides our hand-written, streaming
+ * {@link TypeAdapter}s for all domain objects and webservice DTOs. Register it once with the
+ * application's {@link Gson} instance, so no reflection based (de)serialization is needed for
+ * these types. All adapters are stateless and thus shared. Unknown types are left to Gson.
+ */
+public class JsonTypeAdapterFactory implements TypeAdapterFactory {
+  private final Map<Class<?>, TypeAdapter<?>> adapters = new HashMap<>();
+
+  public JsonTypeAdapterFactory() {
+    adapters.put(Geo.class, new GeoJsonAdapter());
+    adapters.put(Address.class, new AddressJsonAdapter());
+    adapters.put(PetrolStation.class, new PetrolStationJsonAdapter());
+
+    adapters.put(
+        TankerkoenigResponse.ResponseDto.class,
+        new TankerkoenigResponse.ResponseDtoJsonAdapter());
+
+    adapters.put(
+        GoogleGeocodingResponse.ResponseDTO.class,
+        new GoogleGeocodingResponse.ResponseDtoJsonAdapter());
+
+    adapters.put(
+        PushoverMessageResponse.ResponseDTO.class,
+        new PushoverMessageResponse.ResponseDtoJsonAdapter());
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+    TypeAdapter<?> adapter = adapters.get(type.getRawType());
+
+    if (adapter == null)
+      return null;
+
+    return ((TypeAdapter<T>) adapter).nullSafe();
+  }
+}
@@ -16,17 +16,17 @@
 
 package de.fornalik.tankschlau.webserviceapi.common;
 
-import de.fornalik.tankschlau.net.Response;
-import de.fornalik.tankschlau.service.HasTransactionInfo;
+import de.fornalik.tankschlau.service.TransactResult;
 
-public interface MessageService extends HasTransactionInfo {
+public interface MessageService {
 
   /**
    * Implementation should call a push message webservice with the provided
    * {@link MessageContent} data, getting back some response data about the transaction.
    *
    * @param content Describes the content (title, text, etc.) of a message.
-   * @return {@link Response} data object with some info about the transaction.
+   * @return Result with some info about the transaction, containing the raw response body of
+   * the webservice if there was one.
    */
-  Response sendMessage(MessageContent content);
+  TransactResult<String> sendMessage(MessageContent content);
 }
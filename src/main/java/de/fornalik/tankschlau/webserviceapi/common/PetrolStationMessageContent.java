@@ -66,7 +66,7 @@ public abstract class PetrolStationMessageContent implements MessageContent {
   }
 
   private String createDistanceString(PetrolStation station) {
-    Optional<Geo> geo = station.getAddress().getGeo();
+    Optional<Geo> geo = station.getGeo();
 
     return geo.isPresent()
         ? geo.get().getDistanceAwayString()
@@ -16,10 +16,11 @@
 
 package de.fornalik.tankschlau.webserviceapi.common;
 
+import de.fornalik.tankschlau.service.TransactResult;
 import de.fornalik.tankschlau.station.PetrolStation;
 import de.fornalik.tankschlau.station.PetrolStations;
+import de.fornalik.tankschlau.station.PetrolStationsSnapshot;
 import de.fornalik.tankschlau.station.PetrolType;
-import de.fornalik.tankschlau.station.Petrols;
 import de.fornalik.tankschlau.user.UserPrefs;
 import de.fornalik.tankschlau.util.Localization;
 
@@ -87,11 +88,16 @@ public class PetrolStationMessageWorker {
       return;
     }
 
+    if (stations instanceof PetrolStationsSnapshot) {
+      LOGGER.fine("Given stations are an outdated snapshot, so no push message to send.");
+      return;
+    }
+
     callsSinceLastMessage++;
     LOGGER.log(Level.FINER, "Valid calls since last message: {0}", callsSinceLastMessage);
 
     PetrolStation cheapestStation = findCheapestStation(stations, preferredPetrolType);
-    double currentPrice = Petrols.findPrice(cheapestStation.getPetrols(), preferredPetrolType);
+    double currentPrice = cheapestStation.findPrice(preferredPetrolType);
 
     if (!mustSend(currentPrice))
       return;
@@ -136,10 +142,10 @@ public class PetrolStationMessageWorker {
 
     // Send message.
     LOGGER.finer("Invoking message service.");
-    messageService.sendMessage(messageContent);
+    TransactResult<String> result = messageService.sendMessage(messageContent);
 
     // Evaluate transaction result of communication with the webservice.
-    Optional<String> responseErrorMsg = messageService.getTransactInfo().getErrorMessage();
+    Optional<String> responseErrorMsg = result.getTransactInfo().getErrorMessage();
     if (responseErrorMsg.isPresent()) {
       LOGGER.warning(L10N.get("msg.SendPushMessageFailed", responseErrorMsg.get()));
     }
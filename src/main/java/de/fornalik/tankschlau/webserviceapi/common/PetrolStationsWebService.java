@@ -19,36 +19,213 @@ package de.fornalik.tankschlau.webserviceapi.common;
 import de.fornalik.tankschlau.geo.Geo;
 import de.fornalik.tankschlau.service.PetrolStationsRepo;
 import de.fornalik.tankschlau.service.PetrolStationsService;
-import de.fornalik.tankschlau.service.TransactInfo;
+import de.fornalik.tankschlau.service.TransactResult;
 import de.fornalik.tankschlau.station.PetrolStation;
+import de.fornalik.tankschlau.station.PetrolStationsSnapshot;
+import de.fornalik.tankschlau.station.PetrolStationsSnapshotFile;
+import de.fornalik.tankschlau.station.PetrolStationsSpatialIndex;
 
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 /**
  * Highest abstraction level of tankerkoenig.de webservice.
  * Use this one with a View Model / Presentation Layer or Worker.
  */
 public class PetrolStationsWebService implements PetrolStationsService {
+  private static final Logger LOGGER = Logger.getLogger(PetrolStationsWebService.class.getName());
+
+  /**
+   * Maximum age of the petrol stations of a complete search, before the next complete search is
+   * done instead of refreshing their prices only. New stations in the neighbourhood are
+   * detected by complete searches only.
+   */
+  public static final Duration MASTER_DATA_MAX_AGE = Duration.ofHours(1);
+
   private final PetrolStationsRepo repo;
+  private final PetrolStationsSnapshotFile snapshotFile;
+  private final Clock clock;
+  private volatile Neighbourhood lastNeighbourhood;
 
   public PetrolStationsWebService(PetrolStationsRepo repo) {
+    this(repo, null, Clock.systemUTC());
+  }
+
+  /**
+   * Constructor which keeps a snapshot of the last successfully fetched petrol stations.
+   * If the webservice fails, the snapshot is returned as offline fallback.
+   *
+   * @param repo         The petrol stations repository.
+   * @param snapshotFile File for persisting the last known petrol stations.
+   */
+  public PetrolStationsWebService(PetrolStationsRepo repo, PetrolStationsSnapshotFile snapshotFile) {
+    this(repo, Objects.requireNonNull(snapshotFile), Clock.systemUTC());
+  }
+
+  // Snapshot file is nullable here.
+  PetrolStationsWebService(
+      PetrolStationsRepo repo,
+      PetrolStationsSnapshotFile snapshotFile,
+      Clock clock) {
+
     this.repo = Objects.requireNonNull(repo);
+    this.snapshotFile = snapshotFile;
+    this.clock = Objects.requireNonNull(clock);
   }
 
   /**
    * Searches for petrol stations around the user's neighbourhood, whereby neighbourhood is
    * defined by the given Geo data of the user.
+   * <br><br>
+   * Once a complete search for the same neighbourhood has succeeded, following calls only
+   * refresh the prices of the found stations, until the result of the complete search is older
+   * than {@link #MASTER_DATA_MAX_AGE}. If the price refresh fails or is incomplete, a complete
+   * search is done instead.
+   * <br><br>
+   * The same applies to a neighbourhood which lies completely within the one of the last
+   * complete search, ex. after reducing the search radius. Its stations are found locally by
+   * a {@link PetrolStationsSpatialIndex}, and their distances are calculated locally if the
+   * location has changed.
+   * <br><br>
+   * If a snapshot file is configured and the webservice request fails, the last known petrol
+   * stations are returned as {@link PetrolStationsSnapshot}. Check its creation time to find out
+   * how outdated they are.
    *
    * @see PetrolStationsRepo#findAllInNeighbourhood(Geo)
    */
   @Override
-  public List<PetrolStation> getNeighbourhoodStations(Geo geo) {
-    return repo.findAllInNeighbourhood(geo);
+  public TransactResult<List<PetrolStation>> getNeighbourhoodStations(Geo geo) {
+    TransactResult<List<PetrolStation>> result = findStations(geo);
+
+    if (snapshotFile == null)
+      return result;
+
+    List<PetrolStation> petrolStations = result.getData().orElse(Collections.emptyList());
+
+    if (!petrolStations.isEmpty()) {
+      writeSnapshot(petrolStations);
+      return result;
+    }
+
+    if (!result.getTransactInfo().getErrorMessage().isPresent())
+      return result;
+
+    Optional<PetrolStationsSnapshot> snapshot = snapshotFile.read();
+
+    if (!snapshot.isPresent())
+      return result;
+
+    LOGGER.warning("Webservice failed, using snapshot of petrol stations from "
+        + snapshot.get().getCreatedAt());
+
+    // Keep the error info, so callers can tell that the webservice failed.
+    return result.withData(snapshot.get());
   }
 
-  @Override
-  public TransactInfo getTransactInfo() {
-    return repo.getTransactInfo();
+  private TransactResult<List<PetrolStation>> findStations(Geo geo) {
+    Neighbourhood neighbourhood = lastNeighbourhood;
+
+    if (neighbourhood != null && neighbourhood.isReusableFor(geo, clock.instant())) {
+      List<UUID> uuids = neighbourhood.findUuidsWithin(geo);
+      TransactResult<List<PetrolStation>> result = repo.refreshPrices(uuids);
+      List<PetrolStation> petrolStations = result.getData().orElse(Collections.emptyList());
+
+      boolean isComplete = petrolStations.size() == uuids.size();
+
+      if (isComplete && !result.getTransactInfo().getErrorMessage().isPresent()) {
+        if (neighbourhood.isSearchedAt(geo))
+          return result;
+
+        return result.withData(petrolStations.stream()
+            .map(petrolStation -> petrolStation.withDistanceTo(geo))
+            .collect(Collectors.toList()));
+      }
+
+      LOGGER.info("Refreshing prices failed or was incomplete, doing a complete search.");
+    }
+
+    TransactResult<List<PetrolStation>> result = repo.findAllInNeighbourhood(geo);
+    List<PetrolStation> petrolStations = result.getData().orElse(Collections.emptyList());
+
+    if (!petrolStations.isEmpty() && !result.getTransactInfo().getErrorMessage().isPresent())
+      lastNeighbourhood = new Neighbourhood(geo, petrolStations, clock.instant());
+    else
+      lastNeighbourhood = null;
+
+    return result;
+  }
+
+  private void writeSnapshot(List<PetrolStation> petrolStations) {
+    try {
+      snapshotFile.write(petrolStations);
+    }
+    catch (IOException e) {
+      LOGGER.warning("Snapshot of petrol stations could not be written: " + e);
+    }
+  }
+
+  /**
+   * Result of the last complete search: where it was done, when, and which stations were found.
+   */
+  private static class Neighbourhood {
+    // Geo is mutable, so keep its values at the time of the search.
+    private final List<Object> geoValues;
+    private final Geo center;
+    private final Double radius;
+    private final List<UUID> uuids;
+    private final PetrolStationsSpatialIndex spatialIndex;
+    private final Instant searchedAt;
+
+    private Neighbourhood(Geo geo, List<PetrolStation> petrolStations, Instant searchedAt) {
+      this.geoValues = createGeoValues(geo);
+      this.center = new Geo(geo.getLatitude(), geo.getLongitude());
+      this.radius = geo.getDistance().orElse(null);
+      this.uuids = petrolStations.stream().map(PetrolStation::getUuid).collect(Collectors.toList());
+      this.spatialIndex = PetrolStationsSpatialIndex.of(petrolStations);
+      this.searchedAt = searchedAt;
+    }
+
+    /*
+    True if the given neighbourhood lies within the searched one, so all of its stations are
+    known. The radius of a neighbourhood is the distance of its Geo.
+    */
+    private boolean isReusableFor(Geo geo, Instant now) {
+      if (!searchedAt.plus(MASTER_DATA_MAX_AGE).isAfter(now))
+        return false;
+
+      if (isSearchedAt(geo))
+        return true;
+
+      return radius != null
+          && geo.getDistance().isPresent()
+          && center.distanceTo(geo) + geo.getDistance().get() <= radius;
+    }
+
+    private boolean isSearchedAt(Geo geo) {
+      return geoValues.equals(createGeoValues(geo));
+    }
+
+    private List<UUID> findUuidsWithin(Geo geo) {
+      if (isSearchedAt(geo))
+        return uuids;
+
+      return spatialIndex.findWithinRadius(geo, geo.getDistance().orElse(0.0)).stream()
+          .map(PetrolStation::getUuid)
+          .collect(Collectors.toList());
+    }
+
+    private static List<Object> createGeoValues(Geo geo) {
+      return Arrays.asList(geo.getLatitude(), geo.getLongitude(), geo.getDistance().orElse(null));
+    }
   }
 }
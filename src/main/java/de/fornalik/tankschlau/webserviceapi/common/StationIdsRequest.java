@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fornalik.tankschlau.webserviceapi.common;
+
+import de.fornalik.tankschlau.net.Request;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * HTTP request interface for generating proper URL request parameters of petrol station IDs.
+ */
+public interface StationIdsRequest extends Request {
+
+  /**
+   * Implementation should set or overwrite the URL parameter which holds the IDs of the petrol
+   * stations to request.
+   *
+   * @param uuids IDs of petrol stations.
+   * @throws NullPointerException     If given collection is null.
+   * @throws IllegalArgumentException If given collection is empty or exceeds the maximum number
+   *                                  of IDs the web service accepts per request.
+   */
+  void setStationIdsUrlParameter(Collection<UUID> uuids);
+}
@@ -22,11 +22,16 @@ import de.fornalik.tankschlau.net.HttpClient;
 import de.fornalik.tankschlau.net.JsonResponse;
 import de.fornalik.tankschlau.net.Response;
 import de.fornalik.tankschlau.service.GeocodingService;
-import de.fornalik.tankschlau.service.TransactInfo;
+import de.fornalik.tankschlau.service.TransactResult;
 import de.fornalik.tankschlau.webserviceapi.common.AddressRequest;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Duration;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
 
 /**
  * Geocoding implementation of {@link GeocodingService} for Google Geocoding webservices.
@@ -35,31 +40,40 @@ import java.util.Optional;
  * <a href="https://developers.google.com/maps/documentation/geocoding/overview#GeocodingResponses">Google documentation: GeocodingResponses</a>
  */
 public class GoogleGeocodingClient implements GeocodingService {
+  private static final Logger LOGGER = Logger.getLogger(GoogleGeocodingClient.class.getName());
   private final HttpClient httpClient;
-  private final AddressRequest request;
-  private final Response response;
+  private final Supplier<? extends AddressRequest> requestFactory;
+  private final Supplier<? extends Response> responseFactory;
 
   /**
    * Constructor
    *
-   * @param httpClient Some implementation of {@link HttpClient} for interaction with webservice.
-   * @param request    Some implementation of {@link AddressRequest}, forming a concrete request.
-   * @param response   Some implementation of {@link JsonResponse}. Will be implicitly recycled.
+   * @param httpClient      Some implementation of {@link HttpClient} for interaction with
+   *                        webservice.
+   * @param requestFactory  Creates a new implementation of {@link AddressRequest} for each call,
+   *                        forming a concrete request.
+   * @param responseFactory Creates a new implementation of {@link JsonResponse} for each call.
    */
-  public GoogleGeocodingClient(HttpClient httpClient, AddressRequest request, Response response) {
+  public GoogleGeocodingClient(
+      HttpClient httpClient,
+      Supplier<? extends AddressRequest> requestFactory,
+      Supplier<? extends Response> responseFactory) {
 
     this.httpClient = Objects.requireNonNull(httpClient);
-    this.request = Objects.requireNonNull(request);
-    this.response = Objects.requireNonNull(response);
+    this.requestFactory = Objects.requireNonNull(requestFactory);
+    this.responseFactory = Objects.requireNonNull(responseFactory);
   }
 
   @Override
-  public Optional<Geo> findGeo(Address forAddress) {
-    request.setAddressUrlParameters(Objects.requireNonNull(forAddress));
-    response.reset();
+  public TransactResult<Geo> findGeo(Address forAddress) {
+    Objects.requireNonNull(forAddress);
+    long startNanos = System.nanoTime();
+
+    AddressRequest request = requestFactory.get();
+    request.setAddressUrlParameters(forAddress);
 
     // It's guaranteed by newCall(...) that returned response is not null.
-    httpClient.newCall(request, response, String.class);
+    Response response = httpClient.newCall(request, responseFactory.get(), Reader.class);
 
     /*
     Note: After newCall, the field response.transactInfo may already contain error message etc,
@@ -69,21 +83,44 @@ public class GoogleGeocodingClient implements GeocodingService {
     Objects.requireNonNull(response, "Response is null.");
 
     if (response.getBody() == null)
-      return Optional.empty();
+      return createResult(null, response, startNanos);
+
+    // Get body data of server response, streamed straight off the connection.
+    Reader jsonReader = response.getBody().getData(Reader.class);
+
+    if (jsonReader == null)
+      return createResult(null, response, startNanos);
 
     /*
     At this point we assert a valid JSON document - well formed and determined
     by the webservice's API. So all following processing should crash only if _we_
     messed things up.
     */
-    // Get body data of server response.
-    String jsonString = response.getBody().getData(String.class);
+    Optional<Geo> geo;
+
+    try {
+      geo = ((JsonResponse) response).fromJson(jsonReader, Geo.class);
+    }
+    finally {
+      closeQuietly(jsonReader);
+    }
 
-    return ((JsonResponse) response).fromJson(jsonString, Geo.class);
+    return createResult(geo.orElse(null), response, startNanos);
   }
 
-  @Override
-  public TransactInfo getTransactInfo() {
-    return response.getTransactInfo();
+  private static TransactResult<Geo> createResult(Geo geo, Response response, long startNanos) {
+    return TransactResult.of(
+        geo,
+        response.getTransactInfo(),
+        Duration.ofNanos(System.nanoTime() - startNanos));
+  }
+
+  private void closeQuietly(Reader reader) {
+    try {
+      reader.close();
+    }
+    catch (IOException e) {
+      LOGGER.warning("Closing response body failed. " + e.getMessage());
+    }
   }
 }
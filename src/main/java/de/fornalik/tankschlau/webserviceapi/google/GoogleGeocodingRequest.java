@@ -48,6 +48,8 @@ public class GoogleGeocodingRequest extends BaseRequest implements AddressReques
         apiKeyManager,
         "apiKeyManager must not be null.");
 
+    instance.setApiKeyId(apiKeyManager.getId());
+
     instance.setBaseData();
     instance.setCommonUrlParameters();
 
@@ -16,15 +16,20 @@
 
 package de.fornalik.tankschlau.webserviceapi.google;
 
-import com.google.gson.Gson;
-import com.google.gson.annotations.SerializedName;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import de.fornalik.tankschlau.geo.Geo;
 import de.fornalik.tankschlau.net.BaseResponse;
 import de.fornalik.tankschlau.net.JsonResponse;
 import de.fornalik.tankschlau.net.ResponseBody;
 import de.fornalik.tankschlau.service.TransactInfo;
+import de.fornalik.tankschlau.util.JsonProvider;
+import de.fornalik.tankschlau.util.JsonReaderHelper;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.Reader;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.logging.Logger;
@@ -37,10 +42,10 @@ import java.util.logging.Logger;
  */
 public class GoogleGeocodingResponse extends BaseResponse implements JsonResponse {
   private static final Logger LOGGER = Logger.getLogger(GoogleGeocodingResponse.class.getName());
-  private final Gson jsonProvider;
+  private final JsonProvider jsonProvider;
 
   public GoogleGeocodingResponse(
-      Gson jsonProvider,
+      JsonProvider jsonProvider,
       ResponseBody responseBody,
       TransactInfo transactInfo) {
     super(Objects.requireNonNull(responseBody), Objects.requireNonNull(transactInfo));
@@ -55,13 +60,29 @@ public class GoogleGeocodingResponse extends BaseResponse implements JsonRespons
     */
     ResponseDTO responseDto = jsonProvider.fromJson(jsonString, ResponseDTO.class);
 
+    return processResponseDto(
+        responseDto,
+        targetClass,
+        "JSON string could not be converted. String is: " + jsonString);
+  }
+
+  @Override
+  public <T> Optional<T> fromJson(Reader jsonReader, Class<T> targetClass) {
+    ResponseDTO responseDto = jsonProvider.fromJson(jsonReader, ResponseDTO.class);
+    return processResponseDto(responseDto, targetClass, "JSON document could not be converted.");
+  }
+
+  private <T> Optional<T> processResponseDto(
+      ResponseDTO responseDto,
+      Class<T> targetClass,
+      String errMsgIfNull) {
+
     getTransactInfo().setLicence("Geo data powered by Google.");
 
     if (responseDto == null) {
-      String errMsg = "JSON string could not be converted. String is: " + jsonString;
-      getTransactInfo().setErrorMessage(errMsg);
+      getTransactInfo().setErrorMessage(errMsgIfNull);
       getTransactInfo().setStatus("ERROR");
-      LOGGER.warning(errMsg);
+      LOGGER.warning(errMsgIfNull);
 
       return Optional.empty();
     }
@@ -73,69 +94,168 @@ public class GoogleGeocodingResponse extends BaseResponse implements JsonRespons
       getTransactInfo().setErrorMessage(responseDto.message);
 
 
-    if (responseDto.results.isEmpty()) {
+    if (responseDto.firstResult == null) {
       getTransactInfo().setErrorMessage(responseDto.message);
       return Optional.empty();
     }
 
     /*
     2. From here, we can trust that Google service has set values for latitude, longitude and
-    location type. List "results" is always initialized at construction time of ResponseDTO,
-    so can't be null.
+    location type of the first result.
     */
-    ResultDTO firstResult = responseDto.results.get(0);
-    return Optional.of(targetClass.cast(firstResult.getAsGeo()));
+    return Optional.of(targetClass.cast(responseDto.firstResult.getAsGeo()));
   }
 
   /**
    * Class provides object relational mapping support for Gson. It must correlate with the
    * root level json object of the Google Geocoding response.
    */
-  static class ResponseDTO {
-    @SerializedName("results")
-    ArrayList<ResultDTO> results;
-    @SerializedName("status") String status;
-    @SerializedName("error_message") String message;
-
-    ResponseDTO() {
-      this.results = new ArrayList<>();
-    }
+  public static class ResponseDTO {
+    ResultDTO firstResult;
+    String status;
+    String message;
   }
 
   /**
-   * Class provides object relational mapping support for Gson. It represents the json array
-   * "results" of the Google Geocoding response.
+   * Class provides object relational mapping support for Gson. It represents the first element
+   * of the json array "results" of the Google Geocoding response, flattened to the data we need
+   * from its "geometry" object.
    */
-  @SuppressWarnings("unused")
-  private static class ResultDTO {
-    @SerializedName("geometry") private ResultDTO.Geometry geometry;
+  static class ResultDTO {
+    private Double latitude;
+    private Double longitude;
+    private String locationType;
 
     Geo getAsGeo() {
-      return new Geo(geometry.location.latitude, geometry.location.longitude);
+      return new Geo(latitude, longitude);
     }
 
     String getLocationType() {
-      return geometry.locationType;
+      return locationType;
     }
+  }
 
-    /**
-     * Class provides object relational mapping support for Gson. It represents the "geometry"
-     * json object within one element of json array "results" of the Google Geocoding response.
-     */
-    @SuppressWarnings("unused")
-    private static class Geometry {
-      @SerializedName("location") private ResultDTO.Location location;
-      @SerializedName("location_type") private String locationType;
+  /**
+   * Streaming Gson JSON adapter for {@link ResponseDTO}. Besides "status" and
+   * "error_message", only "geometry.location" and "geometry.location_type" of the <b>first</b>
+   * result are read. All other elements, including any further results, are skipped
+   * without being materialized, so geocoding an address costs one small allocation.
+   */
+  public static class ResponseDtoJsonAdapter extends TypeAdapter<ResponseDTO> {
+
+    @Override
+    public ResponseDTO read(JsonReader in) throws IOException {
+      ResponseDTO responseDto = new ResponseDTO();
+
+      in.beginObject();
+
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "results":
+            readResults(in, responseDto);
+            break;
+
+          case "status":
+            responseDto.status = JsonReaderHelper.nextStringOrNull(in);
+            break;
+
+          case "error_message":
+            responseDto.message = JsonReaderHelper.nextStringOrNull(in);
+            break;
+
+          default:
+            in.skipValue();
+        }
+      }
+
+      in.endObject();
+
+      return responseDto;
     }
 
     /**
-     * Class provides object relational mapping support for Gson. It represents the "location"
-     * json object within the json object "geometry" of the Google Geocoding response.
+     * Not implemented. Currently there's no need for it.
      */
-    @SuppressWarnings("unused")
-    private static class Location {
-      @SerializedName("lat") private Double latitude;
-      @SerializedName("lng") private Double longitude;
+    @Override
+    public void write(JsonWriter out, ResponseDTO responseDto) {
+      throw new UnsupportedOperationException("Method not implemented.");
+    }
+
+    private void readResults(JsonReader in, ResponseDTO responseDto) throws IOException {
+      if (in.peek() != JsonToken.BEGIN_ARRAY) {
+        in.skipValue();
+        return;
+      }
+
+      in.beginArray();
+
+      if (in.hasNext())
+        responseDto.firstResult = readResult(in);
+
+      // We only ever use the first (best matching) result.
+      while (in.hasNext())
+        in.skipValue();
+
+      in.endArray();
+    }
+
+    private ResultDTO readResult(JsonReader in) throws IOException {
+      ResultDTO resultDto = new ResultDTO();
+
+      in.beginObject();
+
+      while (in.hasNext()) {
+        if ("geometry".equals(in.nextName()))
+          readGeometry(in, resultDto);
+        else
+          in.skipValue();
+      }
+
+      in.endObject();
+
+      return resultDto;
+    }
+
+    private void readGeometry(JsonReader in, ResultDTO resultDto) throws IOException {
+      in.beginObject();
+
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "location":
+            readLocation(in, resultDto);
+            break;
+
+          case "location_type":
+            resultDto.locationType = JsonReaderHelper.nextStringOrNull(in);
+            break;
+
+          default:
+            in.skipValue();
+        }
+      }
+
+      in.endObject();
+    }
+
+    private void readLocation(JsonReader in, ResultDTO resultDto) throws IOException {
+      in.beginObject();
+
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "lat":
+            resultDto.latitude = JsonReaderHelper.nextDoubleOrNull(in);
+            break;
+
+          case "lng":
+            resultDto.longitude = JsonReaderHelper.nextDoubleOrNull(in);
+            break;
+
+          default:
+            in.skipValue();
+        }
+      }
+
+      in.endObject();
     }
   }
 }
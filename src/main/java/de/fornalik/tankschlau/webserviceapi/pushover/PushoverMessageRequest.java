@@ -43,6 +43,7 @@ public class PushoverMessageRequest extends JsonRequestImpl implements MessageRe
         userPrefs,
         "userPrefs must not be null.");
 
+    setApiKeyId(apiKeyManager.getId());
     setBaseData();
     setHeaders();
     setAuthenticationParameters();
@@ -16,13 +16,19 @@
 
 package de.fornalik.tankschlau.webserviceapi.pushover;
 
-import com.google.gson.Gson;
-import com.google.gson.annotations.SerializedName;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import de.fornalik.tankschlau.net.BaseResponse;
 import de.fornalik.tankschlau.net.JsonResponse;
 import de.fornalik.tankschlau.net.ResponseBody;
 import de.fornalik.tankschlau.service.TransactInfo;
+import de.fornalik.tankschlau.util.JsonProvider;
+import de.fornalik.tankschlau.util.JsonReaderHelper;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -37,10 +43,10 @@ import java.util.logging.Logger;
  */
 public class PushoverMessageResponse extends BaseResponse implements JsonResponse {
   private static final Logger LOGGER = Logger.getLogger(PushoverMessageResponse.class.getName());
-  private final Gson jsonProvider;
+  private final JsonProvider jsonProvider;
 
   public PushoverMessageResponse(
-      Gson jsonProvider,
+      JsonProvider jsonProvider,
       ResponseBody responseBody,
       TransactInfo transactInfo) {
 
@@ -55,7 +61,22 @@ public class PushoverMessageResponse extends BaseResponse implements JsonRespons
     like status, licence string, error message because of invalid API key etc.
     */
     ResponseDTO responseDto = jsonProvider.fromJson(jsonString, ResponseDTO.class);
+    processResponseDto(
+        responseDto,
+        "JSON string could not be deserialized. String is: " + jsonString);
 
+    return Optional.empty();
+  }
+
+  @Override
+  public <T> Optional<T> fromJson(Reader jsonReader, Class<T> targetClass) {
+    ResponseDTO responseDto = jsonProvider.fromJson(jsonReader, ResponseDTO.class);
+    processResponseDto(responseDto, "JSON document could not be deserialized.");
+
+    return Optional.empty();
+  }
+
+  private void processResponseDto(ResponseDTO responseDto, String errMsgIfNull) {
     getTransactInfo().setLicence("Push messages provided by pushover.net");
 
     if (responseDto == null) {
@@ -65,7 +86,7 @@ public class PushoverMessageResponse extends BaseResponse implements JsonRespons
       String existingStatus = getTransactInfo().getStatus();
       getTransactInfo().setStatus(String.join(" & ", existingStatus, "DESERIALIZATION_ERROR"));
 
-      String errorMsg = "JSON string could not be deserialized. String is: " + jsonString;
+      String errorMsg = errMsgIfNull;
       Optional<String> existingErrorMsg = getTransactInfo().getErrorMessage();
       if (existingErrorMsg.isPresent()) {
         errorMsg = existingErrorMsg.get() + " & " + errorMsg;
@@ -81,8 +102,6 @@ public class PushoverMessageResponse extends BaseResponse implements JsonRespons
         getTransactInfo().setErrorMessage(pushoverErrorMsg);
       }
     }
-
-    return Optional.empty();
   }
 
   private String processErrorList(List<String> errorList) {
@@ -98,16 +117,93 @@ public class PushoverMessageResponse extends BaseResponse implements JsonRespons
    * Class provides object relational mapping support for Gson. It must correlate with the
    * root level json object of the pushover.net response.
    */
-  private static class ResponseDTO {
-    @SerializedName("status") int status;
-    @SerializedName("request") String requestToken;
-    @SerializedName("secret") String secretError;
-    @SerializedName("token") String tokenError;
-    @SerializedName("user") String userError;
-    @SerializedName("errors") ArrayList<String> errors;
+  public static class ResponseDTO {
+    int status;
+    String requestToken;
+    String secretError;
+    String tokenError;
+    String userError;
+    ArrayList<String> errors;
 
     ResponseDTO() {
       this.errors = new ArrayList<>();
     }
   }
+
+  /**
+   * Streaming Gson JSON adapter for {@link ResponseDTO}. Unknown elements are skipped.
+   */
+  public static class ResponseDtoJsonAdapter extends TypeAdapter<ResponseDTO> {
+
+    @Override
+    public ResponseDTO read(JsonReader in) throws IOException {
+      ResponseDTO responseDto = new ResponseDTO();
+
+      in.beginObject();
+
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "status":
+            if (in.peek() == JsonToken.NULL)
+              in.skipValue();
+            else
+              responseDto.status = in.nextInt();
+            break;
+
+          case "request":
+            responseDto.requestToken = JsonReaderHelper.nextStringOrNull(in);
+            break;
+
+          case "secret":
+            responseDto.secretError = JsonReaderHelper.nextStringOrNull(in);
+            break;
+
+          case "token":
+            responseDto.tokenError = JsonReaderHelper.nextStringOrNull(in);
+            break;
+
+          case "user":
+            responseDto.userError = JsonReaderHelper.nextStringOrNull(in);
+            break;
+
+          case "errors":
+            readErrors(in, responseDto.errors);
+            break;
+
+          default:
+            in.skipValue();
+        }
+      }
+
+      in.endObject();
+
+      return responseDto;
+    }
+
+    /**
+     * Not implemented. Currently there's no need for it.
+     */
+    @Override
+    public void write(JsonWriter out, ResponseDTO responseDto) {
+      throw new UnsupportedOperationException("Method not implemented.");
+    }
+
+    private void readErrors(JsonReader in, List<String> errors) throws IOException {
+      if (in.peek() != JsonToken.BEGIN_ARRAY) {
+        in.skipValue();
+        return;
+      }
+
+      in.beginArray();
+
+      while (in.hasNext()) {
+        String error = JsonReaderHelper.nextStringOrNull(in);
+
+        if (error != null)
+          errors.add(error);
+      }
+
+      in.endArray();
+    }
+  }
 }
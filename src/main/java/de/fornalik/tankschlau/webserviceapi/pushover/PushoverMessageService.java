@@ -19,13 +19,15 @@ package de.fornalik.tankschlau.webserviceapi.pushover;
 import de.fornalik.tankschlau.net.HttpClient;
 import de.fornalik.tankschlau.net.JsonResponse;
 import de.fornalik.tankschlau.net.Response;
-import de.fornalik.tankschlau.service.TransactInfo;
+import de.fornalik.tankschlau.service.TransactResult;
 import de.fornalik.tankschlau.util.Localization;
 import de.fornalik.tankschlau.webserviceapi.common.MessageContent;
 import de.fornalik.tankschlau.webserviceapi.common.MessageRequest;
 import de.fornalik.tankschlau.webserviceapi.common.MessageService;
 
+import java.time.Duration;
 import java.util.Objects;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 /**
@@ -39,29 +41,39 @@ public class PushoverMessageService implements MessageService {
   private static final Logger LOGGER = Logger.getLogger(PushoverMessageService.class.getName());
 
   private final HttpClient httpClient;
-  private final MessageRequest request;
-  private final Response response;
+  private final Supplier<? extends MessageRequest> requestFactory;
+  private final Supplier<? extends Response> responseFactory;
 
   /**
    * Constructor
    *
-   * @param httpClient Some implementation of {@link HttpClient} for interaction with webservice.
-   * @param request    Some implementation of {@link MessageRequest}, forming a concrete request.
+   * @param httpClient      Some implementation of {@link HttpClient} for interaction with
+   *                        webservice.
+   * @param requestFactory  Creates a new implementation of {@link MessageRequest} for each call,
+   *                        forming a concrete request.
+   * @param responseFactory Creates a new implementation of {@link JsonResponse} for each call.
    */
-  public PushoverMessageService(HttpClient httpClient, MessageRequest request, Response response) {
+  public PushoverMessageService(
+      HttpClient httpClient,
+      Supplier<? extends MessageRequest> requestFactory,
+      Supplier<? extends Response> responseFactory) {
+
     this.httpClient = Objects.requireNonNull(httpClient);
-    this.request = Objects.requireNonNull(request);
-    this.response = Objects.requireNonNull(response);
+    this.requestFactory = Objects.requireNonNull(requestFactory);
+    this.responseFactory = Objects.requireNonNull(responseFactory);
   }
 
   @Override
-  public Response sendMessage(MessageContent content) {
-    request.setMessage(Objects.requireNonNull(content));
-    response.reset();
+  public TransactResult<String> sendMessage(MessageContent content) {
+    Objects.requireNonNull(content);
+    long startNanos = System.nanoTime();
+
+    MessageRequest request = requestFactory.get();
+    request.setMessage(content);
 
     // It's guaranteed by newCall(...) that returned response is not null.
     LOGGER.info(L10N.get("msg.SendingPushMessage"));
-    httpClient.newCall(request, response, String.class);
+    Response response = httpClient.newCall(request, responseFactory.get(), String.class);
 
     Objects.requireNonNull(response, "Response is null.");
 
@@ -71,7 +83,7 @@ public class PushoverMessageService implements MessageService {
     */
 
     if (response.getBody() == null)
-      return response;
+      return createResult(null, response, startNanos);
 
     /*
     At this point we assert a valid JSON document - well formed and determined
@@ -82,11 +94,17 @@ public class PushoverMessageService implements MessageService {
     String jsonString = response.getBody().getData(String.class);
 
     ((JsonResponse) response).fromJson(jsonString, Void.class);
-    return response;
+    return createResult(jsonString, response, startNanos);
   }
 
-  @Override
-  public TransactInfo getTransactInfo() {
-    return response.getTransactInfo();
+  private static TransactResult<String> createResult(
+      String responseBody,
+      Response response,
+      long startNanos) {
+
+    return TransactResult.of(
+        responseBody,
+        response.getTransactInfo(),
+        Duration.ofNanos(System.nanoTime() - startNanos));
   }
 }
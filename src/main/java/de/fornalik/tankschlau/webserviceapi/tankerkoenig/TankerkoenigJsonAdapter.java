@@ -16,30 +16,43 @@
 
 package de.fornalik.tankschlau.webserviceapi.tankerkoenig;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonElement;
 import com.google.gson.JsonParseException;
-import com.google.gson.JsonParser;
-import de.fornalik.tankschlau.geo.Address;
-import de.fornalik.tankschlau.geo.Geo;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import de.fornalik.tankschlau.station.Petrol;
 import de.fornalik.tankschlau.station.PetrolStation;
-import de.fornalik.tankschlau.station.PetrolStationBuilder;
-import de.fornalik.tankschlau.station.Petrols;
+import de.fornalik.tankschlau.station.PetrolStationJsonAdapter;
+import de.fornalik.tankschlau.station.PetrolsJsonAdapter;
+import de.fornalik.tankschlau.util.JsonProvider;
+import de.fornalik.tankschlau.util.JsonReaderHelper;
 
-import java.lang.reflect.Type;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.UUID;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+/**
+ * Streaming JSON adapter for the list.php and prices.php responses of tankerkoenig.de. Reads the
+ * root level response fields and all stations in one single forward pass, building
+ * {@link PetrolStation} objects directly from the token stream.
+ */
 public class TankerkoenigJsonAdapter {
   private static final Logger LOGGER = Logger.getLogger(TankerkoenigJsonAdapter.class.getName());
-  private final Gson jsonProvider;
+  private static final PetrolStationJsonAdapter STATION_ADAPTER = new PetrolStationJsonAdapter();
+  private final JsonProvider jsonProvider;
 
-  public TankerkoenigJsonAdapter(Gson jsonProvider) {
-    this.jsonProvider = jsonProvider;
+  public TankerkoenigJsonAdapter(JsonProvider jsonProvider) {
+    this.jsonProvider = Objects.requireNonNull(jsonProvider);
   }
 
   /**
@@ -53,6 +66,7 @@ public class TankerkoenigJsonAdapter {
    * @throws JsonParseException    if the specified text is not valid JSON.
    * @throws NullPointerException  if some object could not be extracted.
    * @throws IllegalStateException if some object would be in a illegal state after creation.
+   * @see #readListResponse(Reader)
    */
   List<PetrolStation> createPetrolStations(String jsonString) {
     if (jsonString == null || "".equals(jsonString)) {
@@ -60,75 +74,252 @@ public class TankerkoenigJsonAdapter {
       return new ArrayList<>();
     }
 
-    JsonElement stationsJsonElement = JsonParser
-        .parseString(jsonString)
-        .getAsJsonObject()
-        .get("stations");
+    return readListResponse(new StringReader(jsonString)).getPetrolStations();
+  }
 
-    if (stationsJsonElement == null || !stationsJsonElement.isJsonArray()) {
-      LOGGER.log(Level.WARNING, "No stations found in JSON: {0}", jsonString);
-      return new ArrayList<>();
+  /**
+   * Reads a complete list.php response of tankerkoenig.de in one single forward pass.
+   * Root level data (ok, status, message, license) are collected into a
+   * {@link TankerkoenigResponse.ResponseDto}, while each element of the "stations" array is
+   * converted into a {@link PetrolStation} right at the time it is read. Unknown elements are
+   * skipped without being materialized.
+   *
+   * @param reader Reader of the JSON document. Not closed by this method.
+   * @return The root level data and the petrol stations of the response.
+   * @throws JsonParseException    if the JSON document is not valid.
+   * @throws NullPointerException  if some mandatory object could not be extracted.
+   * @throws IllegalStateException if some object would be in a illegal state after creation.
+   */
+  ListResponse readListResponse(Reader reader) {
+    Objects.requireNonNull(reader, "reader must not be null.");
+
+    try {
+      JsonReader in = jsonProvider.newJsonReader(reader);
+      return readRoot(in);
+    }
+    catch (IOException e) {
+      throw new JsonSyntaxException(e);
+    }
+  }
+
+  /**
+   * Reads a complete prices.php response of tankerkoenig.de in one single forward pass.
+   * Root level data are collected like in {@link #readListResponse(Reader)}, while each
+   * element of the "prices" object is converted into {@link StationPrices}.
+   *
+   * @param reader Reader of the JSON document. Not closed by this method.
+   * @return The root level data and the prices per station ID of the response.
+   * @throws JsonParseException       if the JSON document is not valid.
+   * @throws IllegalArgumentException if a station ID is not a valid UUID.
+   */
+  PricesResponse readPricesResponse(Reader reader) {
+    Objects.requireNonNull(reader, "reader must not be null.");
+
+    try {
+      JsonReader in = jsonProvider.newJsonReader(reader);
+      return readPricesRoot(in);
+    }
+    catch (IOException e) {
+      throw new JsonSyntaxException(e);
+    }
+  }
+
+  private PricesResponse readPricesRoot(JsonReader in) throws IOException {
+    TankerkoenigResponse.ResponseDto responseDto = new TankerkoenigResponse.ResponseDto();
+    Map<UUID, StationPrices> prices = new HashMap<>();
+
+    if (isEmptyDocument(in)) {
+      String errMsg = "JSON response is empty.";
+      responseDto.setStatus("ERROR");
+      responseDto.setMessage(errMsg);
+      LOGGER.warning(errMsg);
+      return new PricesResponse(responseDto, prices);
     }
 
+    in.beginObject();
+
+    while (in.hasNext()) {
+      String name = in.nextName();
+
+      if ("prices".equals(name) && in.peek() == JsonToken.BEGIN_OBJECT)
+        readPrices(in, prices);
+      else if (!TankerkoenigResponse.ResponseDtoJsonAdapter.readField(name, in, responseDto))
+        in.skipValue();
+    }
+
+    in.endObject();
+
+    return new PricesResponse(responseDto, prices);
+  }
+
+  private void readPrices(JsonReader in, Map<UUID, StationPrices> prices) throws IOException {
+    in.beginObject();
+
+    while (in.hasNext()) {
+      UUID uuid = UUID.fromString(in.nextName());
+      prices.put(uuid, readStationPrices(in));
+    }
+
+    in.endObject();
+  }
+
+  private StationPrices readStationPrices(JsonReader in) throws IOException {
+    PetrolsJsonAdapter.Fields petrolsFields = new PetrolsJsonAdapter.Fields();
+    String status = null;
+
+    in.beginObject();
+
+    while (in.hasNext()) {
+      String name = in.nextName();
+
+      if ("status".equals(name))
+        status = JsonReaderHelper.nextStringOrNull(in);
+      else if (!petrolsFields.read(name, in))
+        in.skipValue();
+    }
+
+    in.endObject();
+
+    return new StationPrices(status, petrolsFields.toPetrols());
+  }
+
+  private ListResponse readRoot(JsonReader in) throws IOException {
+    TankerkoenigResponse.ResponseDto responseDto = new TankerkoenigResponse.ResponseDto();
     List<PetrolStation> petrolStations = new ArrayList<>();
+    boolean hasStations = false;
 
-    stationsJsonElement
-        .getAsJsonArray()
-        .iterator()
-        .forEachRemaining(jsonElem -> {
-          String str = jsonElem.getAsJsonObject().toString();
-          PetrolStation pst = createSinglePetrolStation(str);
-          petrolStations.add(pst);
-        });
+    if (isEmptyDocument(in)) {
+      String errMsg = "JSON response is empty.";
+      responseDto.setStatus("ERROR");
+      responseDto.setMessage(errMsg);
+      LOGGER.warning(errMsg);
+      return new ListResponse(responseDto, petrolStations);
+    }
 
-    return petrolStations;
+    in.beginObject();
+
+    while (in.hasNext()) {
+      String name = in.nextName();
+
+      if ("stations".equals(name))
+        hasStations = readStations(in, petrolStations);
+      else if (!TankerkoenigResponse.ResponseDtoJsonAdapter.readField(name, in, responseDto))
+        in.skipValue();
+    }
+
+    in.endObject();
+
+    if (!hasStations)
+      LOGGER.warning("No stations found in JSON response.");
+
+    return new ListResponse(responseDto, petrolStations);
   }
 
-  private PetrolStation createSinglePetrolStation(String jsonStr) {
-    PetrolStation rawPetrolStation = jsonProvider.fromJson(jsonStr, PetrolStation.class);
-
-    // Build the final petrol station. The builder will throw if data do not match the
-    // business rules.
-    return PetrolStationBuilder
-        .create(rawPetrolStation.getUuid())
-        .withBrand(rawPetrolStation.getBrand())
-        .withIsOpen(rawPetrolStation.isOpen())
-        .withPetrols(createPetrols(jsonStr))
-        .withAddress(createAddress(jsonStr))
-        .build();
+  private boolean readStations(JsonReader in, List<PetrolStation> petrolStations)
+  throws IOException {
+
+    if (in.peek() != JsonToken.BEGIN_ARRAY) {
+      in.skipValue();
+      return false;
+    }
+
+    in.beginArray();
+
+    while (in.hasNext()) {
+      petrolStations.add(STATION_ADAPTER.read(in));
+    }
+
+    in.endArray();
+    return true;
   }
 
-  private Set<Petrol> createPetrols(String jsonStr) {
-    return jsonProvider.fromJson(jsonStr, (Type) Petrols.class);
+  private static boolean isEmptyDocument(JsonReader in) throws IOException {
+    try {
+      in.peek();
+      return false;
+    }
+    catch (EOFException e) {
+      return true;
+    }
   }
 
-  private Address createAddress(String jsonStr) {
-    Address rawAddress = jsonProvider.fromJson(jsonStr, Address.class);
-    Geo rawGeo = jsonProvider.fromJson(jsonStr, Geo.class);
+  /**
+   * Open state and prices of a single station, as delivered by prices.php.
+   */
+  static class StationPrices {
+    private static final String STATUS_OPEN = "open";
+    private static final String STATUS_NOT_FOUND = "not found";
 
-    // Legalize Address by passing it to its failable constructor.
-    Address deserializedAddress = new Address(
-        rawAddress.getName(),
-        rawAddress.getStreet(),
-        rawAddress.getHouseNumber(),
-        rawAddress.getCity(),
-        rawAddress.getPostCode(),
-        null);
+    private final String status;
+    private final Set<Petrol> petrols;
 
-    // Validate Geo object and add a new legalized instance to address if valid.
-    if (rawGeo.getLatitude() != 0.0
-        || rawGeo.getLongitude() != 0.0
-        || rawGeo.getDistance().isPresent()) {
+    StationPrices(String status, Set<Petrol> petrols) {
+      this.status = status != null ? status : "";
+      this.petrols = Objects.requireNonNull(petrols);
+    }
 
-      Geo deserializedGeo = new Geo(
-          rawGeo.getLatitude(),
-          rawGeo.getLongitude(),
-          rawGeo.getDistance().orElse(null));
+    /**
+     * @return The raw status, ex. "open", "closed", "no prices" or "not found".
+     */
+    String getStatus() {
+      return status;
+    }
 
-      deserializedAddress.setGeo(deserializedGeo);
+    boolean isOpen() {
+      return STATUS_OPEN.equals(status);
     }
 
+    boolean isFound() {
+      return !STATUS_NOT_FOUND.equals(status);
+    }
 
-    return deserializedAddress;
+    Set<Petrol> getPetrols() {
+      return petrols;
+    }
+  }
+
+  /**
+   * Result of {@link #readPricesResponse(Reader)}.
+   */
+  static class PricesResponse {
+    private final TankerkoenigResponse.ResponseDto responseDto;
+    private final Map<UUID, StationPrices> prices;
+
+    PricesResponse(TankerkoenigResponse.ResponseDto responseDto, Map<UUID, StationPrices> prices) {
+      this.responseDto = responseDto;
+      this.prices = prices;
+    }
+
+    TankerkoenigResponse.ResponseDto getResponseDto() {
+      return responseDto;
+    }
+
+    Map<UUID, StationPrices> getPrices() {
+      return prices;
+    }
+  }
+
+  /**
+   * Result of {@link #readListResponse(Reader)}.
+   */
+  static class ListResponse {
+    private final TankerkoenigResponse.ResponseDto responseDto;
+    private final List<PetrolStation> petrolStations;
+
+    ListResponse(
+        TankerkoenigResponse.ResponseDto responseDto,
+        List<PetrolStation> petrolStations) {
+
+      this.responseDto = responseDto;
+      this.petrolStations = petrolStations;
+    }
+
+    TankerkoenigResponse.ResponseDto getResponseDto() {
+      return responseDto;
+    }
+
+    List<PetrolStation> getPetrolStations() {
+      return petrolStations;
+    }
   }
 }
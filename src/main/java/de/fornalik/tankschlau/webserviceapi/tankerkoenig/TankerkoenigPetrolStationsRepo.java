@@ -21,13 +21,26 @@ import de.fornalik.tankschlau.net.HttpClient;
 import de.fornalik.tankschlau.net.JsonResponse;
 import de.fornalik.tankschlau.net.Response;
 import de.fornalik.tankschlau.service.PetrolStationsRepo;
-import de.fornalik.tankschlau.service.TransactInfo;
+import de.fornalik.tankschlau.service.TransactResult;
 import de.fornalik.tankschlau.station.PetrolStation;
 import de.fornalik.tankschlau.webserviceapi.common.GeoRequest;
+import de.fornalik.tankschlau.webserviceapi.common.StationIdsRequest;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.logging.Logger;
 
 /**
  * Petrol stations client/repository implementation for tankerkoenig.de communication.
@@ -35,39 +48,54 @@ import java.util.Objects;
  * @see PetrolStation
  */
 public class TankerkoenigPetrolStationsRepo implements PetrolStationsRepo {
+  private static final Logger LOGGER =
+      Logger.getLogger(TankerkoenigPetrolStationsRepo.class.getName());
 
   private final HttpClient httpClient;
   private final TankerkoenigJsonAdapter tankerkoenigPetrolStationsJsonAdapter;
-  private final GeoRequest request;
-  private Response response;
+  private final Supplier<? extends GeoRequest> requestFactory;
+  private final Supplier<? extends StationIdsRequest> pricesRequestFactory;
+  private final Supplier<? extends Response> responseFactory;
+
+  // Stations of the last successful neighbourhood search, replaced as a whole by the next one.
+  private volatile Map<UUID, PetrolStation> masterData;
 
   /**
    * Creates a new default {@link TankerkoenigPetrolStationsRepo} object for the webservice. <br>
+   * Each call gets its own request and response object, so one instance can serve concurrent
+   * calls.
    *
    * @param httpClient                Some {@link HttpClient} implementation.
    * @param petrolStationsJsonAdapter Some json adapter implementation for petrol stations.
-   * @param request                   Some {@link GeoRequest} implementation.
-   * @param response                  Some initialized implementation of a {@link Response} object.
+   * @param requestFactory            Creates a new {@link GeoRequest} for each call.
+   * @param pricesRequestFactory      Creates a new {@link StationIdsRequest} for each call of
+   *                                  the prices webservice.
+   * @param responseFactory           Creates a new, initialized {@link Response} for each call.
    */
   public TankerkoenigPetrolStationsRepo(
       HttpClient httpClient,
       TankerkoenigJsonAdapter petrolStationsJsonAdapter,
-      GeoRequest request,
-      Response response) {
+      Supplier<? extends GeoRequest> requestFactory,
+      Supplier<? extends StationIdsRequest> pricesRequestFactory,
+      Supplier<? extends Response> responseFactory) {
 
     this.httpClient = Objects.requireNonNull(httpClient);
     this.tankerkoenigPetrolStationsJsonAdapter = Objects.requireNonNull(petrolStationsJsonAdapter);
-    this.request = Objects.requireNonNull(request);
-    this.response = Objects.requireNonNull(response);
+    this.requestFactory = Objects.requireNonNull(requestFactory);
+    this.pricesRequestFactory = Objects.requireNonNull(pricesRequestFactory);
+    this.responseFactory = Objects.requireNonNull(responseFactory);
+    this.masterData = new ConcurrentHashMap<>();
   }
 
   @Override
-  public List<PetrolStation> findAllInNeighbourhood(Geo geo) {
+  public TransactResult<List<PetrolStation>> findAllInNeighbourhood(Geo geo) {
+    long startNanos = System.nanoTime();
+
+    GeoRequest request = requestFactory.get();
     request.setGeoUrlParameters(geo);
-    response.reset();
 
     // It's guaranteed by newCall(...) that returned response is not null.
-    response = httpClient.newCall(request, response, String.class);
+    Response response = httpClient.newCall(request, responseFactory.get(), Reader.class);
 
     Objects.requireNonNull(response, "Response is null.");
 
@@ -77,28 +105,205 @@ public class TankerkoenigPetrolStationsRepo implements PetrolStationsRepo {
     */
 
     if (response.getBody() == null)
-      return new ArrayList<>();
+      return createResult(new ArrayList<>(), response, startNanos);
 
-    // Get body data from server response.
-    String jsonString = response.getBody().getData(String.class);
+    // Get body data from server response, streamed straight off the connection.
+    Reader jsonReader = response.getBody().getData(Reader.class);
 
-    /*
-    Deserialize data from JSON data which are of informal type -
-    like status, licence string, error message because of wrong API key etc.
-    Note: Response objects will be mutated there. No need to retrieve any results here.
-    */
-    ((JsonResponse) response).fromJson(jsonString, TankerkoenigResponse.ResponseDto.class);
+    if (jsonReader == null) {
+      // Let the response object report the missing JSON data.
+      ((JsonResponse) response).fromJson((String) null, TankerkoenigResponse.ResponseDto.class);
+      return createResult(new ArrayList<>(), response, startNanos);
+    }
 
     /*
+    Deserialize informal data (status, licence string, error message because of wrong API key
+    etc.) and all petrol stations within one single pass over the JSON document.
     At this point we assert a valid JSON document - well formed and determined
     by the webservice's API. So all following processing should crash only if _we_
     messed things up.
     */
-    return tankerkoenigPetrolStationsJsonAdapter.createPetrolStations(jsonString);
+    TankerkoenigJsonAdapter.ListResponse listResponse;
+
+    try {
+      listResponse = tankerkoenigPetrolStationsJsonAdapter.readListResponse(jsonReader);
+    }
+    finally {
+      closeQuietly(jsonReader);
+    }
+
+    listResponse.getResponseDto().applyTo(response.getTransactInfo());
+
+    if (!response.getTransactInfo().getErrorMessage().isPresent())
+      replaceMasterData(listResponse.getPetrolStations());
+
+    return createResult(listResponse.getPetrolStations(), response, startNanos);
   }
 
+  /**
+   * {@inheritDoc}
+   * <br><br>
+   * Uses the prices.php webservice, which accepts up to
+   * {@value TankerkoenigPricesRequest#MAX_STATION_IDS} IDs per request. More IDs are split
+   * into batches, which are requested in parallel. If some batch fails, the stations of all
+   * other batches are returned along with the error info of the failed one.
+   * <br><br>
+   * The batches are sent only if all of them can be sent right away within the rate limit of
+   * the {@link HttpClient}. Otherwise some of them would be rejected, and so would be the
+   * complete search which follows an incomplete refresh. In that case no call is done at all
+   * and an empty list is returned, leaving the quota to one complete search.
+   */
   @Override
-  public TransactInfo getTransactInfo() {
-    return this.response.getTransactInfo();
+  public TransactResult<List<PetrolStation>> refreshPrices(Collection<UUID> uuids) {
+    Objects.requireNonNull(uuids, "uuids must not be null.");
+    long startNanos = System.nanoTime();
+
+    List<UUID> knownUuids = uuids.stream()
+        .distinct()
+        .filter(this::isMasterDataKnown)
+        .collect(Collectors.toList());
+
+    if (knownUuids.isEmpty())
+      return createResult(new ArrayList<>(), responseFactory.get(), startNanos);
+
+    int batchCount = (knownUuids.size() + TankerkoenigPricesRequest.MAX_STATION_IDS - 1)
+        / TankerkoenigPricesRequest.MAX_STATION_IDS;
+    int availableCalls = httpClient.getAvailableCalls(pricesRequestFactory.get());
+
+    if (batchCount > availableCalls) {
+      LOGGER.info("Refreshing prices takes " + batchCount + " calls, but only "
+          + availableCalls + " are available within the rate limit.");
+      return createResult(new ArrayList<>(), responseFactory.get(), startNanos);
+    }
+
+    List<CompletableFuture<Response>> calls = new ArrayList<>();
+
+    for (int i = 0; i < knownUuids.size(); i += TankerkoenigPricesRequest.MAX_STATION_IDS) {
+      int end = Math.min(i + TankerkoenigPricesRequest.MAX_STATION_IDS, knownUuids.size());
+      calls.add(sendPricesRequest(knownUuids.subList(i, end)));
+    }
+
+    Map<UUID, PetrolStation> refreshedStations = new HashMap<>();
+    Response failedResponse = null;
+    Response lastResponse = null;
+
+    try {
+      for (CompletableFuture<Response> call : calls) {
+        // It's guaranteed by newCallAsync(...) that the future completes with a response.
+        lastResponse = call.join();
+        mergePrices(lastResponse, refreshedStations);
+
+        if (failedResponse == null && lastResponse.getTransactInfo().getErrorMessage().isPresent())
+          failedResponse = lastResponse;
+      }
+    }
+    catch (RuntimeException e) {
+      calls.forEach(this::discard);
+      throw e;
+    }
+
+    List<PetrolStation> petrolStations = knownUuids.stream()
+        .map(refreshedStations::get)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toList());
+
+    return createResult(
+        petrolStations,
+        failedResponse != null ? failedResponse : lastResponse,
+        startNanos);
+  }
+
+  /*
+  Stations which left the neighbourhood (or a former neighbourhood, if the user's location has
+  changed) are dropped, so the master data doesn't grow with each search.
+  */
+  private void replaceMasterData(List<PetrolStation> petrolStations) {
+    Map<UUID, PetrolStation> newMasterData = new ConcurrentHashMap<>();
+    petrolStations.forEach(station -> newMasterData.put(station.getUuid(), station));
+
+    this.masterData = newMasterData;
+  }
+
+  private boolean isMasterDataKnown(UUID uuid) {
+    if (masterData.containsKey(uuid))
+      return true;
+
+    LOGGER.warning("Master data of petrol station " + uuid + " unknown, skipping price refresh.");
+    return false;
+  }
+
+  private CompletableFuture<Response> sendPricesRequest(List<UUID> uuids) {
+    StationIdsRequest request = pricesRequestFactory.get();
+    request.setStationIdsUrlParameter(uuids);
+
+    return httpClient.newCallAsync(request, responseFactory.get(), Reader.class);
+  }
+
+  // Releases the connection of a call whose body won't be read anymore.
+  private void discard(CompletableFuture<Response> call) {
+    if (call.cancel(true))
+      return;
+
+    call.thenAccept(response -> {
+      if (response.getBody() != null && response.getBody().getData(Reader.class) != null)
+        closeQuietly(response.getBody().getData(Reader.class));
+    });
+  }
+
+  private void mergePrices(Response response, Map<UUID, PetrolStation> refreshedStations) {
+    if (response.getBody() == null)
+      return;
+
+    Reader jsonReader = response.getBody().getData(Reader.class);
+
+    if (jsonReader == null) {
+      // Let the response object report the missing JSON data.
+      ((JsonResponse) response).fromJson((String) null, TankerkoenigResponse.ResponseDto.class);
+      return;
+    }
+
+    TankerkoenigJsonAdapter.PricesResponse pricesResponse;
+
+    try {
+      pricesResponse = tankerkoenigPetrolStationsJsonAdapter.readPricesResponse(jsonReader);
+    }
+    finally {
+      closeQuietly(jsonReader);
+    }
+
+    pricesResponse.getResponseDto().applyTo(response.getTransactInfo());
+
+    pricesResponse.getPrices().forEach((uuid, prices) -> {
+      PetrolStation station = masterData.get(uuid);
+
+      if (station == null || !prices.isFound()) {
+        LOGGER.warning("Prices of petrol station " + uuid + ": " + prices.getStatus());
+        return;
+      }
+
+      PetrolStation refreshedStation = station.withPrices(prices.isOpen(), prices.getPetrols());
+      masterData.put(uuid, refreshedStation);
+      refreshedStations.put(uuid, refreshedStation);
+    });
+  }
+
+  private static TransactResult<List<PetrolStation>> createResult(
+      List<PetrolStation> petrolStations,
+      Response response,
+      long startNanos) {
+
+    return TransactResult.of(
+        petrolStations,
+        response.getTransactInfo(),
+        Duration.ofNanos(System.nanoTime() - startNanos));
+  }
+
+  private void closeQuietly(Reader reader) {
+    try {
+      reader.close();
+    }
+    catch (IOException e) {
+      LOGGER.warning("Closing response body failed. " + e.getMessage());
+    }
   }
 }
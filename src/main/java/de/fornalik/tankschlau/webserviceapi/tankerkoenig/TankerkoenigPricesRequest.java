@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fornalik.tankschlau.webserviceapi.tankerkoenig;
+
+import de.fornalik.tankschlau.net.BaseRequest;
+import de.fornalik.tankschlau.user.ApiKeyManager;
+import de.fornalik.tankschlau.util.StringLegalizer;
+import de.fornalik.tankschlau.webserviceapi.common.StationIdsRequest;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of {@link StationIdsRequest} for the prices.php web service of tankerkoenig.de,
+ * which delivers only open state and prices of up to {@value MAX_STATION_IDS} stations.
+ */
+public class TankerkoenigPricesRequest extends BaseRequest implements StationIdsRequest {
+  /**
+   * Maximum number of station IDs per request, as defined by the web service API.
+   */
+  public static final int MAX_STATION_IDS = 10;
+
+  private static final String BASE_URL =
+      "https://creativecommons.tankerkoenig.de/json/prices.php";
+  private static final HttpMethod HTTP_METHOD = HttpMethod.GET;
+  private static final String ACCEPT_JSON = "application/json; charset=utf-8";
+  private ApiKeyManager apiKeyManager;
+
+  private TankerkoenigPricesRequest() {}
+
+  /**
+   * Creates a new HTTP request object for web service Tankerkoenig.de to get current prices of
+   * petrol stations with known IDs.
+   *
+   * @param apiKeyManager Service which controls handling of the web service api key.
+   * @return A new {@link TankerkoenigPricesRequest} instance.
+   */
+  public static StationIdsRequest create(ApiKeyManager apiKeyManager) {
+    TankerkoenigPricesRequest instance = new TankerkoenigPricesRequest();
+
+    instance.apiKeyManager = Objects.requireNonNull(
+        apiKeyManager,
+        "apiKeyManager must not be null.");
+
+    instance.setApiKeyId(apiKeyManager.getId());
+
+    instance.setBaseData();
+    instance.setApiKeyParameter();
+
+    return instance;
+  }
+
+  @Override
+  public void setStationIdsUrlParameter(Collection<UUID> uuids) {
+    Objects.requireNonNull(uuids, "uuids must not be null.");
+
+    if (uuids.isEmpty() || uuids.size() > MAX_STATION_IDS)
+      throw new IllegalArgumentException(
+          "Number of station IDs must be between 1 and " + MAX_STATION_IDS + ", but was "
+              + uuids.size());
+
+    putUrlParameter("ids", uuids.stream()
+        .map(UUID::toString)
+        .collect(Collectors.joining(",")));
+
+    // Additionally, refresh the API key parameter in case the API key has changed within GUI or so.
+    setApiKeyParameter();
+  }
+
+  private void setBaseData() {
+    setBaseUrl(StringLegalizer.create(BASE_URL).mandatory().toUrl());
+    setHttpMethod(HTTP_METHOD);
+    putHeader("Accept", ACCEPT_JSON);
+  }
+
+  private void setApiKeyParameter() {
+    apiKeyManager.read().ifPresent(value -> putUrlParameter("apikey", value));
+  }
+}
@@ -50,6 +50,8 @@ public class TankerkoenigRequest extends BaseRequest implements GeoRequest {
         apiKeyManager,
         "apiKeyManager must not be null.");
 
+    instance.setApiKeyId(apiKeyManager.getId());
+
     instance.setBaseData();
     instance.setCommonUrlParameters();
 
@@ -16,14 +16,19 @@
 
 package de.fornalik.tankschlau.webserviceapi.tankerkoenig;
 
-import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import de.fornalik.tankschlau.net.BaseResponse;
 import de.fornalik.tankschlau.net.JsonResponse;
 import de.fornalik.tankschlau.net.ResponseBody;
 import de.fornalik.tankschlau.service.TransactInfo;
+import de.fornalik.tankschlau.util.JsonProvider;
+import de.fornalik.tankschlau.util.JsonReaderHelper;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
+import java.io.Reader;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.logging.Logger;
@@ -34,10 +39,10 @@ import java.util.logging.Logger;
  */
 public class TankerkoenigResponse extends BaseResponse implements JsonResponse {
   private static final Logger LOGGER = Logger.getLogger(TankerkoenigResponse.class.getName());
-  private final Gson jsonProvider;
+  private final JsonProvider jsonProvider;
 
   public TankerkoenigResponse(
-      Gson jsonProvider,
+      JsonProvider jsonProvider,
       ResponseBody responseBody,
       TransactInfo transactInfo) {
 
@@ -49,26 +54,29 @@ public class TankerkoenigResponse extends BaseResponse implements JsonResponse {
   public <T> Optional<T> fromJson(String jsonString, Class<T> targetClass) {
     // Deserialize root level data of of the webservice's JSON response and push it
     // into our existing TransactInfo object.
-    ResponseDto responseDto = jsonProvider.fromJson(jsonString, (Type) targetClass);
+    ResponseDto responseDto = jsonProvider.fromJson(jsonString, ResponseDto.class);
+    processResponseDto(responseDto, "JSON string could not be converted. String is: " + jsonString);
 
+    return Optional.empty();
+  }
+
+  @Override
+  public <T> Optional<T> fromJson(Reader jsonReader, Class<T> targetClass) {
+    ResponseDto responseDto = jsonProvider.fromJson(jsonReader, ResponseDto.class);
+    processResponseDto(responseDto, "JSON document could not be converted.");
+
+    return Optional.empty();
+  }
+
+  private void processResponseDto(ResponseDto responseDto, String errMsgIfNull) {
     if (responseDto == null) {
-      String errMsg = "JSON string could not be converted. String is: " + jsonString;
-      getTransactInfo().setErrorMessage(errMsg);
+      getTransactInfo().setErrorMessage(errMsgIfNull);
       getTransactInfo().setStatus("ERROR");
-      LOGGER.warning(errMsg);
+      LOGGER.warning(errMsgIfNull);
     }
     else {
-      if (!responseDto.getStatus().isEmpty())
-        getTransactInfo().setStatus(responseDto.getStatus());
-
-      if (!responseDto.getMessage().isEmpty())
-        getTransactInfo().setErrorMessage(responseDto.getMessage());
-
-      if (!responseDto.getLicense().isEmpty())
-        getTransactInfo().setLicence(responseDto.getLicense());
+      responseDto.applyTo(getTransactInfo());
     }
-
-    return Optional.empty();
   }
 
   /**
@@ -82,6 +90,14 @@ public class TankerkoenigResponse extends BaseResponse implements JsonResponse {
     @SerializedName("status") private String status;
     @SerializedName("message") private String message;
 
+    public boolean isOk() {
+      return ok;
+    }
+
+    void setOk(boolean ok) {
+      this.ok = ok;
+    }
+
     public String getLicense() {
       return nullToEmpty(license);
     }
@@ -94,8 +110,106 @@ public class TankerkoenigResponse extends BaseResponse implements JsonResponse {
       return nullToEmpty(message);
     }
 
+    void setLicense(String license) {
+      this.license = license;
+    }
+
+    void setStatus(String status) {
+      this.status = status;
+    }
+
+    void setMessage(String message) {
+      this.message = message;
+    }
+
+    /**
+     * Pushes the non-empty root level data of the webservice response into the given
+     * {@link TransactInfo}.
+     *
+     * @param transactInfo The {@link TransactInfo} to be mutated.
+     */
+    public void applyTo(TransactInfo transactInfo) {
+      if (!getStatus().isEmpty())
+        transactInfo.setStatus(getStatus());
+
+      if (!getMessage().isEmpty())
+        transactInfo.setErrorMessage(getMessage());
+
+      if (!getLicense().isEmpty())
+        transactInfo.setLicence(getLicense());
+    }
+
     private String nullToEmpty(String s) {
       return s != null ? s : "";
     }
   }
+
+  /**
+   * Streaming Gson JSON adapter for {@link ResponseDto}. Reads only the root level
+   * elements ok, license, status and message - all other elements (ex. "stations") are skipped
+   * without being materialized.
+   */
+  public static class ResponseDtoJsonAdapter extends TypeAdapter<ResponseDto> {
+
+    @Override
+    public ResponseDto read(JsonReader in) throws IOException {
+      ResponseDto responseDto = new ResponseDto();
+
+      in.beginObject();
+
+      while (in.hasNext()) {
+        if (!readField(in.nextName(), in, responseDto))
+          in.skipValue();
+      }
+
+      in.endObject();
+
+      return responseDto;
+    }
+
+    /**
+     * Reads one root level element into the given {@link ResponseDto}. Lets readers of a
+     * complete response pick the root level data while they handle all other elements.
+     *
+     * @param name        Name of the current JSON element.
+     * @param in          Reader, positioned at the value of the element.
+     * @param responseDto The {@link ResponseDto} to be mutated.
+     * @return True if the element has been consumed, false if it is no root level data element.
+     * @throws IOException If reading the value fails.
+     */
+    static boolean readField(String name, JsonReader in, ResponseDto responseDto)
+    throws IOException {
+
+      switch (name) {
+        case "ok":
+          responseDto.setOk(JsonReaderHelper.nextBooleanOrFalse(in));
+          return true;
+
+        case "license":
+          responseDto.setLicense(JsonReaderHelper.nextStringOrNull(in));
+          return true;
+
+        case "status":
+          responseDto.setStatus(JsonReaderHelper.nextStringOrNull(in));
+          return true;
+
+        case "message":
+          responseDto.setMessage(JsonReaderHelper.nextStringOrNull(in));
+          return true;
+
+        default:
+          return false;
+      }
+    }
+
+    @Override
+    public void write(JsonWriter out, ResponseDto responseDto) throws IOException {
+      out.beginObject();
+      out.name("ok").value(responseDto.ok);
+      out.name("license").value(responseDto.license);
+      out.name("status").value(responseDto.status);
+      out.name("message").value(responseDto.message);
+      out.endObject();
+    }
+  }
 }
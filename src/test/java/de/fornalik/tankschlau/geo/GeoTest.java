@@ -173,6 +173,63 @@ class GeoTest {
     assertFalse(equalityProven);
   }
 
+  @Test
+  void haversineDistance_returnsGreatCircleDistance() {
+    // One degree along a meridian is a 360th of the circumference.
+    assertEquals(
+        2 * Math.PI * Geo.EARTH_RADIUS_KM / 360,
+        Geo.haversineDistance(52.0, 13.0, 53.0, 13.0),
+        1e-9);
+
+    // Berlin to Munich
+    assertEquals(504.2, Geo.haversineDistance(52.5200, 13.4050, 48.1351, 11.5820), 0.5);
+
+    // Across the antimeridian
+    assertEquals(
+        Geo.haversineDistance(0.0, 0.0, 0.0, 2.0),
+        Geo.haversineDistance(0.0, 179.0, 0.0, -179.0),
+        1e-9);
+
+    assertEquals(0.0, Geo.haversineDistance(52.5, 13.4, 52.5, 13.4));
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+      "52.5200, 13.4050, 52.5300, 13.4500",
+      "52.5200, 13.4050, 52.3000, 13.1000",
+      "48.1351, 11.5820, 48.4000, 11.9000",
+      "0.0, 179.9, 0.1, -179.9"})
+  void equirectangularDistance_isCloseToHaversineDistanceWithinSearchRadius(
+      double lat1,
+      double lon1,
+      double lat2,
+      double lon2) {
+
+    // given
+    double expected = Geo.haversineDistance(lat1, lon1, lat2, lon2);
+
+    // when
+    double actual = Geo.equirectangularDistance(lat1, lon1, lat2, lon2);
+
+    // then
+    assertEquals(expected, actual, expected * 0.001);
+  }
+
+  @Test
+  void distanceTo_returnsHaversineDistance() {
+    // given
+    Geo berlin = new Geo(52.5200, 13.4050, 3.0);
+    Geo munich = new Geo(48.1351, 11.5820);
+
+    // when
+    double actual = berlin.distanceTo(munich);
+
+    // then
+    assertEquals(Geo.haversineDistance(52.5200, 13.4050, 48.1351, 11.5820), actual);
+    assertEquals(actual, munich.distanceTo(berlin), 1e-9);
+    assertEquals(Optional.of(3.0), berlin.getDistance());
+  }
+
   @Test
   void toString_doesNotThrow() {
     // given
@@ -0,0 +1,100 @@
+package de.fornalik.tankschlau.net;
+
+import okhttp3.Dns;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingDnsTest {
+  private static final Duration TTL = Duration.ofSeconds(60);
+
+  private AtomicLong nanoTime;
+  private AtomicInteger lookupCount;
+  private boolean failLookup;
+  private CachingDns cachingDns; // SUT
+
+  @BeforeEach
+  void setUp() {
+    nanoTime = new AtomicLong(1000L);
+    lookupCount = new AtomicInteger();
+    failLookup = false;
+
+    Dns delegate = hostname -> {
+      lookupCount.incrementAndGet();
+
+      if (failLookup)
+        throw new UnknownHostException(hostname);
+
+      return Collections.singletonList(InetAddress.getByAddress(hostname, new byte[]{1, 2, 3, 4}));
+    };
+
+    cachingDns = new CachingDns(delegate, TTL, nanoTime::get);
+  }
+
+  @Test
+  void lookup_returnsCachedAddressesWithinTtl() throws UnknownHostException {
+    // given
+    List<InetAddress> firstResult = cachingDns.lookup("some.host");
+    nanoTime.addAndGet(TTL.toNanos() - 1);
+
+    // when
+    List<InetAddress> secondResult = cachingDns.lookup("some.host");
+
+    // then
+    assertEquals(1, lookupCount.get());
+    assertEquals(firstResult, secondResult);
+  }
+
+  @Test
+  void lookup_looksUpAgainAfterTtlExpired() throws UnknownHostException {
+    // given
+    cachingDns.lookup("some.host");
+    nanoTime.addAndGet(TTL.toNanos());
+
+    // when
+    cachingDns.lookup("some.host");
+
+    // then
+    assertEquals(2, lookupCount.get());
+  }
+
+  @Test
+  void lookup_cachesEachHostSeparately() throws UnknownHostException {
+    // when
+    cachingDns.lookup("some.host");
+    cachingDns.lookup("other.host");
+    cachingDns.lookup("some.host");
+
+    // then
+    assertEquals(2, lookupCount.get());
+  }
+
+  @Test
+  void lookup_doesNotCacheFailedLookups() {
+    // given
+    failLookup = true;
+
+    // when
+    assertThrows(UnknownHostException.class, () -> cachingDns.lookup("some.host"));
+    assertThrows(UnknownHostException.class, () -> cachingDns.lookup("some.host"));
+
+    // then
+    assertEquals(2, lookupCount.get());
+  }
+
+  @Test
+  void construct_throwsIfTtlIsNotPositive() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new CachingDns(Dns.SYSTEM, Duration.ZERO));
+  }
+}
@@ -0,0 +1,115 @@
+package de.fornalik.tankschlau.net;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+  private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+
+  private AtomicLong nanoTime;
+  private CircuitBreaker circuitBreaker; // SUT
+
+  @BeforeEach
+  void setUp() {
+    nanoTime = new AtomicLong(0);
+    circuitBreaker = new CircuitBreaker(3, OPEN_DURATION, nanoTime::get);
+  }
+
+  @Test
+  void tryAcquire_allowsCallsWhileFailuresAreBelowThreshold() {
+    // given
+    circuitBreaker.recordFailure();
+    circuitBreaker.recordFailure();
+
+    // when, then
+    assertTrue(circuitBreaker.tryAcquire());
+    assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+  }
+
+  @Test
+  void tryAcquire_rejectsCallsAfterThresholdIsReached() {
+    // given
+    helpRecordFailures(3);
+
+    // when, then
+    assertFalse(circuitBreaker.tryAcquire());
+    assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+  }
+
+  @Test
+  void recordSuccess_resetsConsecutiveFailures() {
+    // given
+    helpRecordFailures(2);
+    circuitBreaker.recordSuccess();
+    helpRecordFailures(2);
+
+    // when, then
+    assertTrue(circuitBreaker.tryAcquire());
+  }
+
+  @Test
+  void tryAcquire_letsSingleTrialCallThroughAfterOpenDuration() {
+    // given
+    helpRecordFailures(3);
+    nanoTime.addAndGet(OPEN_DURATION.toNanos());
+
+    // when, then
+    assertTrue(circuitBreaker.tryAcquire());
+    assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+    assertFalse(circuitBreaker.tryAcquire());
+  }
+
+  @Test
+  void recordSuccess_closesBreakerAfterSuccessfulTrial() {
+    // given
+    helpRecordFailures(3);
+    nanoTime.addAndGet(OPEN_DURATION.toNanos());
+    circuitBreaker.tryAcquire();
+
+    // when
+    circuitBreaker.recordSuccess();
+
+    // then
+    assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    assertTrue(circuitBreaker.tryAcquire());
+  }
+
+  @Test
+  void recordFailure_reopensBreakerAfterFailedTrial() {
+    // given
+    helpRecordFailures(3);
+    nanoTime.addAndGet(OPEN_DURATION.toNanos());
+    circuitBreaker.tryAcquire();
+
+    // when
+    circuitBreaker.recordFailure();
+
+    // then
+    assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    assertFalse(circuitBreaker.tryAcquire());
+  }
+
+  @Test
+  void release_allowsAnotherTrialCall() {
+    // given
+    helpRecordFailures(3);
+    nanoTime.addAndGet(OPEN_DURATION.toNanos());
+    circuitBreaker.tryAcquire();
+
+    // when
+    circuitBreaker.release();
+
+    // then
+    assertTrue(circuitBreaker.tryAcquire());
+  }
+
+  private void helpRecordFailures(int count) {
+    for (int i = 0; i < count; i++)
+      circuitBreaker.recordFailure();
+  }
+}
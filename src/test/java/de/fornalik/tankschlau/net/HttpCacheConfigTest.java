@@ -0,0 +1,110 @@
+package de.fornalik.tankschlau.net;
+
+import de.fornalik.tankschlau.user.PropertyReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpCacheConfigTest {
+  private Map<String, String> properties;
+  private PropertyReader propertyReader;
+  private Path defaultDirectory;
+
+  @BeforeEach
+  void setUp() {
+    properties = new HashMap<>();
+    propertyReader = properties::get;
+    defaultDirectory = Paths.get("some", "default", "dir");
+  }
+
+  @Test
+  void fromProperties_usesDefaultsIfPropertiesAreMissing() {
+    // when
+    HttpCacheConfig config = HttpCacheConfig.fromProperties(propertyReader, defaultDirectory);
+
+    // then
+    assertEquals(defaultDirectory, config.getDirectory());
+    assertEquals(HttpCacheConfig.DEFAULT_MAX_SIZE_MB * 1024 * 1024, config.getMaxSizeBytes());
+    assertFalse(config.isEnabled());
+  }
+
+  @Test
+  void fromProperties_readsGivenProperties() {
+    // given
+    properties.put("httpCacheDir", "/tmp/some-cache");
+    properties.put("httpCacheMaxSizeMb", "5");
+
+    // when
+    HttpCacheConfig config = HttpCacheConfig.fromProperties(propertyReader, defaultDirectory);
+
+    // then
+    assertEquals(Paths.get("/tmp/some-cache"), config.getDirectory());
+    assertEquals(5L * 1024 * 1024, config.getMaxSizeBytes());
+    assertTrue(config.isEnabled());
+  }
+
+  @Test
+  void fromProperties_fallsBackToDefaultsForInvalidValues() {
+    // given
+    properties.put("httpCacheMaxSizeMb", "not a number");
+
+    // when
+    HttpCacheConfig config = HttpCacheConfig.fromProperties(propertyReader, defaultDirectory);
+
+    // then
+    assertEquals(HttpCacheConfig.DEFAULT_MAX_SIZE_MB * 1024 * 1024, config.getMaxSizeBytes());
+  }
+
+  @Test
+  void fromProperties_disablesCacheIfMaxSizeIsZero() {
+    // given
+    properties.put("httpCacheMaxSizeMb", "0");
+
+    // when
+    HttpCacheConfig config = HttpCacheConfig.fromProperties(propertyReader, defaultDirectory);
+
+    // then
+    assertFalse(config.isEnabled());
+  }
+
+  @Test
+  void construct_throwsOnNegativeMaxSize() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new HttpCacheConfig(defaultDirectory, -1));
+  }
+
+  @Test
+  void applyTo_installsCacheIntoBuilder() {
+    // given
+    HttpCacheConfig config = new HttpCacheConfig(defaultDirectory, 1024);
+
+    // when
+    okhttp3.OkHttpClient client = config.applyTo(new okhttp3.OkHttpClient.Builder()).build();
+
+    // then
+    assertNotNull(client.cache());
+    assertEquals(defaultDirectory.toFile(), client.cache().directory());
+    assertEquals(1024, client.cache().maxSize());
+    assertTrue(client.interceptors().isEmpty());
+  }
+
+  @Test
+  void applyTo_doesNothingIfCacheIsDisabled() {
+    // given
+    HttpCacheConfig config = new HttpCacheConfig(defaultDirectory, 0);
+
+    // when
+    okhttp3.OkHttpClient client = config.applyTo(new okhttp3.OkHttpClient.Builder()).build();
+
+    // then
+    assertNull(client.cache());
+    assertTrue(client.interceptors().isEmpty());
+  }
+}
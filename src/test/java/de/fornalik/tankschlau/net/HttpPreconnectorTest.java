@@ -0,0 +1,54 @@
+package de.fornalik.tankschlau.net;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class HttpPreconnectorTest {
+
+  @Test
+  void preconnect_enqueuesHeadRequestForEachHost() {
+    // given
+    okhttp3.OkHttpClient okHttp3ClientMock = mock(okhttp3.OkHttpClient.class);
+    okhttp3.Call callMock = mock(okhttp3.Call.class);
+    when(okHttp3ClientMock.newCall(any())).thenReturn(callMock);
+
+    HttpPreconnector preconnector = new HttpPreconnector(
+        okHttp3ClientMock,
+        Arrays.asList("some.host", "other.host"));
+
+    // when
+    preconnector.preconnect();
+
+    // then
+    ArgumentCaptor<okhttp3.Request> requestCaptor = ArgumentCaptor.forClass(okhttp3.Request.class);
+    verify(okHttp3ClientMock, times(2)).newCall(requestCaptor.capture());
+    verify(callMock, times(2)).enqueue(any());
+
+    List<okhttp3.Request> requests = requestCaptor.getAllValues();
+    assertEquals("https://some.host/", requests.get(0).url().toString());
+    assertEquals("https://other.host/", requests.get(1).url().toString());
+    assertEquals("HEAD", requests.get(0).method());
+  }
+
+  @Test
+  void preconnect_doesNothingWithoutHosts() {
+    // given
+    okhttp3.OkHttpClient okHttp3ClientMock = mock(okhttp3.OkHttpClient.class);
+    HttpPreconnector preconnector = new HttpPreconnector(
+        okHttp3ClientMock,
+        Collections.emptyList());
+
+    // when
+    preconnector.preconnect();
+
+    // then
+    verifyNoInteractions(okHttp3ClientMock);
+  }
+}
@@ -0,0 +1,173 @@
+package de.fornalik.tankschlau.net;
+
+import de.fornalik.tankschlau.user.PropertyReader;
+import okhttp3.HttpUrl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpTransportConfigTest {
+  private Map<String, String> properties;
+  private PropertyReader propertyReader;
+
+  @BeforeEach
+  void setUp() {
+    properties = new HashMap<>();
+    propertyReader = properties::get;
+  }
+
+  @Test
+  void fromProperties_usesDefaultsIfPropertiesAreMissing() {
+    // when
+    HttpTransportConfig config = HttpTransportConfig.fromProperties(propertyReader);
+
+    // then
+    assertEquals(
+        HttpTransportConfig.DEFAULT_MAX_IDLE_CONNECTIONS,
+        config.getMaxIdleConnections());
+    assertEquals(HttpTransportConfig.DEFAULT_KEEP_ALIVE, config.getKeepAlive());
+    assertEquals(HttpTransportConfig.DEFAULT_MAX_REQUESTS, config.getMaxRequests());
+    assertEquals(
+        HttpTransportConfig.DEFAULT_MAX_REQUESTS_PER_HOST,
+        config.getMaxRequestsPerHost());
+    assertEquals(HttpTransportConfig.DEFAULT_CONNECT_TIMEOUT, config.getConnectTimeout());
+    assertEquals(HttpTransportConfig.DEFAULT_READ_TIMEOUT, config.getReadTimeout());
+    assertEquals(HttpTransportConfig.DEFAULT_CALL_TIMEOUT, config.getCallTimeout());
+    assertEquals(HttpTransportConfig.DEFAULT_DNS_TTL, config.getDnsTtl());
+    assertEquals(HttpTransportConfig.DEFAULT_PRECONNECT_HOSTS, config.getPreconnectHosts());
+  }
+
+  @Test
+  void fromProperties_readsGivenProperties() {
+    // given
+    properties.put("httpMaxIdleConnections", "3");
+    properties.put("httpKeepAliveSeconds", "120");
+    properties.put("httpMaxRequests", "16");
+    properties.put("httpMaxRequestsPerHost", "2");
+    properties.put("httpConnectTimeoutMs", "1500");
+    properties.put("httpReadTimeoutMs", "2500");
+    properties.put("httpCallTimeoutMs", "5000");
+    properties.put("httpDnsTtlSeconds", "30");
+    properties.put("httpPreconnect", "false");
+
+    // when
+    HttpTransportConfig config = HttpTransportConfig.fromProperties(propertyReader);
+
+    // then
+    assertEquals(3, config.getMaxIdleConnections());
+    assertEquals(Duration.ofSeconds(120), config.getKeepAlive());
+    assertEquals(16, config.getMaxRequests());
+    assertEquals(2, config.getMaxRequestsPerHost());
+    assertEquals(Duration.ofMillis(1500), config.getConnectTimeout());
+    assertEquals(Duration.ofMillis(2500), config.getReadTimeout());
+    assertEquals(Duration.ofMillis(5000), config.getCallTimeout());
+    assertEquals(Duration.ofSeconds(30), config.getDnsTtl());
+    assertTrue(config.getPreconnectHosts().isEmpty());
+  }
+
+  @Test
+  void fromProperties_fallsBackToDefaultsForInvalidValues() {
+    // given
+    properties.put("httpMaxRequestsPerHost", "0");
+    properties.put("httpConnectTimeoutMs", "ten");
+    properties.put("httpPreconnect", "maybe");
+
+    // when
+    HttpTransportConfig config = HttpTransportConfig.fromProperties(propertyReader);
+
+    // then
+    assertEquals(
+        HttpTransportConfig.DEFAULT_MAX_REQUESTS_PER_HOST,
+        config.getMaxRequestsPerHost());
+    assertEquals(HttpTransportConfig.DEFAULT_CONNECT_TIMEOUT, config.getConnectTimeout());
+    assertEquals(HttpTransportConfig.DEFAULT_PRECONNECT_HOSTS, config.getPreconnectHosts());
+  }
+
+  @Test
+  void applyTo_installsSettingsIntoBuilder() {
+    // given
+    properties.put("httpMaxRequestsPerHost", "2");
+    properties.put("httpConnectTimeoutMs", "1500");
+    properties.put("httpReadTimeoutMs", "2500");
+    properties.put("httpCallTimeoutMs", "5000");
+    HttpTransportConfig config = HttpTransportConfig.fromProperties(propertyReader);
+
+    // when
+    okhttp3.OkHttpClient client = config.applyTo(new okhttp3.OkHttpClient.Builder()).build();
+
+    // then
+    assertEquals(2, client.dispatcher().getMaxRequestsPerHost());
+    assertEquals(HttpTransportConfig.DEFAULT_MAX_REQUESTS, client.dispatcher().getMaxRequests());
+    assertEquals(1500, client.connectTimeoutMillis());
+    assertEquals(2500, client.readTimeoutMillis());
+    assertEquals(5000, client.callTimeoutMillis());
+    assertTrue(client.dns() instanceof CachingDns);
+    assertTrue(client.socketFactory() instanceof NoDelaySocketFactory);
+  }
+
+  @Test
+  void applyTo_doesNotCacheDnsIfTtlIsZero() {
+    // given
+    properties.put("httpDnsTtlSeconds", "0");
+    HttpTransportConfig config = HttpTransportConfig.fromProperties(propertyReader);
+
+    // when
+    okhttp3.OkHttpClient client = config.applyTo(new okhttp3.OkHttpClient.Builder()).build();
+
+    // then
+    assertFalse(client.dns() instanceof CachingDns);
+  }
+
+  @Test
+  void fromProperties_readsUpstreamOverrideAndDisablesPreconnecting() {
+    // given
+    properties.put("httpUpstreamOverride", "http://localhost:8089");
+
+    // when
+    HttpTransportConfig config = HttpTransportConfig.fromProperties(propertyReader);
+
+    // then
+    assertEquals(
+        Optional.of(HttpUrl.get("http://localhost:8089/")),
+        config.getUpstreamOverride());
+    assertTrue(config.getPreconnectHosts().isEmpty());
+  }
+
+  @Test
+  void fromProperties_ignoresInvalidUpstreamOverride() {
+    // given
+    properties.put("httpUpstreamOverride", "localhost:8089");
+
+    // when
+    HttpTransportConfig config = HttpTransportConfig.fromProperties(propertyReader);
+
+    // then
+    assertFalse(config.getUpstreamOverride().isPresent());
+    assertEquals(HttpTransportConfig.DEFAULT_PRECONNECT_HOSTS, config.getPreconnectHosts());
+  }
+
+  @Test
+  void applyTo_installsUpstreamOverrideInterceptorOnlyIfConfigured() {
+    // given
+    HttpTransportConfig defaultConfig = HttpTransportConfig.fromProperties(propertyReader);
+    properties.put("httpUpstreamOverride", "http://localhost:8089");
+    HttpTransportConfig overrideConfig = HttpTransportConfig.fromProperties(propertyReader);
+
+    // when
+    okhttp3.OkHttpClient defaultClient =
+        defaultConfig.applyTo(new okhttp3.OkHttpClient.Builder()).build();
+    okhttp3.OkHttpClient overrideClient =
+        overrideConfig.applyTo(new okhttp3.OkHttpClient.Builder()).build();
+
+    // then
+    assertTrue(defaultClient.interceptors().isEmpty());
+    assertEquals(1, overrideClient.interceptors().size());
+    assertTrue(overrideClient.interceptors().get(0) instanceof UpstreamOverrideInterceptor);
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.net;
+
+import okio.Buffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonRequestBodyTest {
+  private JsonRequestImpl jsonRequest;
+  private JsonRequestBody jsonRequestBody;
+
+  @BeforeEach
+  void setUp() {
+    jsonRequest = new JsonRequestImpl();
+    jsonRequestBody = new JsonRequestBody(jsonRequest);
+  }
+
+  @Test
+  void construct_throwsOnNullRequest() {
+    // when then
+    assertThrows(NullPointerException.class, () -> new JsonRequestBody(null));
+  }
+
+  @Test
+  void contentType_isUtf8Json() {
+    // when then
+    assertEquals(
+        "application/json; charset=utf-8",
+        String.valueOf(jsonRequestBody.contentType()));
+  }
+
+  @Test
+  void writeTo_writesBodyParametersAsJsonIntoSink() throws IOException {
+    // given
+    jsonRequest.putBodyParameter("title", "Günstig: \"E10\"");
+    Buffer sink = new Buffer();
+
+    // when
+    jsonRequestBody.writeTo(sink);
+
+    // then
+    assertEquals(jsonRequest.computeJsonBody(), sink.readUtf8());
+  }
+
+  @Test
+  void writeTo_encodesSupplementaryCharactersAsUtf8() throws IOException {
+    // given
+    jsonRequest.putBodyParameter("message", "\u26fd \ud83d\ude97 \u2028");
+    Buffer sink = new Buffer();
+
+    // when
+    jsonRequestBody.writeTo(sink);
+
+    // then
+    assertEquals(jsonRequest.computeJsonBody(), sink.readUtf8());
+  }
+
+  @Test
+  void writeTo_canBeRepeated() throws IOException {
+    // given
+    jsonRequest.putBodyParameter("message", "Some message");
+    Buffer firstSink = new Buffer();
+    Buffer secondSink = new Buffer();
+
+    // when
+    jsonRequestBody.writeTo(firstSink);
+    jsonRequestBody.writeTo(secondSink);
+
+    // then
+    assertEquals(firstSink.readUtf8(), secondSink.readUtf8());
+  }
+}
@@ -16,9 +16,13 @@
 
 package de.fornalik.tankschlau.net;
 
+import com.google.gson.stream.JsonWriter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class JsonRequestImplTest {
@@ -37,7 +41,7 @@ class JsonRequestImplTest {
     // given
     jsonRequest.putBodyParameter("myKey", "myString value");
     jsonRequest.putBodyParameter("someOtherKey", "Some other great value");
-    expectedJsonString = "{\"someOtherKey\": \"Some other great value\", \"myKey\": \"myString "
+    expectedJsonString = "{\"someOtherKey\":\"Some other great value\",\"myKey\":\"myString "
         + "value\"}";
 
     // when
@@ -53,7 +57,7 @@ class JsonRequestImplTest {
     jsonRequest.putBodyParameter(null, "This entry should be excluded");
     jsonRequest.putBodyParameter("myKey", "My value");
     jsonRequest.putBodyParameter("someOtherKey", "Some other great value");
-    expectedJsonString = "{\"someOtherKey\": \"Some other great value\", \"myKey\": \"My value\"}";
+    expectedJsonString = "{\"someOtherKey\":\"Some other great value\",\"myKey\":\"My value\"}";
 
     // when
     actualJsonString = jsonRequest.computeJsonBody();
@@ -68,8 +72,8 @@ class JsonRequestImplTest {
     jsonRequest.putBodyParameter("myKey", "My value");
     jsonRequest.putBodyParameter("entryWhichShouldBeIncluded", null);
     jsonRequest.putBodyParameter("someOtherKey", "Some other great value");
-    expectedJsonString = "{\"someOtherKey\": \"Some other great value\", "
-        + "\"entryWhichShouldBeIncluded\": null, \"myKey\": \"My value\"}";
+    expectedJsonString = "{\"someOtherKey\":\"Some other great value\","
+        + "\"entryWhichShouldBeIncluded\":null,\"myKey\":\"My value\"}";
 
     // when
     actualJsonString = jsonRequest.computeJsonBody();
@@ -90,4 +94,31 @@ class JsonRequestImplTest {
     // then
     assertEquals(expectedJsonString, actualJsonString);
   }
+
+  @Test
+  void computeJsonBody_escapesQuotesAndControlCharacters() {
+    // given
+    jsonRequest.putBodyParameter("message", "Diesel \"cheap\"\nnow\\");
+    expectedJsonString = "{\"message\":\"Diesel \\\"cheap\\\"\\nnow\\\\\"}";
+
+    // when
+    actualJsonString = jsonRequest.computeJsonBody();
+
+    // then
+    assertEquals(expectedJsonString, actualJsonString);
+  }
+
+  @Test
+  void writeJsonBody_writesSameJsonAsComputeJsonBody() throws IOException {
+    // given
+    jsonRequest.putBodyParameter("myKey", "My value");
+    jsonRequest.putBodyParameter("someOtherKey", null);
+    StringWriter stringWriter = new StringWriter();
+
+    // when
+    jsonRequest.writeJsonBody(new JsonWriter(stringWriter));
+
+    // then
+    assertEquals(jsonRequest.computeJsonBody(), stringWriter.toString());
+  }
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+package de.fornalik.tankschlau.net;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+  private LatencyHistogram histogram;
+
+  @BeforeEach
+  void setUp() {
+    histogram = new LatencyHistogram();
+  }
+
+  @Test
+  void getPercentile_returnsZeroWithoutRecordedValues() {
+    // when then
+    assertEquals(0, histogram.getCount());
+    assertEquals(Duration.ZERO, histogram.getPercentile(50));
+    assertEquals(Duration.ZERO, histogram.getMean());
+    assertEquals(Duration.ZERO, histogram.getMax());
+  }
+
+  @Test
+  void getPercentile_overestimatesByAtMostOneQuarter() {
+    // given
+    for (int millis = 1; millis <= 100; millis++)
+      histogram.record(Duration.ofMillis(millis));
+
+    // when
+    Duration p50 = histogram.getPercentile(50);
+    Duration p99 = histogram.getPercentile(99);
+
+    // then
+    assertEquals(100, histogram.getCount());
+    assertTrue(p50.compareTo(Duration.ofMillis(50)) >= 0);
+    assertTrue(p50.compareTo(Duration.ofMillis(63)) <= 0);
+    assertTrue(p99.compareTo(Duration.ofMillis(99)) >= 0);
+    assertTrue(p99.compareTo(Duration.ofMillis(100)) <= 0);
+    assertEquals(Duration.ofMillis(100), histogram.getPercentile(100));
+    assertEquals(Duration.ofMillis(100), histogram.getMax());
+    assertEquals(Duration.ofNanos(50_500_000), histogram.getMean());
+  }
+
+  @Test
+  void bucketIndex_isConsistentWithBucketUpperBound() {
+    // when then
+    for (long micros = 0; micros < 100_000; micros++) {
+      int index = LatencyHistogram.bucketIndex(micros);
+
+      assertTrue(micros <= LatencyHistogram.bucketUpperMicros(index));
+      if (index > 0)
+        assertTrue(micros > LatencyHistogram.bucketUpperMicros(index - 1));
+    }
+  }
+
+  @Test
+  void record_treatsNegativeDurationsAsZero() {
+    // when
+    histogram.record(Duration.ofMillis(-5));
+
+    // then
+    assertEquals(1, histogram.getCount());
+    assertEquals(Duration.ZERO, histogram.getMax());
+  }
+
+  @Test
+  void getPercentile_throwsOnInvalidPercentile() {
+    // when then
+    assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(0));
+    assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(100.1));
+  }
+}
@@ -0,0 +1,48 @@
+package de.fornalik.tankschlau.net;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LatencyTrackerTest {
+
+  @Test
+  void percentile_returnsEmptyIfThereAreNotEnoughSamples() {
+    // given
+    LatencyTracker latencyTracker = new LatencyTracker(10, 5);
+    helpRecord(latencyTracker, 1, 4);
+
+    // when, then
+    assertEquals(OptionalLong.empty(), latencyTracker.percentile(95));
+  }
+
+  @Test
+  void percentile_returnsExpectedValue() {
+    // given
+    LatencyTracker latencyTracker = new LatencyTracker(100, 5);
+    helpRecord(latencyTracker, 1, 100);
+
+    // when, then
+    assertEquals(OptionalLong.of(95), latencyTracker.percentile(95));
+    assertEquals(OptionalLong.of(50), latencyTracker.percentile(50));
+    assertEquals(OptionalLong.of(100), latencyTracker.percentile(100));
+  }
+
+  @Test
+  void percentile_onlyConsidersMostRecentSamples() {
+    // given
+    LatencyTracker latencyTracker = new LatencyTracker(10, 5);
+    helpRecord(latencyTracker, 1000, 1009);
+    helpRecord(latencyTracker, 1, 10);
+
+    // when, then
+    assertEquals(OptionalLong.of(10), latencyTracker.percentile(100));
+  }
+
+  private void helpRecord(LatencyTracker latencyTracker, long from, long to) {
+    for (long latency = from; latency <= to; latency++)
+      latencyTracker.record(latency);
+  }
+}
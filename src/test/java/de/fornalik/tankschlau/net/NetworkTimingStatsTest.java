@@ -0,0 +1,45 @@
+package de.fornalik.tankschlau.net;
+
+import de.fornalik.tankschlau.net.NetworkTimingStats.Phase;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NetworkTimingStatsTest {
+
+  @Test
+  void providerOf_mapsHostsOfKnownWebServices() {
+    // when then
+    assertEquals("tankerkoenig", NetworkTimingStats.providerOf("creativecommons.tankerkoenig.de"));
+    assertEquals("google", NetworkTimingStats.providerOf("maps.googleapis.com"));
+    assertEquals("pushover", NetworkTimingStats.providerOf("api.pushover.net"));
+    assertEquals("localhost", NetworkTimingStats.providerOf("LocalHost"));
+  }
+
+  @Test
+  void record_aggregatesPerProvider() {
+    // given
+    NetworkTimingStats stats = new NetworkTimingStats();
+    Map<Phase, Long> phaseNanos = new EnumMap<>(Phase.class);
+    phaseNanos.put(Phase.TOTAL, 5_000_000L);
+
+    // when
+    stats.record("pushover", phaseNanos, 100, 50, false);
+    stats.record("pushover", phaseNanos, 100, 50, true);
+    stats.record("google", phaseNanos, 0, 700, false);
+
+    // then
+    assertEquals(Arrays.asList("google", "pushover"), stats.getProviders());
+    assertEquals(2, stats.getHistogram("pushover", Phase.TOTAL).getCount());
+    assertEquals(0, stats.getHistogram("pushover", Phase.DNS).getCount());
+    assertEquals(200, stats.getBytesSent("pushover"));
+    assertEquals(100, stats.getBytesReceived("pushover"));
+    assertEquals(1, stats.getFailedCallCount("pushover"));
+    assertEquals(700, stats.getBytesReceived("google"));
+    assertEquals(0, stats.getHistogram("unknown", Phase.TOTAL).getCount());
+  }
+}
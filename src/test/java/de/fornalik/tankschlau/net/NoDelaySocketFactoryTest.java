@@ -0,0 +1,25 @@
+package de.fornalik.tankschlau.net;
+
+import org.junit.jupiter.api.Test;
+
+import javax.net.SocketFactory;
+import java.io.IOException;
+import java.net.Socket;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NoDelaySocketFactoryTest {
+
+  @Test
+  void createSocket_disablesNagleAlgorithm() throws IOException {
+    // given
+    NoDelaySocketFactory socketFactory = new NoDelaySocketFactory(SocketFactory.getDefault());
+
+    // when
+    try (Socket socket = socketFactory.createSocket()) {
+
+      // then
+      assertTrue(socket.getTcpNoDelay());
+    }
+  }
+}
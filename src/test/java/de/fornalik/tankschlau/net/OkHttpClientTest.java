@@ -1,15 +1,23 @@
 package de.fornalik.tankschlau.net;
 
+import de.fornalik.tankschlau.service.CacheStats;
 import de.fornalik.tankschlau.service.TransactInfo;
 import de.fornalik.tankschlau.service.TransactInfoImpl;
 import okhttp3.MediaType;
 import okhttp3.Protocol;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.Okio;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -73,7 +81,56 @@ class OkHttpClientTest {
   }
 
   @Test
-  void newCall_throwsUnsupportedOperationExceptionIfTypeOfResponseDataIsNotString() {
+  void newCall_setsReaderAsResponseBodyDataIfRequested() throws IOException {
+    // given
+    String expectedContent = "{\"status\": \"ok\"}";
+    helpSetupOkHttp3BaseResponseMock(okHttp3Request, expectedContent);
+
+    // when
+    actualResponse = okHttpClient.newCall(requestMock, baseResponseMock, Reader.class);
+
+    // then
+    try (BufferedReader reader = new BufferedReader(
+        actualResponse.getBody().getData(Reader.class))) {
+
+      assertEquals(expectedContent, reader.readLine());
+    }
+  }
+
+  @Test
+  void newCall_setsInputStreamAsResponseBodyDataIfRequested() throws IOException {
+    // given
+    String expectedContent = "{\"status\": \"ok\"}";
+    helpSetupOkHttp3BaseResponseMock(okHttp3Request, expectedContent);
+
+    // when
+    actualResponse = okHttpClient.newCall(requestMock, baseResponseMock, InputStream.class);
+
+    // then
+    try (BufferedSource source = Okio.buffer(Okio.source(
+        actualResponse.getBody().getData(InputStream.class)))) {
+
+      assertEquals(expectedContent, source.readUtf8());
+    }
+  }
+
+  @Test
+  void newCall_setsBufferedSourceAsResponseBodyDataIfRequested() throws IOException {
+    // given
+    String expectedContent = "{\"status\": \"ok\"}";
+    helpSetupOkHttp3BaseResponseMock(okHttp3Request, expectedContent);
+
+    // when
+    actualResponse = okHttpClient.newCall(requestMock, baseResponseMock, BufferedSource.class);
+
+    // then
+    try (BufferedSource source = actualResponse.getBody().getData(BufferedSource.class)) {
+      assertEquals(expectedContent, source.readUtf8());
+    }
+  }
+
+  @Test
+  void newCall_throwsUnsupportedOperationExceptionIfTypeOfResponseDataIsNotSupported() {
     // when then
     assertThrows(
         UnsupportedOperationException.class,
@@ -102,6 +159,8 @@ class OkHttpClientTest {
     actualResponse = okHttpClient.newCall(requestMock, baseResponseMock, String.class);
 
     // then
+    assertEquals(OkHttpClient.HTTP_CLIENT_ERROR_STRING,
+        actualResponse.getTransactInfo().getStatus());
     assertTrue(actualResponse.getTransactInfo().getErrorMessage().isPresent());
 
     Optional<String> actualErrorMessage = actualResponse.getTransactInfo().getErrorMessage();
@@ -112,6 +171,198 @@ class OkHttpClientTest {
             + "Actual message: \"" + actualErrorMessage + "\"");
   }
 
+  @Test
+  void newCall_closesOkHttp3ResponseIfBodyDataCannotBeSet() throws IOException {
+    // given
+    CloseTrackingResponseBody givenBody = new CloseTrackingResponseBody("some content");
+    helpSetupOkHttp3ResponseMock(okHttp3Request, givenBody);
+    ResponseBody responseBodyMock = baseResponseMock.getBody();
+    doThrow(IllegalStateException.class).when(responseBodyMock).setData(any());
+
+    // when
+    assertThrows(
+        IllegalStateException.class,
+        () -> okHttpClient.newCall(requestMock, baseResponseMock, Reader.class));
+
+    // then
+    assertTrue(givenBody.isClosed);
+  }
+
+  @Test
+  void newCall_keepsStreamedOkHttp3ResponseOpen() throws IOException {
+    // given
+    CloseTrackingResponseBody givenBody = new CloseTrackingResponseBody("some content");
+    helpSetupOkHttp3ResponseMock(okHttp3Request, givenBody);
+
+    // when
+    okHttpClient.newCall(requestMock, baseResponseMock, Reader.class);
+
+    // then
+    assertFalse(givenBody.isClosed);
+  }
+
+  @Test
+  void newCallAsync_enqueuesCallInsteadOfExecutingIt() throws IOException {
+    // when
+    okHttpClient.newCallAsync(requestMock, baseResponseMock, String.class);
+
+    // then
+    verify(okHttp3CallMock).enqueue(any());
+    verify(okHttp3CallMock, never()).execute();
+  }
+
+  @Test
+  void newCallAsync_completesWithResponseBodyData() {
+    // given
+    String expectedContent = "Some string value which should be content of the response body.";
+    helpSetupOkHttp3AsyncResponse(okHttp3Request, expectedContent);
+
+    // when
+    CompletableFuture<Response> future = okHttpClient
+        .newCallAsync(requestMock, baseResponseMock, String.class);
+
+    // then
+    assertTrue(future.isDone());
+    actualResponse = future.join();
+    assertSame(baseResponseMock, actualResponse);
+    assertEquals(expectedContent, actualResponse.getBody().getData(String.class));
+  }
+
+  @Test
+  void newCallAsync_completesNormallyWithErrorMessageOnFailure() {
+    // given
+    String expectedErrorMessage = "Connection refused";
+
+    doAnswer(invocation -> {
+      okhttp3.Callback callback = invocation.getArgument(0);
+      callback.onFailure(okHttp3CallMock, new IOException(expectedErrorMessage));
+      return null;
+    }).when(okHttp3CallMock).enqueue(any());
+
+    // when
+    actualResponse = okHttpClient
+        .newCallAsync(requestMock, baseResponseMock, String.class)
+        .join();
+
+    // then
+    assertEquals(OkHttpClient.HTTP_TRANSPORT_ERROR_STRING,
+        actualResponse.getTransactInfo().getStatus());
+    assertEquals(Optional.of(expectedErrorMessage),
+        actualResponse.getTransactInfo().getErrorMessage());
+  }
+
+  @Test
+  void newCallAsync_closesOkHttp3ResponseIfCompletedExceptionally() {
+    // given
+    CloseTrackingResponseBody givenBody = new CloseTrackingResponseBody("some content");
+    helpSetupOkHttp3AsyncResponse(okHttp3Request, givenBody);
+    ResponseBody responseBodyMock = baseResponseMock.getBody();
+    doThrow(IllegalStateException.class).when(responseBodyMock).setData(any());
+
+    // when
+    CompletableFuture<Response> future = okHttpClient
+        .newCallAsync(requestMock, baseResponseMock, Reader.class);
+
+    // then
+    assertTrue(future.isCompletedExceptionally());
+    assertTrue(givenBody.isClosed);
+  }
+
+  @Test
+  void newCallAsync_cancelsCallIfFutureIsCancelled() {
+    // given
+    CompletableFuture<Response> future = okHttpClient
+        .newCallAsync(requestMock, baseResponseMock, String.class);
+
+    // when
+    future.cancel(true);
+
+    // then
+    verify(okHttp3CallMock).cancel();
+  }
+
+  @Test
+  void newCallAsync_throwsUnsupportedOperationExceptionIfTypeOfResponseDataIsNotSupported() {
+    // when then
+    assertThrows(
+        UnsupportedOperationException.class,
+        () -> okHttpClient.newCallAsync(requestMock, baseResponseMock, Double.class));
+  }
+
+  @Test
+  void determineCacheOutcome_returnsMissIfThereIsNoCacheResponse() {
+    // given
+    okhttp3.Response response = helpBuildOkHttp3Response(200).build();
+
+    // when, then
+    assertEquals(CacheStats.Outcome.MISS, OkHttpClient.determineCacheOutcome(response));
+  }
+
+  @Test
+  void determineCacheOutcome_returnsHitIfThereIsNoNetworkResponse() {
+    // given
+    okhttp3.Response response = helpBuildOkHttp3Response(200)
+        .cacheResponse(helpBuildOkHttp3Response(200).build())
+        .build();
+
+    // when, then
+    assertEquals(CacheStats.Outcome.HIT, OkHttpClient.determineCacheOutcome(response));
+  }
+
+  @Test
+  void determineCacheOutcome_returnsRevalidatedIfServerRespondedNotModified() {
+    // given
+    okhttp3.Response response = helpBuildOkHttp3Response(200)
+        .cacheResponse(helpBuildOkHttp3Response(200).build())
+        .networkResponse(helpBuildOkHttp3Response(304).build())
+        .build();
+
+    // when, then
+    assertEquals(CacheStats.Outcome.REVALIDATED, OkHttpClient.determineCacheOutcome(response));
+  }
+
+  @Test
+  void newCall_leavesCacheStatsUntouchedIfClientHasNoCache() throws IOException {
+    // given
+    helpSetupOkHttp3BaseResponseMock(okHttp3Request, "some content");
+
+    // when
+    actualResponse = okHttpClient.newCall(requestMock, baseResponseMock, String.class);
+
+    // then
+    assertEquals(CacheStats.NONE, actualResponse.getTransactInfo().getCacheStats());
+  }
+
+  private okhttp3.Response.Builder helpBuildOkHttp3Response(int code) {
+    return new okhttp3.Response.Builder()
+        .request(okHttp3Request)
+        .protocol(Protocol.HTTP_1_1)
+        .code(code)
+        .message("");
+  }
+
+  private void helpSetupOkHttp3AsyncResponse(okhttp3.Request request, String content) {
+    helpSetupOkHttp3AsyncResponse(
+        request,
+        okhttp3.ResponseBody.create(MediaType.parse("application/json; charset=utf-8"), content));
+  }
+
+  private void helpSetupOkHttp3AsyncResponse(okhttp3.Request request, okhttp3.ResponseBody body) {
+    okhttp3.Response preparedResponse = new okhttp3.Response.Builder()
+        .body(body)
+        .request(request)
+        .protocol(Protocol.HTTP_1_1)
+        .code(200)
+        .message("")
+        .build();
+
+    doAnswer(invocation -> {
+      okhttp3.Callback callback = invocation.getArgument(0);
+      callback.onResponse(okHttp3CallMock, preparedResponse);
+      return null;
+    }).when(okHttp3CallMock).enqueue(any());
+  }
+
   private void helpSetupOkHttp3BaseResponseMock(okhttp3.Request request, String content)
   throws IOException {
 
@@ -137,4 +388,34 @@ class OkHttpClientTest {
 
     when(okHttp3CallMock.execute()).thenReturn(preparedResponse);
   }
-}
\ No newline at end of file
+
+  private static class CloseTrackingResponseBody extends okhttp3.ResponseBody {
+    private final Buffer source;
+    private boolean isClosed;
+
+    private CloseTrackingResponseBody(String content) {
+      this.source = new Buffer().writeUtf8(content);
+    }
+
+    @Override
+    public MediaType contentType() {
+      return MediaType.parse("application/json; charset=utf-8");
+    }
+
+    @Override
+    public long contentLength() {
+      return source.size();
+    }
+
+    @Override
+    public BufferedSource source() {
+      return source;
+    }
+
+    @Override
+    public void close() {
+      isClosed = true;
+      super.close();
+    }
+  }
+}
@@ -0,0 +1,210 @@
+package de.fornalik.tankschlau.net;
+
+import de.fornalik.tankschlau.service.TransactInfoImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitedHttpClientTest {
+  private Map<String, String> properties;
+  private CountingHttpClient countingHttpClient;
+  private TestRequest request;
+
+  @BeforeEach
+  void setUp() throws MalformedURLException {
+    properties = new HashMap<>();
+    properties.put("httpRateLimitTankerkoenigPerMinute", "2");
+    properties.put("httpRateLimitMaxWaitMs", "0");
+
+    countingHttpClient = new CountingHttpClient();
+    request = new TestRequest("https://creativecommons.tankerkoenig.de/json/list.php", "apikey.a");
+  }
+
+  @Test
+  void newCall_rejectsCallsBeyondQuotaWithoutCallingServer() {
+    // given
+    RateLimitedHttpClient client = createClient();
+
+    // when
+    client.newCall(request, createResponse(), String.class);
+    client.newCall(request, createResponse(), String.class);
+    Response rejected = client.newCall(request, createResponse(), String.class);
+
+    // then
+    assertEquals(2, countingHttpClient.callCount.get());
+    assertEquals(RateLimitedHttpClient.RATE_LIMITED_STRING, rejected.getTransactInfo().getStatus());
+    assertTrue(rejected.getTransactInfo().getErrorMessage().isPresent());
+  }
+
+  @Test
+  void newCall_queuesCallWhichFitsIntoMaxWait() throws MalformedURLException {
+    // given
+    properties.put("httpRateLimitTankerkoenigPerMinute", "600");
+    properties.put("httpRateLimitMaxWaitMs", "5000");
+    RateLimitedHttpClient client = createClient();
+
+    for (int i = 0; i < 600; i++)
+      client.newCall(request, createResponse(), String.class);
+
+    // when
+    long startNanos = System.nanoTime();
+    Response queued = client.newCall(request, createResponse(), String.class);
+    long elapsedNanos = System.nanoTime() - startNanos;
+
+    // then
+    assertEquals(601, countingHttpClient.callCount.get());
+    assertEquals("body", queued.getBody().getData(String.class));
+    assertTrue(elapsedNanos >= TimeUnit.MILLISECONDS.toNanos(50));
+  }
+
+  @Test
+  void newCall_limitsEachApiKeySeparately() throws MalformedURLException {
+    // given
+    RateLimitedHttpClient client = createClient();
+    TestRequest otherKeyRequest = new TestRequest(
+        "https://creativecommons.tankerkoenig.de/json/prices.php",
+        "apikey.b");
+
+    client.newCall(request, createResponse(), String.class);
+    client.newCall(request, createResponse(), String.class);
+
+    // when
+    Response actualResponse = client.newCall(otherKeyRequest, createResponse(), String.class);
+
+    // then
+    assertEquals(3, countingHttpClient.callCount.get());
+    assertEquals(Optional.empty(), actualResponse.getTransactInfo().getErrorMessage());
+    assertEquals(0, client.getAvailableTokens("tankerkoenig", "apikey.a"));
+    assertEquals(1, client.getAvailableTokens("tankerkoenig", "apikey.b"));
+  }
+
+  @Test
+  void newCall_doesNotLimitUnknownProvidersOrWhenDisabled() throws MalformedURLException {
+    // given
+    TestRequest unknownProviderRequest = new TestRequest("https://some.host/path", null);
+    RateLimitedHttpClient client = createClient();
+
+    properties.put("httpRateLimiting", "false");
+    RateLimitedHttpClient disabledClient = createClient();
+
+    // when
+    for (int i = 0; i < 5; i++) {
+      client.newCall(unknownProviderRequest, createResponse(), String.class);
+      disabledClient.newCall(request, createResponse(), String.class);
+    }
+
+    // then
+    assertEquals(10, countingHttpClient.callCount.get());
+  }
+
+  @Test
+  void newCallAsync_completesRejectedCallRightAway() throws Exception {
+    // given
+    RateLimitedHttpClient client = createClient();
+    client.newCall(request, createResponse(), String.class);
+    client.newCall(request, createResponse(), String.class);
+
+    // when
+    CompletableFuture<Response> future = client
+        .newCallAsync(request, createResponse(), String.class);
+
+    // then
+    assertTrue(future.isDone());
+    assertEquals(RateLimitedHttpClient.RATE_LIMITED_STRING,
+        future.get().getTransactInfo().getStatus());
+    assertEquals(2, countingHttpClient.callCount.get());
+  }
+
+  @Test
+  void newCallAsync_delaysQueuedCall() throws Exception {
+    // given
+    properties.put("httpRateLimitTankerkoenigPerMinute", "600");
+    properties.put("httpRateLimitMaxWaitMs", "5000");
+    RateLimitedHttpClient client = createClient();
+
+    for (int i = 0; i < 600; i++)
+      client.newCall(request, createResponse(), String.class);
+
+    // when
+    CompletableFuture<Response> future = client
+        .newCallAsync(request, createResponse(), String.class);
+
+    // then
+    assertFalse(future.isDone());
+    assertEquals("body", future.get(5, TimeUnit.SECONDS).getBody().getData(String.class));
+    assertEquals(601, countingHttpClient.callCount.get());
+  }
+
+  @Test
+  void getAvailableCalls_countsDownWithEachCall() throws MalformedURLException {
+    // given
+    RateLimitedHttpClient client = createClient();
+    TestRequest unlimitedRequest = new TestRequest("https://example.com/json", "apikey.a");
+
+    // when
+    int availableBefore = client.getAvailableCalls(request);
+    client.newCall(request, createResponse(), String.class);
+    int availableAfter = client.getAvailableCalls(request);
+
+    // then
+    assertEquals(2, availableBefore);
+    assertEquals(1, availableAfter);
+    assertEquals(Integer.MAX_VALUE, client.getAvailableCalls(unlimitedRequest));
+  }
+
+  private RateLimitedHttpClient createClient() {
+    return new RateLimitedHttpClient(
+        countingHttpClient,
+        HttpRateLimitConfig.fromProperties(properties::get));
+  }
+
+  private static Response createResponse() {
+    return new BaseResponse(new ResponseBodyImpl(), new TransactInfoImpl());
+  }
+
+  private static class TestRequest extends BaseRequest {
+    TestRequest(String url, String apiKeyId) throws MalformedURLException {
+      setBaseUrl(new URL(url));
+      setHttpMethod(HttpMethod.GET);
+      setApiKeyId(apiKeyId);
+    }
+  }
+
+  /**
+   * Answers each call successfully and counts the calls.
+   */
+  private static class CountingHttpClient implements HttpClient {
+    private final AtomicInteger callCount = new AtomicInteger();
+
+    @Override
+    public Optional<Request> getRequest() {
+      return Optional.empty();
+    }
+
+    @Override
+    public <T> Response newCall(Request request, Response response, Class<T> typeOfResponseData) {
+      callCount.incrementAndGet();
+      response.getBody().setData("body");
+      return response;
+    }
+
+    @Override
+    public <T> CompletableFuture<Response> newCallAsync(
+        Request request,
+        Response response,
+        Class<T> typeOfResponseData) {
+
+      return CompletableFuture.completedFuture(newCall(request, response, typeOfResponseData));
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package de.fornalik.tankschlau.net;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private long nowNanos;
+  private RateLimiter rateLimiter;
+
+  @BeforeEach
+  void setUp() {
+    nowNanos = 0;
+
+    // One token per second.
+    rateLimiter = new RateLimiter(3, Duration.ofSeconds(3), () -> nowNanos);
+  }
+
+  @Test
+  void reserve_grantsBurstUpToCapacityWithoutWaiting() {
+    // when then
+    assertEquals(0, rateLimiter.reserve(0));
+    assertEquals(0, rateLimiter.reserve(0));
+    assertEquals(0, rateLimiter.reserve(0));
+    assertEquals(-1, rateLimiter.reserve(0));
+  }
+
+  @Test
+  void reserve_queuesCallersInOrderOfReservation() {
+    // given
+    for (int i = 0; i < 3; i++)
+      rateLimiter.reserve(0);
+
+    // when then
+    assertEquals(SECOND, rateLimiter.reserve(10 * SECOND));
+    assertEquals(2 * SECOND, rateLimiter.reserve(10 * SECOND));
+    assertEquals(-1, rateLimiter.reserve(2 * SECOND));
+  }
+
+  @Test
+  void reserve_refillsOverTimeButNotBeyondCapacity() {
+    // given
+    for (int i = 0; i < 3; i++)
+      rateLimiter.reserve(0);
+
+    // when
+    nowNanos = SECOND;
+
+    // then
+    assertEquals(1, rateLimiter.getAvailableTokens());
+
+    // when
+    nowNanos = 60 * SECOND;
+
+    // then
+    assertEquals(3, rateLimiter.getAvailableTokens());
+  }
+
+  @Test
+  void constructor_throwsOnInvalidArguments() {
+    // when then
+    assertThrows(IllegalArgumentException.class,
+        () -> new RateLimiter(0, Duration.ofSeconds(1), System::nanoTime));
+    assertThrows(IllegalArgumentException.class,
+        () -> new RateLimiter(1, Duration.ZERO, System::nanoTime));
+  }
+}
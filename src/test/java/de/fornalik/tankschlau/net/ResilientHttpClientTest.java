@@ -0,0 +1,273 @@
+package de.fornalik.tankschlau.net;
+
+import de.fornalik.tankschlau.service.TransactInfoImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilientHttpClientTest {
+  private Map<String, String> properties;
+  private FakeHttpClient fakeHttpClient;
+  private Request request;
+  private Response response;
+
+  @BeforeEach
+  void setUp() throws MalformedURLException {
+    properties = new HashMap<>();
+    properties.put("httpMaxRetries", "2");
+    properties.put("httpRetryInitialBackoffMs", "1");
+    properties.put("httpRetryMaxBackoffMs", "2");
+    properties.put("httpBreakerFailureThreshold", "3");
+
+    fakeHttpClient = new FakeHttpClient();
+
+    request = new BaseRequest() {};
+    request.setBaseUrl(new URL("https://some.host/path"));
+    request.setHttpMethod(Request.HttpMethod.GET);
+
+    response = new BaseResponse(new ResponseBodyImpl(), new TransactInfoImpl());
+  }
+
+  @Test
+  void newCall_retriesIdempotentRequestUntilSuccess() {
+    // given
+    fakeHttpClient.enqueue(false, false, true);
+
+    // when
+    Response actualResponse = createClient().newCall(request, response, String.class);
+
+    // then
+    assertEquals(3, fakeHttpClient.callCount.get());
+    assertEquals("body", actualResponse.getBody().getData(String.class));
+    assertEquals(Optional.empty(), actualResponse.getTransactInfo().getErrorMessage());
+  }
+
+  @Test
+  void newCall_givesUpAfterMaxRetries() {
+    // given
+    fakeHttpClient.enqueue(false, false, false, true);
+
+    // when
+    Response actualResponse = createClient().newCall(request, response, String.class);
+
+    // then
+    assertEquals(3, fakeHttpClient.callCount.get());
+    assertTrue(actualResponse.getTransactInfo().getErrorMessage().isPresent());
+  }
+
+  @Test
+  void newCall_doesNotRetryNonIdempotentRequest() {
+    // given
+    request.setHttpMethod(Request.HttpMethod.POST);
+    fakeHttpClient.enqueue(false, true);
+
+    // when
+    Response actualResponse = createClient().newCall(request, response, String.class);
+
+    // then
+    assertEquals(1, fakeHttpClient.callCount.get());
+    assertTrue(actualResponse.getTransactInfo().getErrorMessage().isPresent());
+  }
+
+  @Test
+  void newCall_doesNotRetryClientErrorsOfAnsweredCalls() {
+    // given
+    ResilientHttpClient client = createClient();
+    fakeHttpClient.failureStatus = OkHttpClient.HTTP_CLIENT_ERROR_STRING;
+    fakeHttpClient.failureMessage = "Body of response is null.";
+    fakeHttpClient.enqueue(false, true);
+
+    // when
+    Response actualResponse = client.newCall(request, response, String.class);
+
+    // then
+    assertEquals(1, fakeHttpClient.callCount.get());
+    assertEquals(Optional.of("Body of response is null."),
+        actualResponse.getTransactInfo().getErrorMessage());
+    assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState("some.host"));
+  }
+
+  @Test
+  void newCall_keepsCauseOfFailureIfCircuitOpensWhileRetrying() {
+    // given
+    properties.put("httpBreakerFailureThreshold", "2");
+    ResilientHttpClient client = createClient();
+    fakeHttpClient.enqueue(false, false, true);
+
+    // when
+    Response actualResponse = client.newCall(request, response, String.class);
+
+    // then
+    assertEquals(2, fakeHttpClient.callCount.get());
+    assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState("some.host"));
+    assertEquals(OkHttpClient.HTTP_TRANSPORT_ERROR_STRING,
+        actualResponse.getTransactInfo().getStatus());
+    assertEquals(Optional.of("Connection refused"),
+        actualResponse.getTransactInfo().getErrorMessage());
+  }
+
+  @Test
+  void newCall_failsFastWhileCircuitIsOpen() {
+    // given
+    properties.put("httpMaxRetries", "0");
+    ResilientHttpClient client = createClient();
+    fakeHttpClient.enqueue(false, false, false, true);
+
+    for (int i = 0; i < 3; i++)
+      client.newCall(request, new BaseResponse(new ResponseBodyImpl(), new TransactInfoImpl()), String.class);
+
+    // when
+    Response actualResponse = client.newCall(request, response, String.class);
+
+    // then
+    assertEquals(3, fakeHttpClient.callCount.get());
+    assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState("some.host"));
+    assertEquals(OkHttpClient.HTTP_CLIENT_ERROR_STRING, actualResponse.getTransactInfo().getStatus());
+    assertTrue(actualResponse.getTransactInfo().getErrorMessage().isPresent());
+  }
+
+  @Test
+  void newCall_sendsHedgedRequestIfFirstAttemptIsSlow() {
+    // given
+    properties.put("httpHedging", "true");
+    properties.put("httpMinHedgeDelayMs", "20");
+    ResilientHttpClient client = createClient();
+
+    // Collect enough latency samples.
+    for (int i = 0; i < 20; i++) {
+      fakeHttpClient.enqueue(true);
+      client.newCall(request, new BaseResponse(new ResponseBodyImpl(), new TransactInfoImpl()), String.class);
+    }
+
+    fakeHttpClient.callCount.set(0);
+    fakeHttpClient.asyncDelaysMs.add(2000L);
+    fakeHttpClient.asyncDelaysMs.add(0L);
+    fakeHttpClient.enqueue(true, true);
+
+    // when
+    long start = System.nanoTime();
+    Response actualResponse = client.newCall(request, response, String.class);
+    long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    // then
+    assertEquals(2, fakeHttpClient.callCount.get());
+    assertEquals("body", actualResponse.getBody().getData(String.class));
+    assertTrue(elapsedMs < 1000, "Hedged request should win, took " + elapsedMs + " ms");
+  }
+
+  @Test
+  void newCallAsync_retriesIdempotentRequestUntilSuccess() throws Exception {
+    // given
+    fakeHttpClient.enqueue(false, true);
+
+    // when
+    Response actualResponse = createClient()
+        .newCallAsync(request, response, String.class)
+        .get(5, TimeUnit.SECONDS);
+
+    // then
+    assertEquals(2, fakeHttpClient.callCount.get());
+    assertEquals("body", actualResponse.getBody().getData(String.class));
+  }
+
+  @Test
+  void computeBackoffNanos_growsExponentiallyAndIsCapped() {
+    // given
+    properties.put("httpRetryInitialBackoffMs", "100");
+    properties.put("httpRetryMaxBackoffMs", "300");
+    ResilientHttpClient client = createClient();
+
+    // when
+    long first = client.computeBackoffNanos(1);
+    long second = client.computeBackoffNanos(2);
+    long tenth = client.computeBackoffNanos(10);
+
+    // then
+    assertTrue(first >= TimeUnit.MILLISECONDS.toNanos(50));
+    assertTrue(first <= TimeUnit.MILLISECONDS.toNanos(100));
+    assertTrue(second >= TimeUnit.MILLISECONDS.toNanos(100));
+    assertTrue(second <= TimeUnit.MILLISECONDS.toNanos(200));
+    assertTrue(tenth >= TimeUnit.MILLISECONDS.toNanos(150));
+    assertTrue(tenth <= TimeUnit.MILLISECONDS.toNanos(300));
+  }
+
+  private ResilientHttpClient createClient() {
+    return new ResilientHttpClient(
+        fakeHttpClient,
+        HttpResilienceConfig.fromProperties(properties::get));
+  }
+
+  /**
+   * Answers with a successful or failing response, in the order of enqueued outcomes.
+   */
+  private static class FakeHttpClient implements HttpClient {
+    private final Deque<Boolean> outcomes = new ConcurrentLinkedDeque<>();
+    private final Deque<Long> asyncDelaysMs = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger callCount = new AtomicInteger();
+    private String failureStatus = OkHttpClient.HTTP_TRANSPORT_ERROR_STRING;
+    private String failureMessage = "Connection refused";
+
+    void enqueue(Boolean... successes) {
+      for (Boolean success : successes)
+        outcomes.add(success);
+    }
+
+    @Override
+    public Optional<Request> getRequest() {
+      return Optional.empty();
+    }
+
+    @Override
+    public <T> Response newCall(Request request, Response response, Class<T> type) {
+      callCount.incrementAndGet();
+      return respond(response);
+    }
+
+    private Response respond(Response response) {
+      Boolean success = outcomes.poll();
+
+      if (success != null && success) {
+        response.getBody().setData("body");
+      }
+      else {
+        response.getTransactInfo().setStatus(failureStatus);
+        response.getTransactInfo().setErrorMessage(failureMessage);
+      }
+
+      return response;
+    }
+
+    @Override
+    public <T> CompletableFuture<Response> newCallAsync(
+        Request request,
+        Response response,
+        Class<T> type) {
+
+      callCount.incrementAndGet();
+      long delayMs = Optional.ofNullable(asyncDelaysMs.poll()).orElse(0L);
+
+      return CompletableFuture.supplyAsync(() -> {
+        try {
+          Thread.sleep(delayMs);
+        }
+        catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+
+        return respond(response);
+      });
+    }
+  }
+}
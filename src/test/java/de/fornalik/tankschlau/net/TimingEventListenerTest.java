@@ -0,0 +1,114 @@
+package de.fornalik.tankschlau.net;
+
+import de.fornalik.tankschlau.net.NetworkTimingStats.Phase;
+import okhttp3.Call;
+import okhttp3.Protocol;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TimingEventListenerTest {
+  private NetworkTimingStats stats;
+  private long nowMillis;
+  private TimingEventListener listener;
+  private Call call;
+  private okhttp3.Request request;
+
+  @BeforeEach
+  void setUp() {
+    stats = new NetworkTimingStats();
+    nowMillis = 0;
+    listener = new TimingEventListener(stats, () -> Duration.ofMillis(nowMillis).toNanos());
+
+    request = new okhttp3.Request.Builder()
+        .url("https://creativecommons.tankerkoenig.de/json/list.php")
+        .build();
+
+    // Not executed, only needed as event source.
+    call = new okhttp3.OkHttpClient().newCall(request);
+  }
+
+  @Test
+  void callEnd_recordsAllPhasesOfNewTlsConnection() {
+    // given
+    InetSocketAddress address = InetSocketAddress.createUnresolved("localhost", 443);
+
+    listener.callStart(call);
+    nowMillis = 1;
+    listener.dnsStart(call, "creativecommons.tankerkoenig.de");
+    nowMillis = 4;
+    listener.dnsEnd(call, "creativecommons.tankerkoenig.de", Collections.emptyList());
+    listener.connectStart(call, address, Proxy.NO_PROXY);
+    nowMillis = 14;
+    listener.secureConnectStart(call);
+    nowMillis = 34;
+    listener.secureConnectEnd(call, null);
+    listener.connectEnd(call, address, Proxy.NO_PROXY, Protocol.HTTP_1_1);
+    listener.requestHeadersStart(call);
+    nowMillis = 35;
+    listener.requestHeadersEnd(call, request);
+    nowMillis = 85;
+    listener.responseHeadersStart(call);
+    listener.responseHeadersEnd(call, null);
+    listener.responseBodyStart(call);
+    nowMillis = 95;
+    listener.responseBodyEnd(call, 2048);
+
+    // when
+    listener.callEnd(call);
+
+    // then
+    assertEquals(Duration.ofMillis(3), stats.getHistogram("tankerkoenig", Phase.DNS).getMax());
+    assertEquals(Duration.ofMillis(10), stats.getHistogram("tankerkoenig", Phase.CONNECT).getMax());
+    assertEquals(Duration.ofMillis(20), stats.getHistogram("tankerkoenig", Phase.TLS).getMax());
+    assertEquals(Duration.ofMillis(1), stats.getHistogram("tankerkoenig", Phase.REQUEST).getMax());
+    assertEquals(Duration.ofMillis(50), stats.getHistogram("tankerkoenig", Phase.TTFB).getMax());
+    assertEquals(Duration.ofMillis(10), stats.getHistogram("tankerkoenig", Phase.BODY).getMax());
+    assertEquals(Duration.ofMillis(95), stats.getHistogram("tankerkoenig", Phase.TOTAL).getMax());
+    assertEquals(2048, stats.getBytesReceived("tankerkoenig"));
+    assertEquals(0, stats.getFailedCallCount("tankerkoenig"));
+  }
+
+  @Test
+  void callEnd_doesNotRecordConnectPhasesForPooledConnection() {
+    // given
+    listener.callStart(call);
+    listener.requestHeadersStart(call);
+    nowMillis = 2;
+    listener.requestHeadersEnd(call, request);
+    listener.requestBodyEnd(call, 512);
+    nowMillis = 12;
+    listener.responseHeadersStart(call);
+
+    // when
+    listener.callEnd(call);
+
+    // then
+    assertEquals(0, stats.getHistogram("tankerkoenig", Phase.DNS).getCount());
+    assertEquals(0, stats.getHistogram("tankerkoenig", Phase.CONNECT).getCount());
+    assertEquals(0, stats.getHistogram("tankerkoenig", Phase.TLS).getCount());
+    assertEquals(Duration.ofMillis(10), stats.getHistogram("tankerkoenig", Phase.TTFB).getMax());
+    assertEquals(512, stats.getBytesSent("tankerkoenig"));
+  }
+
+  @Test
+  void callFailed_recordsFailedCall() {
+    // given
+    listener.callStart(call);
+    nowMillis = 30;
+
+    // when
+    listener.callFailed(call, new IOException("timeout"));
+
+    // then
+    assertEquals(1, stats.getFailedCallCount("tankerkoenig"));
+    assertEquals(Duration.ofMillis(30), stats.getHistogram("tankerkoenig", Phase.TOTAL).getMax());
+  }
+}
@@ -0,0 +1,56 @@
+package de.fornalik.tankschlau.net;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Protocol;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.*;
+
+class UpstreamOverrideInterceptorTest {
+
+  @Test
+  void intercept_replacesSchemeHostAndPortButKeepsPathAndQuery() throws IOException {
+    // given
+    okhttp3.Request request = new okhttp3.Request.Builder()
+        .url("https://creativecommons.tankerkoenig.de/json/list.php?lat=52.4&rad=5.0")
+        .header("Accept", "application/json")
+        .build();
+
+    okhttp3.Response response = new okhttp3.Response.Builder()
+        .request(request)
+        .protocol(Protocol.HTTP_1_1)
+        .code(200)
+        .message("OK")
+        .build();
+
+    Interceptor.Chain chainMock = mock(Interceptor.Chain.class);
+    when(chainMock.request()).thenReturn(request);
+    when(chainMock.proceed(any())).thenReturn(response);
+
+    UpstreamOverrideInterceptor interceptor =
+        new UpstreamOverrideInterceptor(HttpUrl.get("http://localhost:8089"));
+
+    // when
+    okhttp3.Response actualResponse = interceptor.intercept(chainMock);
+
+    // then
+    ArgumentCaptor<okhttp3.Request> requestCaptor = ArgumentCaptor.forClass(okhttp3.Request.class);
+    verify(chainMock).proceed(requestCaptor.capture());
+    okhttp3.Request actualRequest = requestCaptor.getValue();
+
+    assertSame(response, actualResponse);
+    assertEquals(
+        "http://localhost:8089/json/list.php?lat=52.4&rad=5.0",
+        actualRequest.url().toString());
+    assertEquals("application/json", actualRequest.header("Accept"));
+    assertEquals(
+        "creativecommons.tankerkoenig.de",
+        actualRequest.header(UpstreamOverrideInterceptor.ORIGINAL_HOST_HEADER));
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fornalik.tankschlau.service;
+
+import de.fornalik.tankschlau.geo.Address;
+import de.fornalik.tankschlau.geo.Geo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightGeocodingServiceTest {
+  private AtomicInteger callCount;
+  private CountDownLatch releaseCall;
+  private GeocodingService delegate;
+  private SingleFlightGeocodingService geocodingService; // SUT
+
+  @BeforeEach
+  void setUp() {
+    callCount = new AtomicInteger();
+    releaseCall = new CountDownLatch(1);
+
+    delegate = forAddress -> {
+      callCount.incrementAndGet();
+
+      try {
+        releaseCall.await(5, TimeUnit.SECONDS);
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+
+      return TransactResult.of(new Geo(53.0, 8.0), new TransactInfoImpl(), Duration.ZERO);
+    };
+
+    geocodingService = new SingleFlightGeocodingService(delegate);
+  }
+
+  @Test
+  void findGeo_sharesCallForEqualAddressValues() throws Exception {
+    // given
+    CompletableFuture<TransactResult<Geo>> first = CompletableFuture.supplyAsync(
+        () -> geocodingService.findGeo(new Address("Some street", "Some city", "12345")));
+
+    CompletableFuture<TransactResult<Geo>> second = CompletableFuture.supplyAsync(
+        () -> geocodingService.findGeo(new Address("Some street", "Some city", "12345")));
+
+    Thread.sleep(200);
+
+    // when
+    releaseCall.countDown();
+
+    // then
+    assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+    assertEquals(1, callCount.get());
+  }
+
+  @Test
+  void findGeo_doesNotShareCallForDifferentAddresses() {
+    // given
+    releaseCall.countDown();
+
+    // when
+    geocodingService.findGeo(new Address("Some street", "Some city", "12345"));
+    geocodingService.findGeo(new Address("Other street", "Some city", "12345"));
+
+    // then
+    assertEquals(2, callCount.get());
+  }
+
+  @Test
+  void getDelegate_returnsDecoratedService() {
+    assertSame(delegate, geocodingService.getDelegate());
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fornalik.tankschlau.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+  private SingleFlight<String, String> singleFlight; // SUT
+  private AtomicInteger callCount;
+  private ExecutorService executor;
+
+  @BeforeEach
+  void setUp() {
+    singleFlight = new SingleFlight<>();
+    callCount = new AtomicInteger();
+    executor = Executors.newFixedThreadPool(4);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void execute_letsConcurrentCallersWithEqualKeyShareOneCall() throws Exception {
+    // given
+    CountDownLatch callStarted = new CountDownLatch(1);
+    CountDownLatch releaseCall = new CountDownLatch(1);
+
+    Future<String> first = executor.submit(() -> singleFlight.execute("key", () -> {
+      callCount.incrementAndGet();
+      callStarted.countDown();
+      helpAwait(releaseCall);
+      return "result";
+    }));
+
+    assertTrue(callStarted.await(5, TimeUnit.SECONDS));
+
+    // when
+    Future<String> second = executor.submit(() -> singleFlight.execute("key", () -> {
+      callCount.incrementAndGet();
+      return "other result";
+    }));
+
+    helpAwaitInFlightJoined();
+    releaseCall.countDown();
+
+    // then
+    assertEquals("result", first.get(5, TimeUnit.SECONDS));
+    assertEquals("result", second.get(5, TimeUnit.SECONDS));
+    assertEquals(1, callCount.get());
+    assertEquals(0, singleFlight.getInFlightCount());
+  }
+
+  @Test
+  void execute_doesNotShareCallsWithDifferentKeys() {
+    // when
+    String first = singleFlight.execute("key1", () -> "result" + callCount.incrementAndGet());
+    String second = singleFlight.execute("key2", () -> "result" + callCount.incrementAndGet());
+
+    // then
+    assertEquals("result1", first);
+    assertEquals("result2", second);
+  }
+
+  @Test
+  void execute_doesNotCacheCompletedCalls() {
+    // when
+    singleFlight.execute("key", () -> "result" + callCount.incrementAndGet());
+    String actualResult = singleFlight.execute("key", () -> "result" + callCount.incrementAndGet());
+
+    // then
+    assertEquals("result2", actualResult);
+    assertEquals(0, singleFlight.getInFlightCount());
+  }
+
+  @Test
+  void execute_rethrowsExceptionOfCallAndRemovesItFromFlight() {
+    // given
+    IllegalStateException expectedException = new IllegalStateException("Some failure");
+
+    // when
+    IllegalStateException actualException = assertThrows(
+        IllegalStateException.class,
+        () -> singleFlight.execute("key", () -> {
+          throw expectedException;
+        }));
+
+    // then
+    assertSame(expectedException, actualException);
+    assertEquals(0, singleFlight.getInFlightCount());
+  }
+
+  private void helpAwait(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /*
+  There is no hook to find out whether the second caller has joined the call in flight, so give it
+  some time. If it hasn't joined yet, it would start its own call and the test fails.
+  */
+  private void helpAwaitInFlightJoined() throws InterruptedException {
+    Thread.sleep(200);
+  }
+}
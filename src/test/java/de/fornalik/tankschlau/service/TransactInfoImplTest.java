@@ -44,6 +44,7 @@ class TransactInfoImplTest {
     assertEquals(Optional.empty(), transactInfo.getErrorMessage());
     assertEquals("", transactInfo.getLicence());
     assertEquals("", transactInfo.getStatus());
+    assertEquals(CacheStats.NONE, transactInfo.getCacheStats());
   }
 
   @Test
@@ -117,6 +118,7 @@ class TransactInfoImplTest {
     transactInfo.setErrorMessage("Some error value");
     transactInfo.setStatus("Some status value");
     transactInfo.setLicence("Some licence value");
+    transactInfo.setCacheStats(new CacheStats(CacheStats.Outcome.HIT, 1, 0, 0));
 
     // when
     transactInfo.reset();
@@ -125,5 +127,6 @@ class TransactInfoImplTest {
     assertEquals(initialObject.getErrorMessage(), transactInfo.getErrorMessage());
     assertEquals(initialObject.getLicence(), transactInfo.getLicence());
     assertEquals(initialObject.getStatus(), transactInfo.getStatus());
+    assertEquals(initialObject.getCacheStats(), transactInfo.getCacheStats());
   }
 }
\ No newline at end of file
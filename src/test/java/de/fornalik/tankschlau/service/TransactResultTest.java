@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactResultTest {
+  private TransactInfo givenTransactInfo;
+
+  @BeforeEach
+  void setUp() {
+    givenTransactInfo = new TransactInfoImpl();
+    givenTransactInfo.setStatus("ok");
+    givenTransactInfo.setErrorMessage("Some error");
+    givenTransactInfo.setLicence("Some licence");
+  }
+
+  @Test
+  void of_copiesValuesOfTransactInfo() {
+    // when
+    TransactResult<String> actualResult =
+        TransactResult.of("data", givenTransactInfo, Duration.ofMillis(42));
+
+    // then
+    assertEquals(Optional.of("data"), actualResult.getData());
+    assertEquals("ok", actualResult.getTransactInfo().getStatus());
+    assertEquals(Optional.of("Some error"), actualResult.getTransactInfo().getErrorMessage());
+    assertEquals("Some licence", actualResult.getTransactInfo().getLicence());
+    assertEquals(Duration.ofMillis(42), actualResult.getElapsed());
+  }
+
+  @Test
+  void of_isNotAffectedByLaterChangesOfTransactInfo() {
+    // given
+    TransactResult<String> actualResult =
+        TransactResult.of("data", givenTransactInfo, Duration.ZERO);
+
+    // when
+    givenTransactInfo.reset();
+
+    // then
+    assertEquals("ok", actualResult.getTransactInfo().getStatus());
+    assertEquals(Optional.of("Some error"), actualResult.getTransactInfo().getErrorMessage());
+    assertEquals("Some licence", actualResult.getTransactInfo().getLicence());
+  }
+
+  @Test
+  void getData_returnsEmptyIfThereIsNoData() {
+    // when
+    TransactResult<String> actualResult =
+        TransactResult.of(null, givenTransactInfo, Duration.ZERO);
+
+    // then
+    assertEquals(Optional.empty(), actualResult.getData());
+  }
+
+  @Test
+  void getTransactInfo_cannotBeCastToMutableTransactInfo() {
+    // when
+    TransactInfoView actualTransactInfo =
+        TransactResult.of("data", givenTransactInfo, Duration.ZERO).getTransactInfo();
+
+    // then
+    assertFalse(actualTransactInfo instanceof TransactInfo);
+  }
+
+  @Test
+  void withData_keepsTransactInfoAndElapsedTime() {
+    // given
+    TransactResult<String> givenResult =
+        TransactResult.of("data", givenTransactInfo, Duration.ofMillis(42));
+
+    // when
+    TransactResult<Integer> actualResult = givenResult.withData(7);
+
+    // then
+    assertEquals(Optional.of(7), actualResult.getData());
+    assertSame(givenResult.getTransactInfo(), actualResult.getTransactInfo());
+    assertEquals(Duration.ofMillis(42), actualResult.getElapsed());
+  }
+
+  @Test
+  void of_throwsOnMissingArguments() {
+    assertThrows(NullPointerException.class, () -> TransactResult.of("", null, Duration.ZERO));
+    assertThrows(NullPointerException.class, () -> TransactResult.of("", givenTransactInfo, null));
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.station;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import de.fornalik.tankschlau.testhelp_common.DomainFixtureHelp;
+import de.fornalik.tankschlau.testhelp_common.FixtureFiles;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PetrolStationJsonAdapterTest {
+  private Gson gson;
+  private DomainFixtureHelp fixture;
+
+  @BeforeEach
+  void setUp() {
+    gson = new GsonBuilder()
+        .registerTypeAdapter(PetrolStation.class, new PetrolStationJsonAdapter())
+        .create();
+
+    fixture = new DomainFixtureHelp();
+  }
+
+  @Test
+  void read_happy() {
+    // given
+    fixture.setupSingleFixture(
+        FixtureFiles.TANKERKOENIG_JSON_RESPONSE_NEIGHBOURHOOD_1STATION_HAPPY);
+
+    // when
+    PetrolStation actualPetrolStation = gson.fromJson(fixture.jsonFixture, PetrolStation.class);
+
+    // then
+    fixture.assertEqualValues(actualPetrolStation);
+  }
+
+  @Test
+  void read_returnsNullForJsonNull() {
+    // when
+    PetrolStation actualPetrolStation = gson.fromJson("null", PetrolStation.class);
+
+    // then
+    assertNull(actualPetrolStation);
+  }
+
+  @Test
+  void read_throwsOnMissingId() {
+    // given
+    fixture.setupSingleFixture(
+        FixtureFiles.TANKERKOENIG_JSON_RESPONSE_NEIGHBOURHOOD_1STATION_MISSING_ID_ELEM);
+
+    // when then
+    assertThrows(
+        NullPointerException.class,
+        () -> gson.fromJson(fixture.jsonFixture, PetrolStation.class));
+  }
+
+  @Test
+  void write_producesJsonWhichReadsBackToEqualValues() {
+    // given
+    fixture.setupFixture(FixtureFiles.TANKERKOENIG_JSON_RESPONSE_NEIGHBOURHOOD_1STATION_HAPPY);
+    PetrolStation expectedPetrolStation = fixture.convertToPetrolStations().get(0);
+
+    // when
+    String json = gson.toJson(expectedPetrolStation);
+    PetrolStation actualPetrolStation = gson.fromJson(json, PetrolStation.class);
+
+    // then
+    fixture.assertEqualValues(actualPetrolStation);
+  }
+}
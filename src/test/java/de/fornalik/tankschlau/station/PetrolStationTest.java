@@ -1,5 +1,7 @@
 package de.fornalik.tankschlau.station;
 
+import de.fornalik.tankschlau.geo.Address;
+import de.fornalik.tankschlau.geo.Geo;
 import de.fornalik.tankschlau.station.testhelp.PetrolStationTestHelper;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
@@ -140,9 +142,6 @@ class PetrolStationTest {
 
   @Test
   void findPetrol_happy() {
-    /* Note that findPetrol delegates to utility method Petrols.findPetrol which has several
-    tests on it. So we just do one happy path here */
-
     // given
     PetrolStation petrolStation = new PetrolStation(
         mockHelp.uuidFixture,
@@ -163,6 +162,142 @@ class PetrolStationTest {
     Assertions.assertFalse(actualPetrol.isPresent());
   }
 
+  @Test
+  void constructor_throwsOnDuplicatePetrolTypes() {
+    // given
+    Set<Petrol> petrols = new HashSet<>();
+    petrols.add(new Petrol(PetrolType.E10, 2.22));
+    petrols.add(new Petrol(PetrolType.E10, 1.229));
+
+    // when, then
+    assertThrows(
+        Petrols.PetrolsDuplicateException.class,
+        () -> new PetrolStation(
+            mockHelp.uuidFixture,
+            "Some Brand",
+            true,
+            mockHelp.addressMock,
+            petrols));
+  }
+
+  @Test
+  void findPrice_returnsPriceRoundedToTenthsOfACent() {
+    // given
+    Set<Petrol> petrols = new HashSet<>();
+    petrols.add(new Petrol(PetrolType.DIESEL, 1.459));
+    petrols.add(new Petrol(PetrolType.E5, 1.3509));
+
+    PetrolStation petrolStation = new PetrolStation(
+        mockHelp.uuidFixture,
+        "Some Brand",
+        true,
+        mockHelp.addressMock,
+        petrols
+    );
+
+    // when, then
+    assertEquals(1.459, petrolStation.findPrice(PetrolType.DIESEL));
+    assertEquals(1.351, petrolStation.findPrice(PetrolType.E5));
+  }
+
+  @Test
+  void findPrice_returnsZeroIfPriceNotFound() {
+    // given
+    Set<Petrol> petrols = new HashSet<>();
+    petrols.add(new Petrol(PetrolType.E10, 0.0));
+
+    PetrolStation petrolStation = new PetrolStation(
+        mockHelp.uuidFixture,
+        "Some Brand",
+        true,
+        mockHelp.addressMock,
+        petrols
+    );
+
+    // when, then
+    assertTrue(petrolStation.hasPrice(PetrolType.E10));
+    assertEquals(0.0, petrolStation.findPrice(PetrolType.E10));
+
+    assertFalse(petrolStation.hasPrice(PetrolType.E5));
+    assertEquals(0.0, petrolStation.findPrice(PetrolType.E5));
+
+    assertFalse(petrolStation.hasPrice(null));
+    assertEquals(0.0, petrolStation.findPrice(null));
+  }
+
+  @Test
+  void withPrices_replacesPricesOfCopyOnly() {
+    // given
+    PetrolStation petrolStation = new PetrolStation(
+        mockHelp.uuidFixture,
+        "Some Brand",
+        true,
+        new Address("Street", "City", "38440"),
+        mockHelp.petrolsFixture
+    );
+
+    Set<Petrol> newPetrols = new HashSet<>();
+    newPetrols.add(new Petrol(PetrolType.E5, 1.789));
+
+    // when
+    PetrolStation copy = petrolStation.withPrices(false, newPetrols);
+
+    // then
+    assertEquals(newPetrols, copy.getPetrols());
+    assertFalse(copy.isOpen());
+    assertEquals(mockHelp.petrolsFixture, petrolStation.getPetrols());
+  }
+
+  @Test
+  void withPrices_doesNotShareAddressAndGeoWithCopy() {
+    // given
+    Address givenAddress =
+        new Address("Name", "Street", "1", "City", "38440", new Geo(52.4, 10.7, 1.5));
+
+    PetrolStation petrolStation = new PetrolStation(
+        mockHelp.uuidFixture,
+        "Some Brand",
+        true,
+        givenAddress,
+        mockHelp.petrolsFixture
+    );
+
+    // when
+    PetrolStation copy = petrolStation.withPrices(false, new HashSet<>());
+    petrolStation.getGeo().get().setDistance(9.9);
+
+    // then
+    assertNotSame(givenAddress, copy.getAddress());
+    assertEquals("Name", copy.getAddress().getName());
+    assertEquals("1", copy.getAddress().getHouseNumber());
+    assertEquals(Optional.of(1.5), copy.getGeo().get().getDistance());
+    assertEquals(52.4, copy.getGeo().get().getLatitude());
+  }
+
+  @Test
+  void withDistanceTo_setsDistanceOfCopyOnly() {
+    // given
+    Geo givenGeo = new Geo(52.53083, 13.440946, 1.1);
+    Geo givenPosition = new Geo(52.520008, 13.404954);
+
+    PetrolStation petrolStation = new PetrolStation(
+        mockHelp.uuidFixture,
+        "Some Brand",
+        true,
+        new Address("Street", "City", "38440", givenGeo),
+        mockHelp.petrolsFixture
+    );
+
+    // when
+    PetrolStation copy = petrolStation.withDistanceTo(givenPosition);
+
+    // then
+    assertEquals(givenGeo.distanceTo(givenPosition), copy.getGeo().get().getDistance().get());
+    assertEquals(Optional.of(1.1), givenGeo.getDistance());
+    assertEquals(mockHelp.petrolsFixture, copy.getPetrols());
+    assertTrue(copy.isOpen());
+  }
+
   @Test
   void toString_doesNotThrow() {
     // given
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fornalik.tankschlau.station;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+import static de.fornalik.tankschlau.testhelp_common.PetrolStationFixtureHelp.createStation;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PetrolStationsChangeSetTest {
+  private static final UUID UUID_1 = UUID.fromString("474e5046-deaf-4f9b-9a32-9797b778f047");
+  private static final UUID UUID_2 = UUID.fromString("4429a7d9-fb2d-4c29-8cfe-2ca90323f9f8");
+  private static final UUID UUID_3 = UUID.fromString("446bdcf5-9f75-47fc-9cfa-2c3d6fda1c3b");
+
+  @Test
+  void between_isEmptyForEqualStations() {
+    // given
+    List<PetrolStation> previous = Arrays.asList(
+        createStation(UUID_1)
+            .withPrice(PetrolType.E5, 1.5)
+            .withPrice(PetrolType.DIESEL, 1.3)
+            .withDistance(2.0)
+            .build(),
+        createStation(UUID_2)
+            .withIsOpen(false)
+            .withPrice(PetrolType.E5, 1.4)
+            .withPrice(PetrolType.DIESEL, 1.2)
+            .withDistance(3.0)
+            .build());
+
+    List<PetrolStation> current = Arrays.asList(
+        createStation(UUID_2)
+            .withIsOpen(false)
+            .withPrice(PetrolType.E5, 1.4)
+            .withPrice(PetrolType.DIESEL, 1.2)
+            .withDistance(3.0)
+            .build(),
+        createStation(UUID_1)
+            .withPrice(PetrolType.E5, 1.5)
+            .withPrice(PetrolType.DIESEL, 1.3)
+            .withDistance(2.0)
+            .build());
+
+    // when
+    PetrolStationsChangeSet actualChangeSet = PetrolStationsChangeSet.between(previous, current);
+
+    // then
+    assertTrue(actualChangeSet.isEmpty());
+    assertFalse(actualChangeSet.hasAddedOrRemoved());
+    for (PetrolType type : PetrolType.values())
+      assertFalse(actualChangeSet.affectsOrderFor(type));
+  }
+
+  @Test
+  void between_findsAddedAndRemovedStations() {
+    // given
+    PetrolStation station1 = createStation(UUID_1)
+        .withPrice(PetrolType.E5, 1.5)
+        .withPrice(PetrolType.DIESEL, 1.3)
+        .withDistance(2.0)
+        .build();
+
+    PetrolStation station2 = createStation(UUID_2)
+        .withPrice(PetrolType.E5, 1.4)
+        .withPrice(PetrolType.DIESEL, 1.2)
+        .withDistance(3.0)
+        .build();
+
+    PetrolStation station3 = createStation(UUID_3)
+        .withPrice(PetrolType.E5, 1.6)
+        .withPrice(PetrolType.DIESEL, 1.1)
+        .withDistance(4.0)
+        .build();
+
+    // when
+    PetrolStationsChangeSet actualChangeSet = PetrolStationsChangeSet.between(
+        Arrays.asList(station1, station2),
+        Arrays.asList(station2, station3));
+
+    // then
+    assertEquals(Collections.singletonList(station3), actualChangeSet.getAdded());
+    assertEquals(Collections.singletonList(station1), actualChangeSet.getRemoved());
+    assertTrue(actualChangeSet.getChanged().isEmpty());
+    assertTrue(actualChangeSet.hasAddedOrRemoved());
+    assertTrue(actualChangeSet.affectsOrderFor(PetrolType.E5));
+  }
+
+  @Test
+  void between_findsPriceChangesPerPetrolType() {
+    // given
+    PetrolStation previous = createStation(UUID_1)
+        .withPrice(PetrolType.E5, 1.5)
+        .withPrice(PetrolType.DIESEL, 1.3)
+        .withDistance(2.0)
+        .build();
+
+    PetrolStation current = createStation(UUID_1)
+        .withPrice(PetrolType.E5, 1.5)
+        .withPrice(PetrolType.DIESEL, 1.25)
+        .withDistance(2.0)
+        .build();
+
+    // when
+    PetrolStationsChangeSet actualChangeSet = PetrolStationsChangeSet.between(
+        Collections.singletonList(previous),
+        Collections.singletonList(current));
+
+    // then
+    assertEquals(1, actualChangeSet.getChanged().size());
+
+    PetrolStationsChangeSet.Change actualChange = actualChangeSet.getChanged().get(0);
+    assertEquals(UUID_1, actualChange.getUuid());
+    assertSame(previous, actualChange.getPrevious());
+    assertSame(current, actualChange.getCurrent());
+    assertEquals(EnumSet.of(PetrolType.DIESEL), actualChange.getPriceChangedTypes());
+    assertFalse(actualChange.isOpenStateChanged());
+    assertFalse(actualChange.isDistanceChanged());
+
+    assertTrue(actualChangeSet.affectsOrderFor(PetrolType.DIESEL));
+    assertFalse(actualChangeSet.affectsOrderFor(PetrolType.E5));
+  }
+
+  @Test
+  void between_treatsMissingPriceAsPriceChange() {
+    // given
+    PetrolStation previous = createStation(UUID_1)
+        .withPrice(PetrolType.E5, 1.5)
+        .withPrice(PetrolType.DIESEL, 1.3)
+        .withDistance(2.0)
+        .build();
+
+    PetrolStation current = createStation(UUID_1)
+        .withPrice(PetrolType.E5, 1.5)
+        .withDistance(2.0)
+        .build();
+
+    // when
+    PetrolStationsChangeSet actualChangeSet = PetrolStationsChangeSet.between(
+        Collections.singletonList(previous),
+        Collections.singletonList(current));
+
+    // then
+    assertEquals(
+        EnumSet.of(PetrolType.DIESEL),
+        actualChangeSet.getChanged().get(0).getPriceChangedTypes());
+  }
+
+  @Test
+  void between_findsOpenStateChangeWithoutAffectingOrder() {
+    // given
+    PetrolStation previous = createStation(UUID_1)
+        .withPrice(PetrolType.E5, 1.5)
+        .withPrice(PetrolType.DIESEL, 1.3)
+        .withDistance(2.0)
+        .build();
+
+    PetrolStation current = createStation(UUID_1)
+        .withIsOpen(false)
+        .withPrice(PetrolType.E5, 1.5)
+        .withPrice(PetrolType.DIESEL, 1.3)
+        .withDistance(2.0)
+        .build();
+
+    // when
+    PetrolStationsChangeSet actualChangeSet = PetrolStationsChangeSet.between(
+        Collections.singletonList(previous),
+        Collections.singletonList(current));
+
+    // then
+    assertTrue(actualChangeSet.getChanged().get(0).isOpenStateChanged());
+    assertTrue(actualChangeSet.getChanged().get(0).getPriceChangedTypes().isEmpty());
+    assertFalse(actualChangeSet.isEmpty());
+    assertFalse(actualChangeSet.affectsOrderFor(PetrolType.E5));
+  }
+
+  @Test
+  void between_findsDistanceChange() {
+    // given
+    PetrolStation previous = createStation(UUID_1)
+        .withPrice(PetrolType.E5, 1.5)
+        .withPrice(PetrolType.DIESEL, 1.3)
+        .withDistance(2.0)
+        .build();
+
+    PetrolStation current = createStation(UUID_1)
+        .withPrice(PetrolType.E5, 1.5)
+        .withPrice(PetrolType.DIESEL, 1.3)
+        .withDistance(2.5)
+        .build();
+
+    // when
+    PetrolStationsChangeSet actualChangeSet = PetrolStationsChangeSet.between(
+        Collections.singletonList(previous),
+        Collections.singletonList(current));
+
+    // then
+    assertTrue(actualChangeSet.getChanged().get(0).isDistanceChanged());
+    assertTrue(actualChangeSet.affectsOrderFor(PetrolType.E10));
+  }
+
+  @Test
+  void between_throwsOnNullArguments() {
+    // when then
+    assertThrows(
+        NullPointerException.class,
+        () -> PetrolStationsChangeSet.between(null, Collections.emptyList()));
+
+    assertThrows(
+        NullPointerException.class,
+        () -> PetrolStationsChangeSet.between(Collections.emptyList(), null));
+  }
+}
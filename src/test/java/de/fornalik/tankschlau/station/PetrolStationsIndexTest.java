@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.station;
+
+import de.fornalik.tankschlau.testhelp_common.DomainFixtureHelp;
+import de.fornalik.tankschlau.testhelp_common.FixtureFiles;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static de.fornalik.tankschlau.testhelp_common.PetrolStationFixtureHelp.createStation;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PetrolStationsIndexTest {
+  private static final UUID UUID_1 = UUID.fromString("474e5046-deaf-4f9b-9a32-9797b778f047");
+  private static final UUID UUID_2 = UUID.fromString("4429a7d9-fb2d-4c29-8cfe-2ca90323f9f8");
+  private static final UUID UUID_3 = UUID.fromString("446bdcf5-9f75-47fc-9cfa-2c3d6fda1c3b");
+
+  @ParameterizedTest
+  @EnumSource(PetrolType.class)
+  void getSortedFor_equalsSortByPriceAndDistanceForPetrolType(PetrolType givenPetrolType) {
+    // given
+    DomainFixtureHelp fixture = new DomainFixtureHelp();
+    fixture.setupFixture(FixtureFiles.TANKERKOENIG_JSON_RESPONSE_NEIGHBOURHOOD_MULTI_34STATIONS_HAPPY);
+    List<PetrolStation> givenPetrolStations = fixture.convertToPetrolStations();
+    Collections.shuffle(givenPetrolStations);
+
+    List<PetrolStation> expectedPetrolStations = new ArrayList<>(givenPetrolStations);
+    PetrolStations.sortByPriceAndDistanceForPetrolType(expectedPetrolStations, givenPetrolType);
+
+    // when
+    PetrolStationsIndex index = PetrolStationsIndex.of(givenPetrolStations);
+
+    // then
+    assertEquals(expectedPetrolStations, index.getSortedFor(givenPetrolType));
+    assertEquals(expectedPetrolStations.get(0), index.findCheapest(givenPetrolType).get());
+  }
+
+  @Test
+  void getSortedFor_sortsMissingPricesAndDistancesLast() {
+    // given
+    PetrolStation withoutE5 = createStation(UUID_1)
+        .withPrice(PetrolType.DIESEL, 1.1)
+        .withDistance(1.0)
+        .build();
+
+    PetrolStation withoutDistance = createStation(UUID_2)
+        .withPrice(PetrolType.E5, 1.5)
+        .withPrice(PetrolType.DIESEL, 1.2)
+        .withDistance(null)
+        .build();
+
+    PetrolStation closest = createStation(UUID_3)
+        .withPrice(PetrolType.E5, 1.5)
+        .withPrice(PetrolType.DIESEL, 1.2)
+        .withDistance(0.5)
+        .build();
+
+    // when
+    PetrolStationsIndex index =
+        PetrolStationsIndex.of(Arrays.asList(withoutE5, withoutDistance, closest));
+
+    // then
+    assertEquals(
+        Arrays.asList(closest, withoutDistance, withoutE5),
+        index.getSortedFor(PetrolType.E5));
+
+    assertEquals(
+        Arrays.asList(withoutE5, closest, withoutDistance),
+        index.getSortedFor(PetrolType.DIESEL));
+  }
+
+  @Test
+  void getSortedFor_keepsGivenOrderOfEqualStations() {
+    // given
+    PetrolStation station1 = createStation(UUID_1)
+        .withPrice(PetrolType.E5, 1.5)
+        .withPrice(PetrolType.DIESEL, 1.2)
+        .withDistance(2.0)
+        .build();
+
+    PetrolStation station2 = createStation(UUID_2)
+        .withPrice(PetrolType.E5, 1.5)
+        .withPrice(PetrolType.DIESEL, 1.2)
+        .withDistance(2.0)
+        .build();
+
+    PetrolStation station3 = createStation(UUID_3)
+        .withPrice(PetrolType.E5, 1.5)
+        .withPrice(PetrolType.DIESEL, 1.2)
+        .withDistance(2.0)
+        .build();
+
+    // when
+    PetrolStationsIndex index = PetrolStationsIndex.of(Arrays.asList(station2, station3, station1));
+
+    // then
+    assertEquals(Arrays.asList(station2, station3, station1), index.getSortedFor(PetrolType.E5));
+  }
+
+  @Test
+  void of_doesNotMutateGivenList() {
+    // given
+    List<PetrolStation> givenPetrolStations = new ArrayList<>(Arrays.asList(
+        createStation(UUID_1)
+            .withPrice(PetrolType.E5, 1.7)
+            .withPrice(PetrolType.DIESEL, 1.2)
+            .withDistance(2.0)
+            .build(),
+        createStation(UUID_2)
+            .withPrice(PetrolType.E5, 1.5)
+            .withPrice(PetrolType.DIESEL, 1.2)
+            .withDistance(2.0)
+            .build()));
+
+    List<PetrolStation> expectedPetrolStations = new ArrayList<>(givenPetrolStations);
+
+    // when
+    PetrolStationsIndex index = PetrolStationsIndex.of(givenPetrolStations);
+    givenPetrolStations.clear();
+
+    // then
+    assertEquals(2, index.size());
+    assertEquals(expectedPetrolStations.get(1), index.findCheapest(PetrolType.E5).get());
+  }
+
+  @Test
+  void getSortedFor_isUnmodifiable() {
+    // given
+    PetrolStation station = createStation(UUID_1)
+        .withPrice(PetrolType.E5, 1.5)
+        .withPrice(PetrolType.DIESEL, 1.2)
+        .withDistance(2.0)
+        .build();
+
+    PetrolStationsIndex index = PetrolStationsIndex.of(Collections.singletonList(station));
+
+    // when then
+    assertThrows(
+        UnsupportedOperationException.class,
+        () -> index.getSortedFor(PetrolType.E5).set(0, null));
+  }
+
+  @Test
+  void withChanges_sortsAgainOnlyForAffectedPetrolTypes() {
+    // given
+    PetrolStation station1 = createStation(UUID_1)
+        .withPrice(PetrolType.E5, 1.5)
+        .withPrice(PetrolType.DIESEL, 1.2)
+        .withDistance(1.0)
+        .build();
+
+    PetrolStation station2 = createStation(UUID_2)
+        .withPrice(PetrolType.E5, 1.6)
+        .withPrice(PetrolType.DIESEL, 1.3)
+        .withDistance(2.0)
+        .build();
+
+    PetrolStation changedStation2 = createStation(UUID_2)
+        .withPrice(PetrolType.E5, 1.6)
+        .withPrice(PetrolType.DIESEL, 1.1)
+        .withDistance(2.0)
+        .build();
+
+    List<PetrolStation> givenPetrolStations = Arrays.asList(station1, station2);
+    PetrolStationsIndex givenIndex = PetrolStationsIndex.of(givenPetrolStations);
+
+    PetrolStationsChangeSet givenChangeSet = PetrolStationsChangeSet.between(
+        givenPetrolStations,
+        Arrays.asList(station1, changedStation2));
+
+    // when
+    PetrolStationsIndex actualIndex = givenIndex.withChanges(givenChangeSet);
+
+    // then
+    assertEquals(
+        Arrays.asList(station1, changedStation2),
+        actualIndex.getSortedFor(PetrolType.E5));
+
+    assertEquals(
+        Arrays.asList(changedStation2, station1),
+        actualIndex.getSortedFor(PetrolType.DIESEL));
+
+    assertEquals(Arrays.asList(station1, station2), givenIndex.getSortedFor(PetrolType.DIESEL));
+  }
+
+  @Test
+  void withChanges_throwsOnAddedOrRemovedStations() {
+    // given
+    PetrolStation station = createStation(UUID_1)
+        .withPrice(PetrolType.E5, 1.5)
+        .withDistance(1.0)
+        .build();
+
+    PetrolStationsIndex givenIndex = PetrolStationsIndex.of(Collections.singletonList(station));
+
+    PetrolStationsChangeSet givenChangeSet = PetrolStationsChangeSet.between(
+        Collections.singletonList(station),
+        Collections.emptyList());
+
+    // when then
+    assertThrows(IllegalArgumentException.class, () -> givenIndex.withChanges(givenChangeSet));
+  }
+
+  @Test
+  void empty_hasNoStations() {
+    // given
+    PetrolStationsIndex index = PetrolStationsIndex.empty();
+
+    // when
+    Optional<PetrolStation> actualCheapest = index.findCheapest(PetrolType.E10);
+
+    // then
+    assertFalse(actualCheapest.isPresent());
+    assertTrue(index.isEmpty());
+    assertTrue(index.getSortedFor(PetrolType.E10).isEmpty());
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.station;
+
+import de.fornalik.tankschlau.geo.Address;
+import de.fornalik.tankschlau.geo.Geo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static de.fornalik.tankschlau.testhelp_common.PetrolStationFixtureHelp.createStation;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PetrolStationsSnapshotFileTest {
+  private static final UUID UUID_1 = UUID.fromString("474e5046-deaf-4f9b-9a32-9797b778f047");
+  private static final UUID UUID_2 = UUID.fromString("278130b1-e062-4a0f-80cc-19e486b4c024");
+
+  private Path tempDir;
+  private Path snapshotPath;
+  private PetrolStationsSnapshotFile snapshotFile;
+
+  @BeforeEach
+  void beforeEach() throws IOException {
+    tempDir = Files.createTempDirectory("tankschlau-test");
+    snapshotPath = tempDir.resolve("sub").resolve("petrolstations.snapshot");
+    snapshotFile = new PetrolStationsSnapshotFile(snapshotPath);
+  }
+
+  @AfterEach
+  void afterEach() throws IOException {
+    try (Stream<Path> paths = Files.walk(tempDir)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  @Test
+  void read_returnsEmptyIfThereIsNoSnapshotFile() {
+    // when
+    Optional<PetrolStationsSnapshot> actualSnapshot = snapshotFile.read();
+
+    // then
+    assertFalse(actualSnapshot.isPresent());
+  }
+
+  @Test
+  void write_read_restoresAllPetrolStationData() throws IOException {
+    // given
+    PetrolStation givenStation1 = createStation(UUID_1)
+        .withBrand("TOTAL")
+        .withAddress(new Address("TOTAL BERLIN", "MARGARETE-SOMMER-STR.", "2", "BERLIN", "10407",
+            new Geo(52.53083, 13.440946, 1.1)))
+        .withPrice(PetrolType.DIESEL, 1.109)
+        .withPrice(PetrolType.E5, 1.339)
+        .build();
+
+    PetrolStation givenStation2 = createStation(UUID_2)
+        .withBrand("ARAL")
+        .withIsOpen(false)
+        .withAddress(
+            new Address("Aral Tankstelle Müllerstraße", "Müllerstraße", "", "Berlin", "13353", null))
+        .withPrice(PetrolType.E10, 1.279)
+        .build();
+
+    Instant timeBeforeWrite = Instant.ofEpochMilli(System.currentTimeMillis());
+
+    // when
+    snapshotFile.write(Arrays.asList(givenStation1, givenStation2));
+    PetrolStationsSnapshot actualSnapshot = snapshotFile.read().orElse(null);
+
+    // then
+    assertNotNull(actualSnapshot);
+    assertEquals(2, actualSnapshot.size());
+    assertFalse(actualSnapshot.getCreatedAt().isBefore(timeBeforeWrite));
+
+    assertPetrolStationEquals(givenStation1, actualSnapshot.get(0));
+    assertPetrolStationEquals(givenStation2, actualSnapshot.get(1));
+  }
+
+  @Test
+  void write_replacesExistingSnapshot() throws IOException {
+    // given
+    PetrolStation givenStation = createStation(UUID_1)
+        .withPrice(PetrolType.DIESEL, 1.109)
+        .build();
+
+    snapshotFile.write(Collections.singletonList(givenStation));
+
+    // when
+    snapshotFile.write(Collections.emptyList());
+
+    // then
+    assertEquals(0, snapshotFile.read().map(PetrolStationsSnapshot::size).orElse(-1));
+  }
+
+  @Test
+  void read_returnsEmptyIfFileIsNoSnapshot() throws IOException {
+    // given
+    Files.createDirectories(snapshotPath.getParent());
+    Files.write(snapshotPath, "no snapshot".getBytes(StandardCharsets.UTF_8));
+
+    // when
+    Optional<PetrolStationsSnapshot> actualSnapshot = snapshotFile.read();
+
+    // then
+    assertFalse(actualSnapshot.isPresent());
+  }
+
+  @Test
+  void read_returnsEmptyIfFileIsTruncated() throws IOException {
+    // given
+    PetrolStation givenStation = createStation(UUID_1)
+        .withPrice(PetrolType.DIESEL, 1.109)
+        .build();
+
+    snapshotFile.write(Collections.singletonList(givenStation));
+
+    byte[] bytes = Files.readAllBytes(snapshotPath);
+    Files.write(snapshotPath, Arrays.copyOf(bytes, bytes.length - 3));
+
+    // when
+    Optional<PetrolStationsSnapshot> actualSnapshot = snapshotFile.read();
+
+    // then
+    assertFalse(actualSnapshot.isPresent());
+  }
+
+  @Test
+  void write_read_truncatesOverlongStringsAtACharacterBoundary() throws IOException {
+    // given
+    char[] chars = new char[0xFFFE];
+    Arrays.fill(chars, 'A');
+    String givenPrefix = new String(chars);
+
+    // The 2-byte "Ü" starts at the last byte which fits into the string's length.
+    PetrolStation givenStation = createStation(UUID_1)
+        .withBrand(givenPrefix + "ÜBERLANG")
+        .build();
+
+    // when
+    snapshotFile.write(Collections.singletonList(givenStation));
+    PetrolStationsSnapshot actualSnapshot = snapshotFile.read().orElse(null);
+
+    // then
+    assertNotNull(actualSnapshot);
+    assertEquals(givenPrefix, actualSnapshot.get(0).getBrand());
+  }
+
+  private static void assertPetrolStationEquals(PetrolStation expected, PetrolStation actual) {
+    assertEquals(expected.getUuid(), actual.getUuid());
+    assertEquals(expected.getBrand(), actual.getBrand());
+    assertEquals(expected.isOpen(), actual.isOpen());
+    assertEquals(expected.getPetrols(), actual.getPetrols());
+    assertEquals(expected.getAddress().getName(), actual.getAddress().getName());
+    assertEquals(expected.getAddress().getStreet(), actual.getAddress().getStreet());
+    assertEquals(expected.getAddress().getHouseNumber(), actual.getAddress().getHouseNumber());
+    assertEquals(expected.getAddress().getCity(), actual.getAddress().getCity());
+    assertEquals(expected.getAddress().getPostCode(), actual.getAddress().getPostCode());
+    assertEquals(expected.getGeo(), actual.getGeo());
+  }
+}
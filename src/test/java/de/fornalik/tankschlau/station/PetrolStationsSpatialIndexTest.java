@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.station;
+
+import de.fornalik.tankschlau.geo.Geo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static de.fornalik.tankschlau.testhelp_common.PetrolStationFixtureHelp.createStation;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PetrolStationsSpatialIndexTest {
+  private static final Geo BERLIN = new Geo(52.5200, 13.4050);
+
+  private List<PetrolStation> givenPetrolStations;
+
+  @BeforeEach
+  void setUp() {
+    // Stations spread across Germany, with a reproducible pseudo random distribution.
+    Random random = new Random(4711L);
+    givenPetrolStations = new ArrayList<>();
+
+    for (int i = 0; i < 2000; i++) {
+      Geo geo = new Geo(47.0 + random.nextDouble() * 8.0, 6.0 + random.nextDouble() * 9.0);
+      givenPetrolStations.add(createStation(new UUID(0L, i)).withGeo(geo).build());
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(doubles = {0.0, 1.5, 25.0, 100.0, 2000.0})
+  void findWithinRadius_equalsBruteForce(double givenRadiusKm) {
+    // given
+    PetrolStationsSpatialIndex index = PetrolStationsSpatialIndex.of(givenPetrolStations);
+
+    List<PetrolStation> expected = givenPetrolStations.stream()
+        .filter(station -> distanceToBerlin(station) <= givenRadiusKm)
+        .sorted(Comparator.comparingDouble(PetrolStationsSpatialIndexTest::distanceToBerlin))
+        .collect(Collectors.toList());
+
+    // when
+    List<PetrolStation> actual = index.findWithinRadius(BERLIN, givenRadiusKm);
+
+    // then
+    assertEquals(expected, actual);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 5, 100, 2000, 5000})
+  void findNearest_equalsBruteForce(int givenK) {
+    // given
+    PetrolStationsSpatialIndex index = PetrolStationsSpatialIndex.of(givenPetrolStations);
+
+    List<PetrolStation> expected = givenPetrolStations.stream()
+        .sorted(Comparator.comparingDouble(PetrolStationsSpatialIndexTest::distanceToBerlin))
+        .limit(givenK)
+        .collect(Collectors.toList());
+
+    // when
+    List<PetrolStation> actual = index.findNearest(BERLIN, givenK);
+
+    // then
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  void findNearest_worksAcrossTheAntimeridian() {
+    // given
+    PetrolStation east = createStation(new UUID(0L, 1L)).withGeo(new Geo(0.0, 179.9)).build();
+
+    PetrolStation west = createStation(new UUID(0L, 2L)).withGeo(new Geo(0.0, -179.8)).build();
+
+    PetrolStation far = createStation(new UUID(0L, 3L)).withGeo(new Geo(0.0, 170.0)).build();
+
+    PetrolStationsSpatialIndex index =
+        PetrolStationsSpatialIndex.of(Arrays.asList(far, west, east));
+
+    // when
+    List<PetrolStation> actual = index.findNearest(new Geo(0.0, -179.95), 2);
+
+    // then
+    assertEquals(Arrays.asList(west, east), actual);
+  }
+
+  @Test
+  void of_skipsStationsWithoutGeo() {
+    // given
+    PetrolStation withoutGeo = createStation(new UUID(1L, 1L)).build();
+
+    List<PetrolStation> petrolStations = new ArrayList<>(givenPetrolStations);
+    petrolStations.add(withoutGeo);
+
+    // when
+    PetrolStationsSpatialIndex index = PetrolStationsSpatialIndex.of(petrolStations);
+
+    // then
+    assertEquals(givenPetrolStations.size(), index.size());
+    assertFalse(index.findNearest(BERLIN, petrolStations.size()).contains(withoutGeo));
+  }
+
+  @Test
+  void emptyIndex_findsNothing() {
+    // given
+    PetrolStationsSpatialIndex index = PetrolStationsSpatialIndex.of(Collections.emptyList());
+
+    // when then
+    assertEquals(0, index.size());
+    assertTrue(index.findNearest(BERLIN, 3).isEmpty());
+    assertTrue(index.findWithinRadius(BERLIN, 10.0).isEmpty());
+  }
+
+  @Test
+  void queries_throwOnNegativeArguments() {
+    // given
+    PetrolStationsSpatialIndex index = PetrolStationsSpatialIndex.of(givenPetrolStations);
+
+    // when then
+    assertThrows(IllegalArgumentException.class, () -> index.findNearest(BERLIN, -1));
+    assertThrows(IllegalArgumentException.class, () -> index.findWithinRadius(BERLIN, -0.1));
+  }
+
+  private static double distanceToBerlin(PetrolStation station) {
+    return BERLIN.distanceTo(station.getGeo().get());
+  }
+}
@@ -4,15 +4,20 @@ import de.fornalik.tankschlau.geo.Geo;
 import de.fornalik.tankschlau.testhelp_common.DomainFixtureHelp;
 import de.fornalik.tankschlau.testhelp_common.FixtureFiles;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.OptionalInt;
+import java.util.UUID;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assertions.*;
 
 class PetrolStationsTest {
   PetrolStations.PriceAndDistanceComparator comparatorUnderTest;
@@ -144,6 +149,117 @@ class PetrolStationsTest {
     }
   }
 
+  @ParameterizedTest
+  @EnumSource(PetrolType.class)
+  void findCheapest_returnsFirstStationOfSortedList(PetrolType givenPetrolType) {
+    // given
+    givenPetrolStations = helpGetShuffled34Stations();
+    List<PetrolStation> expectedPetrolStations = new ArrayList<>(givenPetrolStations);
+    PetrolStations.sortByPriceAndDistanceForPetrolType(expectedPetrolStations, givenPetrolType);
+
+    // when
+    PetrolStation actualCheapest =
+        PetrolStations.findCheapest(givenPetrolStations, givenPetrolType).get();
+
+    // then
+    assertSame(expectedPetrolStations.get(0), actualCheapest);
+  }
+
+  @Test
+  void findCheapest_returnsEmptyOptionalForEmptyList() {
+    // when then
+    assertFalse(PetrolStations.findCheapest(new ArrayList<>(), PetrolType.E5).isPresent());
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 3, 33, 34, 50})
+  void findCheapestN_returnsHeadOfSortedList(int givenK) {
+    // given
+    givenPetrolStations = helpGetShuffled34Stations();
+    List<PetrolStation> unchangedPetrolStations = new ArrayList<>(givenPetrolStations);
+    List<PetrolStation> expectedPetrolStations = new ArrayList<>(givenPetrolStations);
+    PetrolStations.sortByPriceAndDistanceForPetrolType(expectedPetrolStations, PetrolType.E10);
+
+    // when
+    List<PetrolStation> actualCheapest =
+        PetrolStations.findCheapestN(givenPetrolStations, PetrolType.E10, givenK);
+
+    // then
+    assertEquals(
+        expectedPetrolStations.subList(0, Math.min(givenK, expectedPetrolStations.size())),
+        actualCheapest);
+
+    assertEquals(unchangedPetrolStations, givenPetrolStations);
+  }
+
+  @ParameterizedTest
+  @EnumSource(PetrolType.class)
+  void findCheapestN_returnsHeadOfSortedLinkedList(PetrolType givenPetrolType) {
+    // given
+    givenPetrolStations = new LinkedList<>(helpGetShuffled34Stations());
+    List<PetrolStation> expectedPetrolStations = new ArrayList<>(givenPetrolStations);
+    PetrolStations.sortByPriceAndDistanceForPetrolType(expectedPetrolStations, givenPetrolType);
+
+    // when
+    List<PetrolStation> actualCheapest =
+        PetrolStations.findCheapestN(givenPetrolStations, givenPetrolType, 5);
+
+    // then
+    assertEquals(expectedPetrolStations.subList(0, 5), actualCheapest);
+  }
+
+  @Test
+  void findCheapestN_throwsOnNegativeK() {
+    // when then
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> PetrolStations.findCheapestN(new ArrayList<>(), PetrolType.E5, -1));
+  }
+
+  @ParameterizedTest
+  @EnumSource(PetrolType.class)
+  void rankOf_returnsOneBasedPositionInSortedList(PetrolType givenPetrolType) {
+    // given
+    givenPetrolStations = helpGetShuffled34Stations();
+    List<PetrolStation> expectedPetrolStations = new ArrayList<>(givenPetrolStations);
+    PetrolStations.sortByPriceAndDistanceForPetrolType(expectedPetrolStations, givenPetrolType);
+
+    for (int i = 0; i < expectedPetrolStations.size(); i++) {
+      UUID givenUuid = expectedPetrolStations.get(i).getUuid();
+
+      // when
+      OptionalInt actualRank =
+          PetrolStations.rankOf(givenPetrolStations, givenUuid, givenPetrolType);
+
+      // then
+      assertEquals(OptionalInt.of(i + 1), actualRank);
+    }
+  }
+
+  @Test
+  void rankOf_returnsEmptyOptionalIfStationIsNotInList() {
+    // given
+    givenPetrolStations = helpGetShuffled34Stations();
+
+    // when
+    OptionalInt actualRank = PetrolStations.rankOf(
+        givenPetrolStations,
+        UUID.fromString("00000000-0000-4000-8000-000000000000"),
+        PetrolType.E5);
+
+    // then
+    assertFalse(actualRank.isPresent());
+  }
+
+  private List<PetrolStation> helpGetShuffled34Stations() {
+    fixture
+        .setupFixture(FixtureFiles.TANKERKOENIG_JSON_RESPONSE_NEIGHBOURHOOD_MULTI_34STATIONS_HAPPY);
+
+    List<PetrolStation> petrolStations = fixture.convertToPetrolStations();
+    Collections.shuffle(petrolStations);
+    return petrolStations;
+  }
+
   private double helpGetPriceForSort(PetrolStation forPetrolStation, PetrolType forPetrolType) {
     return forPetrolStation
         .getPetrols()
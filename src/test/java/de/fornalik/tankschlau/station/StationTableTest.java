@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.station;
+
+import de.fornalik.tankschlau.testhelp_common.DomainFixtureHelp;
+import de.fornalik.tankschlau.testhelp_common.FixtureFiles;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StationTableTest {
+  private DomainFixtureHelp fixture;
+  private List<PetrolStation> givenPetrolStations;
+
+  @BeforeEach
+  void setUp() {
+    fixture = new DomainFixtureHelp();
+    fixture.setupFixture(FixtureFiles.TANKERKOENIG_JSON_RESPONSE_NEIGHBOURHOOD_MULTI_34STATIONS_HAPPY);
+    givenPetrolStations = fixture.convertToPetrolStations();
+    Collections.shuffle(givenPetrolStations);
+  }
+
+  @Test
+  void getStation_materializesEqualValues() {
+    // given
+    StationTable table = StationTable.of(givenPetrolStations);
+
+    // when
+    List<PetrolStation> actualPetrolStations = new ArrayList<>();
+    for (int row = 0; row < table.size(); row++)
+      actualPetrolStations.add(table.getStation(row));
+
+    // then
+    assertEquals(givenPetrolStations.size(), actualPetrolStations.size());
+    fixture.assertEqualValuesIgnoringSort(actualPetrolStations);
+  }
+
+  @Test
+  void getters_returnValuesOfRow() {
+    // given
+    StationTable table = StationTable.of(givenPetrolStations);
+
+    for (int row = 0; row < table.size(); row++) {
+      PetrolStation expected = givenPetrolStations.get(row);
+
+      // when then
+      assertEquals(expected.getUuid(), table.getUuid(row));
+      assertEquals(expected.isOpen(), table.isOpen(row));
+      assertEquals(expected.getBrand(), table.getBrand(row));
+      assertEquals(expected.getAddress().getCity(), table.getCity(row));
+      assertEquals(OptionalInt.of(row), table.findRow(expected.getUuid()));
+
+      for (PetrolType type : PetrolType.values()) {
+        assertEquals(expected.hasPrice(type), table.hasPrice(row, type));
+        assertEquals(expected.findPrice(type), table.findPrice(row, type));
+      }
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(PetrolType.class)
+  void sortByPriceAndDistance_equalsSortByPriceAndDistanceForPetrolType(PetrolType givenType) {
+    // given
+    StationTable table = StationTable.of(givenPetrolStations);
+    int[] givenRows = table.findRows(row -> true);
+
+    List<PetrolStation> expectedPetrolStations = new ArrayList<>(givenPetrolStations);
+    PetrolStations.sortByPriceAndDistanceForPetrolType(expectedPetrolStations, givenType);
+
+    // when
+    int[] actualRows = table.sortByPriceAndDistance(givenRows, givenType);
+
+    // then
+    assertEquals(toUuids(expectedPetrolStations), toUuids(table.getStations(actualRows)));
+    assertEquals(table.size(), givenRows.length);
+    assertEquals(0, givenRows[0]);
+  }
+
+  @ParameterizedTest
+  @EnumSource(PetrolType.class)
+  void findCheapestRow_equalsFindCheapest(PetrolType givenType) {
+    // given
+    StationTable table = StationTable.of(givenPetrolStations);
+    PetrolStation expected = PetrolStations.findCheapest(givenPetrolStations, givenType).get();
+
+    // when
+    OptionalInt actualRow = table.findCheapestRow(givenType);
+
+    // then
+    assertTrue(actualRow.isPresent());
+    assertEquals(expected.getUuid(), table.getUuid(actualRow.getAsInt()));
+  }
+
+  @Test
+  void findRows_returnsAcceptedRowsInAscendingOrder() {
+    // given
+    StationTable table = StationTable.of(givenPetrolStations);
+
+    // when
+    int[] actualRows = table.findRows(table::isOpen);
+
+    // then
+    List<UUID> expectedUuids = toUuids(givenPetrolStations.stream()
+        .filter(PetrolStation::isOpen)
+        .collect(Collectors.toList()));
+
+    assertEquals(expectedUuids, toUuids(table.getStations(actualRows)));
+  }
+
+  @Test
+  void findRow_returnsFirstRowOfUuid() {
+    // given
+    List<PetrolStation> givenDuplicates = new ArrayList<>(givenPetrolStations);
+    givenDuplicates.add(givenPetrolStations.get(0));
+    StationTable table = StationTable.of(givenDuplicates);
+
+    // when
+    OptionalInt actualRow = table.findRow(givenPetrolStations.get(0).getUuid());
+
+    // then
+    assertEquals(OptionalInt.of(0), actualRow);
+    assertFalse(table.findRow(UUID.randomUUID()).isPresent());
+  }
+
+  @Test
+  void emptyTable_hasNoRows() {
+    // given
+    StationTable table = StationTable.of(new ArrayList<>());
+
+    // when then
+    assertEquals(0, table.size());
+    assertFalse(table.findCheapestRow(PetrolType.E5).isPresent());
+    assertFalse(table.findRow(UUID.randomUUID()).isPresent());
+    assertThrows(IndexOutOfBoundsException.class, () -> table.getStation(0));
+  }
+
+  private static List<UUID> toUuids(List<PetrolStation> petrolStations) {
+    return petrolStations.stream().map(PetrolStation::getUuid).collect(Collectors.toList());
+  }
+}
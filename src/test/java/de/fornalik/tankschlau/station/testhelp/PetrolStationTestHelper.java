@@ -42,11 +42,11 @@ public class PetrolStationTestHelper {
 
   private Set<Petrol> createPetrolsFixture() {
     Set<Petrol> petrolsFixture = new HashSet<>();
-    double price = 0.0;
+    int priceInCents = 0;
 
     for (PetrolType type : PetrolType.values()) {
-      price += 1.11;
-      petrolsFixture.add(new Petrol(type, price));
+      priceInCents += 111;
+      petrolsFixture.add(new Petrol(type, priceInCents / 100.0));
     }
 
     return petrolsFixture;
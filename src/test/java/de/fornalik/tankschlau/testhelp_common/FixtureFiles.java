@@ -86,6 +86,12 @@ public class FixtureFiles {
   public static final String TANKERKOENIG_JSON_RESPONSE_LONGITUDE_ERROR =
       TANKERKOENIG_NEIGHBOURHOOD_JSON_RESPONSE_DIR + "LongitudeOutOfBoundsError.json";
 
+  public static final String TANKERKOENIG_PRICES_JSON_RESPONSE_DIR =
+      "response_fixtures/tankerkoenig/prices/json/";
+
+  public static final String TANKERKOENIG_JSON_RESPONSE_PRICES_FOUR_STATIONS =
+      TANKERKOENIG_PRICES_JSON_RESPONSE_DIR + "FourStations.json";
+
   // endregion
   // --------------------------------------------------------------------------
   // region Google Geocoding responses
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.testhelp_common;
+
+import de.fornalik.tankschlau.geo.Address;
+import de.fornalik.tankschlau.geo.Geo;
+import de.fornalik.tankschlau.station.Petrol;
+import de.fornalik.tankschlau.station.PetrolStation;
+import de.fornalik.tankschlau.station.PetrolStationBuilder;
+import de.fornalik.tankschlau.station.PetrolType;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Builds {@link PetrolStation} test objects which differ only in the values a test is about.
+ * All other values are fixed placeholders, ex. brand "Brand" and address "Street, 38440 City".
+ */
+public class PetrolStationFixtureHelp {
+  private final UUID uuid;
+  private final Set<Petrol> petrols;
+  private String brand;
+  private boolean isOpen;
+  private Geo geo;
+  private Address address;
+
+  private PetrolStationFixtureHelp(UUID uuid) {
+    this.uuid = uuid;
+    this.petrols = new HashSet<>();
+    this.brand = "Brand";
+    this.isOpen = true;
+  }
+
+  /**
+   * @param uuid UUID of the petrol station to build.
+   * @return New builder of an open petrol station without prices and without geo data.
+   */
+  public static PetrolStationFixtureHelp createStation(UUID uuid) {
+    return new PetrolStationFixtureHelp(uuid);
+  }
+
+  public PetrolStationFixtureHelp withBrand(String brand) {
+    this.brand = brand;
+    return this;
+  }
+
+  public PetrolStationFixtureHelp withIsOpen(boolean isOpen) {
+    this.isOpen = isOpen;
+    return this;
+  }
+
+  public PetrolStationFixtureHelp withPrice(PetrolType type, double price) {
+    this.petrols.add(new Petrol(type, price));
+    return this;
+  }
+
+  public PetrolStationFixtureHelp withGeo(Geo geo) {
+    this.geo = geo;
+    return this;
+  }
+
+  /**
+   * @param distance Distance in km, or null for a station with an unknown distance.
+   * @return This builder, with geo data of some fixed location at the given distance.
+   */
+  public PetrolStationFixtureHelp withDistance(Double distance) {
+    return withGeo(new Geo(52.4, 10.7, distance));
+  }
+
+  /**
+   * @param address Address to use instead of the placeholder. Overrides any geo data given to
+   *                this builder.
+   * @return This builder.
+   */
+  public PetrolStationFixtureHelp withAddress(Address address) {
+    this.address = address;
+    return this;
+  }
+
+  public PetrolStation build() {
+    return PetrolStationBuilder.create(uuid)
+        .withBrand(brand)
+        .withIsOpen(isOpen)
+        .withPetrols(new HashSet<>(petrols))
+        .withAddress(address != null ? address : new Address("Street", "City", "38440", geo))
+        .build();
+  }
+}
@@ -0,0 +1,106 @@
+package de.fornalik.tankschlau.util;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JacksonJsonProviderTest {
+  private Gson gson;
+  private JacksonJsonProvider sut;
+
+  @BeforeEach
+  void setUp() {
+    gson = new GsonBuilder()
+        .registerTypeAdapter(StatusDto.class, new StatusDtoJsonAdapter())
+        .create();
+
+    sut = new JacksonJsonProvider(gson);
+  }
+
+  @Test
+  void fromJson_readsLikeGsonJsonProvider() {
+    // given
+    String json = "{\"status\": \"ok\", \"unknown\": {\"nested\": [1, 2]}, \"count\": 17}";
+
+    // when
+    StatusDto expected = new GsonJsonProvider(gson).fromJson(json, StatusDto.class);
+    StatusDto actual = sut.fromJson(new StringReader(json), StatusDto.class);
+
+    // then
+    assertEquals("ok", actual.status);
+    assertEquals(17, actual.count);
+    assertEquals(expected.status, actual.status);
+    assertEquals(expected.count, actual.count);
+  }
+
+  @Test
+  void fromJson_returnsNullForNullOrEmptyDocument() {
+    // when then
+    assertNull(sut.fromJson((String) null, StatusDto.class));
+    assertNull(sut.fromJson("", StatusDto.class));
+    assertNull(sut.fromJson(new StringReader(""), StatusDto.class));
+  }
+
+  @Test
+  void fromJson_throwsJsonParseExceptionOnInvalidDocument() {
+    // when then
+    assertThrows(JsonParseException.class, () -> sut.fromJson("{\"status\": ", StatusDto.class));
+    assertThrows(JsonParseException.class, () -> sut.fromJson("[]", StatusDto.class));
+    assertThrows(JsonParseException.class, () -> sut.fromJson("{}{}", StatusDto.class));
+  }
+
+  @Test
+  void getName_returnsNameOfBackend() {
+    // when then
+    assertEquals("jackson", sut.getName());
+    assertEquals("gson", new GsonJsonProvider(gson).getName());
+  }
+
+  private static class StatusDto {
+    String status;
+    int count;
+  }
+
+  private static class StatusDtoJsonAdapter extends TypeAdapter<StatusDto> {
+    @Override
+    public StatusDto read(JsonReader in) throws IOException {
+      StatusDto dto = new StatusDto();
+
+      in.beginObject();
+
+      while (in.hasNext()) {
+        switch (in.nextName()) {
+          case "status":
+            dto.status = JsonReaderHelper.nextStringOrNull(in);
+            break;
+
+          case "count":
+            dto.count = in.nextInt();
+            break;
+
+          default:
+            in.skipValue();
+        }
+      }
+
+      in.endObject();
+
+      return dto;
+    }
+
+    @Override
+    public void write(JsonWriter out, StatusDto dto) {
+      throw new UnsupportedOperationException("Method not implemented.");
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package de.fornalik.tankschlau.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.google.gson.stream.JsonToken;
+import org.junit.jupiter.api.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JacksonJsonReaderTest {
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  @Test
+  void peek_reportsTokensLikeGson() throws IOException {
+    // given
+    JacksonJsonReader in = createReader("{\"a\": [1, 1.5, \"s\", true, null]}");
+
+    // when then
+    assertEquals(JsonToken.BEGIN_OBJECT, in.peek());
+    in.beginObject();
+    assertEquals(JsonToken.NAME, in.peek());
+    assertEquals("a", in.nextName());
+    in.beginArray();
+    assertEquals(JsonToken.NUMBER, in.peek());
+    assertEquals(1, in.nextInt());
+    assertEquals(1.5, in.nextDouble());
+    assertEquals(JsonToken.STRING, in.peek());
+    assertEquals("s", in.nextString());
+    assertTrue(in.nextBoolean());
+    assertEquals(JsonToken.NULL, in.peek());
+    in.nextNull();
+    assertFalse(in.hasNext());
+    in.endArray();
+    in.endObject();
+    assertEquals(JsonToken.END_DOCUMENT, in.peek());
+  }
+
+  @Test
+  void nextString_andNextDouble_convertBetweenNumbersAndStrings() throws IOException {
+    // given
+    JacksonJsonReader in = createReader("[1.339, \"1.459\", 7.0]");
+    in.beginArray();
+
+    // when then
+    assertEquals("1.339", in.nextString());
+    assertEquals(1.459, in.nextDouble());
+    assertEquals(7L, in.nextLong());
+  }
+
+  @Test
+  void nextInt_throwsOnFraction() throws IOException {
+    // given
+    JacksonJsonReader in = createReader("[1.5]");
+    in.beginArray();
+
+    // when then
+    assertThrows(NumberFormatException.class, in::nextInt);
+  }
+
+  @Test
+  void skipValue_skipsNestedValues() throws IOException {
+    // given
+    JacksonJsonReader in = createReader("{\"skip\": {\"x\": [1, {\"y\": 2}]}, \"keep\": 3}");
+    in.beginObject();
+    in.nextName();
+
+    // when
+    in.skipValue();
+
+    // then
+    assertEquals("keep", in.nextName());
+    assertEquals(3, in.nextInt());
+  }
+
+  @Test
+  void beginObject_throwsOnUnexpectedToken() throws IOException {
+    // given
+    JacksonJsonReader in = createReader("[]");
+
+    // when then
+    IllegalStateException e = assertThrows(IllegalStateException.class, in::beginObject);
+    assertTrue(e.getMessage().startsWith("Expected BEGIN_OBJECT but was BEGIN_ARRAY"));
+  }
+
+  @Test
+  void peek_throwsEofExceptionOnEmptyDocument() throws IOException {
+    // given
+    JacksonJsonReader in = createReader("");
+
+    // when then
+    assertThrows(EOFException.class, in::peek);
+  }
+
+  private static JacksonJsonReader createReader(String json) throws IOException {
+    return new JacksonJsonReader(JSON_FACTORY.createParser(json));
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.fornalik.tankschlau.webserviceapi.common;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import de.fornalik.tankschlau.geo.Address;
+import de.fornalik.tankschlau.geo.AddressJsonAdapter;
+import de.fornalik.tankschlau.geo.Geo;
+import de.fornalik.tankschlau.geo.GeoJsonAdapter;
+import de.fornalik.tankschlau.station.PetrolStation;
+import de.fornalik.tankschlau.webserviceapi.tankerkoenig.TankerkoenigResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonTypeAdapterFactoryTest {
+  private JsonTypeAdapterFactory factory;
+  private Gson gson;
+
+  @BeforeEach
+  void setUp() {
+    factory = new JsonTypeAdapterFactory();
+    gson = new Gson();
+  }
+
+  @Test
+  void create_returnsAdapterForKnownTypes() {
+    // when then
+    assertNotNull(factory.create(gson, TypeToken.get(Geo.class)));
+    assertNotNull(factory.create(gson, TypeToken.get(Address.class)));
+    assertNotNull(factory.create(gson, TypeToken.get(PetrolStation.class)));
+    assertNotNull(factory.create(gson, TypeToken.get(TankerkoenigResponse.ResponseDto.class)));
+  }
+
+  @Test
+  void create_returnsNullForUnknownTypes() {
+    // when then
+    assertNull(factory.create(gson, TypeToken.get(String.class)));
+    assertNull(factory.create(gson, TypeToken.get(GeoJsonAdapter.class)));
+    assertNull(factory.create(gson, TypeToken.get(AddressJsonAdapter.Fields.class)));
+  }
+}
@@ -71,7 +71,7 @@ class PetrolStationMessageContentTest {
 
     when(petrolStationMock.isOpen()).thenReturn(stationIsOpen);
     when(petrolStationMock.getAddress().getName()).thenReturn(expectedPetrolStationName);
-    when(petrolStationMock.getAddress().getGeo()).thenReturn(Optional.of(geoMock));
+    when(petrolStationMock.getGeo()).thenReturn(Optional.of(geoMock));
     when(petrolStationMock.getAddress().getStreetAndHouseNumber()).thenReturn(expectedStreetName);
     when(petrolStationMock.findPetrol(any())).thenReturn(Optional.ofNullable(petrolMock));
 
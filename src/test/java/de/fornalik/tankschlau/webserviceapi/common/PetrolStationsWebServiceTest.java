@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fornalik.tankschlau.webserviceapi.common;
+
+import de.fornalik.tankschlau.geo.Geo;
+import de.fornalik.tankschlau.service.PetrolStationsRepo;
+import de.fornalik.tankschlau.service.TransactInfoImpl;
+import de.fornalik.tankschlau.service.TransactResult;
+import de.fornalik.tankschlau.station.PetrolStation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static de.fornalik.tankschlau.testhelp_common.PetrolStationFixtureHelp.createStation;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PetrolStationsWebServiceTest {
+  private FakeRepo repo;
+  private MutableClock clock;
+  private Geo geo;
+
+  private PetrolStationsWebService sut;
+
+  @BeforeEach
+  void setUp() {
+    repo = new FakeRepo(Arrays.asList(
+        createStation(UUID.randomUUID()).build(),
+        createStation(UUID.randomUUID()).build()));
+    clock = new MutableClock(Instant.parse("2020-11-21T10:00:00Z"));
+    geo = new Geo(52.4079755, 10.7725368, 8.5);
+
+    sut = new PetrolStationsWebService(repo, null, clock);
+  }
+
+  @Test
+  void getNeighbourhoodStations_refreshesPricesOnlyAfterCompleteSearch() {
+    // when
+    sut.getNeighbourhoodStations(geo);
+    List<PetrolStation> actualStations =
+        sut.getNeighbourhoodStations(geo).getData().orElse(null);
+
+    // then
+    assertEquals(1, repo.findAllCount);
+    assertEquals(1, repo.refreshPricesCount);
+    assertEquals(repo.stations, actualStations);
+    assertEquals(
+        repo.stations.stream().map(PetrolStation::getUuid).collect(Collectors.toList()),
+        new ArrayList<>(repo.lastRefreshedUuids));
+  }
+
+  @Test
+  void getNeighbourhoodStations_searchesCompletelyIfMasterDataIsTooOld() {
+    // given
+    sut.getNeighbourhoodStations(geo);
+    clock.advance(PetrolStationsWebService.MASTER_DATA_MAX_AGE);
+
+    // when
+    sut.getNeighbourhoodStations(geo);
+
+    // then
+    assertEquals(2, repo.findAllCount);
+    assertEquals(0, repo.refreshPricesCount);
+  }
+
+  @Test
+  void getNeighbourhoodStations_searchesCompletelyForOtherNeighbourhood() {
+    // given
+    sut.getNeighbourhoodStations(geo);
+
+    // when
+    sut.getNeighbourhoodStations(new Geo(52.4079755, 10.7725368, 10.0));
+
+    // then
+    assertEquals(2, repo.findAllCount);
+    assertEquals(0, repo.refreshPricesCount);
+  }
+
+  @Test
+  void getNeighbourhoodStations_findsStationsLocallyWithinSmallerRadius() {
+    // given
+    PetrolStation near = createStation(UUID.randomUUID())
+        .withGeo(new Geo(52.4169755, 10.7725368, 1.0))
+        .build();
+
+    PetrolStation far = createStation(UUID.randomUUID())
+        .withGeo(new Geo(52.4619755, 10.7725368, 6.0))
+        .build();
+
+    repo = new FakeRepo(Arrays.asList(near, far));
+    sut = new PetrolStationsWebService(repo, null, clock);
+    sut.getNeighbourhoodStations(geo);
+
+    // when
+    List<PetrolStation> actualStations = sut
+        .getNeighbourhoodStations(new Geo(52.4079755, 10.7725368, 3.0))
+        .getData()
+        .orElse(null);
+
+    // then
+    assertEquals(1, repo.findAllCount);
+    assertEquals(1, repo.refreshPricesCount);
+    assertEquals(Collections.singletonList(near.getUuid()), repo.lastRefreshedUuids);
+    assertEquals(1, actualStations.size());
+    assertEquals(near.getUuid(), actualStations.get(0).getUuid());
+  }
+
+  @Test
+  void getNeighbourhoodStations_calculatesDistancesLocallyForMovedLocation() {
+    // given
+    PetrolStation near = createStation(UUID.randomUUID())
+        .withGeo(new Geo(52.4169755, 10.7725368, 1.0))
+        .build();
+
+    repo = new FakeRepo(Collections.singletonList(near));
+    sut = new PetrolStationsWebService(repo, null, clock);
+    sut.getNeighbourhoodStations(geo);
+
+    // when
+    List<PetrolStation> actualStations = sut
+        .getNeighbourhoodStations(new Geo(52.4169755, 10.7725368, 2.0))
+        .getData()
+        .orElse(null);
+
+    // then
+    assertEquals(1, repo.findAllCount);
+    assertEquals(0.0, actualStations.get(0).getGeo().get().getDistance().get(), 1e-9);
+    assertEquals(Optional.of(1.0), near.getGeo().get().getDistance());
+  }
+
+  @Test
+  void getNeighbourhoodStations_searchesCompletelyIfRefreshIsIncomplete() {
+    // given
+    sut.getNeighbourhoodStations(geo);
+    repo.refreshedStationsLimit = 1;
+
+    // when
+    List<PetrolStation> actualStations =
+        sut.getNeighbourhoodStations(geo).getData().orElse(null);
+
+    // then
+    assertEquals(2, repo.findAllCount);
+    assertEquals(1, repo.refreshPricesCount);
+    assertEquals(repo.stations, actualStations);
+  }
+
+  @Test
+  void getNeighbourhoodStations_doesNotReuseFailedCompleteSearch() {
+    // given
+    repo.findAllErrorMessage = "Service unavailable";
+    sut.getNeighbourhoodStations(geo);
+    repo.findAllErrorMessage = null;
+
+    // when
+    sut.getNeighbourhoodStations(geo);
+
+    // then
+    assertEquals(2, repo.findAllCount);
+    assertEquals(0, repo.refreshPricesCount);
+  }
+
+  private static class FakeRepo implements PetrolStationsRepo {
+    private final List<PetrolStation> stations;
+    private int findAllCount;
+    private int refreshPricesCount;
+    private int refreshedStationsLimit = Integer.MAX_VALUE;
+    private String findAllErrorMessage;
+    private Collection<UUID> lastRefreshedUuids;
+
+    private FakeRepo(List<PetrolStation> stations) {
+      this.stations = stations;
+    }
+
+    @Override
+    public TransactResult<List<PetrolStation>> findAllInNeighbourhood(Geo geo) {
+      findAllCount++;
+
+      TransactInfoImpl transactInfo = new TransactInfoImpl();
+      transactInfo.setErrorMessage(findAllErrorMessage);
+
+      return TransactResult.of(new ArrayList<>(stations), transactInfo, Duration.ZERO);
+    }
+
+    @Override
+    public TransactResult<List<PetrolStation>> refreshPrices(Collection<UUID> uuids) {
+      refreshPricesCount++;
+      lastRefreshedUuids = uuids;
+
+      List<PetrolStation> refreshed = stations.stream()
+          .filter(station -> uuids.contains(station.getUuid()))
+          .limit(refreshedStationsLimit)
+          .collect(Collectors.toList());
+
+      return TransactResult.of(refreshed, new TransactInfoImpl(), Duration.ZERO);
+    }
+  }
+
+  private static class MutableClock extends Clock {
+    private Instant instant;
+
+    private MutableClock(Instant instant) {
+      this.instant = instant;
+    }
+
+    private void advance(Duration duration) {
+      instant = instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
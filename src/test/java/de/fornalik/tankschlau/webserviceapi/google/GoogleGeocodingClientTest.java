@@ -16,7 +16,7 @@
 
 package de.fornalik.tankschlau.webserviceapi.google;
 
-import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import de.fornalik.tankschlau.geo.Address;
 import de.fornalik.tankschlau.geo.Geo;
 import de.fornalik.tankschlau.net.HttpClient;
@@ -24,9 +24,13 @@ import de.fornalik.tankschlau.net.ResponseBody;
 import de.fornalik.tankschlau.net.ResponseBodyImpl;
 import de.fornalik.tankschlau.service.TransactInfo;
 import de.fornalik.tankschlau.service.TransactInfoImpl;
+import de.fornalik.tankschlau.service.TransactResult;
 import de.fornalik.tankschlau.testhelp_common.FixtureFiles;
 import de.fornalik.tankschlau.testhelp_common.GeocodingFixtureHelp;
+import de.fornalik.tankschlau.util.GsonJsonProvider;
+import de.fornalik.tankschlau.util.JsonProvider;
 import de.fornalik.tankschlau.webserviceapi.common.AddressRequest;
+import de.fornalik.tankschlau.webserviceapi.common.JsonTypeAdapterFactory;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -34,6 +38,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -44,7 +50,7 @@ import static org.mockito.Mockito.*;
 class GoogleGeocodingClientTest {
   private static HttpClient httpClientMock;
   private static AddressRequest addressRequestMock;
-  private static Gson jsonProvider;
+  private static JsonProvider jsonProvider;
 
   private GoogleGeocodingClient geocodingClient; // SUT
   private Geo actualGeo;
@@ -59,7 +65,9 @@ class GoogleGeocodingClientTest {
   static void beforeAll() {
     httpClientMock = mock(HttpClient.class);
     addressRequestMock = mock(AddressRequest.class);
-    jsonProvider = new Gson();
+    jsonProvider = new GsonJsonProvider(new GsonBuilder()
+        .registerTypeAdapterFactory(new JsonTypeAdapterFactory())
+        .create());
   }
 
   @AfterAll
@@ -85,10 +93,13 @@ class GoogleGeocodingClientTest {
 
   private void setupFixture(String path) {
     fixture.setupFixture(path);
-    when(responseBodyMock.getData(String.class)).thenReturn(fixture.jsonFixture);
+    when(responseBodyMock.getData(Reader.class)).thenReturn(new StringReader(fixture.jsonFixture));
     when(httpClientMock.newCall(any(), any(), any())).thenReturn(response);
 
-    this.geocodingClient = new GoogleGeocodingClient(httpClientMock, addressRequestMock, response);
+    this.geocodingClient = new GoogleGeocodingClient(
+        httpClientMock,
+        () -> addressRequestMock,
+        () -> response);
   }
 
   // endregion
@@ -106,7 +117,7 @@ class GoogleGeocodingClientTest {
 
     // when
     //noinspection OptionalGetWithoutIsPresent
-    actualGeo = geocodingClient.findGeo(addressMock).get();
+    actualGeo = geocodingClient.findGeo(addressMock).getData().get();
 
     // then
     fixture.assertEqualValues(actualGeo);
@@ -120,7 +131,7 @@ class GoogleGeocodingClientTest {
     when(responseBodyMock.getData(any())).thenReturn(null);
 
     // when
-    Optional<Geo> actualOptionalGeo = geocodingClient.findGeo(addressMock);
+    Optional<Geo> actualOptionalGeo = geocodingClient.findGeo(addressMock).getData();
 
     // when then
     assertEquals(Optional.empty(), actualOptionalGeo);
@@ -132,9 +143,9 @@ class GoogleGeocodingClientTest {
     setupFixture(FixtureFiles.GOOGLE_GEO_RESPONSE_50_1078234_8_5413809_Rooftop);
 
     // when
-    geocodingClient.findGeo(addressMock);
+    TransactResult<Geo> actualResult = geocodingClient.findGeo(addressMock);
 
     // then
-    assertEquals("Geo data powered by Google.", geocodingClient.getTransactInfo().getLicence());
+    assertEquals("Geo data powered by Google.", actualResult.getTransactInfo().getLicence());
   }
 }
\ No newline at end of file
@@ -16,13 +16,16 @@
 
 package de.fornalik.tankschlau.webserviceapi.google;
 
-import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import de.fornalik.tankschlau.geo.Geo;
 import de.fornalik.tankschlau.net.ResponseBody;
 import de.fornalik.tankschlau.service.TransactInfo;
 import de.fornalik.tankschlau.service.TransactInfoImpl;
 import de.fornalik.tankschlau.testhelp_common.FixtureFiles;
 import de.fornalik.tankschlau.testhelp_common.GeocodingFixtureHelp;
+import de.fornalik.tankschlau.util.GsonJsonProvider;
+import de.fornalik.tankschlau.util.JsonProvider;
+import de.fornalik.tankschlau.webserviceapi.common.JsonTypeAdapterFactory;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -36,14 +39,16 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
 
 class GoogleGeocodingResponseTest {
-  private static Gson jsonProvider;
+  private static JsonProvider jsonProvider;
   private Geo actualGeo;
   private GeocodingFixtureHelp fixture;
   private GoogleGeocodingResponse googleGeocodingResponse;
 
   @BeforeAll
   static void beforeAll() {
-    jsonProvider = new Gson();
+    jsonProvider = new GsonJsonProvider(new GsonBuilder()
+        .registerTypeAdapterFactory(new JsonTypeAdapterFactory())
+        .create());
   }
 
   @AfterAll
@@ -122,10 +127,27 @@ class GoogleGeocodingResponseTest {
     assertEquals(Optional.empty(), expectedGeo);
   }
 
+  @Test
+  void fromJson_usesFirstResultAndSkipsAllOthers() {
+    // given
+    String givenJsonString = "{\"results\": ["
+        + "{\"geometry\": {\"location\": {\"lat\": 52.1, \"lng\": 13.1}, "
+        + "\"location_type\": \"ROOFTOP\"}, \"types\": [\"street_address\"]},"
+        + "{\"geometry\": {\"location\": {\"lat\": 48.2, \"lng\": 11.2}}}"
+        + "], \"status\": \"OK\"}";
+
+    // when
+    actualGeo = googleGeocodingResponse.fromJson(givenJsonString, Geo.class).orElse(null);
+
+    // then
+    assertEquals(new Geo(52.1, 13.1), actualGeo);
+    assertEquals("OK", googleGeocodingResponse.getTransactInfo().getStatus());
+  }
+
   @Test
   void fromJson_returnsEmptyOptionalIfGivenJsonStringIsNullOrEmpty() {
     // when
-    Optional<Geo> actualOptionalGeo = googleGeocodingResponse.fromJson(null, Geo.class);
+    Optional<Geo> actualOptionalGeo = googleGeocodingResponse.fromJson((String) null, Geo.class);
     // then
     assertEquals(Optional.empty(), actualOptionalGeo);
 
@@ -141,7 +163,7 @@ class GoogleGeocodingResponseTest {
     String expectedMessagePart = "JSON string could not be converted";
 
     // when
-    googleGeocodingResponse.fromJson(null, String.class);
+    googleGeocodingResponse.fromJson((String) null, String.class);
 
     // then
     assertTrue(
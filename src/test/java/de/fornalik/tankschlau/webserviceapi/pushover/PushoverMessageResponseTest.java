@@ -16,12 +16,15 @@
 
 package de.fornalik.tankschlau.webserviceapi.pushover;
 
-import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import de.fornalik.tankschlau.net.ResponseBody;
 import de.fornalik.tankschlau.service.TransactInfo;
 import de.fornalik.tankschlau.service.TransactInfoImpl;
 import de.fornalik.tankschlau.testhelp_common.FixtureFiles;
 import de.fornalik.tankschlau.testhelp_common.PushoverFixtureHelp;
+import de.fornalik.tankschlau.util.GsonJsonProvider;
+import de.fornalik.tankschlau.util.JsonProvider;
+import de.fornalik.tankschlau.webserviceapi.common.JsonTypeAdapterFactory;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -35,7 +38,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
 
 class PushoverMessageResponseTest {
-  private static Gson jsonProvider;
+  private static JsonProvider jsonProvider;
   ResponseBody responseBodyMock;
   TransactInfo transactInfoMock;
   private PushoverFixtureHelp fixture;
@@ -43,7 +46,9 @@ class PushoverMessageResponseTest {
 
   @BeforeAll
   static void beforeAll() {
-    jsonProvider = new Gson();
+    jsonProvider = new GsonJsonProvider(new GsonBuilder()
+        .registerTypeAdapterFactory(new JsonTypeAdapterFactory())
+        .create());
   }
 
   @AfterAll
@@ -92,7 +97,7 @@ class PushoverMessageResponseTest {
   @Test
   void fromJson_createsErrorMessageIfResponseIsNull() {
     // when
-    pushoverMessageResponse.fromJson(null, Void.class);
+    pushoverMessageResponse.fromJson((String) null, Void.class);
 
     // then
     assertTrue(pushoverMessageResponse.getTransactInfo().getErrorMessage().isPresent());
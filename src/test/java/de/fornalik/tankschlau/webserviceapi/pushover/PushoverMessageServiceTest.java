@@ -16,14 +16,18 @@
 
 package de.fornalik.tankschlau.webserviceapi.pushover;
 
-import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import de.fornalik.tankschlau.net.*;
 import de.fornalik.tankschlau.service.TransactInfo;
 import de.fornalik.tankschlau.service.TransactInfoImpl;
+import de.fornalik.tankschlau.service.TransactResult;
 import de.fornalik.tankschlau.testhelp_common.FixtureFiles;
 import de.fornalik.tankschlau.testhelp_common.PushoverFixtureHelp;
 import de.fornalik.tankschlau.user.ApiKeyManager;
 import de.fornalik.tankschlau.user.UserPrefs;
+import de.fornalik.tankschlau.util.GsonJsonProvider;
+import de.fornalik.tankschlau.util.JsonProvider;
+import de.fornalik.tankschlau.webserviceapi.common.JsonTypeAdapterFactory;
 import de.fornalik.tankschlau.webserviceapi.common.MessageContent;
 import de.fornalik.tankschlau.webserviceapi.common.MessageRequest;
 import org.junit.jupiter.api.AfterAll;
@@ -38,7 +42,7 @@ import static org.mockito.Mockito.*;
 
 class PushoverMessageServiceTest {
   private static HttpClient httpClientMock;
-  private static Gson jsonProvider;
+  private static JsonProvider jsonProvider;
   private static MessageRequest messageRequestMock;
 
   private PushoverFixtureHelp fixture;
@@ -51,7 +55,9 @@ class PushoverMessageServiceTest {
 
   @BeforeAll
   static void beforeAll() {
-    jsonProvider = new Gson();
+    jsonProvider = new GsonJsonProvider(new GsonBuilder()
+        .registerTypeAdapterFactory(new JsonTypeAdapterFactory())
+        .create());
     httpClientMock = mock(HttpClient.class);
     messageRequestMock = mock(MessageRequest.class);
   }
@@ -76,8 +82,8 @@ class PushoverMessageServiceTest {
 
     this.messageClient = new PushoverMessageService(
         httpClientMock,
-        messageRequestMock,
-        messageResponse);
+        () -> messageRequestMock,
+        () -> messageResponse);
   }
 
   private void setupFixture(String path) {
@@ -87,8 +93,8 @@ class PushoverMessageServiceTest {
 
     this.messageClient = new PushoverMessageService(
         httpClientMock,
-        messageRequestMock,
-        messageResponse);
+        () -> messageRequestMock,
+        () -> messageResponse);
   }
 
   // @Test
@@ -106,26 +112,26 @@ class PushoverMessageServiceTest {
 
     PushoverMessageService messageClient = new PushoverMessageService(
         realHttpClient,
-        realRequest,
-        realResponse);
+        () -> realRequest,
+        () -> realResponse);
 
     MessageContent realMessageContent = new PushoverMessageContent();
     realMessageContent.setTitle("New price for station!");
     realMessageContent.setMessage("UTF-8? Umlauts! ÖÄÜ öäü ß.\nThis should be a new line");
 
     // when
-    Response response = messageClient.sendMessage(realMessageContent);
+    TransactResult<String> result = messageClient.sendMessage(realMessageContent);
 
     // then
-    // Assert that response and response.getTransactInfo() are guaranteed to be non-null
+    // Assert that result and result.getTransactInfo() are guaranteed to be non-null
     // in all cases except exceptions (-;
-    assertNotNull(response);
-    assertNotNull(response.getTransactInfo());
-    assertEquals("1", messageClient.getTransactInfo().getStatus());
+    assertNotNull(result);
+    assertNotNull(result.getTransactInfo());
+    assertEquals("1", result.getTransactInfo().getStatus());
 
-    System.out.println("RESPONSE BODY: " + response.getBody().getData(String.class));
-    System.out.println("RESPONSE STATUS: " + response.getTransactInfo().getStatus());
-    System.out.println("RESPONSE ERROR MESSAGE: " + response.getTransactInfo().getErrorMessage());
+    System.out.println("RESPONSE BODY: " + result.getData().orElse(null));
+    System.out.println("RESPONSE STATUS: " + result.getTransactInfo().getStatus());
+    System.out.println("RESPONSE ERROR MESSAGE: " + result.getTransactInfo().getErrorMessage());
   }
 
   @Test
@@ -139,12 +145,12 @@ class PushoverMessageServiceTest {
     setupFixture(FixtureFiles.PUSHOVER_RESPONSE_STATUS_1);
 
     // when
-    messageClient.sendMessage(messageContentMock);
+    TransactResult<String> actualResult = messageClient.sendMessage(messageContentMock);
 
     // then
     assertEquals(
         "Push messages provided by pushover.net",
-        messageClient.getTransactInfo().getLicence());
+        actualResult.getTransactInfo().getLicence());
   }
 
   private void helpIntegrationTestSetup() {
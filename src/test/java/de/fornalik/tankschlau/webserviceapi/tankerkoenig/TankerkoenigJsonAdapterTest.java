@@ -18,24 +18,41 @@ package de.fornalik.tankschlau.webserviceapi.tankerkoenig;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import de.fornalik.tankschlau.station.Petrol;
 import de.fornalik.tankschlau.station.PetrolStation;
+import de.fornalik.tankschlau.station.PetrolType;
 import de.fornalik.tankschlau.station.Petrols;
 import de.fornalik.tankschlau.station.PetrolsJsonAdapter;
 import de.fornalik.tankschlau.testhelp_common.DomainFixtureHelp;
 import de.fornalik.tankschlau.testhelp_common.FixtureFiles;
+import de.fornalik.tankschlau.util.GsonJsonProvider;
+import de.fornalik.tankschlau.util.JacksonJsonProvider;
+import de.fornalik.tankschlau.util.JsonProvider;
 import de.fornalik.tankschlau.util.StringLegalizer;
+import de.fornalik.tankschlau.webserviceapi.common.JsonTypeAdapterFactory;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class TankerkoenigJsonAdapterTest {
-  private static Gson jsonProvider;
+  private static Gson gson;
+  private static JsonProvider jsonProvider;
 
   private TankerkoenigJsonAdapter sut;
   private List<PetrolStation> actualPetrolStations;
@@ -43,13 +60,17 @@ class TankerkoenigJsonAdapterTest {
 
   @BeforeAll
   static void beforeAll() {
-    jsonProvider = new GsonBuilder()
+    gson = new GsonBuilder()
         .registerTypeAdapter(Petrols.class, new PetrolsJsonAdapter())
+        .registerTypeAdapterFactory(new JsonTypeAdapterFactory())
         .create();
+
+    jsonProvider = new GsonJsonProvider(gson);
   }
 
   @AfterAll
   static void afterAll() {
+    gson = null;
     jsonProvider = null;
   }
 
@@ -218,4 +239,166 @@ class TankerkoenigJsonAdapterTest {
     assertEquals(17, actualPetrolStations.size());
     fixture.assertEqualValuesIgnoringSort(actualPetrolStations);
   }
+
+  @Test
+  void readListResponse_readsRootLevelDataAndStationsInOnePass() {
+    // given
+    fixture.setupFixture(FixtureFiles.TANKERKOENIG_JSON_RESPONSE_NEIGHBOURHOOD_MULTI_34STATIONS_HAPPY);
+
+    // when
+    TankerkoenigJsonAdapter.ListResponse actual =
+        sut.readListResponse(new StringReader(fixture.jsonFixture));
+
+    // then
+    assertTrue(actual.getResponseDto().isOk());
+    assertEquals(fixture.objectFixture.status, actual.getResponseDto().getStatus());
+    assertEquals(fixture.objectFixture.getLicence(), actual.getResponseDto().getLicense());
+    assertEquals(34, actual.getPetrolStations().size());
+    fixture.assertEqualValuesIgnoringSort(actual.getPetrolStations());
+  }
+
+  @Test
+  void readListResponse_readsErrorMessageOfFailedResponse() {
+    // given
+    fixture.setupFixture(FixtureFiles.TANKERKOENIG_JSON_RESPONSE_LONGITUDE_ERROR);
+
+    // when
+    TankerkoenigJsonAdapter.ListResponse actual =
+        sut.readListResponse(new StringReader(fixture.jsonFixture));
+
+    // then
+    assertFalse(actual.getResponseDto().isOk());
+    assertEquals(fixture.objectFixture.message, actual.getResponseDto().getMessage());
+    assertEquals(0, actual.getPetrolStations().size());
+  }
+
+  @Test
+  void readListResponse_throwsIfStationsAreNoJsonObjects() {
+    // given
+    // Note: DomainFixtureHelp can't map this fixture, so we read the raw file.
+    Reader reader = new InputStreamReader(
+        getClass().getClassLoader().getResourceAsStream(
+            FixtureFiles.TANKERKOENIG_JSON_RESPONSE_NEIGHBOURHOOD_STATIONS_ARRAY_IS_STRING_ARRAY),
+        StandardCharsets.UTF_8);
+
+    // when then
+    assertThrows(IllegalStateException.class, () -> sut.readListResponse(reader));
+  }
+
+  @Test
+  void readListResponse_throwsJsonParseExceptionOnMalformedJson() {
+    // given
+    StringReader reader = new StringReader("{\"ok\": true, \"stations\": [");
+
+    // when then
+    assertThrows(JsonParseException.class, () -> sut.readListResponse(reader));
+  }
+
+  @Test
+  void readPricesResponse_readsStatusAndPricesPerStation() {
+    // given
+    Reader reader = new InputStreamReader(
+        getClass().getClassLoader().getResourceAsStream(
+            FixtureFiles.TANKERKOENIG_JSON_RESPONSE_PRICES_FOUR_STATIONS),
+        StandardCharsets.UTF_8);
+
+    // when
+    TankerkoenigJsonAdapter.PricesResponse actualResponse = sut.readPricesResponse(reader);
+
+    // then
+    assertTrue(actualResponse.getResponseDto().isOk());
+    assertEquals(4, actualResponse.getPrices().size());
+
+    TankerkoenigJsonAdapter.StationPrices open = actualResponse.getPrices()
+        .get(UUID.fromString("474e5046-deaf-4f9b-9a32-9797b778f047"));
+    assertTrue(open.isOpen());
+    assertTrue(open.isFound());
+    assertEquals(
+        new HashSet<>(Arrays.asList(
+            new Petrol(PetrolType.E5, 1.359),
+            new Petrol(PetrolType.DIESEL, 1.119))),
+        open.getPetrols());
+
+    TankerkoenigJsonAdapter.StationPrices closed = actualResponse.getPrices()
+        .get(UUID.fromString("4429a7d9-fb2d-4c29-8cfe-2ca90323f9f8"));
+    assertFalse(closed.isOpen());
+    assertTrue(closed.isFound());
+    assertTrue(closed.getPetrols().isEmpty());
+
+    TankerkoenigJsonAdapter.StationPrices noPrices = actualResponse.getPrices()
+        .get(UUID.fromString("446bdcf5-9f75-47fc-9cfa-2c3d6fda1c3b"));
+    assertEquals("no prices", noPrices.getStatus());
+    assertFalse(noPrices.isOpen());
+
+    TankerkoenigJsonAdapter.StationPrices notFound = actualResponse.getPrices()
+        .get(UUID.fromString("60c0eefa-d2a8-4f5c-82cc-b5244ecae955"));
+    assertFalse(notFound.isFound());
+  }
+
+  @Test
+  void readPricesResponse_returnsErrorStatusForEmptyDocument() {
+    // when
+    TankerkoenigJsonAdapter.PricesResponse actualResponse =
+        sut.readPricesResponse(new StringReader(""));
+
+    // then
+    assertFalse(actualResponse.getResponseDto().isOk());
+    assertEquals("ERROR", actualResponse.getResponseDto().getStatus());
+    assertTrue(actualResponse.getPrices().isEmpty());
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      FixtureFiles.TANKERKOENIG_JSON_RESPONSE_NEIGHBOURHOOD_1STATION_HAPPY,
+      FixtureFiles.TANKERKOENIG_JSON_RESPONSE_NEIGHBOURHOOD_MULTI_34STATIONS_HAPPY,
+      FixtureFiles.TANKERKOENIG_JSON_RESPONSE_NEIGHBOURHOOD_EMPTY_HOUSENUM_AND_BRAND,
+      FixtureFiles.TANKERKOENIG_JSON_RESPONSE_NEIGHBOURHOOD_MISSING_ALL_GEO_ELEM,
+      FixtureFiles.TANKERKOENIG_JSON_RESPONSE_NEIGHBOURHOOD_MISSING_DIESEL_AND_E5,
+      FixtureFiles.TANKERKOENIG_JSON_RESPONSE_NEIGHBOURHOOD_ZERO_PRICE_DIESEL_AND_E10,
+      FixtureFiles.TANKERKOENIG_JSON_RESPONSE_NEIGHBOURHOOD_MISSING_STATIONS_ELEM})
+  void readListResponse_jacksonProviderReadsSameAsGsonProvider(String fixtureFile) {
+    // given
+    fixture.setupFixture(fixtureFile);
+    TankerkoenigJsonAdapter jacksonAdapter = new TankerkoenigJsonAdapter(
+        new JacksonJsonProvider(gson));
+
+    // when
+    TankerkoenigJsonAdapter.ListResponse expected =
+        sut.readListResponse(new StringReader(fixture.jsonFixture));
+    TankerkoenigJsonAdapter.ListResponse actual =
+        jacksonAdapter.readListResponse(new StringReader(fixture.jsonFixture));
+
+    // then
+    assertEquals(expected.getResponseDto().isOk(), actual.getResponseDto().isOk());
+    assertEquals(expected.getResponseDto().getStatus(), actual.getResponseDto().getStatus());
+    assertEquals(expected.getResponseDto().getLicense(), actual.getResponseDto().getLicense());
+    assertEquals(
+        withoutIdentityHashCodes(expected.getPetrolStations()),
+        withoutIdentityHashCodes(actual.getPetrolStations()));
+  }
+
+  @Test
+  void readListResponse_jacksonProviderThrowsJsonParseExceptionOnMalformedJson() {
+    // given
+    TankerkoenigJsonAdapter jacksonAdapter = new TankerkoenigJsonAdapter(
+        new JacksonJsonProvider(gson));
+    StringReader reader = new StringReader("{\"ok\": true, \"stations\": [");
+
+    // when then
+    assertThrows(JsonParseException.class, () -> jacksonAdapter.readListResponse(reader));
+  }
+
+  @Test
+  void readPricesResponse_throwsOnInvalidStationId() {
+    // given
+    Reader reader = new StringReader(
+        "{\"ok\":true,\"prices\":{\"no-uuid\":{\"status\":\"open\",\"e5\":1.5}}}");
+
+    // when then
+    assertThrows(IllegalArgumentException.class, () -> sut.readPricesResponse(reader));
+  }
+
+  private static String withoutIdentityHashCodes(List<PetrolStation> petrolStations) {
+    return petrolStations.toString().replaceAll("@[0-9a-f]+\\[", "[");
+  }
 }
@@ -16,32 +16,56 @@
 
 package de.fornalik.tankschlau.webserviceapi.tankerkoenig;
 
-import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import de.fornalik.tankschlau.geo.Geo;
 import de.fornalik.tankschlau.net.HttpClient;
+import de.fornalik.tankschlau.net.HttpRateLimitConfig;
 import de.fornalik.tankschlau.net.JsonResponse;
+import de.fornalik.tankschlau.net.RateLimitedHttpClient;
 import de.fornalik.tankschlau.net.ResponseBody;
+import de.fornalik.tankschlau.service.TransactInfoImpl;
+import de.fornalik.tankschlau.service.TransactResult;
+import de.fornalik.tankschlau.station.Petrol;
 import de.fornalik.tankschlau.station.PetrolStation;
+import de.fornalik.tankschlau.station.PetrolType;
 import de.fornalik.tankschlau.station.Petrols;
 import de.fornalik.tankschlau.station.PetrolsJsonAdapter;
 import de.fornalik.tankschlau.testhelp_common.DomainFixtureHelp;
 import de.fornalik.tankschlau.testhelp_common.FixtureFiles;
+import de.fornalik.tankschlau.util.GsonJsonProvider;
+import de.fornalik.tankschlau.util.JsonProvider;
 import de.fornalik.tankschlau.webserviceapi.common.GeoRequest;
+import de.fornalik.tankschlau.webserviceapi.common.JsonTypeAdapterFactory;
+import de.fornalik.tankschlau.webserviceapi.common.StationIdsRequest;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.io.Reader;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 class TankerkoenigPetrolStationsRepoTest {
-  private static Gson jsonProvider;
+  private static JsonProvider jsonProvider;
   private static Geo geoMock;
 
   private TankerkoenigPetrolStationsRepo sut;
@@ -54,9 +78,10 @@ class TankerkoenigPetrolStationsRepoTest {
 
   @BeforeAll
   static void beforeAll() {
-    jsonProvider = new GsonBuilder()
+    jsonProvider = new GsonJsonProvider(new GsonBuilder()
         .registerTypeAdapter(Petrols.class, new PetrolsJsonAdapter())
-        .create();
+        .registerTypeAdapterFactory(new JsonTypeAdapterFactory())
+        .create());
 
     geoMock = Mockito.mock(Geo.class);
     when(geoMock.getDistance()).thenReturn(Optional.of(8.5));
@@ -81,43 +106,268 @@ class TankerkoenigPetrolStationsRepoTest {
     GeoRequest geoRequestMock = mock(GeoRequest.class);
     tankerkoenigResponseMock = mock(TankerkoenigResponse.class);
     responseBodyMock = mock(ResponseBody.class);
+    when(tankerkoenigResponseMock.getTransactInfo()).thenReturn(new TransactInfoImpl());
+    when(httpClientMock.getAvailableCalls(any())).thenReturn(Integer.MAX_VALUE);
 
     sut = new TankerkoenigPetrolStationsRepo(
         httpClientMock,
         petrolStationsJsonAdapter,
-        geoRequestMock,
-        tankerkoenigResponseMock);
+        () -> geoRequestMock,
+        () -> mock(StationIdsRequest.class),
+        () -> tankerkoenigResponseMock);
   }
 
   @Test
   void getAllInNeighbourhood_happy() {
     // given
     fixture.setupFixture(FixtureFiles.TANKERKOENIG_JSON_RESPONSE_NEIGHBOURHOOD_MULTI_17STATIONS_HAPPY);
-    when(responseBodyMock.getData(String.class)).thenReturn(fixture.jsonFixture);
+    when(responseBodyMock.getData(Reader.class)).thenReturn(new StringReader(fixture.jsonFixture));
 
     when(tankerkoenigResponseMock.getBody()).thenReturn(responseBodyMock);
     when(httpClientMock.newCall(any(), any(), any())).thenReturn(tankerkoenigResponseMock);
 
     // when
-    actualPetrolStations = sut.findAllInNeighbourhood(geoMock);
+    actualPetrolStations = sut.findAllInNeighbourhood(geoMock).getData().orElse(null);
 
     // then
     fixture.assertEqualValuesIgnoringSort(actualPetrolStations);
   }
 
+  @Test
+  void getAllInNeighbourhood_setsTransactInfoFromSamePass() {
+    // given
+    fixture.setupFixture(FixtureFiles.TANKERKOENIG_JSON_RESPONSE_NEIGHBOURHOOD_MULTI_17STATIONS_HAPPY);
+    when(responseBodyMock.getData(Reader.class)).thenReturn(new StringReader(fixture.jsonFixture));
+
+    when(tankerkoenigResponseMock.getBody()).thenReturn(responseBodyMock);
+    when(httpClientMock.newCall(any(), any(), any())).thenReturn(tankerkoenigResponseMock);
+
+    // when
+    TransactResult<List<PetrolStation>> actualResult = sut.findAllInNeighbourhood(geoMock);
+
+    // then
+    assertEquals(fixture.objectFixture.status, actualResult.getTransactInfo().getStatus());
+    assertEquals(fixture.objectFixture.getLicence(), actualResult.getTransactInfo().getLicence());
+  }
+
   @Test
   void getAllInNeighbourhood_returnsEmptyPetrolStationsArrayOnEmptyJsonResponse() {
     // given
     String jsonStringResponse = "{}";
-    when(responseBodyMock.getData(String.class)).thenReturn(jsonStringResponse);
+    when(responseBodyMock.getData(Reader.class)).thenReturn(new StringReader(jsonStringResponse));
+
+    when(tankerkoenigResponseMock.getBody()).thenReturn(responseBodyMock);
+    when(httpClientMock.newCall(any(), any(), any())).thenReturn(tankerkoenigResponseMock);
+
+    // when
+    actualPetrolStations = sut.findAllInNeighbourhood(geoMock).getData().orElse(null);
+
+    // then
+    assertEquals(0, actualPetrolStations.size());
+  }
+
+  @Test
+  void getAllInNeighbourhood_usesNewRequestAndResponseForEachCall() {
+    // given
+    AtomicInteger requestCount = new AtomicInteger();
+    AtomicInteger responseCount = new AtomicInteger();
+
+    sut = new TankerkoenigPetrolStationsRepo(
+        httpClientMock,
+        new TankerkoenigJsonAdapter(jsonProvider),
+        () -> {
+          requestCount.incrementAndGet();
+          return mock(GeoRequest.class);
+        },
+        () -> mock(StationIdsRequest.class),
+        () -> {
+          responseCount.incrementAndGet();
+          return tankerkoenigResponseMock;
+        });
+
+    when(responseBodyMock.getData(Reader.class))
+        .thenAnswer(invocation -> new StringReader("{}"));
 
     when(tankerkoenigResponseMock.getBody()).thenReturn(responseBodyMock);
     when(httpClientMock.newCall(any(), any(), any())).thenReturn(tankerkoenigResponseMock);
 
     // when
-    actualPetrolStations = sut.findAllInNeighbourhood(geoMock);
+    sut.findAllInNeighbourhood(geoMock);
+    sut.findAllInNeighbourhood(geoMock);
+
+    // then
+    assertEquals(2, requestCount.get());
+    assertEquals(2, responseCount.get());
+  }
+
+  @Test
+  void refreshPrices_updatesPricesAndKeepsMasterData() {
+    // given
+    fixture.setupFixture(FixtureFiles.TANKERKOENIG_JSON_RESPONSE_NEIGHBOURHOOD_1STATION_HAPPY);
+    givenMasterDataFrom(fixture.jsonFixture);
+    PetrolStation knownStation = sut.findAllInNeighbourhood(geoMock).getData().get().get(0);
+
+    fixture.setupFixture(FixtureFiles.TANKERKOENIG_JSON_RESPONSE_PRICES_FOUR_STATIONS);
+    givenPricesResponse(fixture.jsonFixture);
+
+    // when
+    TransactResult<List<PetrolStation>> actualResult =
+        sut.refreshPrices(Collections.singletonList(knownStation.getUuid()));
+
+    // then
+    actualPetrolStations = actualResult.getData().orElse(null);
+    assertEquals(1, actualPetrolStations.size());
+
+    PetrolStation actualStation = actualPetrolStations.get(0);
+    assertEquals(knownStation.getUuid(), actualStation.getUuid());
+    assertEquals(knownStation.getBrand(), actualStation.getBrand());
+    assertEquals(knownStation.getAddress().getStreet(), actualStation.getAddress().getStreet());
+    assertEquals(knownStation.getAddress().getCity(), actualStation.getAddress().getCity());
+    assertEquals(
+        knownStation.getGeo().map(Geo::getLatitude),
+        actualStation.getGeo().map(Geo::getLatitude));
+    assertTrue(actualStation.isOpen());
+    assertEquals(
+        new HashSet<>(Arrays.asList(
+            new Petrol(PetrolType.E5, 1.359),
+            new Petrol(PetrolType.DIESEL, 1.119))),
+        actualStation.getPetrols());
+  }
+
+  @Test
+  void refreshPrices_doesNotCallWebServiceForUnknownStations() {
+    // when
+    actualPetrolStations = sut.refreshPrices(Collections.singletonList(UUID.randomUUID()))
+        .getData()
+        .orElse(null);
+
+    // then
+    assertEquals(0, actualPetrolStations.size());
+    verify(httpClientMock, never()).newCallAsync(any(), any(), any());
+  }
+
+  @Test
+  void refreshPrices_forgetsStationsWhichLeftTheNeighbourhood() {
+    // given
+    fixture.setupFixture(FixtureFiles.TANKERKOENIG_JSON_RESPONSE_NEIGHBOURHOOD_1STATION_HAPPY);
+    givenMasterDataFrom(fixture.jsonFixture);
+    PetrolStation formerStation = sut.findAllInNeighbourhood(geoMock).getData().get().get(0);
+
+    givenMasterDataFrom("{\"ok\":true,\"status\":\"ok\",\"stations\":[]}");
+    sut.findAllInNeighbourhood(geoMock);
+
+    // when
+    actualPetrolStations = sut.refreshPrices(Collections.singletonList(formerStation.getUuid()))
+        .getData()
+        .orElse(null);
 
     // then
     assertEquals(0, actualPetrolStations.size());
+    verify(httpClientMock, never()).newCallAsync(any(), any(), any());
+  }
+
+  @Test
+  void refreshPrices_sendsBatchesOfMaxStationIds() {
+    // given
+    List<Integer> actualBatchSizes = new ArrayList<>();
+
+    sut = new TankerkoenigPetrolStationsRepo(
+        httpClientMock,
+        new TankerkoenigJsonAdapter(jsonProvider),
+        () -> mock(GeoRequest.class),
+        () -> {
+          StationIdsRequest request = mock(StationIdsRequest.class);
+          doAnswer(invocation -> actualBatchSizes.add(
+              invocation.<Collection<?>>getArgument(0).size()))
+              .when(request).setStationIdsUrlParameter(any());
+          return request;
+        },
+        () -> tankerkoenigResponseMock);
+
+    fixture.setupFixture(FixtureFiles.TANKERKOENIG_JSON_RESPONSE_NEIGHBOURHOOD_MULTI_34STATIONS_HAPPY);
+    givenMasterDataFrom(fixture.jsonFixture);
+    List<UUID> uuids = sut.findAllInNeighbourhood(geoMock).getData().get().stream()
+        .map(PetrolStation::getUuid)
+        .collect(Collectors.toList());
+
+    givenPricesResponse("{\"ok\":true,\"prices\":{}}");
+
+    // when
+    sut.refreshPrices(uuids);
+
+    // then
+    assertEquals(Arrays.asList(10, 10, 10, 4), actualBatchSizes);
+    verify(httpClientMock, times(4)).newCallAsync(any(), any(), eq(Reader.class));
+  }
+
+  @Test
+  void refreshPrices_leavesQuotaToCompleteSearchIfBatchesExceedRateLimit()
+  throws MalformedURLException {
+    // given
+    GeoRequest geoRequestMock = mock(GeoRequest.class);
+    when(geoRequestMock.getBaseUrl())
+        .thenReturn(new URL("https://creativecommons.tankerkoenig.de/json/list.php"));
+    when(geoRequestMock.getApiKeyId()).thenReturn(Optional.of("apikey.a"));
+
+    StationIdsRequest pricesRequestMock = mock(StationIdsRequest.class);
+    when(pricesRequestMock.getBaseUrl())
+        .thenReturn(new URL("https://creativecommons.tankerkoenig.de/json/prices.php"));
+    when(pricesRequestMock.getApiKeyId()).thenReturn(Optional.of("apikey.a"));
+
+    // Default quota of 12 calls per minute, one of them is used by the first complete search.
+    sut = new TankerkoenigPetrolStationsRepo(
+        new RateLimitedHttpClient(httpClientMock, new HttpRateLimitConfig()),
+        new TankerkoenigJsonAdapter(jsonProvider),
+        () -> geoRequestMock,
+        () -> pricesRequestMock,
+        () -> tankerkoenigResponseMock);
+
+    givenMasterDataFrom(createListResponse(150));
+    List<UUID> uuids = sut.findAllInNeighbourhood(geoMock).getData().get().stream()
+        .map(PetrolStation::getUuid)
+        .collect(Collectors.toList());
+
+    // when
+    TransactResult<List<PetrolStation>> actualRefreshResult = sut.refreshPrices(uuids);
+    TransactResult<List<PetrolStation>> actualSearchResult = sut.findAllInNeighbourhood(geoMock);
+
+    // then
+    assertEquals(Optional.of(Collections.emptyList()), actualRefreshResult.getData());
+    verify(httpClientMock, never()).newCallAsync(any(), any(), any());
+
+    assertEquals(150, actualSearchResult.getData().get().size());
+    assertFalse(actualSearchResult.getTransactInfo().getErrorMessage().isPresent());
+    verify(httpClientMock, times(2)).newCall(any(), any(), eq(Reader.class));
+  }
+
+  private void givenMasterDataFrom(String jsonFixture) {
+    when(responseBodyMock.getData(Reader.class))
+        .thenAnswer(invocation -> new StringReader(jsonFixture));
+    when(tankerkoenigResponseMock.getBody()).thenReturn(responseBodyMock);
+    when(httpClientMock.newCall(any(), any(), any())).thenReturn(tankerkoenigResponseMock);
+  }
+
+  private void givenPricesResponse(String json) {
+    when(responseBodyMock.getData(Reader.class))
+        .thenAnswer(invocation -> new StringReader(json));
+    when(httpClientMock.newCallAsync(any(), any(), any()))
+        .thenAnswer(invocation -> CompletableFuture.completedFuture(tankerkoenigResponseMock));
+  }
+
+  private static String createListResponse(int numberOfStations) {
+    StringBuilder json = new StringBuilder("{\"ok\":true,\"status\":\"ok\",\"stations\":[");
+
+    for (int i = 0; i < numberOfStations; i++) {
+      if (i > 0)
+        json.append(',');
+
+      json.append("{\"id\":\"").append(new UUID(4711L, i)).append("\",")
+          .append("\"name\":\"Station ").append(i).append("\",\"brand\":\"Brand\",")
+          .append("\"street\":\"Street\",\"houseNumber\":\"1\",\"postCode\":38440,")
+          .append("\"place\":\"City\",\"lat\":52.4,\"lng\":10.7,\"dist\":1.5,")
+          .append("\"diesel\":1.109,\"e5\":1.339,\"e10\":1.279,\"isOpen\":true}");
+    }
+
+    return json.append("]}").toString();
   }
-}
\ No newline at end of file
+}
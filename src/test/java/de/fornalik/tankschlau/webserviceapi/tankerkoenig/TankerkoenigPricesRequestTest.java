@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2020 Tammo Fornalik
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fornalik.tankschlau.webserviceapi.tankerkoenig;
+
+import de.fornalik.tankschlau.net.Request;
+import de.fornalik.tankschlau.user.ApiKeyManager;
+import de.fornalik.tankschlau.webserviceapi.common.StationIdsRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TankerkoenigPricesRequestTest {
+  private StationIdsRequest actualRequest;
+  private ApiKeyManager apiKeyManagerMock;
+
+  @BeforeEach
+  void setUp() {
+    this.actualRequest = null;
+
+    this.apiKeyManagerMock = mock(ApiKeyManager.class);
+    when(apiKeyManagerMock.read()).thenReturn(Optional.of("000-abc-def-111"));
+  }
+
+  @Test
+  void create_constructsProperValues() {
+    // when
+    actualRequest = TankerkoenigPricesRequest.create(apiKeyManagerMock);
+
+    // then
+    assertEquals(
+        "https://creativecommons.tankerkoenig.de/json/prices.php",
+        actualRequest.getBaseUrl().toString());
+    assertEquals(Request.HttpMethod.GET, actualRequest.getHttpMethod());
+    assertEquals("application/json; charset=utf-8", actualRequest.getHeaders().get("Accept"));
+    assertEquals("000-abc-def-111", actualRequest.getUrlParameters().get("apikey"));
+    assertNull(actualRequest.getUrlParameters().get("ids"));
+  }
+
+  @Test
+  void create_throwsOnNullApiKeyManager() {
+    // when then
+    assertThrows(NullPointerException.class, () -> TankerkoenigPricesRequest.create(null));
+  }
+
+  @Test
+  void setStationIdsUrlParameter_joinsIdsInGivenOrder() {
+    // given
+    UUID uuid1 = UUID.fromString("474e5046-deaf-4f9b-9a32-9797b778f047");
+    UUID uuid2 = UUID.fromString("4429a7d9-fb2d-4c29-8cfe-2ca90323f9f8");
+    actualRequest = TankerkoenigPricesRequest.create(apiKeyManagerMock);
+
+    // when
+    actualRequest.setStationIdsUrlParameter(Arrays.asList(uuid1, uuid2));
+
+    // then (URL parameters are stored URL-encoded, so the comma reads "%2C")
+    assertEquals(
+        "474e5046-deaf-4f9b-9a32-9797b778f047%2C4429a7d9-fb2d-4c29-8cfe-2ca90323f9f8",
+        actualRequest.getUrlParameters().get("ids"));
+  }
+
+  @Test
+  void setStationIdsUrlParameter_throwsOnEmptyIds() {
+    // given
+    actualRequest = TankerkoenigPricesRequest.create(apiKeyManagerMock);
+
+    // when then
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> actualRequest.setStationIdsUrlParameter(Collections.emptyList()));
+  }
+
+  @Test
+  void setStationIdsUrlParameter_throwsOnTooManyIds() {
+    // given
+    actualRequest = TankerkoenigPricesRequest.create(apiKeyManagerMock);
+    List<UUID> uuids = new ArrayList<>();
+
+    for (int i = 0; i <= TankerkoenigPricesRequest.MAX_STATION_IDS; i++)
+      uuids.add(UUID.randomUUID());
+
+    // when then
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> actualRequest.setStationIdsUrlParameter(uuids));
+  }
+}
@@ -104,6 +104,18 @@ class TankerkoenigRequestTest {
     assertNull(actualRequest.getUrlParameters().get("apikey"));
   }
 
+  @Test
+  void create_setsApiKeyIdForRateLimiting() {
+    // given
+    when(apiKeyManagerMock.getId()).thenReturn("apikey.petrolstations");
+
+    // when
+    actualRequest = TankerkoenigRequest.create(apiKeyManagerMock);
+
+    // then
+    assertEquals(Optional.of("apikey.petrolstations"), actualRequest.getApiKeyId());
+  }
+
   @Test
   void create_throwsOnNullApiKeyManager() {
     // when then
@@ -16,13 +16,16 @@
 
 package de.fornalik.tankschlau.webserviceapi.tankerkoenig;
 
-import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import de.fornalik.tankschlau.net.ResponseBody;
 import de.fornalik.tankschlau.net.ResponseBodyImpl;
 import de.fornalik.tankschlau.service.TransactInfo;
 import de.fornalik.tankschlau.service.TransactInfoImpl;
 import de.fornalik.tankschlau.testhelp_common.DomainFixtureHelp;
 import de.fornalik.tankschlau.testhelp_common.FixtureFiles;
+import de.fornalik.tankschlau.util.GsonJsonProvider;
+import de.fornalik.tankschlau.util.JsonProvider;
+import de.fornalik.tankschlau.webserviceapi.common.JsonTypeAdapterFactory;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -34,13 +37,15 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class TankerkoenigResponseTest {
-  private static Gson jsonProvider;
+  private static JsonProvider jsonProvider;
   private DomainFixtureHelp fixture;
   private TankerkoenigResponse tankerkoenigResponse;
 
   @BeforeAll
   static void beforeAll() {
-    jsonProvider = new Gson();
+    jsonProvider = new GsonJsonProvider(new GsonBuilder()
+        .registerTypeAdapterFactory(new JsonTypeAdapterFactory())
+        .create());
   }
 
   @AfterAll
@@ -116,7 +121,7 @@ class TankerkoenigResponseTest {
     String expectedMessagePart = "JSON string could not be converted";
 
     // when
-    tankerkoenigResponse.fromJson(null, TankerkoenigResponse.ResponseDto.class);
+    tankerkoenigResponse.fromJson((String) null, TankerkoenigResponse.ResponseDto.class);
 
     // then
     assertTrue(